@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct ByteBuffers of a fixed size.
+ * <p>
+ * Direct buffers are expensive to allocate and are only reclaimed by the garbage collector, reusing them for repeated
+ * transfers avoids both the allocation and the copy from heap buffers done by channels. At most {@code maxPooled}
+ * released buffers are retained, extra ones are left to the garbage collector.
+ * </p>
+ */
+public class ByteBufferPool
+{
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public ByteBufferPool( int bufferSize, int maxPooled )
+    {
+        if( bufferSize < 1 )
+        {
+            throw new IllegalArgumentException( "Buffer size must be positive, was " + bufferSize );
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public int bufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @return a cleared direct buffer, from the pool if one is available
+     */
+    public ByteBuffer acquire()
+    {
+        ByteBuffer buffer = pool.poll();
+        if( buffer == null )
+        {
+            return ByteBuffer.allocateDirect( bufferSize );
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool. The buffer must not be used by the caller afterwards.
+     *
+     * @param buffer a buffer acquired from this pool
+     */
+    public void release( ByteBuffer buffer )
+    {
+        if( buffer.capacity() != bufferSize || !buffer.isDirect() )
+        {
+            throw new IllegalArgumentException( "Buffer was not acquired from this pool" );
+        }
+        if( pooled.incrementAndGet() <= maxPooled )
+        {
+            pool.offer( buffer );
+        }
+        else
+        {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -20,6 +20,10 @@
 package org.apache.zest.io;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
 
 /**
@@ -33,4 +37,70 @@ public class Files
     {
         return new File(  file.getAbsolutePath() + "_" + Math.abs( random.nextLong() ) );
     }
+
+    /**
+     * Copy a file with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, letting the operating system
+     * move the data without copying it through the JVM. The copy is written to a temporary file first, which then
+     * replaces the destination. If the copy fails the temporary file is deleted.
+     *
+     * @param source      the file to copy
+     * @param destination the file to create or replace
+     *
+     * @throws IOException if the copy fails
+     */
+    public static void copy( File source, File destination )
+        throws IOException
+    {
+        File tmpFile = createTemporayFileOf( destination );
+        try
+        {
+            try( FileChannel target = FileChannel.open( tmpFile.toPath(),
+                                                        StandardOpenOption.CREATE_NEW,
+                                                        StandardOpenOption.WRITE ) )
+            {
+                transfer( source, target );
+            }
+            if( destination.exists() && !destination.delete() )
+            {
+                throw new IOException( "Unable to replace file: " + destination );
+            }
+            if( !tmpFile.renameTo( destination ) )
+            {
+                throw new IOException( "Unable to rename file: " + tmpFile + " to " + destination );
+            }
+        }
+        finally
+        {
+            if( tmpFile.exists() && !tmpFile.delete() )
+            {
+                tmpFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Transfer the content of a file to a channel, such as a SocketChannel, with
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. The target channel is not closed.
+     *
+     * @param source the file to transfer
+     * @param target the channel to write to
+     *
+     * @return the number of bytes transferred
+     *
+     * @throws IOException if the transfer fails
+     */
+    public static long transfer( File source, WritableByteChannel target )
+        throws IOException
+    {
+        try( FileChannel channel = FileChannel.open( source.toPath(), StandardOpenOption.READ ) )
+        {
+            long size = channel.size();
+            long position = 0;
+            while( position < size )
+            {
+                position += channel.transferTo( position, size - position, target );
+            }
+            return position;
+        }
+    }
 }
@@ -31,16 +31,23 @@ import java.io.Reader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Scanner;
 import java.util.zip.GZIPInputStream;
 import org.apache.zest.functional.Visitor;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Common inputs
  */
 public class Inputs
 {
+    private static final int DEFAULT_MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
     // START SNIPPET: method
 
     /**
@@ -336,6 +343,191 @@ public class Inputs
 
     // START SNIPPET: method
 
+    /**
+     * Read a file using direct ByteBuffers from a pool. The buffer is returned to the pool once the transfer is done,
+     * so receivers must not keep references to it.
+     *
+     * @param source The file to be read.
+     * @param pool The pool providing the direct buffer.
+     *
+     * @return An Input instance to be applied to streaming operations.
+     */
+    public static Input<ByteBuffer, IOException> byteBuffer( final File source, final ByteBufferPool pool )
+    // END SNIPPET: method
+    {
+        return new Input<ByteBuffer, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super ByteBuffer, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                final ByteBuffer buffer = pool.acquire();
+                try( final FileChannel fci = FileChannel.open( source.toPath(), StandardOpenOption.READ ) )
+                {
+                    output.receiveFrom( new Sender<ByteBuffer, IOException>()
+                    {
+                        @Override
+                        public <Receiver2ThrowableType extends Throwable> void sendTo( Receiver<? super ByteBuffer, Receiver2ThrowableType> receiver )
+                            throws Receiver2ThrowableType, IOException
+                        {
+                            while( fci.read( buffer ) != -1 )
+                            {
+                                buffer.flip();
+                                receiver.receive( buffer );
+                                buffer.clear();
+                            }
+                        }
+                    } );
+                }
+                finally
+                {
+                    pool.release( buffer );
+                }
+            }
+        };
+    }
+
+    // START SNIPPET: method
+
+    /**
+     * Read a file as read-only memory-mapped regions of 64MB. The file content is not copied to the heap, which makes
+     * this suited to large files that are passed on to channels or scanned in place.
+     *
+     * @param source The file to be read.
+     *
+     * @return An Input instance to be applied to streaming operations.
+     */
+    public static Input<ByteBuffer, IOException> mappedByteBuffer( final File source )
+    // END SNIPPET: method
+    {
+        return mappedByteBuffer( source, DEFAULT_MAPPED_REGION_SIZE );
+    }
+
+    // START SNIPPET: method
+
+    /**
+     * Read a file as read-only memory-mapped regions of a given size.
+     *
+     * @param source The file to be read.
+     * @param regionSize The maximum size of each mapped region, must be positive.
+     *
+     * @return An Input instance to be applied to streaming operations.
+     */
+    public static Input<ByteBuffer, IOException> mappedByteBuffer( final File source, final int regionSize )
+    // END SNIPPET: method
+    {
+        if( regionSize < 1 )
+        {
+            throw new IllegalArgumentException( "Region size must be positive, was " + regionSize );
+        }
+        return new Input<ByteBuffer, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super ByteBuffer, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                try( final FileChannel fci = FileChannel.open( source.toPath(), StandardOpenOption.READ ) )
+                {
+                    output.receiveFrom( new Sender<ByteBuffer, IOException>()
+                    {
+                        @Override
+                        public <Receiver2ThrowableType extends Throwable> void sendTo( Receiver<? super ByteBuffer, Receiver2ThrowableType> receiver )
+                            throws Receiver2ThrowableType, IOException
+                        {
+                            long size = fci.size();
+                            for( long position = 0; position < size; position += regionSize )
+                            {
+                                receiver.receive( fci.map( FileChannel.MapMode.READ_ONLY, position,
+                                                           Math.min( regionSize, size - position ) ) );
+                            }
+                        }
+                    } );
+                }
+            }
+        };
+    }
+
+    // START SNIPPET: method
+
+    /**
+     * Read lines from a UTF-8 textfile by scanning memory-mapped regions of it for newlines. Lines are decoded
+     * straight from the mapped bytes, without going through a Reader.
+     *
+     * Gzipped files are not supported, use {@link #text(File)} for them.
+     *
+     * @param source textfile with lines separated by \n character, a trailing \r is removed
+     *
+     * @return Input that provides lines from the textfiles as strings
+     */
+    public static Input<String, IOException> mappedText( final File source )
+    // END SNIPPET: method
+    {
+        return mappedText( source, DEFAULT_MAPPED_REGION_SIZE );
+    }
+
+    // START SNIPPET: method
+
+    /**
+     * Read lines from a UTF-8 textfile by scanning memory-mapped regions of a given size for newlines.
+     *
+     * @param source textfile with lines separated by \n character, a trailing \r is removed
+     * @param regionSize The maximum size of each mapped region, must be positive.
+     *
+     * @return Input that provides lines from the textfiles as strings
+     */
+    public static Input<String, IOException> mappedText( final File source, final int regionSize )
+    // END SNIPPET: method
+    {
+        if( regionSize < 1 )
+        {
+            throw new IllegalArgumentException( "Region size must be positive, was " + regionSize );
+        }
+        return new Input<String, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super String, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                try( final FileChannel fci = FileChannel.open( source.toPath(), StandardOpenOption.READ ) )
+                {
+                    output.receiveFrom( new Sender<String, IOException>()
+                    {
+                        @Override
+                        public <Receiver2ThrowableType extends Throwable> void sendTo( Receiver<? super String, Receiver2ThrowableType> receiver )
+                            throws Receiver2ThrowableType, IOException
+                        {
+                            LineScanner scanner = new LineScanner();
+                            long size = fci.size();
+                            for( long position = 0; position < size; position += regionSize )
+                            {
+                                int length = (int) Math.min( regionSize, size - position );
+                                MappedByteBuffer region = fci.map( FileChannel.MapMode.READ_ONLY, position, length );
+                                int start = 0;
+                                for( int i = 0; i < length; i++ )
+                                {
+                                    if( region.get( i ) == '\n' )
+                                    {
+                                        scanner.append( region, start, i );
+                                        receiver.receive( scanner.line() );
+                                        start = i + 1;
+                                    }
+                                }
+                                // Carry the start of a line spanning two regions
+                                scanner.append( region, start, length );
+                            }
+                            if( scanner.length > 0 )
+                            {
+                                receiver.receive( scanner.line() );
+                            }
+                        }
+                    } );
+                }
+            }
+        };
+    }
+
+    // START SNIPPET: method
+
     /**
      * Combine many Input into one single Input. When a transfer is initiated from it all items from all inputs will be transferred
      * to the given Output.
@@ -493,4 +685,33 @@ public class Inputs
     private Inputs()
     {
     }
+
+    /**
+     * Accumulates the bytes of the current line.
+     */
+    private static class LineScanner
+    {
+        private byte[] bytes = new byte[ 256 ];
+        private int length;
+
+        private void append( ByteBuffer region, int start, int end )
+        {
+            int count = end - start;
+            if( length + count > bytes.length )
+            {
+                bytes = Arrays.copyOf( bytes, Math.max( bytes.length * 2, length + count ) );
+            }
+            region.position( start );
+            region.get( bytes, length, count );
+            length += count;
+        }
+
+        private String line()
+        {
+            int end = length > 0 && bytes[ length - 1 ] == '\r' ? length - 1 : length;
+            String line = new String( bytes, 0, end, UTF_8 );
+            length = 0;
+            return line;
+        }
+    }
 }
@@ -29,6 +29,7 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 import java.util.zip.GZIPOutputStream;
 
@@ -236,7 +237,10 @@ public class Outputs
                         public void receive( ByteBuffer item )
                             throws IOException
                         {
-                            fco.write( item );
+                            while( item.hasRemaining() )
+                            {
+                                fco.write( item );
+                            }
                         }
                     } );
                     stream.close();
@@ -305,13 +309,18 @@ public class Outputs
                         {
                             if( item.hasArray() )
                             {
-                                stream.write( item.array(), item.arrayOffset(), item.limit() );
+                                stream.write( item.array(), item.arrayOffset() + item.position(), item.remaining() );
                             }
                             else
                             {
-                                for( int i = 0; i < item.limit(); i++ )
+                                // Direct and mapped buffers are copied in bulk through a small heap buffer
+                                ByteBuffer source = item.duplicate();
+                                byte[] bytes = new byte[ Math.min( source.remaining(), 8192 ) ];
+                                while( source.hasRemaining() )
                                 {
-                                    stream.write( item.get( i ) );
+                                    int length = Math.min( source.remaining(), bytes.length );
+                                    source.get( bytes, 0, length );
+                                    stream.write( bytes, 0, length );
                                 }
                             }
                         }
@@ -327,6 +336,48 @@ public class Outputs
 
     // START SNIPPET: method
 
+    /**
+     * Write ByteBuffer data to a channel, such as a SocketChannel. Direct and memory-mapped buffers are written
+     * without being copied to the heap. The channel is closed when the transfer is done.
+     *
+     * @param channel Destination channel
+     *
+     * @return The Output of ByteBuffer that will be backed by the channel.
+     */
+    public static Output<ByteBuffer, IOException> byteBuffer( final WritableByteChannel channel )
+    // END SNIPPET: method
+    {
+        return new Output<ByteBuffer, IOException>()
+        {
+            @Override
+            public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends ByteBuffer, SenderThrowableType> sender )
+                throws IOException, SenderThrowableType
+            {
+                try
+                {
+                    sender.sendTo( new Receiver<ByteBuffer, IOException>()
+                    {
+                        @Override
+                        public void receive( ByteBuffer item )
+                            throws IOException
+                        {
+                            while( item.hasRemaining() )
+                            {
+                                channel.write( item );
+                            }
+                        }
+                    } );
+                }
+                finally
+                {
+                    channel.close();
+                }
+            }
+        };
+    }
+
+    // START SNIPPET: method
+
     /**
      * Write byte array data to a file. If the writing or sending of data fails the file will be deleted.
      *
@@ -342,7 +342,11 @@ public class Transforms
         @Override
         public String apply( ByteBuffer buffer )
         {
-            return new String( buffer.array(), charSet );
+            if( buffer.hasArray() )
+            {
+                return new String( buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), charSet );
+            }
+            return charSet.decode( buffer.duplicate() ).toString();
         }
     }
 
@@ -32,7 +32,10 @@ import java.io.PrintWriter;
 import java.io.Writer;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -144,6 +147,91 @@ public class InputOutputTest
         Assert.assertThat( tempFile.length(), CoreMatchers.equalTo( source.length() ) );
     }
 
+    @Test
+    public void testCopyFileMapped()
+        throws IOException
+    {
+        File source = sourceFile();
+        File tempFile = File.createTempFile( "test", ".txt" );
+        tempFile.deleteOnExit();
+
+        Inputs.mappedByteBuffer( source, 7 ).transferTo( Outputs.byteBuffer( tempFile ) );
+
+        Assert.assertArrayEquals( bytes( source ), bytes( tempFile ) );
+    }
+
+    @Test
+    public void testCopyFilePooledToStream()
+        throws IOException
+    {
+        File source = sourceFile();
+        File tempFile = File.createTempFile( "test", ".txt" );
+        tempFile.deleteOnExit();
+        ByteBufferPool pool = new ByteBufferPool( 16, 1 );
+
+        Inputs.byteBuffer( source, pool ).transferTo( Outputs.byteBuffer( new FileOutputStream( tempFile ) ) );
+
+        Assert.assertArrayEquals( bytes( source ), bytes( tempFile ) );
+        Assert.assertThat( pool.acquire().isDirect(), CoreMatchers.equalTo( true ) );
+    }
+
+    @Test
+    public void testCopyFileMappedToChannel()
+        throws IOException
+    {
+        File source = sourceFile();
+        File tempFile = File.createTempFile( "test", ".txt" );
+        tempFile.deleteOnExit();
+
+        Inputs.mappedByteBuffer( source ).transferTo(
+            Outputs.byteBuffer( FileChannel.open( tempFile.toPath(), StandardOpenOption.WRITE ) ) );
+
+        Assert.assertArrayEquals( bytes( source ), bytes( tempFile ) );
+    }
+
+    @Test
+    public void testCopyFileTransfer()
+        throws IOException
+    {
+        File source = sourceFile();
+        File tempFile = File.createTempFile( "test", ".txt" );
+        tempFile.deleteOnExit();
+
+        Files.copy( source, tempFile );
+
+        Assert.assertArrayEquals( bytes( source ), bytes( tempFile ) );
+    }
+
+    @Test
+    public void testMappedTextAcrossRegions()
+        throws IOException
+    {
+        File source = File.createTempFile( "test", ".txt" );
+        source.deleteOnExit();
+        java.nio.file.Files.write( source.toPath(),
+                                   "first\r\nsecond line \u00e9\u00e8\n\nlast".getBytes( StandardCharsets.UTF_8 ) );
+
+        List<String> lines = new ArrayList<>();
+        Inputs.mappedText( source, 4 ).transferTo( Outputs.collection( lines ) );
+        List<String> expected = new ArrayList<>();
+        text( source ).transferTo( Outputs.collection( expected ) );
+
+        Assert.assertThat( lines, CoreMatchers.equalTo( asList( "first", "second line \u00e9\u00e8", "", "last" ) ) );
+        Assert.assertThat( lines, CoreMatchers.equalTo( expected ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testMappedByteBufferRejectsEmptyRegions()
+    {
+        Inputs.mappedByteBuffer( new File( "test.bin" ), 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testMappedTextRejectsNegativeRegions()
+    {
+        Inputs.mappedText( new File( "test.txt" ), -1 );
+    }
+
     @Test
     public void testLog()
         throws IOException
@@ -379,6 +467,12 @@ public class InputOutputTest
         };
     }
 
+    private byte[] bytes( File file )
+        throws IOException
+    {
+        return java.nio.file.Files.readAllBytes( file.toPath() );
+    }
+
     private File sourceFile()
     {
         String path = getClass().getResource( "/iotest.txt" ).getFile();
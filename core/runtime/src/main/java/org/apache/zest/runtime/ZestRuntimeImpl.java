@@ -22,6 +22,7 @@ package org.apache.zest.runtime;
 import java.lang.reflect.InvocationHandler;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.AbstractAssociation;
 import org.apache.zest.api.association.Association;
@@ -342,6 +343,13 @@ public final class ZestRuntimeImpl
         return EntityInstance.entityInstanceOf( composite ).entityState();
     }
 
+    @Override
+    public Stream<EntityState> entityStatesOf( UnitOfWork unitOfWork )
+    {
+        TransientInstance instance = (TransientInstance) getInvocationHandler( unitOfWork );
+        return instance.mixinOf( ModuleUnitOfWork.class ).instance().entityStates();
+    }
+
     @Override
     public EntityReference entityReferenceOf( Association assoc )
     {
@@ -47,6 +47,7 @@ public final class ApplicationAssemblyImpl
     private String version = "1.0"; // Default version
     private Application.Mode mode;
     private final MetaInfo metaInfo = new MetaInfo();
+    private final List<Object> metaInfoObjects = new ArrayList<>();
     private final List<Class<? extends Activator<Application>>> activators = new ArrayList<>();
 
     public ApplicationAssemblyImpl()
@@ -101,6 +102,7 @@ public final class ApplicationAssemblyImpl
     public ApplicationAssembly setMetaInfo( Object info )
     {
         metaInfo.set( info );
+        metaInfoObjects.add( info );
         return this;
     }
 
@@ -138,6 +140,11 @@ public final class ApplicationAssemblyImpl
         return metaInfo;
     }
 
+    public List<Object> metaInfoObjects()
+    {
+        return metaInfoObjects;
+    }
+
     @Override
     public String name()
     {
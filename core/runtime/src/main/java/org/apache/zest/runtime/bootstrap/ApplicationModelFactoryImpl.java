@@ -25,6 +25,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.apache.zest.api.composite.ModelDescriptor;
 import org.apache.zest.api.structure.Application;
 import org.apache.zest.api.structure.ApplicationDescriptor;
@@ -69,6 +73,9 @@ public final class ApplicationModelFactoryImpl
         Map<LayerAssembly, LayerModel> mapAssemblyModel = new HashMap<>();
         Map<LayerAssembly, List<LayerModel>> mapUsedLayers = new HashMap<>();
 
+        List<Callable<ModuleModel>> moduleTasks = new ArrayList<>();
+        List<List<ModuleModel>> moduleModelLists = new ArrayList<>();
+
         // Build all layers
         List<LayerAssemblyImpl> layerAssemblies = new ArrayList<>( applicationAssembly.layerAssemblies() );
         for( LayerAssemblyImpl layerAssembly : layerAssemblies )
@@ -88,12 +95,28 @@ public final class ApplicationModelFactoryImpl
 
             for( ModuleAssemblyImpl moduleAssembly : layerAssembly.moduleAssemblies() )
             {
-                moduleModels.add( moduleAssembly.assembleModule( layerModel, helper ) );
+                moduleTasks.add( () -> moduleAssembly.assembleModule( layerModel, helper ) );
+                moduleModelLists.add( moduleModels );
             }
             mapAssemblyModel.put( layerAssembly, layerModel );
             layerModels.add( layerModel );
         }
 
+        // Build all modules, in parallel as they are independent of each other
+        List<ModuleModel> builtModules;
+        try
+        {
+            builtModules = invokeAll( moduleTasks );
+        }
+        catch( BindingException e )
+        {
+            throw new AssemblyException( "Unable to build modules of: " + applicationModel, e );
+        }
+        for( int idx = 0; idx < builtModules.size(); idx++ )
+        {
+            moduleModelLists.get( idx ).add( builtModules.get( idx ) );
+        }
+
         // Populate used layer lists
         for( LayerAssemblyImpl layerAssembly : layerAssemblies )
         {
@@ -111,7 +134,10 @@ public final class ApplicationModelFactoryImpl
         try
         {
 //            applicationModel.bind();
-            applicationModel.accept( new BindingVisitor( applicationModel ) );
+            // Application and layer level first, modules are bound in parallel afterwards
+            List<Callable<Void>> moduleBindings = new ArrayList<>();
+            applicationModel.accept( new BindingVisitor( applicationModel, moduleBindings ) );
+            invokeAll( moduleBindings );
         }
         catch( BindingException e )
         {
@@ -121,12 +147,122 @@ public final class ApplicationModelFactoryImpl
         return applicationModel;
     }
 
+    /**
+     * Run the tasks on a fork-join pool and return their results in task order.
+     * <p>
+     * Failures are reported deterministically; if several tasks fail, the one that comes first in task order is
+     * rethrown, regardless of which one failed first in time.
+     * </p>
+     */
+    private static <T> List<T> invokeAll( List<Callable<T>> tasks )
+        throws AssemblyException, BindingException
+    {
+        List<T> results = new ArrayList<>( tasks.size() );
+        int parallelism = Math.min( tasks.size(), Runtime.getRuntime().availableProcessors() );
+        if( parallelism <= 1 )
+        {
+            for( Callable<T> task : tasks )
+            {
+                results.add( call( task ) );
+            }
+            return results;
+        }
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool( parallelism );
+        try
+        {
+            List<Future<T>> futures = new ArrayList<>( tasks.size() );
+            for( Callable<T> task : tasks )
+            {
+                futures.add( pool.submit( () -> {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previous = thread.getContextClassLoader();
+                    thread.setContextClassLoader( contextClassLoader );
+                    try
+                    {
+                        return task.call();
+                    }
+                    finally
+                    {
+                        thread.setContextClassLoader( previous );
+                    }
+                } ) );
+            }
+            for( Future<T> future : futures )
+            {
+                try
+                {
+                    results.add( future.get() );
+                }
+                catch( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new AssemblyException( "Interrupted while building the application model", e );
+                }
+                catch( ExecutionException e )
+                {
+                    throw rethrow( e.getCause() );
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    private static <T> T call( Callable<T> task )
+        throws AssemblyException, BindingException
+    {
+        try
+        {
+            return task.call();
+        }
+        catch( Exception e )
+        {
+            throw rethrow( e );
+        }
+    }
+
+    private static AssemblyException rethrow( Throwable cause )
+        throws AssemblyException, BindingException
+    {
+        if( cause instanceof AssemblyException )
+        {
+            throw (AssemblyException) cause;
+        }
+        if( cause instanceof BindingException )
+        {
+            throw (BindingException) cause;
+        }
+        if( cause instanceof RuntimeException )
+        {
+            throw (RuntimeException) cause;
+        }
+        if( cause instanceof Error )
+        {
+            throw (Error) cause;
+        }
+        return new AssemblyException( "Unable to create Application Model.", cause );
+    }
+
     private AssemblyHelper createAssemblyHelper( ApplicationAssembly assembly )
     {
         if( assembly instanceof ApplicationAssemblyImpl )
         {
             ApplicationAssemblyImpl impl = (ApplicationAssemblyImpl) assembly;
-            AssemblyHelper helper = impl.metaInfo().get( AssemblyHelper.class );
+            // Subclasses such as SnapshotAssemblyHelper are only registered under their own type in MetaInfo,
+            // so look for the last one set instead of asking for AssemblyHelper.class
+            AssemblyHelper helper = null;
+            for( Object info : impl.metaInfoObjects() )
+            {
+                if( info instanceof AssemblyHelper )
+                {
+                    helper = (AssemblyHelper) info;
+                }
+            }
             if( helper != null )
             {
                 return helper;
@@ -145,10 +281,18 @@ public final class ApplicationModelFactoryImpl
 
         private Resolution resolution;
         private final ApplicationModel applicationModel;
+        private final List<Callable<Void>> moduleBindings;
 
-        private BindingVisitor( ApplicationModel applicationModel )
+        private BindingVisitor( ApplicationModel applicationModel, List<Callable<Void>> moduleBindings )
         {
             this.applicationModel = applicationModel;
+            this.moduleBindings = moduleBindings;
+        }
+
+        private BindingVisitor( ApplicationModel applicationModel, LayerModel layer )
+        {
+            this( applicationModel, (List<Callable<Void>>) null );
+            this.layer = layer;
         }
 
         @Override
@@ -180,6 +324,16 @@ public final class ApplicationModelFactoryImpl
             }
             else if( visited instanceof ModuleModel )
             {
+                if( moduleBindings != null )
+                {
+                    ModuleModel moduleModel = (ModuleModel) visited;
+                    LayerModel layerModel = layer;
+                    moduleBindings.add( () -> {
+                        moduleModel.accept( new BindingVisitor( applicationModel, layerModel ) );
+                        return null;
+                    } );
+                    return false;
+                }
                 module = (ModuleModel) visited;
             }
             else if( visited instanceof LayerModel )
@@ -25,8 +25,8 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
 import org.apache.zest.api.common.ConstructionException;
@@ -39,14 +39,17 @@ import org.apache.zest.runtime.composite.SideEffectModel;
 
 /**
  * This helper is used when building the application model. It keeps track
- * of already created classloaders and various models
+ * of already created classloaders and various models.
+ * <p>
+ * Modules are assembled concurrently, so subclasses must be thread-safe.
+ * </p>
  */
 public class AssemblyHelper
 {
-    Map<Class, Class> instantiationClasses = new HashMap<>();
-    Map<Class, ConstraintDeclaration> constraintDeclarations = new HashMap<>();
-    Map<ClassLoader, FragmentClassLoader> modifierClassLoaders = new HashMap<>();
-    Map<Class<?>, AppliesToFilter> appliesToInstances = new HashMap<>();
+    Map<Class, Class> instantiationClasses = new ConcurrentHashMap<>();
+    Map<Class, ConstraintDeclaration> constraintDeclarations = new ConcurrentHashMap<>();
+    Map<ClassLoader, FragmentClassLoader> modifierClassLoaders = new ConcurrentHashMap<>();
+    Map<Class<?>, AppliesToFilter> appliesToInstances = new ConcurrentHashMap<>();
 
     public MixinModel getMixinModel( Class mixinClass )
     {
@@ -89,13 +92,8 @@ public class AssemblyHelper
 
     private FragmentClassLoader getModifierClassLoader( ClassLoader classLoader )
     {
-        FragmentClassLoader cl = modifierClassLoaders.get( classLoader );
-        if( cl == null )
-        {
-            cl = instantiateFragmentClassLoader( classLoader );
-            modifierClassLoaders.put( classLoader, cl );
-        }
-        return cl;
+        // Modules are assembled concurrently, and all of them must share a single FragmentClassLoader per ClassLoader
+        return modifierClassLoaders.computeIfAbsent( classLoader, this::instantiateFragmentClassLoader );
     }
 
     protected FragmentClassLoader instantiateFragmentClassLoader( ClassLoader classLoader )
@@ -197,12 +195,8 @@ public class AssemblyHelper
                               Type valueType
     )
     {
-        ConstraintDeclaration constraintDeclaration = constraintDeclarations.get( constraint );
-        if( constraintDeclaration == null )
-        {
-            constraintDeclaration = new ConstraintDeclaration( constraint );
-            constraintDeclarations.put( constraint, constraintDeclaration );
-        }
+        ConstraintDeclaration constraintDeclaration =
+            constraintDeclarations.computeIfAbsent( constraint, ConstraintDeclaration::new );
 
         return constraintDeclaration.appliesTo( annotationType, valueType );
     }
@@ -0,0 +1,122 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.bootstrap;
+
+import java.io.File;
+import org.apache.zest.bootstrap.ApplicationAssembler;
+import org.apache.zest.bootstrap.ApplicationAssembly;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.runtime.composite.FragmentClassLoader;
+import org.apache.zest.runtime.composite.SnapshotFragmentClassLoader;
+
+import static org.apache.zest.runtime.composite.SnapshotFragmentClassLoader.SNAPSHOT_SUFFIX;
+
+/**
+ * AssemblyHelper that reuses the fragment subclasses generated by a previous boot.
+ * <p>
+ * Add an instance as meta info to the ApplicationAssembly. Assemblies load the stored bytecode instead of generating
+ * it with ASM. Entries are verified against the bytecode on the classpath and silently regenerated when stale.
+ * </p>
+ * <p>
+ * The snapshot should be populated at build time with {@link #populate(ApplicationAssembler, File)}, or by running
+ * this class with the assembler class name and the snapshot directory as arguments, and shipped with the
+ * application. Otherwise only the first boot of each installation populates it, and fresh containers gain nothing.
+ * </p>
+ */
+public class SnapshotAssemblyHelper
+    extends AssemblyHelper
+{
+    private final File directory;
+
+    public SnapshotAssemblyHelper( File directory )
+    {
+        this.directory = directory;
+    }
+
+    public File directory()
+    {
+        return directory;
+    }
+
+    @Override
+    protected FragmentClassLoader instantiateFragmentClassLoader( ClassLoader classLoader )
+    {
+        return new SnapshotFragmentClassLoader( classLoader, directory );
+    }
+
+    /**
+     * Populate a snapshot directory with the fragment classes of an application, as a build step.
+     * <p>
+     * Existing entries are removed first, so entries of fragments no longer in the application are not shipped.
+     * </p>
+     *
+     * @param assembler the application assembler
+     * @param directory the snapshot directory
+     *
+     * @return number of entries in the snapshot
+     *
+     * @throws AssemblyException if the application model could not be created
+     */
+    public static int populate( final ApplicationAssembler assembler, final File directory )
+        throws AssemblyException
+    {
+        File[] entries = directory.listFiles( ( dir, name ) -> name.endsWith( SNAPSHOT_SUFFIX ) );
+        if( entries != null )
+        {
+            for( File entry : entries )
+            {
+                //noinspection ResultOfMethodCallIgnored
+                entry.delete();
+            }
+        }
+        new Energy4Java().newApplicationModel( factory -> {
+            ApplicationAssembly assembly = assembler.assemble( factory );
+            // The last AssemblyHelper set as meta info is used
+            assembly.setMetaInfo( new SnapshotAssemblyHelper( directory ) );
+            return assembly;
+        } );
+        entries = directory.listFiles( ( dir, name ) -> name.endsWith( SNAPSHOT_SUFFIX ) );
+        return entries == null ? 0 : entries.length;
+    }
+
+    /**
+     * {@literal main} method that populates a snapshot directory, for use from build tools.
+     *
+     * @param args the class name of an ApplicationAssembler with a public no-arg constructor,
+     *             and the snapshot directory
+     *
+     * @throws Exception if the assembler could not be instantiated or the application model could not be created
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        if( args.length != 2 )
+        {
+            System.err.println( "Usage: " + SnapshotAssemblyHelper.class.getName()
+                                + " <ApplicationAssembler class> <snapshot directory>" );
+            System.exit( 1 );
+        }
+        ApplicationAssembler assembler = (ApplicationAssembler) Class.forName( args[ 0 ] ).newInstance();
+        int entries = populate( assembler, new File( args[ 1 ] ) );
+        System.out.println( "Fragment class snapshot of " + entries + " classes written to " + args[ 1 ] );
+    }
+}
@@ -38,6 +38,8 @@ import org.apache.zest.functional.HierarchicalVisitor;
 import org.apache.zest.functional.VisitableHierarchy;
 import org.apache.zest.runtime.injection.Dependencies;
 import org.apache.zest.runtime.injection.DependencyModel;
+import org.apache.zest.spi.jfr.FlightRecorderOptions;
+import org.apache.zest.spi.jfr.SlowInvocationEvent;
 import org.apache.zest.spi.module.ModuleSpi;
 
 /**
@@ -112,6 +114,7 @@ public final class CompositeMethodModel
         constraintsInstance.checkValid( composite, method, params );
 
         CompositeMethodInstance methodInstance = getInstance( module );
+        SlowInvocationEvent event = beginInvocationEvent( module );
         try
         {
             return mixins.invoke( composite, params, methodInstance );
@@ -119,7 +122,34 @@ public final class CompositeMethodModel
         finally
         {
             instancePool.releaseInstance( methodInstance );
+            if( event != null )
+            {
+                event.end();
+                if( event.shouldCommit() )
+                {
+                    event.module = module.name();
+                    event.declaringType = method.getDeclaringClass().getName();
+                    event.method = method.getName();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private SlowInvocationEvent beginInvocationEvent( ModuleDescriptor module )
+    {
+        FlightRecorderOptions options = ( (ModuleSpi) module.instance() ).flightRecorderOptions();
+        if( options == null || !options.recordInvocations() )
+        {
+            return null;
+        }
+        SlowInvocationEvent event = new SlowInvocationEvent();
+        if( !event.isEnabled() )
+        {
+            return null;
         }
+        event.begin();
+        return event;
     }
 
     private CompositeMethodInstance getInstance( ModuleDescriptor module )
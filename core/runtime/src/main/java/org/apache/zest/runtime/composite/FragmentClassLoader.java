@@ -150,7 +150,7 @@ public class FragmentClassLoader
                 name = "zest." + name;
             }
 
-            byte[] b = generateClass( name, baseClass );
+            byte[] b = fragmentClassBytes( name, baseClass );
             return defineClass( name, b, 0, b.length, baseClass.getProtectionDomain() );
         }
 
@@ -158,6 +158,25 @@ public class FragmentClassLoader
         return getClass().getClassLoader().loadClass( name );
     }
 
+    /**
+     * Provide the bytecode of the named fragment subclass.
+     * <p>
+     * Subclasses may override this to supply previously generated bytecode instead of generating it again.
+     * </p>
+     *
+     * @param name      the name of the generated class
+     * @param baseClass the fragment class to subclass
+     *
+     * @return the bytecode of the generated class
+     *
+     * @throws ClassNotFoundException if the class could not be generated
+     */
+    protected byte[] fragmentClassBytes( String name, Class baseClass )
+        throws ClassNotFoundException
+    {
+        return generateClass( name, baseClass );
+    }
+
     public byte[] generateClass( String name, Class baseClass )
         throws ClassNotFoundException
     {
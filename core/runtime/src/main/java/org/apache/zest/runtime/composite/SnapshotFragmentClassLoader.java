@@ -0,0 +1,259 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.composite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * FragmentClassLoader that keeps the generated fragment subclasses in a snapshot directory.
+ * <p>
+ * Each generated class is stored together with a fingerprint made of the length and CRC32 of the bytecode of the
+ * fragment class, all its supertypes and the runtime class generator itself. On the next boot the stored bytecode is
+ * used as long as the fingerprint still matches the classpath, otherwise the class is generated again and the
+ * snapshot is refreshed. The bytecode of each type is only read once per loader, so supertypes shared by many
+ * fragments are not read again for each of them.
+ * </p>
+ * <p>
+ * The CRC32 and length of classes packaged in jars are taken from the jar directory without reading the classes,
+ * and computed natively for classes in directories. Reading and digesting the bytecode would cost as much as
+ * generating the classes on a cold JVM.
+ * </p>
+ */
+@SuppressWarnings( "raw" )
+public class SnapshotFragmentClassLoader
+    extends FragmentClassLoader
+{
+    public static final String SNAPSHOT_SUFFIX = ".zest";
+
+    // Types without bytecode on the classpath, ConcurrentHashMap can not hold null
+    private static final long NO_BYTECODE = -1L;
+
+    private final File directory;
+    private final Map<Class<?>, Long> typeChecksums = new ConcurrentHashMap<>();
+
+    public SnapshotFragmentClassLoader( ClassLoader parent, File directory )
+    {
+        super( parent );
+        this.directory = directory;
+    }
+
+    @Override
+    protected byte[] fragmentClassBytes( String name, Class baseClass )
+        throws ClassNotFoundException
+    {
+        byte[] fingerprint = fingerprint( baseClass );
+        if( fingerprint == null )
+        {
+            // Some type in the hierarchy has no bytecode on the classpath, so it can not be verified
+            return super.fragmentClassBytes( name, baseClass );
+        }
+        File file = new File( directory, name + SNAPSHOT_SUFFIX );
+        byte[] bytes = readSnapshot( file, fingerprint );
+        if( bytes == null )
+        {
+            bytes = super.fragmentClassBytes( name, baseClass );
+            writeSnapshot( file, fingerprint, bytes );
+        }
+        return bytes;
+    }
+
+    private static byte[] readSnapshot( File file, byte[] fingerprint )
+    {
+        if( !file.isFile() )
+        {
+            return null;
+        }
+        try( DataInputStream in = new DataInputStream( new FileInputStream( file ) ) )
+        {
+            byte[] stored = new byte[ in.readUnsignedShort() ];
+            in.readFully( stored );
+            if( !Arrays.equals( stored, fingerprint ) )
+            {
+                return null;
+            }
+            byte[] bytes = new byte[ in.readInt() ];
+            in.readFully( bytes );
+            return bytes;
+        }
+        catch( IOException e )
+        {
+            // Corrupt or truncated snapshot entry, generate the class again
+            return null;
+        }
+    }
+
+    private void writeSnapshot( File file, byte[] fingerprint, byte[] bytes )
+    {
+        if( !directory.isDirectory() && !directory.mkdirs() )
+        {
+            return;
+        }
+        File tmp = new File( directory, file.getName() + ".tmp" );
+        try
+        {
+            try( DataOutputStream out = new DataOutputStream( new FileOutputStream( tmp ) ) )
+            {
+                out.writeShort( fingerprint.length );
+                out.write( fingerprint );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+            }
+            if( !tmp.renameTo( file ) )
+            {
+                file.delete();
+                tmp.renameTo( file );
+            }
+        }
+        catch( IOException e )
+        {
+            // The snapshot is only an optimization, the generated class is still used
+            tmp.delete();
+        }
+    }
+
+    private byte[] fingerprint( Class baseClass )
+    {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collectTypes( baseClass, types );
+        types.add( FragmentClassLoader.class );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( 16 + types.size() * 8 );
+        try( DataOutputStream out = new DataOutputStream( bytes ) )
+        {
+            out.writeUTF( System.getProperty( "java.specification.version" ) );
+            for( Class<?> type : types )
+            {
+                long checksum = typeChecksums.computeIfAbsent( type, SnapshotFragmentClassLoader::typeChecksum );
+                if( checksum == NO_BYTECODE )
+                {
+                    return null;
+                }
+                out.writeLong( checksum );
+            }
+        }
+        catch( IOException e )
+        {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void collectTypes( Class<?> type, Set<Class<?>> types )
+    {
+        // Generated classes only depend on the methods and constructors of the fragment class and its supertypes
+        if( type == null || type.equals( Object.class ) || !types.add( type ) )
+        {
+            return;
+        }
+        collectTypes( type.getSuperclass(), types );
+        for( Class<?> anInterface : type.getInterfaces() )
+        {
+            collectTypes( anInterface, types );
+        }
+    }
+
+    private static long typeChecksum( Class<?> type )
+    {
+        CRC32 crc = new CRC32();
+        ClassLoader loader = type.getClassLoader();
+        if( loader == null )
+        {
+            // JDK types only change with the JDK, which is part of the fingerprint already
+            crc.update( type.getName().getBytes( UTF_8 ) );
+            return crc.getValue();
+        }
+        String resource = type.getName().replace( '.', '/' ) + ".class";
+        try
+        {
+            File location = codeLocation( type );
+            if( location != null && location.isFile() )
+            {
+                // Opening a jar already open in the JVM reuses its directory
+                try( ZipFile jar = new ZipFile( location ) )
+                {
+                    ZipEntry entry = jar.getEntry( resource );
+                    if( entry != null && entry.getCrc() != -1 && entry.getSize() != -1 )
+                    {
+                        return entry.getSize() << 32 | entry.getCrc();
+                    }
+                }
+            }
+            try( InputStream in = location != null && location.isDirectory()
+                                  ? new FileInputStream( new File( location, resource ) )
+                                  : loader.getResourceAsStream( resource ) )
+            {
+                if( in == null )
+                {
+                    return NO_BYTECODE;
+                }
+                byte[] buffer = new byte[ 8192 ];
+                long length = 0;
+                int read;
+                while( ( read = in.read( buffer ) ) != -1 )
+                {
+                    crc.update( buffer, 0, read );
+                    length += read;
+                }
+                return length << 32 | crc.getValue();
+            }
+        }
+        catch( IOException e )
+        {
+            return NO_BYTECODE;
+        }
+    }
+
+    private static File codeLocation( Class<?> type )
+    {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if( codeSource == null || codeSource.getLocation() == null
+            || !"file".equals( codeSource.getLocation().getProtocol() ) )
+        {
+            return null;
+        }
+        try
+        {
+            return new File( codeSource.getLocation().toURI() );
+        }
+        catch( URISyntaxException | IllegalArgumentException e )
+        {
+            return null;
+        }
+    }
+}
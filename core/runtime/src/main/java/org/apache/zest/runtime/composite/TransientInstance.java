@@ -118,6 +118,18 @@ public class TransientInstance
         return compositeModel.module().layer();
     }
 
+    public <T> T mixinOf( Class<T> mixinType )
+    {
+        for( Object mixin : mixins )
+        {
+            if( mixinType.isInstance( mixin ) )
+            {
+                return mixinType.cast( mixin );
+            }
+        }
+        throw new IllegalArgumentException( "No mixin of type " + mixinType.getName() + " in " + compositeModel );
+    }
+
     @Override
     public StateHolder state()
     {
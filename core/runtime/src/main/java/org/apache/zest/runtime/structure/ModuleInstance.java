@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -36,6 +37,7 @@ import org.apache.zest.api.activation.ActivationException;
 import org.apache.zest.api.activation.PassivationException;
 import org.apache.zest.api.association.AssociationDescriptor;
 import org.apache.zest.api.common.ConstructionException;
+import org.apache.zest.api.composite.AmbiguousTypeException;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.composite.ModelDescriptor;
 import org.apache.zest.api.composite.NoSuchTransientException;
@@ -59,6 +61,7 @@ import org.apache.zest.api.structure.LayerDescriptor;
 import org.apache.zest.api.structure.Module;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.structure.TypeLookup;
+import org.apache.zest.api.type.HasTypes;
 import org.apache.zest.api.unitofwork.UnitOfWorkException;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
 import org.apache.zest.api.util.NullArgumentException;
@@ -89,8 +92,11 @@ import org.apache.zest.runtime.value.ValueBuilderWithPrototype;
 import org.apache.zest.runtime.value.ValueBuilderWithState;
 import org.apache.zest.runtime.value.ValueInstance;
 import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.jfr.FlightRecorderOptions;
+import org.apache.zest.spi.metrics.Instrumentation;
 import org.apache.zest.spi.metrics.MetricsProviderAdapter;
 import org.apache.zest.spi.module.ModuleSpi;
+import org.apache.zest.spi.module.WarmUpOptions;
 
 import static java.util.stream.Stream.concat;
 import static org.apache.zest.functional.Iterables.iterable;
@@ -115,6 +121,10 @@ public class ModuleInstance
     private IdentityGenerator generator;
     private ValueSerialization valueSerialization;
     private MetricsProvider metrics;
+    private FlightRecorderOptions flightRecorderOptions;
+    private volatile boolean flightRecorderOptionsResolved;
+    private final Map<Type, ServiceReference<?>> serviceReferences = new ConcurrentHashMap<>();
+    private final Map<ServiceReference<?>, Instrumentation> instrumentations = new ConcurrentHashMap<>();
     private UnitOfWorkFactory uowf;
 
     @SuppressWarnings( "LeakingThisInConstructor" )
@@ -372,14 +382,25 @@ public class ModuleInstance
     }
 
     @Override
+    @SuppressWarnings( "unchecked" )
     public <T> ServiceReference<T> findService( Type serviceType )
     {
-        ModelDescriptor serviceModel = typeLookup.lookupServiceModel( serviceType );
-        if( serviceModel == null )
+        ServiceReference<?> reference = serviceReferences.get( serviceType );
+        if( reference == null )
         {
-            throw new NoSuchServiceException( serviceType.getTypeName(), name(),typeLookup );
+            ModelDescriptor serviceModel = typeLookup.lookupServiceModel( serviceType );
+            if( serviceModel == null )
+            {
+                throw new NoSuchServiceException( serviceType.getTypeName(), name(),typeLookup );
+            }
+            reference = findServiceReferenceInstance( serviceModel );
+            if( reference != null )
+            {
+                // Service references are fixed for the lifetime of the Module, avoid scanning them on every lookup
+                serviceReferences.putIfAbsent( serviceType, reference );
+            }
         }
-        return findServiceReferenceInstance( serviceModel );
+        return (ServiceReference<T>) reference;
     }
 
     @Override
@@ -426,9 +447,46 @@ public class ModuleInstance
     public void activate()
         throws ActivationException
     {
+        WarmUpOptions warmUpOptions = moduleOrApplicationMetaInfo( WarmUpOptions.class );
+        if( warmUpOptions != null )
+        {
+            warmUp( warmUpOptions.resolveServices() );
+        }
         activation.activate( model.newActivatorsInstance(), iterable( services, importedServices ) );
     }
 
+    private void warmUp( boolean resolveServices )
+    {
+        typeLookup.allObjects().flatMap( HasTypes::types )
+            .forEach( type -> warmUp( typeLookup::lookupObjectModel, type ) );
+        typeLookup.allTransients().flatMap( HasTypes::types )
+            .forEach( type -> warmUp( typeLookup::lookupTransientModel, type ) );
+        typeLookup.allValues().flatMap( HasTypes::types )
+            .forEach( type -> warmUp( typeLookup::lookupValueModel, type ) );
+        typeLookup.allEntities().flatMap( HasTypes::types )
+            .forEach( type -> {
+                warmUp( typeLookup::lookupEntityModel, type );
+                warmUp( typeLookup::lookupEntityModels, type );
+            } );
+        if( resolveServices )
+        {
+            typeLookup.allServices().flatMap( HasTypes::types )
+                .forEach( type -> warmUp( this::findService, type ) );
+        }
+    }
+
+    private static void warmUp( Function<Class<?>, ?> lookup, Class<?> type )
+    {
+        try
+        {
+            lookup.apply( type );
+        }
+        catch( AmbiguousTypeException | NoSuchServiceException e )
+        {
+            // Only an error if the type is actually looked up later on
+        }
+    }
+
     @Override
     public void passivate()
         throws PassivationException
@@ -582,6 +640,41 @@ public class ModuleInstance
         return metrics;
     }
 
+    /**
+     * Get the Instrumentation of a service used from this Module, created once per service reference.
+     *
+     * @param service the service reference holding the InstrumentationOptions
+     * @param origin  the class reporting the metrics
+     *
+     * @return the Instrumentation of the service, or {@link Instrumentation#DISABLED}
+     */
+    public Instrumentation instrumentation( ServiceReference<?> service, Class<?> origin )
+    {
+        return instrumentations.computeIfAbsent(
+            service, reference -> Instrumentation.of( metricsProvider(), reference, reference.identity(), origin ) );
+    }
+
+    @Override
+    public FlightRecorderOptions flightRecorderOptions()
+    {
+        if( !flightRecorderOptionsResolved )
+        {
+            flightRecorderOptions = moduleOrApplicationMetaInfo( FlightRecorderOptions.class );
+            flightRecorderOptionsResolved = true;
+        }
+        return flightRecorderOptions;
+    }
+
+    private <T> T moduleOrApplicationMetaInfo( Class<T> infoType )
+    {
+        T info = metaInfo( infoType );
+        if( info == null )
+        {
+            info = layer.instance().application().metaInfo( infoType );
+        }
+        return info;
+    }
+
 //    public Stream<ServiceReference<?>> visibleServices( Visibility visibility )
 //    {
 //        return concat( services.visibleServices( visibility ),
@@ -40,6 +40,7 @@ import org.apache.zest.api.entity.LifecycleException;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.metrics.MetricsTimer;
 import org.apache.zest.api.property.Property;
 import org.apache.zest.api.property.PropertyDescriptor;
 import org.apache.zest.api.property.StateHolder;
@@ -48,6 +49,7 @@ import org.apache.zest.api.query.QueryBuilder;
 import org.apache.zest.api.query.QueryExecutionException;
 import org.apache.zest.api.query.grammar.OrderBy;
 import org.apache.zest.api.service.NoSuchServiceException;
+import org.apache.zest.api.service.ServiceReference;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.unitofwork.ConcurrentEntityModificationException;
 import org.apache.zest.api.unitofwork.NoSuchEntityException;
@@ -68,11 +70,15 @@ import org.apache.zest.runtime.composite.FunctionStateResolver;
 import org.apache.zest.runtime.entity.EntityInstance;
 import org.apache.zest.runtime.entity.EntityModel;
 import org.apache.zest.runtime.property.PropertyModel;
+import org.apache.zest.runtime.structure.ModuleInstance;
 import org.apache.zest.runtime.value.ValueInstance;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entity.NamedAssociationState;
 import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.jfr.QueryEvent;
+import org.apache.zest.spi.metrics.Instrumentation;
+import org.apache.zest.spi.metrics.InstrumentationOptions;
 import org.apache.zest.spi.module.ModuleSpi;
 import org.apache.zest.spi.query.EntityFinder;
 import org.apache.zest.spi.query.EntityFinderException;
@@ -496,11 +502,11 @@ public class ModuleUnitOfWork
                            Map<String, Object> variables
         )
         {
-            final EntityFinder entityFinder = moduleUnitOfWork.module()
-                .instance()
-                .findService( EntityFinder.class )
-                .get();
+            ServiceReference<EntityFinder> finderReference = entityFinder();
+            final EntityFinder entityFinder = finderReference.get();
 
+            MetricsTimer.Context timing = instrumentation( finderReference ).time( "find", resultType, moduleUnitOfWork.usecase() );
+            QueryEvent event = beginQueryEvent();
             try
             {
                 final EntityReference foundEntity = entityFinder.findEntity( resultType, whereClause, variables == null ? Collections
@@ -523,6 +529,11 @@ public class ModuleUnitOfWork
             {
                 throw new QueryExecutionException( "Finder caused exception", e );
             }
+            finally
+            {
+                timing.stop();
+                endQueryEvent( event, "find", resultType );
+            }
         }
 
         @Override
@@ -534,8 +545,11 @@ public class ModuleUnitOfWork
                                Map<String, Object> variables
         )
         {
-            EntityFinder entityFinder = moduleUnitOfWork.module().instance().findService( EntityFinder.class ).get();
+            ServiceReference<EntityFinder> finderReference = entityFinder();
+            EntityFinder entityFinder = finderReference.get();
 
+            MetricsTimer.Context timing = instrumentation( finderReference ).time( "count", resultType, moduleUnitOfWork.usecase() );
+            QueryEvent event = beginQueryEvent();
             try
             {
                 return entityFinder.countEntities( resultType, whereClause, variables == null ? Collections.<String, Object>emptyMap() : variables );
@@ -545,6 +559,11 @@ public class ModuleUnitOfWork
                 e.printStackTrace();
                 return 0;
             }
+            finally
+            {
+                timing.stop();
+                endQueryEvent( event, "count", resultType );
+            }
         }
 
         @Override
@@ -556,8 +575,11 @@ public class ModuleUnitOfWork
                                          Map<String, Object> variables
         )
         {
-            EntityFinder entityFinder = moduleUnitOfWork.module().instance().findService( EntityFinder.class ).get();
+            ServiceReference<EntityFinder> finderReference = entityFinder();
+            EntityFinder entityFinder = finderReference.get();
 
+            MetricsTimer.Context timing = instrumentation( finderReference ).time( "query", resultType, moduleUnitOfWork.usecase() );
+            QueryEvent event = beginQueryEvent();
             try
             {
                 final Iterator<EntityReference> foundEntities =
@@ -604,6 +626,52 @@ public class ModuleUnitOfWork
             {
                 throw new QueryExecutionException( "Query '" + toString() + "' could not be executed", e );
             }
+            finally
+            {
+                timing.stop();
+                endQueryEvent( event, "query", resultType );
+            }
+        }
+
+        private QueryEvent beginQueryEvent()
+        {
+            if( ( (ModuleSpi) moduleUnitOfWork.module().instance() ).flightRecorderOptions() == null )
+            {
+                return null;
+            }
+            QueryEvent event = new QueryEvent();
+            if( !event.isEnabled() )
+            {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        private void endQueryEvent( QueryEvent event, String operation, Class<?> resultType )
+        {
+            if( event != null && event.shouldCommit() )
+            {
+                event.operation = operation;
+                event.resultType = resultType.getName();
+                event.usecase = moduleUnitOfWork.usecase().name();
+                event.commit();
+            }
+        }
+
+        private ServiceReference<EntityFinder> entityFinder()
+        {
+            return moduleUnitOfWork.module().instance().findService( EntityFinder.class );
+        }
+
+        private Instrumentation instrumentation( ServiceReference<EntityFinder> finderReference )
+        {
+            if( finderReference.metaInfo( InstrumentationOptions.class ) == null )
+            {
+                return Instrumentation.DISABLED;
+            }
+            ModuleInstance module = (ModuleInstance) moduleUnitOfWork.module().instance();
+            return module.instrumentation( finderReference, EntityFinder.class );
         }
 
         @Override
@@ -27,10 +27,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import org.apache.zest.api.common.MetaInfo;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.entity.Identity;
 import org.apache.zest.api.metrics.MetricsCounter;
 import org.apache.zest.api.metrics.MetricsCounterFactory;
 import org.apache.zest.api.metrics.MetricsProvider;
@@ -57,6 +59,9 @@ import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.EntityStoreUnitOfWork;
 import org.apache.zest.spi.entitystore.StateCommitter;
 import org.apache.zest.spi.metrics.DefaultMetric;
+import org.apache.zest.spi.jfr.ApplyChangesEvent;
+import org.apache.zest.spi.jfr.EntityStateOfEvent;
+import org.apache.zest.spi.jfr.UnitOfWorkEvent;
 import org.apache.zest.spi.module.ModuleSpi;
 
 import static org.apache.zest.api.unitofwork.UnitOfWorkCallback.UnitOfWorkStatus.COMPLETED;
@@ -98,6 +103,11 @@ public final class UnitOfWorkInstance
 
     private List<UnitOfWorkCallback> callbacks;
 
+    /**
+     * Flight Recorder event of this UnitOfWork, null unless recorded.
+     */
+    private UnitOfWorkEvent recordedEvent;
+
     public UnitOfWorkInstance( ModuleSpi module, Usecase usecase, long currentTime, MetricsProvider metrics )
     {
         this.module = module;
@@ -109,6 +119,7 @@ public final class UnitOfWorkInstance
         paused = false;
         this.usecase = usecase;
         startCapture( metrics );
+        startRecording();
     }
 
     public long currentTime()
@@ -149,14 +160,33 @@ public final class UnitOfWorkInstance
             {
                 EntityStore store = ((ModuleSpi) potentialModel.module().instance()).entityStore();
                 EntityStoreUnitOfWork storeUow = getEntityStoreUnitOfWork( store );
+                EntityStateOfEvent event = recordedEvent == null ? null : new EntityStateOfEvent();
+                if( event != null )
+                {
+                    event.begin();
+                }
+                boolean found = false;
                 try
                 {
                     entityState = storeUow.entityStateOf( potentialModel.module(), identity );
+                    found = true;
                 }
                 catch( EntityNotFoundException e )
                 {
                     continue;
                 }
+                finally
+                {
+                    if( event != null && event.shouldCommit() )
+                    {
+                        event.store = nameOf( store );
+                        event.usecase = usecase.name();
+                        event.identity = identity.identity();
+                        event.entityType = potentialModel.primaryType().getName();
+                        event.found = found;
+                        event.commit();
+                    }
+                }
 
                 // Get the selected model
                 model = (EntityModel) entityState.entityDescriptor();
@@ -280,6 +310,7 @@ public final class UnitOfWorkInstance
         committers.forEach( StateCommitter::commit );
 
         close();
+        endRecording( COMPLETED );
 
         // Call callbacks
         notifyAfterCompletion( currentCallbacks, COMPLETED );
@@ -294,6 +325,7 @@ public final class UnitOfWorkInstance
             return;
         }
         close();
+        endRecording( DISCARDED );
 
         // Copy list so that it cannot be modified during completion
         List<UnitOfWorkCallback> currentCallbacks = callbacks == null ? null : new ArrayList<>( callbacks );
@@ -348,12 +380,25 @@ public final class UnitOfWorkInstance
         throws UnitOfWorkCompletionException
     {
         List<StateCommitter> committers = new ArrayList<>();
-        for( EntityStoreUnitOfWork entityStoreUnitOfWork : storeUnitOfWork.values() )
+        for( Map.Entry<EntityStore, EntityStoreUnitOfWork> entry : storeUnitOfWork.entrySet() )
         {
+            EntityStoreUnitOfWork entityStoreUnitOfWork = entry.getValue();
+            ApplyChangesEvent event = recordedEvent == null ? null : new ApplyChangesEvent();
+            if( event != null )
+            {
+                event.begin();
+            }
             try
             {
                 StateCommitter committer = entityStoreUnitOfWork.applyChanges();
                 committers.add( committer );
+                if( event != null && event.shouldCommit() )
+                {
+                    event.store = nameOf( entry.getKey() );
+                    event.usecase = usecase.name();
+                    event.entityCount = entityCountOf( entry.getKey() );
+                    event.commit();
+                }
             }
             catch( Exception e )
             {
@@ -479,6 +524,11 @@ public final class UnitOfWorkInstance
         instanceCache.remove( entityReference );
     }
 
+    public Stream<EntityState> entityStates()
+    {
+        return new ArrayList<>( instanceCache.values() ).stream().map( EntityInstance::entityState );
+    }
+
     private void incrementCount()
     {
         MetricsCounter counter = getCounter();
@@ -514,6 +564,52 @@ public final class UnitOfWorkInstance
         startTimer( metrics );
     }
 
+    private void startRecording()
+    {
+        if( module.flightRecorderOptions() != null )
+        {
+            UnitOfWorkEvent event = new UnitOfWorkEvent();
+            if( event.isEnabled() )
+            {
+                event.begin();
+                recordedEvent = event;
+            }
+        }
+    }
+
+    private void endRecording( UnitOfWorkCallback.UnitOfWorkStatus status )
+    {
+        if( recordedEvent != null )
+        {
+            recordedEvent.end();
+            if( recordedEvent.shouldCommit() )
+            {
+                recordedEvent.usecase = usecase.name();
+                recordedEvent.outcome = status.name();
+                recordedEvent.entityCount = instanceCache.size();
+                recordedEvent.commit();
+            }
+        }
+    }
+
+    private int entityCountOf( EntityStore store )
+    {
+        int count = 0;
+        for( EntityInstance instance : instanceCache.values() )
+        {
+            if( store.equals( ( (ModuleSpi) instance.module().instance() ).entityStore() ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String nameOf( EntityStore store )
+    {
+        return store instanceof Identity ? ( (Identity) store ).identity().get() : store.getClass().getName();
+    }
+
     private void startTimer( MetricsProvider metrics )
     {
         MetricsTimerFactory metricsFactory = metrics.createFactory( MetricsTimerFactory.class );
@@ -0,0 +1,188 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.bootstrap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.bootstrap.ApplicationAssembler;
+import org.apache.zest.bootstrap.ApplicationAssembly;
+import org.apache.zest.bootstrap.ApplicationAssemblyFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.bootstrap.LayerAssembly;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.runtime.composite.SnapshotFragmentClassLoader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SnapshotAssemblyHelperTest
+{
+    private File directory;
+
+    @Before
+    public void createSnapshotDirectory()
+        throws IOException
+    {
+        directory = Files.createTempDirectory( "zest-snapshot" ).toFile();
+    }
+
+    @After
+    public void deleteSnapshotDirectory()
+    {
+        File[] files = directory.listFiles();
+        if( files != null )
+        {
+            for( File file : files )
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void givenEmptySnapshotWhenAssemblingThenGeneratedClassesAreStored()
+        throws Exception
+    {
+        assertThat( greet(), equalTo( "Hello World" ) );
+        assertThat( snapshotFiles(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void givenSnapshotWhenAssemblingAgainThenSnapshotIsUsed()
+        throws Exception
+    {
+        greet();
+        File snapshot = directory.listFiles()[ 0 ];
+        long modified = snapshot.lastModified();
+        snapshot.setLastModified( modified - 10000 );
+
+        assertThat( greet(), equalTo( "Hello World" ) );
+        assertThat( snapshot.lastModified(), equalTo( modified - 10000 ) );
+    }
+
+    @Test
+    public void givenStaleSnapshotWhenAssemblingThenClassIsRegenerated()
+        throws Exception
+    {
+        greet();
+        File snapshot = directory.listFiles()[ 0 ];
+        int original;
+        try( RandomAccessFile file = new RandomAccessFile( snapshot, "rw" ) )
+        {
+            // Corrupt the stored fingerprint
+            file.seek( 2 );
+            original = file.read();
+            file.seek( 2 );
+            file.write( ~original );
+        }
+
+        assertThat( greet(), equalTo( "Hello World" ) );
+        try( RandomAccessFile file = new RandomAccessFile( snapshot, "r" ) )
+        {
+            file.seek( 2 );
+            assertThat( file.read(), equalTo( original ) );
+        }
+    }
+
+    @Test
+    public void givenAssemblerWhenPopulatingThenSnapshotIsWrittenBeforeFirstBoot()
+        throws Exception
+    {
+        File obsolete = new File( directory, "Obsolete_Stub" + SnapshotFragmentClassLoader.SNAPSHOT_SUFFIX );
+        assertThat( obsolete.createNewFile(), equalTo( true ) );
+
+        assertThat( SnapshotAssemblyHelper.populate( new GreetingAssembler( false ), directory ), equalTo( 1 ) );
+        assertThat( obsolete.exists(), equalTo( false ) );
+
+        File snapshot = directory.listFiles()[ 0 ];
+        long modified = snapshot.lastModified();
+        snapshot.setLastModified( modified - 10000 );
+        assertThat( greet(), equalTo( "Hello World" ) );
+        assertThat( snapshot.lastModified(), equalTo( modified - 10000 ) );
+    }
+
+    private String greet()
+        throws AssemblyException
+    {
+        Application application = new Energy4Java().newApplication( new GreetingAssembler( true ) );
+        Module module = application.findModule( "Layer", "Module" );
+        return module.newTransient( Greeting.class ).greet( "World" );
+    }
+
+    private class GreetingAssembler
+        implements ApplicationAssembler
+    {
+        private final boolean snapshot;
+
+        private GreetingAssembler( boolean snapshot )
+        {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public ApplicationAssembly assemble( ApplicationAssemblyFactory factory )
+            throws AssemblyException
+        {
+            ApplicationAssembly assembly = factory.newApplicationAssembly();
+            if( snapshot )
+            {
+                assembly.setMetaInfo( new SnapshotAssemblyHelper( directory ) );
+            }
+            LayerAssembly layer = assembly.layer( "Layer" );
+            ModuleAssembly module = layer.module( "Module" );
+            module.transients( Greeting.class );
+            return assembly;
+        }
+    }
+
+    private int snapshotFiles()
+    {
+        return directory.listFiles().length;
+    }
+
+    @Mixins( GreetingMixin.class )
+    public interface Greeting
+        extends TransientComposite
+    {
+        String greet( String name );
+    }
+
+    public static abstract class GreetingMixin
+        implements Greeting
+    {
+        @Override
+        public String greet( String name )
+        {
+            return "Hello " + name;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.structure;
+
+import org.junit.Test;
+import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.module.WarmUpOptions;
+import org.apache.zest.test.AbstractZestTest;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WarmUpTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.setMetaInfo( WarmUpOptions.ALL );
+        // Greeting is ambiguous, which must not fail the warm-up as long as it is not looked up
+        module.transients( English.class, French.class );
+        module.services( GreetingService.class, OtherGreetingService.class );
+    }
+
+    @Test
+    public void givenAmbiguousTypesWhenWarmingUpThenModuleIsActivated()
+    {
+        assertThat( transientBuilderFactory.newTransient( English.class ).greet(), equalTo( "Hello" ) );
+        assertThat( transientBuilderFactory.newTransient( French.class ).greet(), equalTo( "Bonjour" ) );
+    }
+
+    @Test
+    public void givenWarmedUpModuleWhenFindingServiceThenSameReferenceIsReturned()
+    {
+        ServiceReference<Greeting> reference = serviceFinder.findService( Greeting.class );
+        assertThat( serviceFinder.findService( Greeting.class ), sameInstance( reference ) );
+        assertThat( reference.get().greet(), equalTo( "Hello" ) );
+    }
+
+    public interface Greeting
+    {
+        String greet();
+    }
+
+    @Mixins( EnglishMixin.class )
+    public interface English
+        extends Greeting, TransientComposite
+    {
+    }
+
+    @Mixins( FrenchMixin.class )
+    public interface French
+        extends Greeting, TransientComposite
+    {
+    }
+
+    @Mixins( EnglishMixin.class )
+    public interface GreetingService
+        extends Greeting, ServiceComposite
+    {
+    }
+
+    @Mixins( FrenchMixin.class )
+    public interface OtherGreetingService
+        extends Greeting, ServiceComposite
+    {
+    }
+
+    public static class EnglishMixin
+        implements Greeting
+    {
+        @Override
+        public String greet()
+        {
+            return "Hello";
+        }
+    }
+
+    public static class FrenchMixin
+        implements Greeting
+    {
+        @Override
+        public String greet()
+        {
+            return "Bonjour";
+        }
+    }
+}
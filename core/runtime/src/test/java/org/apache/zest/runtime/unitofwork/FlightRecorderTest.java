@@ -0,0 +1,224 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.unitofwork;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.ApplicationAssemblerAdapter;
+import org.apache.zest.bootstrap.Assembler;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.jfr.FlightRecorderOptions;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+public class FlightRecorderTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.setMetaInfo( FlightRecorderOptions.PERSISTENCE_ONLY );
+        new EntityTestAssembler().assemble( module );
+        module.entities( Abc.class );
+    }
+
+    @Test
+    public void givenRecordingWhenCompletingUnitOfWorkThenEventsAreRecorded()
+        throws Exception
+    {
+        List<RecordedEvent> events;
+        try( Recording recording = new Recording() )
+        {
+            recording.enable( "org.apache.zest.UnitOfWork" );
+            recording.enable( "org.apache.zest.ApplyChanges" );
+            recording.enable( "org.apache.zest.EntityStateOf" );
+            recording.start();
+
+            UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+            EntityBuilder<Abc> builder = uow.newEntityBuilder( Abc.class, "123" );
+            builder.instance().name().set( "Niclas" );
+            builder.newInstance();
+            uow.complete();
+
+            uow = unitOfWorkFactory.newUnitOfWork();
+            uow.get( Abc.class, "123" );
+            uow.discard();
+
+            recording.stop();
+            Path dump = Files.createTempFile( "zest", ".jfr" );
+            try
+            {
+                recording.dump( dump );
+                events = RecordingFile.readAllEvents( dump );
+            }
+            finally
+            {
+                Files.delete( dump );
+            }
+        }
+
+        List<String> outcomes = new ArrayList<>();
+        int applyChanges = 0;
+        int loads = 0;
+        for( RecordedEvent event : events )
+        {
+            String name = event.getEventType().getName();
+            if( name.equals( "org.apache.zest.UnitOfWork" ) )
+            {
+                outcomes.add( event.getString( "outcome" ) );
+            }
+            else if( name.equals( "org.apache.zest.ApplyChanges" ) )
+            {
+                applyChanges++;
+                assertThat( event.getInt( "entityCount" ), equalTo( 1 ) );
+            }
+            else if( name.equals( "org.apache.zest.EntityStateOf" ) )
+            {
+                loads++;
+                assertThat( event.getBoolean( "found" ), equalTo( true ) );
+            }
+        }
+        assertThat( outcomes.size(), equalTo( 2 ) );
+        assertThat( outcomes.contains( "COMPLETED" ), equalTo( true ) );
+        assertThat( outcomes.contains( "DISCARDED" ), equalTo( true ) );
+        assertThat( applyChanges, equalTo( 1 ) );
+        assertThat( loads, equalTo( 1 ) );
+    }
+
+    @Test
+    public void givenTwoStoresWhenCompletingUnitOfWorkThenEachStoreReportsItsOwnEntities()
+        throws Exception
+    {
+        Assembler[][][] assemblers = new Assembler[][][]
+            {
+                {
+                    {
+                        module -> {
+                            module.setName( "Module A" );
+                            module.setMetaInfo( FlightRecorderOptions.PERSISTENCE_ONLY );
+                            module.withDefaultUnitOfWorkFactory();
+                            new EntityTestAssembler().identifiedBy( "store-a" ).assemble( module );
+                            module.entities( Abc.class ).visibleIn( Visibility.layer );
+                        }
+                    },
+                    {
+                        module -> {
+                            module.setName( "Module B" );
+                            new EntityTestAssembler().identifiedBy( "store-b" ).assemble( module );
+                            module.entities( Def.class ).visibleIn( Visibility.layer );
+                        }
+                    }
+                }
+            };
+        Application app = new Energy4Java().newApplication( new ApplicationAssemblerAdapter( assemblers )
+        {
+        } );
+        app.activate();
+
+        List<RecordedEvent> events;
+        try( Recording recording = new Recording() )
+        {
+            recording.enable( "org.apache.zest.UnitOfWork" );
+            recording.enable( "org.apache.zest.ApplyChanges" );
+            recording.start();
+
+            Module module = app.findModule( "Layer 1", "Module A" );
+            UnitOfWork uow = module.unitOfWorkFactory().newUnitOfWork();
+            for( String identity : new String[]{ "a1", "a2" } )
+            {
+                EntityBuilder<Abc> builder = uow.newEntityBuilder( Abc.class, identity );
+                builder.instance().name().set( identity );
+                builder.newInstance();
+            }
+            EntityBuilder<Def> builder = uow.newEntityBuilder( Def.class, "b1" );
+            builder.instance().name().set( "b1" );
+            builder.newInstance();
+            uow.complete();
+
+            recording.stop();
+            Path dump = Files.createTempFile( "zest", ".jfr" );
+            try
+            {
+                recording.dump( dump );
+                events = RecordingFile.readAllEvents( dump );
+            }
+            finally
+            {
+                Files.delete( dump );
+            }
+        }
+        finally
+        {
+            app.passivate();
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 0;
+        for( RecordedEvent event : events )
+        {
+            String name = event.getEventType().getName();
+            if( name.equals( "org.apache.zest.ApplyChanges" ) )
+            {
+                counts.put( event.getString( "store" ), event.getInt( "entityCount" ) );
+            }
+            else if( name.equals( "org.apache.zest.UnitOfWork" ) )
+            {
+                total = event.getInt( "entityCount" );
+            }
+        }
+        assertThat( counts.get( "store-a" ), equalTo( 2 ) );
+        assertThat( counts.get( "store-b" ), equalTo( 1 ) );
+        assertThat( total, equalTo( 3 ) );
+    }
+
+    public interface Abc
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+
+    public interface Def
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.helpers.MigratableStateStore;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
 
 /**
@@ -40,6 +41,6 @@ import org.apache.zest.spi.entitystore.helpers.StateStore;
 @Concerns( { StateChangeNotificationConcern.class, ConcurrentModificationCheckConcern.class } )
 @Mixins( { JSONMapEntityStoreMixin.class, MemoryMapEntityStoreMixin.class } )
 public interface MemoryEntityStoreService
-    extends EntityStore, EntityStateVersions, BackupRestore, StateStore, ServiceComposite, JSONMapEntityStoreActivation
+    extends EntityStore, EntityStateVersions, BackupRestore, StateStore, MigratableStateStore, ServiceComposite, JSONMapEntityStoreActivation
 {
 }
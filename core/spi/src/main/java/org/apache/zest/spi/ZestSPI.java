@@ -21,6 +21,7 @@
 package org.apache.zest.spi;
 
 import java.util.Map;
+import java.util.stream.Stream;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.Association;
 import org.apache.zest.api.association.AssociationStateHolder;
@@ -30,6 +31,7 @@ import org.apache.zest.api.composite.TransientComposite;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.property.StateHolder;
+import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.value.ValueComposite;
 import org.apache.zest.spi.entity.EntityState;
 
@@ -48,6 +50,14 @@ public interface ZestSPI
     // Entities
     EntityState entityStateOf( EntityComposite composite );
 
+    /**
+     * Fetches the state of the entities loaded, created or modified in a UnitOfWork so far.
+     *
+     * @param unitOfWork The UnitOfWork for which we want to obtain the EntityStates
+     * @return A Stream of the EntityStates held by the given UnitOfWork.
+     */
+    Stream<EntityState> entityStatesOf( UnitOfWork unitOfWork );
+
     /**
      * Fetches the EntityReference without loading the referenced entity.
      *
@@ -0,0 +1,37 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.cache;
+
+/**
+ * A CachePool that can share its Caches with other nodes.
+ * <p>
+ * EntityStores fetch their Cache with an id unique to each run, so that a CachePool never hands the Cache of one
+ * EntityStore to another, e.g. after a restart or to a second Application in the same JVM. When the pool shares its
+ * Caches, EntityStores fetch their Cache with their identity instead, so that all nodes see the same Cache.
+ * </p>
+ */
+public interface SharedCachePool
+    extends CachePool
+{
+    /**
+     * @return true if Caches fetched with the same id on several nodes see the same entries
+     */
+    boolean isShared();
+}
@@ -0,0 +1,578 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.zest.io.Input;
+import org.apache.zest.io.Output;
+import org.apache.zest.io.Receiver;
+import org.apache.zest.io.Sender;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Archive format for the serialized entity states exchanged through {@link BackupRestore}.
+ * <p>
+ * States are grouped in chunks that are deflate compressed and CRC32 checksummed on a pool of workers, then written
+ * in order. An index of the chunks, with the number of entities and the most recent modification timestamp found in
+ * the archive, is written at the end of the file. Reading verifies and inflates chunks on a pool of workers while
+ * states are handed to the receiver, in archive order, from the calling thread.
+ * </p>
+ * <pre><code>
+ * store.backup().transferTo( BackupArchive.writeTo( file ) );
+ * BackupArchive.readFrom( file ).transferTo( store.restore() );
+ * </code></pre>
+ * <p>
+ * Incremental backups only contain the states modified after the last backup, restoring a full archive followed by
+ * its incremental ones gives the latest state of each entity. Removed entities are not tracked by incremental
+ * backups. Writing an incremental archive with the timestamp it starts from keeps that timestamp in its index, so
+ * the next incremental backup can chain from it even when nothing changed.
+ * </p>
+ * <pre><code>
+ * long since = BackupArchive.index( previous ).lastModified();
+ * store.backup().transferTo( Transforms.filter( BackupArchive.modifiedAfter( since ),
+ *                                               BackupArchive.writeTo( file, since ) ) );
+ * BackupArchive.readFrom( full, incremental ).transferTo( store.restore() );
+ * </code></pre>
+ */
+public final class BackupArchive
+{
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int MAGIC = 0x5A455342;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int CHUNK_HEADER_SIZE = 16;
+    private static final int TRAILER_SIZE = 12;
+
+    /**
+     * Write states to an archive file, using one worker per available processor.
+     *
+     * @param archive the archive file, overwritten if it exists
+     *
+     * @return an Output writing the received states to the archive
+     */
+    public static Output<String, IOException> writeTo( File archive )
+    {
+        return writeTo( archive, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE );
+    }
+
+    /**
+     * Write the states of an incremental backup to an archive file, using one worker per available processor.
+     *
+     * @param archive the archive file, overwritten if it exists
+     * @param since   modification time the incremental backup starts from, recorded as the
+     *                {@link Index#lastModified()} of the archive if no archived state is more recent
+     *
+     * @return an Output writing the received states to the archive
+     */
+    public static Output<String, IOException> writeTo( File archive, long since )
+    {
+        return writeTo( archive, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, since );
+    }
+
+    /**
+     * Write states to an archive file.
+     *
+     * @param archive   the archive file, overwritten if it exists
+     * @param workers   number of chunks compressed in parallel
+     * @param chunkSize number of states per chunk
+     *
+     * @return an Output writing the received states to the archive
+     */
+    public static Output<String, IOException> writeTo( File archive, int workers, int chunkSize )
+    {
+        return writeTo( archive, workers, chunkSize, 0 );
+    }
+
+    /**
+     * Write the states of an incremental backup to an archive file.
+     *
+     * @param archive   the archive file, overwritten if it exists
+     * @param workers   number of chunks compressed in parallel
+     * @param chunkSize number of states per chunk
+     * @param since     modification time the incremental backup starts from, recorded as the
+     *                  {@link Index#lastModified()} of the archive if no archived state is more recent
+     *
+     * @return an Output writing the received states to the archive
+     */
+    public static Output<String, IOException> writeTo( final File archive,
+                                                       final int workers,
+                                                       final int chunkSize,
+                                                       final long since )
+    {
+        if( chunkSize < 1 )
+        {
+            throw new IllegalArgumentException( "Chunk size must be positive, was " + chunkSize );
+        }
+        return new Output<String, IOException>()
+        {
+            @Override
+            public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends String, SenderThrowableType> sender )
+                throws IOException, SenderThrowableType
+            {
+                ExecutorService pool = Executors.newFixedThreadPool( Math.max( 1, workers ) );
+                boolean written = false;
+                try( DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream( new FileOutputStream( archive ), 64 * 1024 ) ) )
+                {
+                    final ChunkWriter writer = new ChunkWriter( out, pool, Math.max( 1, workers ) * 2, chunkSize, since );
+                    sender.sendTo( new Receiver<String, IOException>()
+                    {
+                        @Override
+                        public void receive( String item )
+                            throws IOException
+                        {
+                            writer.add( item );
+                        }
+                    } );
+                    writer.finish();
+                    written = true;
+                }
+                finally
+                {
+                    pool.shutdownNow();
+                    if( !written )
+                    {
+                        //noinspection ResultOfMethodCallIgnored
+                        archive.delete();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Read states from archive files, using one worker per available processor.
+     *
+     * @param archives the archive files, read one after the other
+     *
+     * @return an Input sending the archived states
+     */
+    public static Input<String, IOException> readFrom( File... archives )
+    {
+        return readFrom( Runtime.getRuntime().availableProcessors(), archives );
+    }
+
+    /**
+     * Read states from archive files.
+     *
+     * @param workers  number of chunks verified and inflated in parallel
+     * @param archives the archive files, read one after the other
+     *
+     * @return an Input sending the archived states
+     */
+    public static Input<String, IOException> readFrom( final int workers, final File... archives )
+    {
+        return new Input<String, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super String, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                output.receiveFrom( new Sender<String, IOException>()
+                {
+                    @Override
+                    public <RTT extends Throwable> void sendTo( Receiver<? super String, RTT> receiver )
+                        throws RTT, IOException
+                    {
+                        ExecutorService pool = Executors.newFixedThreadPool( Math.max( 1, workers ) );
+                        try
+                        {
+                            for( File archive : archives )
+                            {
+                                sendChunks( archive, pool, Math.max( 1, workers ) * 2, receiver );
+                            }
+                        }
+                        finally
+                        {
+                            pool.shutdownNow();
+                        }
+                    }
+                } );
+            }
+        };
+    }
+
+    /**
+     * Read the index of an archive file.
+     *
+     * @param archive the archive file
+     *
+     * @return the archive index
+     *
+     * @throws IOException if the file is not a complete archive
+     */
+    public static Index index( File archive )
+        throws IOException
+    {
+        try( RandomAccessFile file = new RandomAccessFile( archive, "r" ) )
+        {
+            long length = file.length();
+            if( length < HEADER_SIZE + TRAILER_SIZE || file.readInt() != MAGIC )
+            {
+                throw new IOException( "Not a backup archive: " + archive );
+            }
+            int version = file.readInt();
+            if( version > FORMAT_VERSION )
+            {
+                throw new IOException( "Unsupported backup archive version " + version + ": " + archive );
+            }
+            file.seek( length - TRAILER_SIZE );
+            long indexOffset = file.readLong();
+            if( file.readInt() != MAGIC || indexOffset < HEADER_SIZE || indexOffset >= length - TRAILER_SIZE )
+            {
+                throw new IOException( "Incomplete backup archive: " + archive );
+            }
+            file.seek( indexOffset );
+            long[] offsets = new long[ file.readInt() ];
+            for( int i = 0; i < offsets.length; i++ )
+            {
+                offsets[ i ] = file.readLong();
+            }
+            return new Index( offsets, file.readLong(), file.readLong() );
+        }
+    }
+
+    /**
+     * Select the states modified after a given time, to create incremental backups.
+     *
+     * @param timestamp modification time in milliseconds, typically {@link Index#lastModified()} of the previous backup
+     *
+     * @return a Predicate accepting the states modified after the timestamp
+     */
+    public static Predicate<String> modifiedAfter( final long timestamp )
+    {
+        return state -> modified( state ) > timestamp;
+    }
+
+    private static long modified( String state )
+    {
+        try
+        {
+            JSONObject json = (JSONObject) new JSONTokener( state ).nextValue();
+            return json.optLong( JSONKeys.MODIFIED, Long.MAX_VALUE );
+        }
+        catch( JSONException | ClassCastException e )
+        {
+            // Unreadable states are always backed up
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static <RTT extends Throwable> void sendChunks( File archive,
+                                                            ExecutorService pool,
+                                                            int maxPending,
+                                                            Receiver<? super String, RTT> receiver )
+        throws RTT, IOException
+    {
+        Index index = index( archive );
+        try( final FileChannel channel = FileChannel.open( archive.toPath(), StandardOpenOption.READ ) )
+        {
+            Deque<Future<List<String>>> pending = new ArrayDeque<>();
+            for( final long offset : index.offsets )
+            {
+                pending.add( pool.submit( () -> readChunk( channel, offset ) ) );
+                if( pending.size() >= maxPending )
+                {
+                    for( String state : await( pending.removeFirst() ) )
+                    {
+                        receiver.receive( state );
+                    }
+                }
+            }
+            while( !pending.isEmpty() )
+            {
+                for( String state : await( pending.removeFirst() ) )
+                {
+                    receiver.receive( state );
+                }
+            }
+        }
+    }
+
+    private static List<String> readChunk( FileChannel channel, long offset )
+        throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate( CHUNK_HEADER_SIZE );
+        readFully( channel, header, offset );
+        int count = header.getInt( 0 );
+        int length = header.getInt( 4 );
+        long checksum = header.getLong( 8 );
+        ByteBuffer data = ByteBuffer.allocate( length );
+        readFully( channel, data, offset + CHUNK_HEADER_SIZE );
+
+        CRC32 crc = new CRC32();
+        crc.update( data.array(), 0, length );
+        if( crc.getValue() != checksum )
+        {
+            throw new IOException( "Corrupt backup archive chunk at offset " + offset );
+        }
+        List<String> states = new ArrayList<>( count );
+        try( DataInputStream in = new DataInputStream(
+            new InflaterInputStream( new ByteArrayInputStream( data.array(), 0, length ) ) ) )
+        {
+            for( int i = 0; i < count; i++ )
+            {
+                byte[] state = new byte[ in.readInt() ];
+                in.readFully( state );
+                states.add( new String( state, UTF_8 ) );
+            }
+        }
+        return states;
+    }
+
+    private static void readFully( FileChannel channel, ByteBuffer buffer, long position )
+        throws IOException
+    {
+        while( buffer.hasRemaining() )
+        {
+            if( channel.read( buffer, position + buffer.position() ) < 0 )
+            {
+                throw new EOFException( "Truncated backup archive at offset " + position );
+            }
+        }
+    }
+
+    private static <T> T await( Future<T> future )
+        throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while processing backup archive" );
+        }
+        catch( ExecutionException e )
+        {
+            if( e.getCause() instanceof IOException )
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException( e.getCause() );
+        }
+    }
+
+    private BackupArchive()
+    {
+    }
+
+    /**
+     * Index of a backup archive.
+     */
+    public static final class Index
+    {
+        private final long[] offsets;
+        private final long entities;
+        private final long lastModified;
+
+        private Index( long[] offsets, long entities, long lastModified )
+        {
+            this.offsets = offsets;
+            this.entities = entities;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return number of chunks in the archive
+         */
+        public int chunks()
+        {
+            return offsets.length;
+        }
+
+        /**
+         * @return number of entity states in the archive
+         */
+        public long entities()
+        {
+            return entities;
+        }
+
+        /**
+         * @return most recent modification timestamp of the archived states, or the timestamp an incremental
+         * archive was written since if later, 0 if a full archive is empty
+         */
+        public long lastModified()
+        {
+            return lastModified;
+        }
+    }
+
+    private static final class Chunk
+    {
+        private final int count;
+        private final byte[] data;
+        private final long checksum;
+        private final long lastModified;
+
+        private Chunk( List<String> states )
+            throws IOException
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream( states.size() * 256 );
+            Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+            long modified = 0;
+            try( DataOutputStream out = new DataOutputStream( new DeflaterOutputStream( bytes, deflater ) ) )
+            {
+                for( String state : states )
+                {
+                    byte[] stateBytes = state.getBytes( UTF_8 );
+                    out.writeInt( stateBytes.length );
+                    out.write( stateBytes );
+                    long stateModified = modified( state );
+                    if( stateModified != Long.MAX_VALUE )
+                    {
+                        modified = Math.max( modified, stateModified );
+                    }
+                }
+            }
+            finally
+            {
+                deflater.end();
+            }
+            CRC32 crc = new CRC32();
+            data = bytes.toByteArray();
+            crc.update( data );
+            count = states.size();
+            checksum = crc.getValue();
+            lastModified = modified;
+        }
+    }
+
+    private static final class ChunkWriter
+    {
+        private final DataOutputStream out;
+        private final ExecutorService pool;
+        private final int maxPending;
+        private final int chunkSize;
+        private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        private final List<Long> offsets = new ArrayList<>();
+        private List<String> current;
+        private long offset = HEADER_SIZE;
+        private long entities;
+        private long lastModified;
+
+        private ChunkWriter( DataOutputStream out, ExecutorService pool, int maxPending, int chunkSize, long since )
+            throws IOException
+        {
+            this.out = out;
+            this.pool = pool;
+            this.maxPending = maxPending;
+            this.chunkSize = chunkSize;
+            lastModified = since;
+            current = new ArrayList<>( chunkSize );
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT_VERSION );
+        }
+
+        private void add( String state )
+            throws IOException
+        {
+            current.add( state );
+            if( current.size() >= chunkSize )
+            {
+                submit();
+            }
+        }
+
+        private void finish()
+            throws IOException
+        {
+            if( !current.isEmpty() )
+            {
+                submit();
+            }
+            while( !pending.isEmpty() )
+            {
+                writeNext();
+            }
+            long indexOffset = offset;
+            out.writeInt( offsets.size() );
+            for( Long chunkOffset : offsets )
+            {
+                out.writeLong( chunkOffset );
+            }
+            out.writeLong( entities );
+            out.writeLong( lastModified );
+            out.writeLong( indexOffset );
+            out.writeInt( MAGIC );
+        }
+
+        private void submit()
+            throws IOException
+        {
+            final List<String> states = current;
+            current = new ArrayList<>( chunkSize );
+            pending.add( pool.submit( () -> new Chunk( states ) ) );
+            while( pending.size() > maxPending )
+            {
+                writeNext();
+            }
+        }
+
+        private void writeNext()
+            throws IOException
+        {
+            Chunk chunk = await( pending.removeFirst() );
+            out.writeInt( chunk.count );
+            out.writeInt( chunk.data.length );
+            out.writeLong( chunk.checksum );
+            out.write( chunk.data );
+            offsets.add( offset );
+            offset += CHUNK_HEADER_SIZE + chunk.data.length;
+            entities += chunk.count;
+            lastModified = Math.max( lastModified, chunk.lastModified );
+        }
+    }
+}
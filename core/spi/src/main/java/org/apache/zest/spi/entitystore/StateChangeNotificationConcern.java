@@ -20,19 +20,36 @@
 
 package org.apache.zest.spi.entitystore;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.concern.ConcernOf;
 import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.metrics.MetricsTimer;
+import org.apache.zest.api.service.ServiceReference;
 import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.metrics.Instrumentation;
 
 /**
  * State change notification Concern.
+ * <p>
+ * Listeners assembled with {@link org.apache.zest.spi.metrics.InstrumentationOptions} report how long they take to
+ * process each change set, and the index lag between the start of the UnitOfWork and the end of the notification.
+ * </p>
  */
 public abstract class StateChangeNotificationConcern
     extends ConcernOf<EntityStoreSPI>
     implements EntityStoreSPI
 {
     @Service
-    Iterable<StateChangeListener> listeners;
+    Iterable<ServiceReference<StateChangeListener>> listeners;
+
+    @Optional
+    @Service
+    MetricsProvider metricsProvider;
+
+    private final Map<ServiceReference<StateChangeListener>, Instrumentation> instrumentations = new ConcurrentHashMap<>();
 
     @Override
     public StateCommitter applyChanges( final EntityStoreUnitOfWork unitofwork,
@@ -45,9 +62,20 @@ public abstract class StateChangeNotificationConcern
             @Override
             public void commit()
             {
-                for( StateChangeListener listener : listeners )
+                for( ServiceReference<StateChangeListener> listener : listeners )
                 {
-                    listener.notifyChanges( state );
+                    Instrumentation instrumentation = instrumentation( listener );
+                    MetricsTimer.Context timing = instrumentation.time( "index", null, unitofwork.usecase() );
+                    try
+                    {
+                        listener.get().notifyChanges( state );
+                    }
+                    finally
+                    {
+                        timing.stop();
+                    }
+                    instrumentation.update( "index lag", unitofwork.usecase(),
+                                            System.currentTimeMillis() - unitofwork.currentTime() );
                 }
                 committer.commit();
             }
@@ -59,4 +87,11 @@ public abstract class StateChangeNotificationConcern
             }
         };
     }
+
+    private Instrumentation instrumentation( ServiceReference<StateChangeListener> listener )
+    {
+        return instrumentations.computeIfAbsent(
+            listener,
+            reference -> Instrumentation.of( metricsProvider, reference, reference.identity(), StateChangeListener.class ) );
+    }
 }
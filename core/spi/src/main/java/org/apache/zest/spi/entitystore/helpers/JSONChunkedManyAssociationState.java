@@ -0,0 +1,319 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entity.ManyAssociationState;
+import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * JSON implementation of ManyAssociationState for ManyAssociations stored in chunks.
+ * <p>
+ * The entity state only holds the size of each chunk, the references themselves live in separate chunk records
+ * that are read through {@link Chunks} the first time a reference in them is needed. Changes are kept in the
+ * loaded chunks and written back by {@link JSONMapEntityStoreMixin} on commit, one record per changed chunk.
+ * </p>
+ * <p>Membership checks load all chunks once and then use a hash index.</p>
+ *
+ * @see ManyAssociationChunking
+ */
+final class JSONChunkedManyAssociationState
+    implements ManyAssociationState
+{
+    /**
+     * Access to the chunk records of chunked ManyAssociations.
+     */
+    interface Chunks
+    {
+        /**
+         * @return maximum number of references appended to a single chunk
+         */
+        int chunkSize();
+
+        /**
+         * @param chunkIdentity identity of the chunk record
+         *
+         * @return references held by the chunk record
+         */
+        JSONArray readChunk( String chunkIdentity );
+    }
+
+    private final JSONEntityState entityState;
+    private final String name;
+    private final Chunks chunks;
+    private final int persistedChunks;
+    private final List<List<String>> pages;
+    private final BitSet dirty = new BitSet();
+    private int[] sizes;
+    private int count;
+    private Set<String> index;
+
+    JSONChunkedManyAssociationState( JSONEntityState entityState, String name, JSONObject descriptor, Chunks chunks )
+        throws JSONException
+    {
+        this.entityState = entityState;
+        this.name = name;
+        this.chunks = chunks;
+        JSONArray chunkSizes = descriptor.getJSONArray( JSONKeys.CHUNKS );
+        persistedChunks = chunkSizes.length();
+        sizes = new int[ persistedChunks ];
+        pages = new ArrayList<>( persistedChunks );
+        for( int chunk = 0; chunk < persistedChunks; chunk++ )
+        {
+            sizes[ chunk ] = chunkSizes.getInt( chunk );
+            count += sizes[ chunk ];
+            pages.add( null );
+        }
+    }
+
+    static String chunkIdentity( EntityReference owner, String name, int chunk )
+    {
+        return owner.identity() + "#" + name + "#" + chunk;
+    }
+
+    @Override
+    public int count()
+    {
+        return count;
+    }
+
+    @Override
+    public boolean contains( EntityReference entityReference )
+    {
+        return index().contains( entityReference.identity() );
+    }
+
+    @Override
+    public boolean add( int idx, EntityReference entityReference )
+    {
+        String identity = entityReference.identity();
+        if( index().contains( identity ) )
+        {
+            return false;
+        }
+        if( idx < 0 || idx > count )
+        {
+            throw new EntityStoreException( "ManyAssociation[" + idx + "] is out of bounds." );
+        }
+        int chunk;
+        int offset;
+        if( idx == count )
+        {
+            chunk = sizes.length - 1;
+            offset = count - ( chunk < 0 ? 0 : sizes[ chunk ] );
+            if( chunk < 0 || sizes[ chunk ] >= chunks.chunkSize() )
+            {
+                chunk = sizes.length;
+                offset = count;
+                sizes = Arrays.copyOf( sizes, chunk + 1 );
+                pages.add( new ArrayList<>() );
+            }
+        }
+        else
+        {
+            chunk = 0;
+            offset = 0;
+            while( idx >= offset + sizes[ chunk ] )
+            {
+                offset += sizes[ chunk ];
+                chunk++;
+            }
+        }
+        page( chunk ).add( idx - offset, identity );
+        sizes[ chunk ]++;
+        count++;
+        index.add( identity );
+        dirty.set( chunk );
+        entityState.markUpdated();
+        return true;
+    }
+
+    @Override
+    public boolean remove( EntityReference entityReference )
+    {
+        String identity = entityReference.identity();
+        if( !index().contains( identity ) )
+        {
+            return false;
+        }
+        for( int chunk = 0; chunk < sizes.length; chunk++ )
+        {
+            if( page( chunk ).remove( identity ) )
+            {
+                sizes[ chunk ]--;
+                count--;
+                index.remove( identity );
+                dirty.set( chunk );
+                entityState.markUpdated();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public EntityReference get( int i )
+    {
+        if( i < 0 || i >= count )
+        {
+            throw new EntityStoreException( "ManyAssociation[" + i + "] not found." );
+        }
+        int chunk = 0;
+        int offset = 0;
+        while( i >= offset + sizes[ chunk ] )
+        {
+            offset += sizes[ chunk ];
+            chunk++;
+        }
+        return new EntityReference( page( chunk ).get( i - offset ) );
+    }
+
+    @Override
+    public Iterator<EntityReference> iterator()
+    {
+        return new Iterator<EntityReference>()
+        {
+            private int chunk = 0;
+            private int idx = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                while( chunk < sizes.length && idx >= sizes[ chunk ] )
+                {
+                    chunk++;
+                    idx = 0;
+                }
+                return chunk < sizes.length;
+            }
+
+            @Override
+            public EntityReference next()
+            {
+                if( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                return new EntityReference( page( chunk ).get( idx++ ) );
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException( "remove() is not supported on ManyAssociation iterators." );
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + Arrays.toString( sizes );
+    }
+
+    /**
+     * @return the chunk sizes to keep in the entity state in place of the references
+     */
+    JSONObject descriptor()
+        throws JSONException
+    {
+        return descriptor( sizes );
+    }
+
+    static JSONObject descriptor( int[] sizes )
+        throws JSONException
+    {
+        JSONArray chunkSizes = new JSONArray();
+        for( int size : sizes )
+        {
+            chunkSizes.put( size );
+        }
+        return new JSONObject().put( JSONKeys.CHUNKS, chunkSizes );
+    }
+
+    String name()
+    {
+        return name;
+    }
+
+    int chunkCount()
+    {
+        return sizes.length;
+    }
+
+    boolean isDirty( int chunk )
+    {
+        return dirty.get( chunk );
+    }
+
+    boolean isPersisted( int chunk )
+    {
+        return chunk < persistedChunks;
+    }
+
+    JSONArray chunk( int chunk )
+    {
+        return new JSONArray( page( chunk ) );
+    }
+
+    private List<String> page( int chunk )
+    {
+        List<String> page = pages.get( chunk );
+        if( page == null )
+        {
+            JSONArray references = chunks.readChunk( chunkIdentity( entityState.identity(), name, chunk ) );
+            page = new ArrayList<>( Math.max( references.length(), sizes[ chunk ] ) + 1 );
+            for( int idx = 0; idx < references.length(); idx++ )
+            {
+                page.add( references.optString( idx ) );
+            }
+            count += page.size() - sizes[ chunk ];
+            sizes[ chunk ] = page.size();
+            pages.set( chunk, page );
+        }
+        return page;
+    }
+
+    private Set<String> index()
+    {
+        if( index == null )
+        {
+            Set<String> identities = new HashSet<>( Math.max( 16, (int) ( count / .75f ) + 1 ) );
+            for( int chunk = 0; chunk < sizes.length; chunk++ )
+            {
+                identities.addAll( page( chunk ) );
+            }
+            index = identities;
+        }
+        return index;
+    }
+}
@@ -19,6 +19,12 @@
  */
 package org.apache.zest.spi.entitystore.helpers;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.zest.api.common.QualifiedName;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
@@ -38,29 +44,33 @@ import org.json.JSONObject;
 
 /**
  * Standard JSON implementation of EntityState.
+ * <p>
+ * Loaded state may be shared with the cache and other UnitOfWorks, and is then copied on write: the first change
+ * copies the top level object and the changed section only, and a ManyAssociation or NamedAssociation is copied
+ * when it is first changed. Untouched sections and associations stay shared.
+ * </p>
  */
 public final class JSONEntityState
     implements EntityState
 {
     private static final String[] EMPTY_NAMES = new String[ 0 ];
-    private static final String[] CLONE_NAMES =
-        {
-            JSONKeys.IDENTITY,
-            JSONKeys.APPLICATION_VERSION,
-            JSONKeys.TYPE,
-            JSONKeys.VERSION,
-            JSONKeys.MODIFIED
-        };
 
     private final ModuleDescriptor module;
     private final ValueSerialization valueSerialization;
     private final String version;
     private final EntityReference identity;
     private final EntityDescriptor entityDescriptor;
+    private final JSONChunkedManyAssociationState.Chunks chunks;
+    private final boolean shared;
 
     private EntityStatus status;
     private long lastModified;
     private JSONObject state;
+    private boolean ownState;
+    private Set<String> ownSections;
+    private Map<String, ManyAssociationState> manyAssociations;
+    private Map<String, NamedAssociationState> namedAssociations;
+    private Map<String, String> sectionTexts;
 
     /* package */ JSONEntityState( ModuleDescriptor module,
                                    ValueSerialization valueSerialization,
@@ -71,6 +81,20 @@ public final class JSONEntityState
                                    EntityDescriptor entityDescriptor,
                                    JSONObject state
     )
+    {
+        this( module, valueSerialization, version, lastModified, identity, status, entityDescriptor, state, null );
+    }
+
+    /* package */ JSONEntityState( ModuleDescriptor module,
+                                   ValueSerialization valueSerialization,
+                                   String version,
+                                   long lastModified,
+                                   EntityReference identity,
+                                   EntityStatus status,
+                                   EntityDescriptor entityDescriptor,
+                                   JSONObject state,
+                                   JSONChunkedManyAssociationState.Chunks chunks
+    )
     {
         this.module = module;
         this.valueSerialization = valueSerialization;
@@ -80,6 +104,8 @@ public final class JSONEntityState
         this.status = status;
         this.entityDescriptor = entityDescriptor;
         this.state = state;
+        this.chunks = chunks;
+        this.shared = status != EntityStatus.NEW;
     }
 
     // EntityState implementation
@@ -153,8 +179,7 @@ public final class JSONEntityState
                     jsonValue = serialized;
                 }
             }
-            cloneStateIfGlobalStateLoaded();
-            state.getJSONObject( JSONKeys.PROPERTIES ).put( stateName.name(), jsonValue );
+            writableSection( JSONKeys.PROPERTIES ).put( stateName.name(), jsonValue );
             markUpdated();
         }
         catch( ValueSerializationException | JSONException e )
@@ -201,10 +226,9 @@ public final class JSONEntityState
     {
         try
         {
-            cloneStateIfGlobalStateLoaded();
-            state.getJSONObject( JSONKeys.ASSOCIATIONS ).put( stateName.name(), newEntity == null
-                                                                                ? null
-                                                                                : newEntity.identity() );
+            writableSection( JSONKeys.ASSOCIATIONS ).put( stateName.name(), newEntity == null
+                                                                           ? null
+                                                                           : newEntity.identity() );
             markUpdated();
         }
         catch( JSONException e )
@@ -216,16 +240,37 @@ public final class JSONEntityState
     @Override
     public ManyAssociationState manyAssociationValueOf( QualifiedName stateName )
     {
+        String name = stateName.name();
+        if( manyAssociations == null )
+        {
+            manyAssociations = new HashMap<>();
+        }
+        ManyAssociationState manyAssociation = manyAssociations.get( name );
+        if( manyAssociation != null )
+        {
+            return manyAssociation;
+        }
         try
         {
-            JSONObject manyAssociations = state.getJSONObject( JSONKeys.MANY_ASSOCIATIONS );
-            JSONArray jsonValues = manyAssociations.optJSONArray( stateName.name() );
-            if( jsonValues == null )
+            JSONObject jsonManyAssociations = state.getJSONObject( JSONKeys.MANY_ASSOCIATIONS );
+            Object jsonValues = jsonManyAssociations.opt( name );
+            if( jsonValues instanceof JSONObject )
+            {
+                if( chunks == null )
+                {
+                    throw new EntityStoreException( "ManyAssociation " + name + " of " + identity
+                                                    + " is stored in chunks that cannot be read here." );
+                }
+                manyAssociation = new JSONChunkedManyAssociationState( this, name, (JSONObject) jsonValues, chunks );
+            }
+            else
             {
-                jsonValues = new JSONArray();
-                manyAssociations.put( stateName.name(), jsonValues );
+                // A missing ManyAssociation is only added to the state when it is first changed
+                JSONArray references = jsonValues instanceof JSONArray ? (JSONArray) jsonValues : new JSONArray();
+                manyAssociation = new JSONManyAssociationState( this, name, references );
             }
-            return new JSONManyAssociationState( this, jsonValues );
+            manyAssociations.put( name, manyAssociation );
+            return manyAssociation;
         }
         catch( JSONException e )
         {
@@ -236,16 +281,23 @@ public final class JSONEntityState
     @Override
     public NamedAssociationState namedAssociationValueOf( QualifiedName stateName )
     {
+        String name = stateName.name();
+        if( namedAssociations == null )
+        {
+            namedAssociations = new HashMap<>();
+        }
+        NamedAssociationState namedAssociation = namedAssociations.get( name );
+        if( namedAssociation != null )
+        {
+            return namedAssociation;
+        }
         try
         {
-            JSONObject namedAssociations = state.getJSONObject( JSONKeys.NAMED_ASSOCIATIONS );
-            JSONObject jsonValues = namedAssociations.optJSONObject( stateName.name() );
-            if( jsonValues == null )
-            {
-                jsonValues = new JSONObject();
-                namedAssociations.put( stateName.name(), jsonValues );
-            }
-            return new JSONNamedAssociationState( this, jsonValues );
+            JSONObject jsonValues = state.getJSONObject( JSONKeys.NAMED_ASSOCIATIONS ).optJSONObject( name );
+            // A missing NamedAssociation is only added to the state when it is first changed
+            namedAssociation = new JSONNamedAssociationState( this, name, jsonValues == null ? new JSONObject() : jsonValues );
+            namedAssociations.put( name, namedAssociation );
+            return namedAssociation;
         }
         catch( JSONException e )
         {
@@ -282,6 +334,25 @@ public final class JSONEntityState
         return state;
     }
 
+    /**
+     * @return the chunked ManyAssociations read through this state
+     */
+    /* package */ List<JSONChunkedManyAssociationState> chunkedManyAssociations()
+    {
+        List<JSONChunkedManyAssociationState> chunked = new ArrayList<>();
+        if( manyAssociations != null )
+        {
+            for( ManyAssociationState manyAssociation : manyAssociations.values() )
+            {
+                if( manyAssociation instanceof JSONChunkedManyAssociationState )
+                {
+                    chunked.add( (JSONChunkedManyAssociationState) manyAssociation );
+                }
+            }
+        }
+        return chunked;
+    }
+
     @Override
     public String toString()
     {
@@ -296,29 +367,96 @@ public final class JSONEntityState
         }
     }
 
-    void cloneStateIfGlobalStateLoaded()
+    /**
+     * @return the top level state object, copied first if it is shared
+     */
+    /* package */ JSONObject writableState()
+        throws JSONException
     {
-        if( status != EntityStatus.LOADED )
+        if( shared && !ownState )
         {
-            return;
+            state = cloneJSON( state );
+            ownState = true;
         }
+        return state;
+    }
 
-        try
+    /**
+     * @param section one of the section keys of {@link JSONKeys}
+     *
+     * @return the section of the state, copied first if it is shared
+     */
+    /* package */ JSONObject writableSection( String section )
+        throws JSONException
+    {
+        JSONObject json = writableState().getJSONObject( section );
+        if( shared && ( ownSections == null || !ownSections.contains( section ) ) )
         {
-            JSONObject newProperties = cloneJSON( state.getJSONObject( JSONKeys.PROPERTIES ) );
-            JSONObject newAssoc = cloneJSON( state.getJSONObject( JSONKeys.ASSOCIATIONS ) );
-            JSONObject newManyAssoc = cloneJSON( state.getJSONObject( JSONKeys.MANY_ASSOCIATIONS ) );
-            JSONObject newNamedAssoc = cloneJSON( state.getJSONObject( JSONKeys.NAMED_ASSOCIATIONS ) );
-            JSONObject stateClone = new JSONObject( state, CLONE_NAMES );
-            stateClone.put( JSONKeys.PROPERTIES, newProperties );
-            stateClone.put( JSONKeys.ASSOCIATIONS, newAssoc );
-            stateClone.put( JSONKeys.MANY_ASSOCIATIONS, newManyAssoc );
-            stateClone.put( JSONKeys.NAMED_ASSOCIATIONS, newNamedAssoc );
-            state = stateClone;
+            json = cloneJSON( json );
+            state.put( section, json );
+            if( ownSections == null )
+            {
+                ownSections = new HashSet<>( 4 );
+            }
+            ownSections.add( section );
         }
-        catch( JSONException e )
+        return json;
+    }
+
+    /**
+     * @param sectionTexts serialized text of the sections of this state, by section key
+     */
+    /* package */ void sectionTexts( Map<String, String> sectionTexts )
+    {
+        this.sectionTexts = sectionTexts;
+    }
+
+    /* package */ Map<String, String> sectionTexts()
+    {
+        return sectionTexts;
+    }
+
+    /**
+     * @param section one of the section keys of {@link JSONKeys}
+     *
+     * @return the serialized text of the section if it is known and the section is still shared, null otherwise
+     */
+    /* package */ String sharedSectionText( String section )
+    {
+        if( sectionTexts == null || !shared || ( ownSections != null && ownSections.contains( section ) ) )
         {
-            throw new EntityStoreException( e );
+            return null;
+        }
+        return sectionTexts.get( section );
+    }
+
+    /**
+     * @return the ManyAssociation references to change, copied first if the state is shared
+     */
+    /* package */ JSONArray writableManyAssociation( String name, JSONArray references )
+        throws JSONException
+    {
+        JSONArray writable = references;
+        if( shared )
+        {
+            writable = new JSONArray();
+            for( int idx = 0; idx < references.length(); idx++ )
+            {
+                writable.put( references.opt( idx ) );
+            }
         }
+        writableSection( JSONKeys.MANY_ASSOCIATIONS ).put( name, writable );
+        return writable;
+    }
+
+    /**
+     * @return the NamedAssociation references to change, copied first if the state is shared
+     */
+    /* package */ JSONObject writableNamedAssociation( String name, JSONObject references )
+        throws JSONException
+    {
+        JSONObject writable = shared ? cloneJSON( references ) : references;
+        writableSection( JSONKeys.NAMED_ASSOCIATIONS ).put( name, writable );
+        return writable;
     }
 }
@@ -60,4 +60,12 @@ public interface JSONKeys
      * Map of namedassociations.
      */
     String NAMED_ASSOCIATIONS = "namedassociations";
+    /**
+     * Sizes of the chunk records of a manyassociation stored in chunks, see {@link ManyAssociationChunking}.
+     */
+    String CHUNKS = "chunks";
+    /**
+     * References held by a manyassociation chunk record, see {@link ManyAssociationChunking}.
+     */
+    String CHUNK_REFERENCES = "chunk_references";
 }
@@ -19,8 +19,10 @@
  */
 package org.apache.zest.spi.entitystore.helpers;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.apache.zest.api.entity.EntityReference;
@@ -30,18 +32,33 @@ import org.apache.zest.spi.entitystore.EntityStoreException;
 /**
  * JSON implementation of ManyAssociationState.
  * <p>Backed by a JSONArray.</p>
+ * <p>Membership is answered by a hash index over the referenced identities, built on first use, so that
+ * {@link #contains(EntityReference)} and the duplicate check of {@link #add(int, EntityReference)} are O(1).</p>
  */
 public final class JSONManyAssociationState
     implements ManyAssociationState
 {
 
     private final JSONEntityState entityState;
-    private final JSONArray references;
+    private final String name;
+    private JSONArray references;
+    private boolean writable;
+    private Set<String> index;
 
     public JSONManyAssociationState( JSONEntityState entityState, JSONArray references )
     {
         this.entityState = entityState;
+        this.name = null;
         this.references = references;
+        this.writable = true;
+    }
+
+    /* package */ JSONManyAssociationState( JSONEntityState entityState, String name, JSONArray references )
+    {
+        this.entityState = entityState;
+        this.name = name;
+        this.references = references;
+        this.writable = false;
     }
 
     @Override
@@ -53,7 +70,7 @@ public final class JSONManyAssociationState
     @Override
     public boolean contains( EntityReference entityReference )
     {
-        return indexOfReference( entityReference.identity() ) != -1;
+        return index().contains( entityReference.identity() );
     }
 
     @Override
@@ -61,12 +78,14 @@ public final class JSONManyAssociationState
     {
         try
         {
-            if( indexOfReference( entityReference.identity() ) != -1 )
+            String identity = entityReference.identity();
+            if( index().contains( identity ) )
             {
                 return false;
             }
-            entityState.cloneStateIfGlobalStateLoaded();
-            insertReference( idx, entityReference.identity() );
+            ensureWritable();
+            insertReference( idx, identity );
+            index.add( identity );
             entityState.markUpdated();
             return true;
         }
@@ -79,15 +98,23 @@ public final class JSONManyAssociationState
     @Override
     public boolean remove( EntityReference entityReference )
     {
-        int refIndex = indexOfReference( entityReference.identity() );
-        if( refIndex != -1 )
+        String identity = entityReference.identity();
+        if( !index().contains( identity ) )
         {
-            entityState.cloneStateIfGlobalStateLoaded();
-            references.remove( refIndex );
-            entityState.markUpdated();
-            return true;
+            return false;
+        }
+        try
+        {
+            ensureWritable();
+        }
+        catch( JSONException e )
+        {
+            throw new EntityStoreException( e );
         }
-        return false;
+        references.remove( indexOfReference( identity ) );
+        index.remove( identity );
+        entityState.markUpdated();
+        return true;
     }
 
     @Override
@@ -145,6 +172,31 @@ public final class JSONManyAssociationState
         return references.toString();
     }
 
+    private void ensureWritable()
+        throws JSONException
+    {
+        if( !writable )
+        {
+            references = entityState.writableManyAssociation( name, references );
+            writable = true;
+        }
+    }
+
+    private Set<String> index()
+    {
+        if( index == null )
+        {
+            int length = references.length();
+            Set<String> identities = new HashSet<>( Math.max( 16, (int) ( length / .75f ) + 1 ) );
+            for( int idx = 0; idx < length; idx++ )
+            {
+                identities.add( references.optString( idx ) );
+            }
+            index = identities;
+        }
+        return index;
+    }
+
     private int indexOfReference( Object item )
     {
         for( int idx = 0; idx < references.length(); idx++ )
@@ -164,27 +216,21 @@ public final class JSONManyAssociationState
         {
             throw new JSONException( "JSONArray[" + insert + "] is out of bounds." );
         }
-        if( insert == references.length() )
+        int length = references.length();
+        if( insert == length )
         {
             // append
             references.put( item );
         }
         else
         {
-            // insert (copy/insert/apply)
-            JSONArray output = new JSONArray();
-            for( int idx = 0; idx < references.length(); idx++ )
-            {
-                if( idx == insert )
-                {
-                    output.put( item );
-                }
-                output.put( references.opt( idx ) );
-            }
-            for( int idx = 0; idx < output.length(); idx++ )
+            // insert, shifting the tail one slot to the right in place
+            references.put( references.opt( length - 1 ) );
+            for( int idx = length - 1; idx > insert; idx-- )
             {
-                references.put( idx, output.opt( idx ) );
+                references.put( idx, references.opt( idx - 1 ) );
             }
+            references.put( insert, item );
         }
     }
 }
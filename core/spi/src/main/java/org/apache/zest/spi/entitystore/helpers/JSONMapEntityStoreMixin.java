@@ -19,6 +19,7 @@
  */
 package org.apache.zest.spi.entitystore.helpers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -26,8 +27,21 @@ import java.io.ObjectOutput;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import org.apache.zest.api.cache.CacheOptions;
 import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.entity.EntityDescriptor;
@@ -36,6 +50,8 @@ import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
 import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.metrics.MetricsTimer;
 import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.service.qualifier.Tagged;
 import org.apache.zest.api.structure.Application;
@@ -51,6 +67,7 @@ import org.apache.zest.spi.ZestSPI;
 import org.apache.zest.spi.cache.Cache;
 import org.apache.zest.spi.cache.CachePool;
 import org.apache.zest.spi.cache.NullCache;
+import org.apache.zest.spi.cache.SharedCachePool;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entitystore.DefaultEntityStoreUnitOfWork;
@@ -59,10 +76,14 @@ import org.apache.zest.spi.entitystore.EntityStoreException;
 import org.apache.zest.spi.entitystore.EntityStoreSPI;
 import org.apache.zest.spi.entitystore.EntityStoreUnitOfWork;
 import org.apache.zest.spi.entitystore.StateCommitter;
+import org.apache.zest.spi.metrics.Instrumentation;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Implementation of EntityStore that works with an implementation of MapEntityStore.
  *
@@ -70,9 +91,19 @@ import org.json.JSONTokener;
  * <p>See {@link org.apache.zest.entitystore.memory.MemoryMapEntityStoreMixin} for reference.</p>
  * <p>EntityStores based on this mixin gets support for the <b>Migration</b> and <b>Cache</b> extensions.</p>
  * <p>MapEntityStore implementations will get their values as JSON.</p>
+ * <p>Entity loads, cache hits and commits are instrumented when the service is assembled with
+ * {@link org.apache.zest.spi.metrics.InstrumentationOptions}.</p>
+ * <p>The Cache is fetched with an id unique to each run, or with the identity of the service when the CachePool is a
+ * {@link SharedCachePool} sharing its Caches, so that all nodes see the same Cache. Commits put changed states into
+ * the Cache, or remove them from it when the usecase does not cache on write, which lets such a CachePool invalidate
+ * the copies held by other nodes.</p>
+ * <p>Cached entity states are never changed in place, so the serialized text of the sections an update did not touch
+ * is kept with the cached state and reused by the next commit of the same entity.</p>
+ * <p>Large ManyAssociations are stored in separate chunk records when the service is assembled with
+ * {@link ManyAssociationChunking}.</p>
  */
 public class JSONMapEntityStoreMixin
-    implements EntityStore, EntityStoreSPI, StateStore, JSONMapEntityStoreActivation
+    implements EntityStore, EntityStoreSPI, StateStore, MigratableStateStore, JSONMapEntityStoreActivation
 {
     @This
     private MapEntityStore mapEntityStore;
@@ -102,6 +133,14 @@ public class JSONMapEntityStoreMixin
     private CachePool caching;
     private Cache<CacheState> cache;
 
+    @Optional
+    @Service
+    private MetricsProvider metricsProvider;
+    private Instrumentation instrumentation = Instrumentation.DISABLED;
+
+    private ManyAssociationChunking chunking;
+    private final JSONChunkedManyAssociationState.Chunks chunks = new StoreChunks();
+
     protected String uuid;
     private int count;
 
@@ -116,12 +155,15 @@ public class JSONMapEntityStoreMixin
         uuid = descriptor.identity() + "-" + UUID.randomUUID().toString();
         if( caching != null )
         {
-            cache = caching.fetchCache( uuid, CacheState.class );
+            boolean shared = caching instanceof SharedCachePool && ( (SharedCachePool) caching ).isShared();
+            cache = caching.fetchCache( shared ? descriptor.identity() : uuid, CacheState.class );
         }
         else
         {
             cache = new NullCache<>();
         }
+        instrumentation = Instrumentation.of( metricsProvider, descriptor, descriptor.identity(), getClass() );
+        chunking = descriptor.metaInfo( ManyAssociationChunking.class );
     }
 
     @Override
@@ -170,7 +212,8 @@ public class JSONMapEntityStoreMixin
                                         identity,
                                         EntityStatus.NEW,
                                         entityDescriptor,
-                                        state );
+                                        state,
+                                        chunks );
         }
         catch( JSONException e )
         {
@@ -184,19 +227,32 @@ public class JSONMapEntityStoreMixin
                                                    EntityReference identity
     )
     {
-        EntityState state = fetchCachedState( identity, module, unitOfWork.currentTime() );
-        if( state != null )
+        MetricsTimer.Context timing = instrumentation.time( "load", null, unitOfWork.usecase() );
+        try
         {
-            return state;
+            EntityState state = fetchCachedState( identity, module, unitOfWork.currentTime() );
+            if( state != null )
+            {
+                instrumentation.count( "cache hit", state.entityDescriptor().primaryType(), unitOfWork.usecase() );
+                return state;
+            }
+            // Get state
+            Reader in = mapEntityStore.get( identity );
+            JSONEntityState loadedState = readEntityState( module, in );
+            if( caching != null )
+            {
+                instrumentation.count( "cache miss", loadedState.entityDescriptor().primaryType(), unitOfWork.usecase() );
+            }
+            if( doCacheOnRead( unitOfWork ) )
+            {
+                cache.put( identity.identity(), new CacheState( loadedState.state() ) );
+            }
+            return loadedState;
         }
-        // Get state
-        Reader in = mapEntityStore.get( identity );
-        JSONEntityState loadedState = readEntityState( module, in );
-        if( doCacheOnRead( unitOfWork ) )
+        finally
         {
-            cache.put( identity.identity(), new CacheState( loadedState.state() ) );
+            timing.stop();
         }
-        return loadedState;
     }
 
     @Override
@@ -241,6 +297,7 @@ public class JSONMapEntityStoreMixin
             @Override
             public void commit()
             {
+                MetricsTimer.Context timing = instrumentation.time( "commit", null, unitOfWork.usecase() );
                 try
                 {
                     mapEntityStore.applyChanges( new MapEntityStore.MapChanges()
@@ -258,30 +315,43 @@ public class JSONMapEntityStoreMixin
                             for( EntityState entityState : state )
                             {
                                 JSONEntityState state = (JSONEntityState) entityState;
+                                if( state.status() != EntityStatus.LOADED )
+                                {
+                                    instrumentation.count( state.status().name().toLowerCase(),
+                                                           state.entityDescriptor().primaryType(),
+                                                           unitOfWork.usecase() );
+                                }
                                 if( state.status().equals( EntityStatus.NEW ) )
                                 {
+                                    writeChunks( changer, state );
                                     try (Writer writer = changer.newEntity( state.identity(), state.entityDescriptor() ))
                                     {
                                         writeEntityState( state, writer, unitOfWork.identity(), unitOfWork.currentTime() );
                                     }
                                     if( options.cacheOnNew() )
                                     {
-                                        cache.put( state.identity().identity(), new CacheState( state.state() ) );
+                                        cache.put( state.identity().identity(), new CacheState( state.state(), state.sectionTexts() ) );
                                     }
                                 }
                                 else if( state.status().equals( EntityStatus.UPDATED ) )
                                 {
+                                    writeChunks( changer, state );
                                     try (Writer writer = changer.updateEntity( state.identity(), state.entityDescriptor() ))
                                     {
                                         writeEntityState( state, writer, unitOfWork.identity(), unitOfWork.currentTime() );
                                     }
                                     if( options.cacheOnWrite() )
                                     {
-                                        cache.put( state.identity().identity(), new CacheState( state.state() ) );
+                                        cache.put( state.identity().identity(), new CacheState( state.state(), state.sectionTexts() ) );
+                                    }
+                                    else
+                                    {
+                                        cache.remove( state.identity().identity() );
                                     }
                                 }
                                 else if( state.status().equals( EntityStatus.REMOVED ) )
                                 {
+                                    removeChunks( changer, state );
                                     changer.removeEntity( state.identity(), state.entityDescriptor() );
                                     cache.remove( state.identity().identity() );
                                 }
@@ -293,6 +363,10 @@ public class JSONMapEntityStoreMixin
                 {
                     throw new EntityStoreException( e );
                 }
+                finally
+                {
+                    timing.stop();
+                }
             }
 
             @Override
@@ -332,7 +406,13 @@ public class JSONMapEntityStoreMixin
                                         public void receive( Reader item )
                                             throws ReceiverThrowableType
                                         {
-                                            final EntityState entity = readEntityState( module, item );
+                                            JSONObject jsonObject = readJSON( item );
+                                            if( jsonObject.has( JSONKeys.CHUNK_REFERENCES ) )
+                                            {
+                                                // ManyAssociation chunks are read through their owning entity
+                                                return;
+                                            }
+                                            final EntityState entity = readEntityState( module, jsonObject );
                                             if( entity.status() == EntityStatus.UPDATED )
                                             {
                                                 migrated.add( entity );
@@ -401,6 +481,24 @@ public class JSONMapEntityStoreMixin
         migratedEntities.clear();
     }
 
+    @Override
+    public long migrateAll( ModuleDescriptor module, int workers, int batchSize, Progress progress )
+        throws IOException
+    {
+        BulkMigration bulk = new BulkMigration( module, workers, batchSize, progress );
+        try
+        {
+            mapEntityStore.entityStates().transferTo( bulk );
+        }
+        finally
+        {
+            bulk.awaitWorkers();
+        }
+        // Batches migrated by the workers after the last write of the streaming thread
+        bulk.writeMigrated();
+        return bulk.written.get();
+    }
+
     protected String newUnitOfWorkId()
     {
         return uuid + Integer.toHexString( count++ );
@@ -411,10 +509,38 @@ public class JSONMapEntityStoreMixin
     {
         try
         {
-            JSONObject jsonState = state.state();
+            JSONObject jsonState = state.writableState();
             jsonState.put( JSONKeys.VERSION, identity );
             jsonState.put( JSONKeys.MODIFIED, lastModified );
-            writer.append( jsonState.toString() );
+            String[] names = JSONObject.getNames( jsonState );
+            Map<String, String> sectionTexts = new HashMap<>( 8 );
+            writer.append( '{' );
+            for( int idx = 0; names != null && idx < names.length; idx++ )
+            {
+                Object value = jsonState.opt( names[ idx ] );
+                String text;
+                if( value instanceof JSONObject )
+                {
+                    // Sections still shared with the cached state are unchanged since they were last serialized
+                    text = state.sharedSectionText( names[ idx ] );
+                    if( text == null )
+                    {
+                        text = value.toString();
+                    }
+                    sectionTexts.put( names[ idx ], text );
+                }
+                else
+                {
+                    text = JSONObject.valueToString( value );
+                }
+                if( idx > 0 )
+                {
+                    writer.append( ',' );
+                }
+                writer.append( JSONObject.quote( names[ idx ] ) ).append( ':' ).append( text );
+            }
+            writer.append( '}' );
+            state.sectionTexts( sectionTexts );
         }
         catch( JSONException | IOException e )
         {
@@ -422,12 +548,118 @@ public class JSONMapEntityStoreMixin
         }
     }
 
+    private void writeChunks( MapEntityStore.MapChanger changer, JSONEntityState state )
+        throws IOException
+    {
+        try
+        {
+            for( JSONChunkedManyAssociationState chunked : state.chunkedManyAssociations() )
+            {
+                for( int chunk = 0; chunk < chunked.chunkCount(); chunk++ )
+                {
+                    if( chunked.isDirty( chunk ) )
+                    {
+                        writeChunk( changer, state, chunked.name(), chunk, chunked.chunk( chunk ), chunked.isPersisted( chunk ) );
+                    }
+                }
+                state.writableSection( JSONKeys.MANY_ASSOCIATIONS ).put( chunked.name(), chunked.descriptor() );
+            }
+            if( chunking == null )
+            {
+                return;
+            }
+            JSONObject manyAssociations = state.state().getJSONObject( JSONKeys.MANY_ASSOCIATIONS );
+            String[] names = JSONObject.getNames( manyAssociations );
+            if( names == null )
+            {
+                return;
+            }
+            for( String name : names )
+            {
+                JSONArray references = manyAssociations.optJSONArray( name );
+                if( references != null && references.length() > chunking.threshold() )
+                {
+                    int chunkSize = chunking.chunkSize();
+                    int[] sizes = new int[ ( references.length() + chunkSize - 1 ) / chunkSize ];
+                    for( int chunk = 0; chunk < sizes.length; chunk++ )
+                    {
+                        JSONArray chunkReferences = new JSONArray();
+                        int end = Math.min( references.length(), ( chunk + 1 ) * chunkSize );
+                        for( int idx = chunk * chunkSize; idx < end; idx++ )
+                        {
+                            chunkReferences.put( references.opt( idx ) );
+                        }
+                        sizes[ chunk ] = chunkReferences.length();
+                        writeChunk( changer, state, name, chunk, chunkReferences, false );
+                    }
+                    state.writableSection( JSONKeys.MANY_ASSOCIATIONS )
+                        .put( name, JSONChunkedManyAssociationState.descriptor( sizes ) );
+                }
+            }
+        }
+        catch( JSONException e )
+        {
+            throw new EntityStoreException( "Could not store ManyAssociation chunks", e );
+        }
+    }
+
+    private void writeChunk( MapEntityStore.MapChanger changer,
+                             JSONEntityState state,
+                             String name,
+                             int chunk,
+                             JSONArray references,
+                             boolean persisted
+    )
+        throws IOException, JSONException
+    {
+        String chunkIdentity = JSONChunkedManyAssociationState.chunkIdentity( state.identity(), name, chunk );
+        EntityReference reference = EntityReference.parseEntityReference( chunkIdentity );
+        JSONObject record = new JSONObject();
+        record.put( JSONKeys.IDENTITY, chunkIdentity );
+        record.put( JSONKeys.CHUNK_REFERENCES, references );
+        try (Writer writer = persisted
+                             ? changer.updateEntity( reference, state.entityDescriptor() )
+                             : changer.newEntity( reference, state.entityDescriptor() ))
+        {
+            writer.append( record.toString() );
+        }
+    }
+
+    private void removeChunks( MapEntityStore.MapChanger changer, JSONEntityState state )
+        throws IOException
+    {
+        JSONObject manyAssociations = state.state().optJSONObject( JSONKeys.MANY_ASSOCIATIONS );
+        String[] names = manyAssociations == null ? null : JSONObject.getNames( manyAssociations );
+        if( names == null )
+        {
+            return;
+        }
+        for( String name : names )
+        {
+            JSONObject chunked = manyAssociations.optJSONObject( name );
+            JSONArray sizes = chunked == null ? null : chunked.optJSONArray( JSONKeys.CHUNKS );
+            if( sizes != null )
+            {
+                for( int chunk = 0; chunk < sizes.length(); chunk++ )
+                {
+                    String chunkIdentity = JSONChunkedManyAssociationState.chunkIdentity( state.identity(), name, chunk );
+                    changer.removeEntity( EntityReference.parseEntityReference( chunkIdentity ), state.entityDescriptor() );
+                }
+            }
+        }
+    }
+
     protected JSONEntityState readEntityState( ModuleDescriptor module, Reader entityState )
         throws EntityStoreException
+    {
+        return readEntityState( module, readJSON( entityState ) );
+    }
+
+    protected JSONEntityState readEntityState( ModuleDescriptor module, JSONObject jsonObject )
+        throws EntityStoreException
     {
         try
         {
-            JSONObject jsonObject = new JSONObject( new JSONTokener( entityState ) );
             EntityStatus status = EntityStatus.LOADED;
 
             String version = jsonObject.getString( JSONKeys.VERSION );
@@ -472,7 +704,8 @@ public class JSONMapEntityStoreMixin
                                         EntityReference.parseEntityReference( identity ),
                                         status,
                                         entityDescriptor,
-                                        jsonObject
+                                        jsonObject,
+                                        chunks
             );
         }
         catch( JSONException e )
@@ -481,6 +714,19 @@ public class JSONMapEntityStoreMixin
         }
     }
 
+    private JSONObject readJSON( Reader reader )
+        throws EntityStoreException
+    {
+        try
+        {
+            return new JSONObject( new JSONTokener( reader ) );
+        }
+        catch( JSONException e )
+        {
+            throw new EntityStoreException( e );
+        }
+    }
+
     @Override
     public JSONObject jsonStateOf( String id )
         throws IOException
@@ -505,7 +751,9 @@ public class JSONMapEntityStoreMixin
             {
                 String type = data.getString( JSONKeys.TYPE );
                 EntityDescriptor entityDescriptor = module.entityDescriptor( type );
-                return new JSONEntityState( module, valueSerialization, data.getString( JSONKeys.VERSION ), data.getLong( JSONKeys.MODIFIED ), identity, EntityStatus.LOADED, entityDescriptor, data );
+                JSONEntityState state = new JSONEntityState( module, valueSerialization, data.getString( JSONKeys.VERSION ), data.getLong( JSONKeys.MODIFIED ), identity, EntityStatus.LOADED, entityDescriptor, data, chunks );
+                state.sectionTexts( cacheState.sectionTexts );
+                return state;
             }
             catch( JSONException e )
             {
@@ -522,10 +770,215 @@ public class JSONMapEntityStoreMixin
         return cacheOptions == null || cacheOptions.cacheOnRead();
     }
 
+    private class StoreChunks
+        implements JSONChunkedManyAssociationState.Chunks
+    {
+        @Override
+        public int chunkSize()
+        {
+            return chunking == null ? ManyAssociationChunking.DEFAULT_CHUNK_SIZE : chunking.chunkSize();
+        }
+
+        @Override
+        public JSONArray readChunk( String chunkIdentity )
+        {
+            try (Reader reader = mapEntityStore.get( EntityReference.parseEntityReference( chunkIdentity ) ))
+            {
+                return readJSON( reader ).getJSONArray( JSONKeys.CHUNK_REFERENCES );
+            }
+            catch( IOException | JSONException e )
+            {
+                throw new EntityStoreException( "Could not read ManyAssociation chunk " + chunkIdentity, e );
+            }
+        }
+    }
+
+    /**
+     * Streams the stored states, hands the ones not at the application version to the migration workers in batches
+     * and writes each migrated batch back.
+     * <p>
+     * Workers only migrate. Batches are written by the streaming thread, as MapEntityStores may hold their lock while
+     * streaming, and that thread never waits for a worker: when all workers are busy it migrates the batch itself.
+     * Batches still migrating when the stream ends are written once it is closed.
+     * </p>
+     */
+    private class BulkMigration
+        implements Output<Reader, IOException>, Receiver<Reader, IOException>
+    {
+        private final ModuleDescriptor module;
+        private final int batchSize;
+        private final Progress progress;
+        private final String toVersion = application.version();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final ExecutorService executor;
+        private final Semaphore inFlight;
+        private final BlockingQueue<List<EntityState>> migrated = new LinkedBlockingQueue<>();
+        private List<JSONObject> batch = new ArrayList<>();
+
+        private BulkMigration( ModuleDescriptor module, int workers, int batchSize, Progress progress )
+        {
+            this.module = module;
+            this.batchSize = Math.max( 1, batchSize );
+            this.progress = progress;
+            // Without parallel workers, batches are migrated by the streaming thread
+            this.executor = workers > 1 ? Executors.newFixedThreadPool( workers ) : null;
+            this.inFlight = new Semaphore( Math.max( 1, workers ) * 2 );
+        }
+
+        @Override
+        public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends Reader, SenderThrowableType> sender )
+            throws IOException, SenderThrowableType
+        {
+            sender.sendTo( this );
+            if( !batch.isEmpty() )
+            {
+                submit( batch );
+            }
+        }
+
+        @Override
+        public void receive( Reader item )
+            throws IOException
+        {
+            JSONObject jsonObject = readJSON( item );
+            if( jsonObject.has( JSONKeys.CHUNK_REFERENCES )
+                || toVersion.equals( jsonObject.optString( JSONKeys.APPLICATION_VERSION, "0.0" ) ) )
+            {
+                return;
+            }
+            batch.add( jsonObject );
+            if( batch.size() >= batchSize )
+            {
+                submit( batch );
+                batch = new ArrayList<>();
+            }
+        }
+
+        private void submit( List<JSONObject> states )
+            throws IOException
+        {
+            checkFailure();
+            writeMigrated();
+            // Bound the batches held in memory, the stream may be much larger than memory
+            if( executor == null || !inFlight.tryAcquire() )
+            {
+                write( migrate( states ) );
+                return;
+            }
+            executor.execute( () -> {
+                try
+                {
+                    migrated.add( migrate( states ) );
+                }
+                catch( Exception e )
+                {
+                    failure.compareAndSet( null, e );
+                }
+                finally
+                {
+                    inFlight.release();
+                }
+            } );
+        }
+
+        private List<EntityState> migrate( List<JSONObject> states )
+        {
+            List<EntityState> entityStates = new ArrayList<>( states.size() );
+            for( JSONObject jsonObject : states )
+            {
+                entityStates.add( readEntityState( module, jsonObject ) );
+            }
+            return entityStates;
+        }
+
+        private void writeMigrated()
+            throws IOException
+        {
+            for( List<EntityState> entityStates = migrated.poll();
+                 entityStates != null;
+                 entityStates = migrated.poll() )
+            {
+                write( entityStates );
+            }
+        }
+
+        private void write( List<EntityState> entityStates )
+            throws IOException
+        {
+            int count = entityStates.size();
+            List<String> identities = new ArrayList<>( count );
+            for( EntityState entityState : entityStates )
+            {
+                identities.add( entityState.identity().identity() );
+            }
+            synchMigratedEntities( entityStates );
+            for( String identity : identities )
+            {
+                cache.remove( identity );
+            }
+            long total = written.addAndGet( count );
+            if( progress != null )
+            {
+                progress.migrated( total );
+            }
+        }
+
+        private void awaitWorkers()
+            throws IOException
+        {
+            if( executor != null )
+            {
+                executor.shutdown();
+                try
+                {
+                    while( !executor.awaitTermination( 1, TimeUnit.SECONDS ) )
+                    {
+                        // Batches are still being migrated
+                    }
+                }
+                catch( InterruptedException e )
+                {
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new IOException( "Interrupted", e );
+                }
+            }
+            checkFailure();
+        }
+
+        private void checkFailure()
+            throws IOException
+        {
+            Exception e = failure.get();
+            if( e instanceof IOException )
+            {
+                throw (IOException) e;
+            }
+            if( e != null )
+            {
+                throw new EntityStoreException( "Migration of stored states failed.", e );
+            }
+        }
+    }
+
+    /**
+     * Cached entity state.
+     * <p>
+     * Externalized as a format byte followed by the UTF-8 encoded JSON, length prefixed and deflated when larger than
+     * {@link #DEFLATE_THRESHOLD} bytes, so that states of any size can be stored by CachePools that serialize their
+     * values.
+     * </p>
+     */
     public static class CacheState
         implements Externalizable
     {
+        private static final byte PLAIN = 1;
+        private static final byte DEFLATED = 2;
+        private static final int DEFLATE_THRESHOLD = 1024;
+
         public JSONObject json;
+        private transient Map<String, String> sectionTexts;
 
         public CacheState()
         {
@@ -536,20 +989,86 @@ public class JSONMapEntityStoreMixin
             json = state;
         }
 
+        private CacheState( JSONObject state, Map<String, String> sectionTexts )
+        {
+            json = state;
+            this.sectionTexts = sectionTexts;
+        }
+
         @Override
         public void writeExternal( ObjectOutput out )
             throws IOException
         {
-            out.writeUTF( json.toString() );
+            byte[] bytes = json.toString().getBytes( UTF_8 );
+            if( bytes.length <= DEFLATE_THRESHOLD )
+            {
+                out.writeByte( PLAIN );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+                return;
+            }
+            Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+            try
+            {
+                deflater.setInput( bytes );
+                deflater.finish();
+                ByteArrayOutputStream deflated = new ByteArrayOutputStream( bytes.length / 4 + 64 );
+                byte[] buffer = new byte[ 4096 ];
+                while( !deflater.finished() )
+                {
+                    deflated.write( buffer, 0, deflater.deflate( buffer ) );
+                }
+                out.writeByte( DEFLATED );
+                out.writeInt( bytes.length );
+                out.writeInt( deflated.size() );
+                out.write( deflated.toByteArray() );
+            }
+            finally
+            {
+                deflater.end();
+            }
         }
 
         @Override
         public void readExternal( ObjectInput in )
             throws IOException, ClassNotFoundException
         {
+            byte format = in.readByte();
+            byte[] bytes = new byte[ in.readInt() ];
+            if( format == PLAIN )
+            {
+                in.readFully( bytes );
+            }
+            else if( format == DEFLATED )
+            {
+                byte[] deflated = new byte[ in.readInt() ];
+                in.readFully( deflated );
+                Inflater inflater = new Inflater();
+                try
+                {
+                    inflater.setInput( deflated );
+                    int length = 0;
+                    while( length < bytes.length && !inflater.finished() )
+                    {
+                        length += inflater.inflate( bytes, length, bytes.length - length );
+                    }
+                }
+                catch( DataFormatException e )
+                {
+                    throw new IOException( e );
+                }
+                finally
+                {
+                    inflater.end();
+                }
+            }
+            else
+            {
+                throw new IOException( "Unknown CacheState format " + format );
+            }
             try
             {
-                json = new JSONObject( in.readUTF() );
+                json = new JSONObject( new String( bytes, UTF_8 ) );
             }
             catch( JSONException e )
             {
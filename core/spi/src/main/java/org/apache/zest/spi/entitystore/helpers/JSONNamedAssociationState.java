@@ -37,12 +37,24 @@ public final class JSONNamedAssociationState
 {
 
     private final JSONEntityState entityState;
-    private final JSONObject references;
+    private final String name;
+    private JSONObject references;
+    private boolean writable;
 
     public JSONNamedAssociationState( JSONEntityState entityState, JSONObject references )
     {
         this.entityState = entityState;
+        this.name = null;
         this.references = references;
+        this.writable = true;
+    }
+
+    /* package */ JSONNamedAssociationState( JSONEntityState entityState, String name, JSONObject references )
+    {
+        this.entityState = entityState;
+        this.name = name;
+        this.references = references;
+        this.writable = false;
     }
 
     @Override
@@ -66,7 +78,7 @@ public final class JSONNamedAssociationState
             {
                 return false;
             }
-            entityState.cloneStateIfGlobalStateLoaded();
+            ensureWritable();
             references.put( name, entityReference.identity() );
             entityState.markUpdated();
             return true;
@@ -84,7 +96,14 @@ public final class JSONNamedAssociationState
         {
             return false;
         }
-        entityState.cloneStateIfGlobalStateLoaded();
+        try
+        {
+            ensureWritable();
+        }
+        catch( JSONException ex )
+        {
+            throw new EntityStoreException( ex );
+        }
         references.remove( name );
         entityState.markUpdated();
         return true;
@@ -172,4 +191,14 @@ public final class JSONNamedAssociationState
         return references.toString();
     }
 
+    private void ensureWritable()
+        throws JSONException
+    {
+        if( !writable )
+        {
+            references = entityState.writableNamedAssociation( this.name, references );
+            writable = true;
+        }
+    }
+
 }
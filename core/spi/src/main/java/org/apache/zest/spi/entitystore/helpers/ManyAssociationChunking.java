@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+/**
+ * Options for storing large ManyAssociations in chunks, set as meta-info on an EntityStore service
+ * that uses {@link JSONMapEntityStoreMixin}.
+ * <p>
+ * When a ManyAssociation grows beyond {@link #threshold()} references it is moved out of the entity record into
+ * separate chunk records of at most {@link #chunkSize()} references each, and the entity record only keeps the
+ * chunk sizes. Chunks are then loaded one page at a time when the association is read, and only the chunks that
+ * changed are written on commit.
+ * </p>
+ * <pre><code>
+ * module.services( MemoryEntityStoreService.class )
+ *       .setMetaInfo( new ManyAssociationChunking( 10000, 1000 ) );
+ * </code></pre>
+ * <p>
+ * Chunked ManyAssociations are not visible to JSON based Migration rules.
+ * </p>
+ */
+public final class ManyAssociationChunking
+{
+    /**
+     * Chunk size used to read back chunked ManyAssociations when the EntityStore has no ManyAssociationChunking.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final int threshold;
+    private final int chunkSize;
+
+    /**
+     * Constructor for ManyAssociationChunking.
+     *
+     * @param threshold ManyAssociations with more references than this are stored in chunks
+     * @param chunkSize maximum number of references appended to a single chunk
+     */
+    public ManyAssociationChunking( int threshold, int chunkSize )
+    {
+        if( threshold < 0 )
+        {
+            throw new IllegalArgumentException( "threshold must not be negative, was " + threshold );
+        }
+        if( chunkSize < 1 )
+        {
+            throw new IllegalArgumentException( "chunkSize must be positive, was " + chunkSize );
+        }
+        this.threshold = threshold;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return ManyAssociations with more references than this are stored in chunks
+     */
+    public int threshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * @return maximum number of references appended to a single chunk
+     */
+    public int chunkSize()
+    {
+        return chunkSize;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ManyAssociationChunking{threshold=" + threshold + ", chunkSize=" + chunkSize + "}";
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.IOException;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.structure.ModuleDescriptor;
+
+/**
+ * StateStore able to migrate all of its stored states at once.
+ * <p>
+ * Stored states are otherwise migrated lazily, each time they are read, until they happen to be written back.
+ * </p>
+ */
+public interface MigratableStateStore
+{
+    /**
+     * Migrate and write back all stored states that are not at the application version.
+     * <p>
+     * States are migrated by the visible {@link Migration} service in parallel workers and written back in batches.
+     * Each written batch is durable, so an interrupted run can be resumed by running it again: states already at the
+     * application version are skipped.
+     * </p>
+     *
+     * @param module    Module used to resolve the migrated entity types
+     * @param workers   Number of parallel migration workers
+     * @param batchSize Number of migrated states written back at a time
+     * @param progress  Notified after each written batch, may be null
+     * @return Number of migrated states
+     * @throws IOException if reading or writing states failed
+     */
+    long migrateAll( ModuleDescriptor module, int workers, int batchSize, @Optional Progress progress )
+        throws IOException;
+
+    /**
+     * Bulk migration progress listener.
+     */
+    interface Progress
+    {
+        /**
+         * @param written Number of migrated states written back so far
+         */
+        void migrated( long written );
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.jfr;
+
+/**
+ * FlightRecorderOptions is a metaInfo class that turns on the JDK Flight Recorder events of the runtime.
+ * <p>
+ * Assign it to the ApplicationAssembly, or to a ModuleAssembly to restrict it to a single Module. Without it, the
+ * runtime never creates events. With it, events are only created while a recording has them enabled, so it can be
+ * left on in production and used with continuous recordings.
+ * </p>
+ * <p>
+ * Flight Recorder events require a JDK providing the {@code jdk.jfr} API, i.e. OpenJDK 8u262 or later.
+ * </p>
+ */
+public final class FlightRecorderOptions
+{
+    public static final FlightRecorderOptions ALL = new FlightRecorderOptions( true );
+    public static final FlightRecorderOptions PERSISTENCE_ONLY = new FlightRecorderOptions( false );
+
+    private final boolean recordInvocations;
+
+    /**
+     * Constructor for FlightRecorderOptions.
+     *
+     * @param recordInvocations if true, composite method invocations slower than the {@link SlowInvocationEvent}
+     *                          threshold are recorded, otherwise only UnitOfWork, EntityStore and Query events are.
+     */
+    public FlightRecorderOptions( boolean recordInvocations )
+    {
+        this.recordInvocations = recordInvocations;
+    }
+
+    /**
+     * @return if true, composite method invocations slower than the {@link SlowInvocationEvent} threshold are recorded
+     */
+    public boolean recordInvocations()
+    {
+        return recordInvocations;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Composite method invocation slower than the threshold.
+ * <p>
+ * The default threshold of 20 ms can be changed in the recording settings, see {@link Threshold}.
+ * </p>
+ */
+@Name( "org.apache.zest.SlowInvocation" )
+@Label( "Slow Invocation" )
+@Category( { "Apache Zest", "Composite" } )
+@Description( "Composite method invocation slower than the threshold." )
+@Threshold( "20 ms" )
+public class SlowInvocationEvent
+    extends Event
+{
+    @Label( "Module" )
+    public String module;
+
+    @Label( "Declaring Type" )
+    public String declaringType;
+
+    @Label( "Method" )
+    public String method;
+}
@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lifecycle of a UnitOfWork, from its creation until it is completed or discarded.
+ */
+@Name( "org.apache.zest.UnitOfWork" )
+@Label( "UnitOfWork" )
+@Category( { "Apache Zest", "UnitOfWork" } )
+@Description( "Lifecycle of a UnitOfWork, from its creation until it is completed or discarded." )
+public class UnitOfWorkEvent
+    extends Event
+{
+    @Label( "Usecase" )
+    public String usecase;
+
+    @Label( "Outcome" )
+    public String outcome;
+
+    @Label( "Entity Count" )
+    public int entityCount;
+}
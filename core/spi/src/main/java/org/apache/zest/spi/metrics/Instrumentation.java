@@ -0,0 +1,202 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.metrics.Metric;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsHistogram;
+import org.apache.zest.api.metrics.MetricsHistogramFactory;
+import org.apache.zest.api.metrics.MetricsMeter;
+import org.apache.zest.api.metrics.MetricsMeterFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.metrics.MetricsTimer;
+import org.apache.zest.api.metrics.MetricsTimerFactory;
+import org.apache.zest.api.structure.MetaInfoHolder;
+import org.apache.zest.api.usecase.Usecase;
+
+/**
+ * Instrumentation point of an SPI service, reporting through a {@link MetricsProvider}.
+ * <p>
+ * Obtain one with {@link #of(MetricsProvider, MetaInfoHolder, String, Class)}, which returns {@link #DISABLED}
+ * unless the service was assembled with {@link InstrumentationOptions} and a MetricsProvider is available. The
+ * disabled instance does nothing and allocates nothing, so hot paths can call it unconditionally.
+ * </p>
+ * <p>
+ * Metric names are tagged like {@code load [store=entitystore-jdbm, type=com.acme.Order, usecase=checkout]}.
+ * Created metrics are kept per name, so the MetricsProvider factories are only hit once per distinct metric.
+ * </p>
+ */
+public final class Instrumentation
+{
+    public static final Instrumentation DISABLED = new Instrumentation( null, null, null, null );
+
+    private static final MetricsTimer.Context NOT_TIMING = new MetricsTimer.Context()
+    {
+        @Override
+        public void stop()
+        {
+        }
+    };
+
+    private final MetricsProvider provider;
+    private final Class<?> origin;
+    private final String store;
+    private final InstrumentationOptions options;
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    private Instrumentation( MetricsProvider provider, Class<?> origin, String store, InstrumentationOptions options )
+    {
+        this.provider = provider;
+        this.origin = origin;
+        this.store = store;
+        this.options = options;
+    }
+
+    /**
+     * Create the Instrumentation of a service.
+     *
+     * @param provider the MetricsProvider to report to, may be null
+     * @param service  the service descriptor or reference holding the {@link InstrumentationOptions}
+     * @param store    the tag identifying the service, usually its identity
+     * @param origin   the class reporting the metrics
+     *
+     * @return an enabled Instrumentation, or {@link #DISABLED}
+     */
+    public static Instrumentation of( MetricsProvider provider, MetaInfoHolder service, String store, Class<?> origin )
+    {
+        if( provider == null || service == null )
+        {
+            return DISABLED;
+        }
+        InstrumentationOptions options = service.metaInfo( InstrumentationOptions.class );
+        if( options == null )
+        {
+            return DISABLED;
+        }
+        return new Instrumentation( provider, origin, store, options );
+    }
+
+    public boolean isEnabled()
+    {
+        return provider != null;
+    }
+
+    /**
+     * Start timing an operation.
+     *
+     * @param operation the operation name
+     * @param type      the entity or value type involved, may be null
+     * @param usecase   the usecase of the UnitOfWork, may be null
+     *
+     * @return the timing context to stop once the operation is done
+     */
+    public MetricsTimer.Context time( String operation, Class<?> type, Usecase usecase )
+    {
+        if( provider == null )
+        {
+            return NOT_TIMING;
+        }
+        String name = name( operation, type, usecase );
+        MetricsTimer timer = (MetricsTimer) metrics.computeIfAbsent(
+            name,
+            key -> provider.createFactory( MetricsTimerFactory.class )
+                .createTimer( origin, key, TimeUnit.MILLISECONDS, TimeUnit.SECONDS ) );
+        return timer.start();
+    }
+
+    /**
+     * Count an occurrence of an operation.
+     *
+     * @param operation the operation name
+     * @param type      the entity or value type involved, may be null
+     * @param usecase   the usecase of the UnitOfWork, may be null
+     */
+    public void count( String operation, Class<?> type, Usecase usecase )
+    {
+        if( provider == null )
+        {
+            return;
+        }
+        String name = name( operation, type, usecase );
+        MetricsCounter counter = (MetricsCounter) metrics.computeIfAbsent(
+            name,
+            key -> provider.createFactory( MetricsCounterFactory.class ).createCounter( origin, key ) );
+        counter.increment();
+    }
+
+    /**
+     * Mark events for throughput measurement.
+     *
+     * @param operation the operation name
+     * @param type      the entity or value type involved, may be null
+     * @param events    the number of events
+     */
+    public void mark( String operation, Class<?> type, int events )
+    {
+        if( provider == null )
+        {
+            return;
+        }
+        String name = name( operation, type, null );
+        MetricsMeter meter = (MetricsMeter) metrics.computeIfAbsent(
+            name,
+            key -> provider.createFactory( MetricsMeterFactory.class )
+                .createMeter( origin, key, operation, TimeUnit.SECONDS ) );
+        meter.mark( events );
+    }
+
+    /**
+     * Record a value in the distribution of an operation.
+     *
+     * @param operation the operation name
+     * @param usecase   the usecase of the UnitOfWork, may be null
+     * @param value     the value to record
+     */
+    public void update( String operation, Usecase usecase, long value )
+    {
+        if( provider == null )
+        {
+            return;
+        }
+        String name = name( operation, null, usecase );
+        MetricsHistogram histogram = (MetricsHistogram) metrics.computeIfAbsent(
+            name,
+            key -> provider.createFactory( MetricsHistogramFactory.class ).createHistogram( origin, key ) );
+        histogram.update( value );
+    }
+
+    private String name( String operation, Class<?> type, Usecase usecase )
+    {
+        StringBuilder name = new StringBuilder( operation ).append( " [store=" ).append( store );
+        if( type != null && options.tagEntityType() )
+        {
+            name.append( ", type=" ).append( type.getName() );
+        }
+        if( usecase != null && options.tagUsecase() )
+        {
+            name.append( ", usecase=" ).append( usecase.name() );
+        }
+        return name.append( ']' ).toString();
+    }
+}
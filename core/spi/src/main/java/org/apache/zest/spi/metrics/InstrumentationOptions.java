@@ -0,0 +1,69 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.metrics;
+
+/**
+ * InstrumentationOptions is a metaInfo class that turns on the built-in instrumentation of SPI hot paths.
+ * <p>
+ * Assign it to the declaration of an EntityStore, EntityFinder, StateChangeListener or ValueSerialization service
+ * to have it report through the {@link org.apache.zest.api.metrics.MetricsProvider} visible from that service.
+ * Services without InstrumentationOptions are not instrumented.
+ * </p>
+ * <p>
+ * Every metric is tagged with the identity of the reporting service, and optionally with the entity type and the
+ * usecase name. Leave those off when the number of types or usecases would produce too many distinct metrics.
+ * </p>
+ */
+public final class InstrumentationOptions
+{
+    public static final InstrumentationOptions ALL = new InstrumentationOptions( true, true );
+    public static final InstrumentationOptions STORE_ONLY = new InstrumentationOptions( false, false );
+
+    private final boolean tagEntityType;
+    private final boolean tagUsecase;
+
+    /**
+     * Constructor for InstrumentationOptions.
+     *
+     * @param tagEntityType if true, metrics are also tagged with the entity or value type involved
+     * @param tagUsecase    if true, metrics are also tagged with the name of the UnitOfWork usecase
+     */
+    public InstrumentationOptions( boolean tagEntityType, boolean tagUsecase )
+    {
+        this.tagEntityType = tagEntityType;
+        this.tagUsecase = tagUsecase;
+    }
+
+    /**
+     * @return if true, metrics are also tagged with the entity or value type involved
+     */
+    public boolean tagEntityType()
+    {
+        return tagEntityType;
+    }
+
+    /**
+     * @return if true, metrics are also tagged with the name of the UnitOfWork usecase
+     */
+    public boolean tagUsecase()
+    {
+        return tagUsecase;
+    }
+}
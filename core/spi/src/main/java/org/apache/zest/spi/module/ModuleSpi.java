@@ -25,6 +25,7 @@ import org.apache.zest.api.structure.Module;
 import org.apache.zest.api.structure.TypeLookup;
 import org.apache.zest.api.value.ValueSerialization;
 import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.jfr.FlightRecorderOptions;
 
 public interface ModuleSpi extends Module
 {
@@ -37,4 +38,9 @@ public interface ModuleSpi extends Module
     TypeLookup typeLookup();
 
     MetricsProvider metricsProvider();
+
+    /**
+     * @return the FlightRecorderOptions of this Module or of its Application, or null if no events should be recorded
+     */
+    FlightRecorderOptions flightRecorderOptions();
 }
@@ -0,0 +1,56 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.module;
+
+/**
+ * WarmUpOptions is a metaInfo class that makes Modules resolve their type lookups eagerly on activation.
+ * <p>
+ * Type and service lookups are otherwise resolved lazily and cached on first use, which puts their cost on the first
+ * requests after startup. Assign it to the ApplicationAssembly, or to a ModuleAssembly to restrict it to a single
+ * Module, to move that cost to activation instead.
+ * </p>
+ */
+public final class WarmUpOptions
+{
+    public static final WarmUpOptions ALL = new WarmUpOptions( true );
+    public static final WarmUpOptions TYPES_ONLY = new WarmUpOptions( false );
+
+    private final boolean resolveServices;
+
+    /**
+     * Constructor for WarmUpOptions.
+     *
+     * @param resolveServices if true, references of all visible services are resolved as well as the object,
+     *                        transient, value and entity models.
+     */
+    public WarmUpOptions( boolean resolveServices )
+    {
+        this.resolveServices = resolveServices;
+    }
+
+    /**
+     * @return if true, references of all visible services are resolved as well
+     */
+    public boolean resolveServices()
+    {
+        return resolveServices;
+    }
+}
@@ -42,8 +42,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import org.apache.zest.api.association.AssociationDescriptor;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.property.PropertyDescriptor;
+import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.type.CollectionType;
 import org.apache.zest.api.type.EnumType;
@@ -55,6 +63,7 @@ import org.apache.zest.api.value.ValueBuilder;
 import org.apache.zest.api.value.ValueDescriptor;
 import org.apache.zest.api.value.ValueDeserializer;
 import org.apache.zest.api.value.ValueSerializationException;
+import org.apache.zest.spi.metrics.Instrumentation;
 
 import static org.apache.zest.functional.Iterables.empty;
 
@@ -102,9 +111,41 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
             throws Exception;
     }
 
+    /**
+     * Reads one field of an object while pull-parsing, see
+     * {@link #readObjectFields(ModuleDescriptor, Object, FieldReader)}.
+     *
+     * @param <InputType> Implementor pull-parser type
+     */
+    @FunctionalInterface
+    public interface FieldReader<InputType>
+    {
+        /**
+         * @param name  Field name
+         * @param input Input positioned on the field value
+         *
+         * @return true if the field value was read, false if it is to be skipped
+         *
+         * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+         */
+        boolean read( String name, InputType input )
+            throws Exception;
+    }
+
     private static final String UTF_8 = "UTF-8";
     private final Map<Class<?>, Function<Object, Object>> deserializers = new HashMap<>( 16 );
     private final Map<Class<?>, ComplexDeserializer<Object, InputType, InputNodeType>> complexDeserializers = new HashMap<>( 2 );
+    private final Map<ModuleDescriptor, Map<ValueCompositeType, CompositeCodec>> codecs = new ConcurrentHashMap<>();
+
+    @Optional
+    @Service
+    private MetricsProvider metricsProvider;
+
+    @Optional
+    @Uses
+    private ServiceDescriptor serviceDescriptor;
+
+    private Instrumentation instrumentation;
 
     /**
      * Register a Plain Value type deserialization Function.
@@ -218,7 +259,9 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     {
         try
         {
-            return deserializeRoot( module, valueType, new ByteArrayInputStream( input.getBytes( UTF_8 ) ) );
+            Class<?> type = valueType.types().findFirst().orElse( null );
+            byte[] state = isPlainRoot( type ) ? input.getBytes( UTF_8 ) : fromStateString( input );
+            return deserializeRoot( module, valueType, new ByteArrayInputStream( state ) );
         }
         catch( ValueSerializationException ex )
         {
@@ -270,6 +313,7 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         throws Exception
     {
         final Class<?> type = valueType.types().findFirst().orElse( null );
+        instrumentation().mark( "deserialize", type, 1 );
         // Plain ValueType
         Function<Object, Object> deserializationFunction = deserializers.get( type );
         if( deserializationFunction != null )
@@ -313,6 +357,23 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
             }
     }
 
+    private boolean isPlainRoot( Class<?> type )
+    {
+        return deserializers.get( type ) != null || type.isArray() || type.isEnum();
+    }
+
+    private Instrumentation instrumentation()
+    {
+        if( instrumentation == null )
+        {
+            instrumentation = serviceDescriptor == null
+                              ? Instrumentation.DISABLED
+                              : Instrumentation.of( metricsProvider, serviceDescriptor,
+                                                    serviceDescriptor.identity(), getClass() );
+        }
+        return instrumentation;
+    }
+
     @SuppressWarnings( "unchecked" )
     private <T> T doDeserialize( ModuleDescriptor module, ValueType valueType, InputType input )
         throws Exception
@@ -355,12 +416,67 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
                         else // Array
                             if( type.isArray() )
                             {
-                                return (T) deserializeBase64Serialized( module, readPlainValue( module, input ).toString() );
+                                return (T) deserializeJavaSerialized( readBinaryValue( module, input ) );
                             }
         // Guessed Deserialization
         return (T) deserializeGuessed( module, valueType, input );
     }
 
+    /**
+     * Pull-parsing counterpart of {@link #compileDeserializeInputNodeFunction(ModuleDescriptor, ValueType)}.
+     * <p>
+     * Maps serialized as objects and values whose type has to be guessed are read as a tree, as the pull-parsing
+     * extension points only read maps serialized as arrays of entries and objects.
+     * </p>
+     */
+    @SuppressWarnings( "unchecked" )
+    private Function<InputType, Object> compileDeserializeInputFunction( ModuleDescriptor module, ValueType valueType )
+    {
+        Class<?> type = valueType.types().findFirst().orElse( null );
+        Function<Object, Object> deserializer = deserializers.get( type );
+        if( deserializer != null )
+        {
+            return input -> {
+                try
+                {
+                    Object value = readPlainValue( module, input );
+                    return value == null ? null : deserializer.apply( value );
+                }
+                catch( ValueSerializationException ex )
+                {
+                    throw ex;
+                }
+                catch( Exception ex )
+                {
+                    throw new ValueSerializationException( ex );
+                }
+            };
+        }
+        boolean objectMap = valueType instanceof MapType
+                            && ( (MapType) valueType ).variant().equals( Serialization.Variant.object );
+        boolean guessed = valueType.getClass().equals( ValueType.class )
+                          && complexDeserializers.get( type ) == null && !type.isEnum() && !type.isArray();
+        if( objectMap || guessed )
+        {
+            Function<InputNodeType, Object> nodeDeserializer = compileDeserializeInputNodeFunction( module, valueType );
+            return input -> {
+                try
+                {
+                    return nodeDeserializer.apply( readValueTree( module, input ) );
+                }
+                catch( ValueSerializationException ex )
+                {
+                    throw ex;
+                }
+                catch( Exception ex )
+                {
+                    throw new ValueSerializationException( ex );
+                }
+            };
+        }
+        return buildDeserializeInputFunction( module, valueType );
+    }
+
     private <T> Function<InputType, T> buildDeserializeInputFunction( ModuleDescriptor module, ValueType valueType )
     {
         return input -> {
@@ -411,6 +527,10 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     private <T> T deserializeValueComposite( ModuleDescriptor module, ValueType valueType, InputType input )
         throws Exception
     {
+        if( canReadObjectFields() )
+        {
+            return compositeCodec( module, (ValueCompositeType) valueType ).read( input );
+        }
         InputNodeType inputNode = readObjectTree( module, input );
         if( inputNode == null )
         {
@@ -422,148 +542,75 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     private <T> T deserializeNodeValueComposite( ModuleDescriptor module, ValueType valueType, InputNodeType inputNode )
         throws Exception
     {
-        ValueCompositeType valueCompositeType = (ValueCompositeType) valueType;
-        Class<?> valueBuilderType = valueCompositeType.types().findFirst().orElse( null );
-        String typeInfo = this.getObjectFieldValue(
-            module,
-            inputNode,
-            "_type",
-            this.<String>buildDeserializeInputNodeFunction( module, new ValueType( String.class ) ) );
+        CompositeCodec codec = compositeCodec( module, (ValueCompositeType) valueType );
+        String typeInfo = getObjectFieldValue( module, inputNode, "_type", codec.typeInfoDeserializer );
         if( typeInfo != null )
         {
-            ValueDescriptor valueDescriptor = module.valueDescriptor( typeInfo );
-            if( valueDescriptor == null )
-            {
-                throw new ValueSerializationException( "Specified value type could not be resolved: " + typeInfo );
-            }
-            valueCompositeType = valueDescriptor.valueType();
-            valueBuilderType = Class.forName( typeInfo );
+            codec = codec.forTypeInfo( typeInfo );
         }
-        return deserializeValueComposite( module, valueCompositeType, valueBuilderType, inputNode );
+        return codec.decode( inputNode );
     }
 
-    @SuppressWarnings( "unchecked" )
-    private <T> T deserializeValueComposite( ModuleDescriptor module,
-                                             ValueCompositeType valueCompositeType,
-                                             Class<?> valueBuilderType,
-                                             InputNodeType inputNode
-    )
-        throws Exception
+    private CompositeCodec compositeCodec( ModuleDescriptor module, ValueCompositeType valueCompositeType )
     {
-        final Map<String, Object> stateMap = new HashMap<>();
+        return codecs.computeIfAbsent( module, key -> new ConcurrentHashMap<>() )
+                     .computeIfAbsent( valueCompositeType, type -> new CompositeCodec( module, type ) );
+    }
 
-        // Properties
-        valueCompositeType.properties().forEach( property -> {
-            String propertyName = null;
-            Object value;
-            try
-            {
-                propertyName = property.qualifiedName().name();
-                if( objectHasField( module, inputNode, propertyName ) )
+    /**
+     * Builds a node deserialization Function with the type dispatch of
+     * {@link #doDeserializeInputNodeValue(ModuleDescriptor, ValueType, Object)} resolved once, up front.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Function<InputNodeType, Object> compileDeserializeInputNodeFunction( ModuleDescriptor module,
+                                                                                 ValueType valueType )
+    {
+        Class<?> type = valueType.types().findFirst().orElse( null );
+        Function<Object, Object> deserializer = deserializers.get( type );
+        if( deserializer != null )
+        {
+            return inputNode -> {
+                if( inputNode == null )
                 {
-                    value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        propertyName,
-                        buildDeserializeInputNodeFunction( module, property.valueType() ) );
-                    if( property.isImmutable() )
-                    {
-                        if( value instanceof Set )
-                        {
-                            value = Collections.unmodifiableSet( (Set<?>) value );
-                        }
-                        else if( value instanceof List )
-                        {
-                            value = Collections.unmodifiableList( (List<?>) value );
-                        }
-                        else if( value instanceof Map )
-                        {
-                            value = Collections.unmodifiableMap( (Map<?, ?>) value );
-                        }
-                    }
+                    return null;
                 }
-                else
+                try
                 {
-                    // Serialized object does not contain the field, try to default it
-                    value = property.initialValue( module );
+                    Object value = asSimpleValue( module, inputNode );
+                    return value == null ? null : deserializer.apply( value );
                 }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize property " + property, e );
-            }
-            stateMap.put( propertyName, value );
-        } );
-
-        // Associations
-        valueCompositeType.associations().forEach( association -> {
-            try
-            {
-                String associationName = association.qualifiedName().name();
-                if( objectHasField( module, inputNode, associationName ) )
+                catch( ValueSerializationException ex )
                 {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        associationName,
-                        buildDeserializeInputNodeFunction( module, new ValueType( EntityReference.class ) ) );
-                    stateMap.put( associationName, value );
+                    throw ex;
                 }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize association " + association, e );
-            }
-        } );
-
-        // ManyAssociations
-        valueCompositeType.manyAssociations().forEach( manyAssociation -> {
-            try
-            {
-                String manyAssociationName = manyAssociation.qualifiedName().name();
-                if( objectHasField( module, inputNode, manyAssociationName ) )
+                catch( Exception ex )
                 {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        manyAssociationName,
-                        buildDeserializeInputNodeFunction(
-                            module,
-                            new CollectionType(
-                                Collection.class,
-                                new ValueType( EntityReference.class ) ) ) );
-                    stateMap.put( manyAssociationName, value );
+                    throw new ValueSerializationException( ex );
                 }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize manyassociation " + manyAssociation, e );
-            }
-        } );
-
-        // NamedAssociations
-        valueCompositeType.namedAssociations().forEach( namedAssociation -> {
-            try
-            {
-                String namedAssociationName = namedAssociation.qualifiedName().name();
-                if( objectHasField( module, inputNode, namedAssociationName ) )
+            };
+        }
+        if( complexDeserializers.get( type ) == null && valueType instanceof ValueCompositeType )
+        {
+            return inputNode -> {
+                if( inputNode == null )
                 {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        namedAssociationName,
-                        buildDeserializeInputNodeFunction( module, MapType.of( String.class, EntityReference.class, Serialization.Variant.object ) ) );
-                    stateMap.put( namedAssociationName, value );
+                    return null;
                 }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize namedassociation " + namedAssociation, e );
-            }
-        } );
-
-        ValueBuilder<?> valueBuilder = buildNewValueBuilderWithState( module, valueBuilderType, stateMap );
-        return (T) valueBuilder.newInstance(); // Unchecked cast because the builder could use a type != T
+                try
+                {
+                    return deserializeNodeValueComposite( module, valueType, inputNode );
+                }
+                catch( ValueSerializationException ex )
+                {
+                    throw ex;
+                }
+                catch( Exception ex )
+                {
+                    throw new ValueSerializationException( ex );
+                }
+            };
+        }
+        return buildDeserializeInputNodeFunction( module, valueType );
     }
 
     private <T> Function<InputNodeType, T> buildDeserializeInputNodeFunction( ModuleDescriptor module, final ValueType valueType )
@@ -644,42 +691,6 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         return (T) deserializeNodeGuessed( module, valueType, inputNode );
     }
 
-    private ValueBuilder<?> buildNewValueBuilderWithState( ModuleDescriptor module,
-                                                           Class<?> type,
-                                                           final Map<String, Object> stateMap
-    )
-    {
-        return module.instance().newValueBuilderWithState(
-            type,
-            property -> stateMap.get( property.qualifiedName().name() ),
-            association -> {
-                Object entityRef = stateMap.get( association.qualifiedName().name() );
-                if( entityRef == null )
-                {
-                    return null;
-                }
-                return (EntityReference) entityRef;
-            },
-            manyAssociation -> {
-                Object entityRefs = stateMap.get( manyAssociation.qualifiedName().name() );
-                if( entityRefs == null )
-                {
-                    return empty();
-                }
-                //noinspection unchecked
-                return (Iterable<EntityReference>) entityRefs;
-            },
-            namedAssociation -> {
-                Object entityRefs = stateMap.get( namedAssociation.qualifiedName().name() );
-                if( entityRefs == null )
-                {
-                    return Collections.emptyMap();
-                }
-                //noinspection unchecked
-                return (Map<String, EntityReference>) entityRefs;
-            } );
-    }
-
     @SuppressWarnings( "unchecked" )
     private <T> T deserializeGuessed( ModuleDescriptor module, ValueType valueType, InputType input )
         throws Exception
@@ -772,32 +783,26 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
                 }
                 valueCompositeType = valueDescriptor.valueType();
             }
-            Class<?> valueBuilderType = valueCompositeType.types().findFirst().orElse( null );
-            return deserializeValueComposite( module, valueCompositeType, valueBuilderType, inputNode );
+            return compositeCodec( module, valueCompositeType ).decode( inputNode );
         }
         // Last resort : base64 java deserialization
-        return (T) deserializeBase64Serialized( module, inputNode );
+        return (T) deserializeJavaSerialized( asBinaryValue( module, inputNode ) );
     }
 
-    @SuppressWarnings( "unchecked" )
-    private <T> T deserializeBase64Serialized( ModuleDescriptor module, InputNodeType inputNode )
+    private <T> T deserializeBase64Serialized( ModuleDescriptor module, String inputString )
         throws Exception
     {
-        Object value = asSimpleValue( module, inputNode );
-        if( value == null )
-        {
-            return null;
-        }
-        String base64 = value.toString();
-        return deserializeBase64Serialized( module, base64 );
+        return deserializeJavaSerialized( Base64.getDecoder().decode( inputString.getBytes( UTF_8 ) ) );
     }
 
     @SuppressWarnings( "unchecked" )
-    private <T> T deserializeBase64Serialized( ModuleDescriptor module, String inputString )
+    private <T> T deserializeJavaSerialized( byte[] bytes )
         throws Exception
     {
-        byte[] bytes = inputString.getBytes( UTF_8 );
-        bytes = Base64.getDecoder().decode( bytes );
+        if( bytes == null )
+        {
+            return null;
+        }
         Object result;
         try (ObjectInputStream oin = new ObjectInputStream( new ByteArrayInputStream( bytes ) ))
         {
@@ -855,6 +860,24 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     protected abstract InputType adaptInput( ModuleDescriptor module, InputStream input )
         throws Exception;
 
+    /**
+     * Convert a String given to the String consuming deserialize methods to serialized state.
+     * <p>
+     * Defaults to UTF-8 encoding, binary formats should override this to decode their text safe encoding.
+     * </p>
+     *
+     * @param input Serialized state as a String
+     *
+     * @return Serialized state
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected byte[] fromStateString( String input )
+        throws Exception
+    {
+        return input.getBytes( UTF_8 );
+    }
+
     /**
      * @param input Input
      *
@@ -865,6 +888,25 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     protected abstract Object readPlainValue( ModuleDescriptor module, InputType input )
         throws Exception;
 
+    /**
+     * Read binary content, Java serialized values for example.
+     * <p>
+     * Defaults to decoding a Base64 encoded plain value, formats with native binary support should override this.
+     * </p>
+     *
+     * @param input Input
+     *
+     * @return The binary content or null if the value was null
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected byte[] readBinaryValue( ModuleDescriptor module, InputType input )
+        throws Exception
+    {
+        Object value = readPlainValue( module, input );
+        return value == null ? null : Base64.getDecoder().decode( value.toString() );
+    }
+
     /**
      * @param <T>          Parameterized collection type
      * @param input        Input
@@ -928,12 +970,80 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     protected abstract InputNodeType readObjectTree( ModuleDescriptor module, InputType input )
         throws Exception;
 
+    /**
+     * Whether {@link #readObjectFields(ModuleDescriptor, Object, FieldReader)} is implemented.
+     * <p>
+     * Defaults to false, ValueComposites are then read with {@link #readObjectTree(ModuleDescriptor, Object)} first.
+     * Formats that can pull-parse object fields should override it together with
+     * {@link #readObjectFields(ModuleDescriptor, Object, FieldReader)} and
+     * {@link #readValueTree(ModuleDescriptor, Object)}, so that ValueComposites are decoded straight from the input.
+     * </p>
+     *
+     * @return true if object fields can be pull-parsed
+     */
+    protected boolean canReadObjectFields()
+    {
+        return false;
+    }
+
+    /**
+     * Read any value as a tree, needed by {@link #readObjectFields(ModuleDescriptor, Object, FieldReader)} for fields
+     * that cannot be pull-parsed.
+     *
+     * @param input Input
+     *
+     * @return an InputNodeType, possibly representing a null value
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected InputNodeType readValueTree( ModuleDescriptor module, InputType input )
+        throws Exception
+    {
+        throw new UnsupportedOperationException( getClass().getName() + " cannot pull-parse object fields" );
+    }
+
+    /**
+     * Pull-parse the fields of an object.
+     * <p>
+     * For each field, in input order, the field reader is called with the input positioned on the field value. The
+     * value must be skipped if the field reader returns false.
+     * </p>
+     *
+     * @param input       Input
+     * @param fieldReader Field reader
+     *
+     * @return false if the value was null
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected boolean readObjectFields( ModuleDescriptor module, InputType input, FieldReader<InputType> fieldReader )
+        throws Exception
+    {
+        throw new UnsupportedOperationException( getClass().getName() + " cannot pull-parse object fields" );
+    }
+
     //
     // Tree Parsing Deserialization
     //
     protected abstract Object asSimpleValue( ModuleDescriptor module, InputNodeType inputNode )
         throws Exception;
 
+    /**
+     * Tree parsing counterpart of {@link #readBinaryValue(ModuleDescriptor, Object)}.
+     *
+     * @param inputNode Input node
+     *
+     * @return The binary content or null if the node was null
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected byte[] asBinaryValue( ModuleDescriptor module, InputNodeType inputNode )
+        throws Exception
+    {
+        Object value = asSimpleValue( module, inputNode );
+        return value == null ? null : Base64.getDecoder().decode( value.toString() );
+    }
+
     protected abstract boolean isObjectValue( ModuleDescriptor module, InputNodeType inputNode )
         throws Exception;
 
@@ -980,4 +1090,360 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
                                                     Map<String, V> map
     )
         throws Exception;
+
+    /**
+     * ValueComposite decoder, compiled once per Module and ValueCompositeType.
+     * <p>
+     * Field names, per-field deserialization Functions, immutability flags and the builder type are resolved when
+     * the codec is created, so decoding a value only fills a state array. Formats that can pull-parse object fields
+     * are decoded field by field, straight from the input, others walk the fields of an object tree in declaration
+     * order.
+     * </p>
+     */
+    private final class CompositeCodec
+    {
+        private final ModuleDescriptor module;
+        private final Class<?> valueBuilderType;
+        private final Function<InputNodeType, String> typeInfoDeserializer;
+        private final Function<InputType, Object> typeInfoReader;
+        private final Map<String, CompositeCodec> typeInfoCodecs = new ConcurrentHashMap<>();
+        private final PropertyDescriptor[] properties;
+        private final AssociationDescriptor[] associations;
+        private final AssociationDescriptor[] manyAssociations;
+        private final AssociationDescriptor[] namedAssociations;
+        private final int associationsOffset;
+        private final int manyAssociationsOffset;
+        private final int namedAssociationsOffset;
+        private final String[] names;
+        private final Map<String, Integer> slots;
+        private final Function<InputNodeType, Object>[] fieldDeserializers;
+        private final Function<InputType, Object>[] fieldReaders;
+
+        @SuppressWarnings( "unchecked" )
+        private CompositeCodec( ModuleDescriptor module, ValueCompositeType valueCompositeType )
+        {
+            this.module = module;
+            this.valueBuilderType = valueCompositeType.types().findFirst().orElse( null );
+            this.typeInfoDeserializer = buildDeserializeInputNodeFunction( module, new ValueType( String.class ) );
+            this.properties = valueCompositeType.properties().toArray( PropertyDescriptor[]::new );
+            this.associations = valueCompositeType.associations().toArray( AssociationDescriptor[]::new );
+            this.manyAssociations = valueCompositeType.manyAssociations().toArray( AssociationDescriptor[]::new );
+            this.namedAssociations = valueCompositeType.namedAssociations().toArray( AssociationDescriptor[]::new );
+            this.associationsOffset = properties.length;
+            this.manyAssociationsOffset = associationsOffset + associations.length;
+            this.namedAssociationsOffset = manyAssociationsOffset + manyAssociations.length;
+            int count = namedAssociationsOffset + namedAssociations.length;
+            this.names = new String[ count ];
+            this.slots = new HashMap<>( count * 2 );
+            this.fieldDeserializers = new Function[ count ];
+            List<ValueType> fieldTypes = new ArrayList<>( count );
+            int slot = 0;
+            for( PropertyDescriptor property : properties )
+            {
+                fieldTypes.add( property.valueType() );
+                slot = addSlot( slot, property.qualifiedName().name() );
+            }
+            ValueType association = new ValueType( EntityReference.class );
+            for( AssociationDescriptor descriptor : associations )
+            {
+                fieldTypes.add( association );
+                slot = addSlot( slot, descriptor.qualifiedName().name() );
+            }
+            ValueType manyAssociation = new CollectionType( Collection.class, new ValueType( EntityReference.class ) );
+            for( AssociationDescriptor descriptor : manyAssociations )
+            {
+                fieldTypes.add( manyAssociation );
+                slot = addSlot( slot, descriptor.qualifiedName().name() );
+            }
+            ValueType namedAssociation = MapType.of( String.class, EntityReference.class, Serialization.Variant.object );
+            for( AssociationDescriptor descriptor : namedAssociations )
+            {
+                fieldTypes.add( namedAssociation );
+                slot = addSlot( slot, descriptor.qualifiedName().name() );
+            }
+            Map<ValueType, Function<InputNodeType, Object>> compiled = new HashMap<>();
+            for( slot = 0; slot < count; slot++ )
+            {
+                fieldDeserializers[ slot ] = compiled.computeIfAbsent(
+                    fieldTypes.get( slot ), type -> compileDeserializeInputNodeFunction( module, type ) );
+            }
+            if( canReadObjectFields() )
+            {
+                this.typeInfoReader = compileDeserializeInputFunction( module, new ValueType( String.class ) );
+                this.fieldReaders = new Function[ count ];
+                Map<ValueType, Function<InputType, Object>> compiledReaders = new HashMap<>();
+                for( slot = 0; slot < count; slot++ )
+                {
+                    fieldReaders[ slot ] = compiledReaders.computeIfAbsent(
+                        fieldTypes.get( slot ), type -> compileDeserializeInputFunction( module, type ) );
+                }
+            }
+            else
+            {
+                this.typeInfoReader = null;
+                this.fieldReaders = null;
+            }
+        }
+
+        private int addSlot( int slot, String name )
+        {
+            names[ slot ] = name;
+            slots.put( name, slot );
+            return slot + 1;
+        }
+
+        private CompositeCodec forTypeInfo( String typeInfo )
+        {
+            return typeInfoCodecs.computeIfAbsent( typeInfo, key -> {
+                ValueDescriptor valueDescriptor = module.valueDescriptor( typeInfo );
+                if( valueDescriptor == null )
+                {
+                    throw new ValueSerializationException( "Specified value type could not be resolved: " + typeInfo );
+                }
+                return compositeCodec( module, valueDescriptor.valueType() );
+            } );
+        }
+
+        private <T> T decode( InputNodeType inputNode )
+        {
+            Object[] state = new Object[ names.length ];
+            boolean[] present = new boolean[ names.length ];
+            for( int slot = 0; slot < names.length; slot++ )
+            {
+                try
+                {
+                    if( objectHasField( module, inputNode, names[ slot ] ) )
+                    {
+                        state[ slot ] = getObjectFieldValue( module, inputNode, names[ slot ], fieldDeserializers[ slot ] );
+                        present[ slot ] = true;
+                    }
+                }
+                catch( Exception e )
+                {
+                    throw new ValueSerializationException( "Unable to deserialize " + describe( slot ), e );
+                }
+            }
+            return newInstance( state, present );
+        }
+
+        private <T> T read( InputType input )
+            throws Exception
+        {
+            FieldsReader fields = new FieldsReader( this );
+            if( !readObjectFields( module, input, fields::read ) )
+            {
+                return null;
+            }
+            return fields.codec.newInstance( fields.state, fields.present );
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private <T> T newInstance( Object[] state, boolean[] present )
+        {
+            for( int slot = 0; slot < properties.length; slot++ )
+            {
+                PropertyDescriptor property = properties[ slot ];
+                if( !present[ slot ] )
+                {
+                    // Serialized object does not contain the field, try to default it
+                    try
+                    {
+                        state[ slot ] = property.initialValue( module );
+                    }
+                    catch( Exception e )
+                    {
+                        throw new ValueSerializationException( "Unable to deserialize property " + property, e );
+                    }
+                }
+                else if( property.isImmutable() )
+                {
+                    Object value = state[ slot ];
+                    if( value instanceof Set )
+                    {
+                        state[ slot ] = Collections.unmodifiableSet( (Set<?>) value );
+                    }
+                    else if( value instanceof List )
+                    {
+                        state[ slot ] = Collections.unmodifiableList( (List<?>) value );
+                    }
+                    else if( value instanceof Map )
+                    {
+                        state[ slot ] = Collections.unmodifiableMap( (Map<?, ?>) value );
+                    }
+                }
+            }
+
+            StateCursor cursor = new StateCursor( state );
+            ValueBuilder<?> valueBuilder = module.instance().newValueBuilderWithState(
+                valueBuilderType,
+                cursor::property,
+                cursor::association,
+                cursor::manyAssociation,
+                cursor::namedAssociation );
+            return (T) valueBuilder.newInstance(); // Unchecked cast because the builder could use a type != T
+        }
+
+        private String describe( int slot )
+        {
+            if( slot < associationsOffset )
+            {
+                return "property " + properties[ slot ];
+            }
+            if( slot < manyAssociationsOffset )
+            {
+                return "association " + associations[ slot - associationsOffset ];
+            }
+            if( slot < namedAssociationsOffset )
+            {
+                return "manyassociation " + manyAssociations[ slot - manyAssociationsOffset ];
+            }
+            return "namedassociation " + namedAssociations[ slot - namedAssociationsOffset ];
+        }
+
+        /**
+         * Hands the decoded state over to the value builder.
+         * <p>
+         * The builder asks for the state of each field in the declaration order of its own model, which for the
+         * builder type of this codec is the order of the state array, so a cursor per field kind resolves each slot
+         * with an identity check. Fields of another model are resolved by name.
+         * </p>
+         */
+        private final class StateCursor
+        {
+            private final Object[] state;
+            private int property;
+            private int association;
+            private int manyAssociation;
+            private int namedAssociation;
+
+            private StateCursor( Object[] state )
+            {
+                this.state = state;
+            }
+
+            private Object property( PropertyDescriptor descriptor )
+            {
+                return stateOf( state, descriptor, properties, property++, 0 );
+            }
+
+            private EntityReference association( AssociationDescriptor descriptor )
+            {
+                return (EntityReference) stateOf( state, descriptor, associations, association++,
+                                                  associationsOffset );
+            }
+
+            @SuppressWarnings( "unchecked" )
+            private Iterable<EntityReference> manyAssociation( AssociationDescriptor descriptor )
+            {
+                Object entityRefs = stateOf( state, descriptor, manyAssociations, manyAssociation++,
+                                             manyAssociationsOffset );
+                if( entityRefs == null )
+                {
+                    return empty();
+                }
+                return (Iterable<EntityReference>) entityRefs;
+            }
+
+            @SuppressWarnings( "unchecked" )
+            private Map<String, EntityReference> namedAssociation( AssociationDescriptor descriptor )
+            {
+                Object entityRefs = stateOf( state, descriptor, namedAssociations, namedAssociation++,
+                                             namedAssociationsOffset );
+                if( entityRefs == null )
+                {
+                    return Collections.emptyMap();
+                }
+                return (Map<String, EntityReference>) entityRefs;
+            }
+        }
+
+        /**
+         * Reads the fields of one value into the state array of a codec, in input order.
+         * <p>
+         * A {@literal _type} field switches to the codec of the given type, carrying over the fields already read.
+         * </p>
+         */
+        private final class FieldsReader
+        {
+            private CompositeCodec codec;
+            private Object[] state;
+            private boolean[] present;
+
+            private FieldsReader( CompositeCodec codec )
+            {
+                this.codec = codec;
+                this.state = new Object[ codec.names.length ];
+                this.present = new boolean[ codec.names.length ];
+            }
+
+            private boolean read( String name, InputType input )
+            {
+                if( "_type".equals( name ) )
+                {
+                    Object typeInfo = typeInfoReader.apply( input );
+                    if( typeInfo != null )
+                    {
+                        switchTo( codec.forTypeInfo( typeInfo.toString() ) );
+                    }
+                    return true;
+                }
+                Integer slot = codec.slots.get( name );
+                if( slot == null )
+                {
+                    return false;
+                }
+                try
+                {
+                    state[ slot ] = codec.fieldReaders[ slot ].apply( input );
+                }
+                catch( Exception e )
+                {
+                    throw new ValueSerializationException( "Unable to deserialize " + codec.describe( slot ), e );
+                }
+                present[ slot ] = true;
+                return true;
+            }
+
+            private void switchTo( CompositeCodec target )
+            {
+                if( target == codec )
+                {
+                    return;
+                }
+                Object[] targetState = new Object[ target.names.length ];
+                boolean[] targetPresent = new boolean[ target.names.length ];
+                for( int slot = 0; slot < codec.names.length; slot++ )
+                {
+                    Integer targetSlot = target.slots.get( codec.names[ slot ] );
+                    if( present[ slot ] && targetSlot != null )
+                    {
+                        targetState[ targetSlot ] = state[ slot ];
+                        targetPresent[ targetSlot ] = true;
+                    }
+                }
+                codec = target;
+                state = targetState;
+                present = targetPresent;
+            }
+        }
+
+        private Object stateOf( Object[] state, Object descriptor, Object[] descriptors, int index, int offset )
+        {
+            if( index < descriptors.length && descriptors[ index ] == descriptor )
+            {
+                return state[ offset + index ];
+            }
+            String name = descriptor instanceof PropertyDescriptor
+                          ? ( (PropertyDescriptor) descriptor ).qualifiedName().name()
+                          : ( (AssociationDescriptor) descriptor ).qualifiedName().name();
+            for( int slot = 0; slot < names.length; slot++ )
+            {
+                if( names[ slot ].equals( name ) )
+                {
+                    return state[ slot ];
+                }
+            }
+            return null;
+        }
+    }
 }
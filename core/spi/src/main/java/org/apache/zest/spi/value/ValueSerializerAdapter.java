@@ -35,21 +35,31 @@ import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.Association;
+import org.apache.zest.api.association.AssociationDescriptor;
 import org.apache.zest.api.association.AssociationStateHolder;
 import org.apache.zest.api.association.ManyAssociation;
 import org.apache.zest.api.association.NamedAssociation;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.composite.CompositeInstance;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.metrics.MetricsProvider;
 import org.apache.zest.api.property.Property;
+import org.apache.zest.api.property.PropertyDescriptor;
+import org.apache.zest.api.service.ServiceDescriptor;
+import org.apache.zest.api.type.ValueCompositeType;
 import org.apache.zest.api.value.ValueComposite;
 import org.apache.zest.api.value.ValueDescriptor;
 import org.apache.zest.api.value.ValueSerializationException;
 import org.apache.zest.api.value.ValueSerializer;
+import org.apache.zest.spi.metrics.Instrumentation;
 
 /**
  * Adapter for pull-parsing capable ValueSerializers.
@@ -101,6 +111,17 @@ public abstract class ValueSerializerAdapter<OutputType>
 
     private final Map<Class<?>, BiFunction<Options, Object, Object>> serializers = new HashMap<>( 16 );
     private final Map<Class<?>, ComplexSerializer<Object, OutputType>> complexSerializers = new HashMap<>( 2 );
+    private final Map<ValueDescriptor, CompositeEncoder> encoders = new ConcurrentHashMap<>();
+
+    @Optional
+    @Service
+    private MetricsProvider metricsProvider;
+
+    @Optional
+    @Uses
+    private ServiceDescriptor serviceDescriptor;
+
+    private Instrumentation instrumentation;
 
     /**
      * Register a Plain Value type serialization Function.
@@ -195,7 +216,11 @@ public abstract class ValueSerializerAdapter<OutputType>
         {
             ByteArrayOutputStream output = new ByteArrayOutputStream();
             serializeRoot( options, object, output );
-            return output.toString( UTF_8 );
+            if( object == null || isPlainRoot( object ) )
+            {
+                return output.toString( UTF_8 );
+            }
+            return toStateString( output.toByteArray() );
         }
         catch( ValueSerializationException ex )
         {
@@ -255,6 +280,10 @@ public abstract class ValueSerializerAdapter<OutputType>
     {
         if( object != null )
         {
+            if( instrumentation().isEnabled() )
+            {
+                instrumentation().mark( "serialize", typeOf( object ), 1 );
+            }
             if( serializers.get( object.getClass() ) != null )
             {
                 // Plain Value
@@ -282,6 +311,34 @@ public abstract class ValueSerializerAdapter<OutputType>
         }
     }
 
+    private boolean isPlainRoot( Object object )
+    {
+        return serializers.get( object.getClass() ) != null
+               || object.getClass().isEnum()
+               || object.getClass().isArray();
+    }
+
+    private Instrumentation instrumentation()
+    {
+        if( instrumentation == null )
+        {
+            instrumentation = serviceDescriptor == null
+                              ? Instrumentation.DISABLED
+                              : Instrumentation.of( metricsProvider, serviceDescriptor,
+                                                    serviceDescriptor.identity(), getClass() );
+        }
+        return instrumentation;
+    }
+
+    private static Class<?> typeOf( Object object )
+    {
+        if( object instanceof ValueComposite )
+        {
+            return ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( (ValueComposite) object ).descriptor().primaryType();
+        }
+        return object.getClass();
+    }
+
     private void doSerialize( Options options, Object object, OutputType output, boolean rootPass )
         throws Exception
     {
@@ -341,6 +398,7 @@ public abstract class ValueSerializerAdapter<OutputType>
         CompositeInstance valueInstance = ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( (ValueComposite) object );
         ValueDescriptor descriptor = (ValueDescriptor) valueInstance.descriptor();
         AssociationStateHolder state = (AssociationStateHolder) valueInstance.state();
+        CompositeEncoder encoder = encoders.computeIfAbsent( descriptor, CompositeEncoder::new );
 
         onObjectStart( output );
 
@@ -349,12 +407,13 @@ public abstract class ValueSerializerAdapter<OutputType>
         {
             onFieldStart( output, "_type" );
             onValueStart( output );
-            onValue( output, descriptor.valueType().types().findFirst().get().getName());
+            onValue( output, encoder.typeName );
             onValueEnd( output );
             onFieldEnd( output );
         }
 
-        descriptor.valueType().properties().forEach( persistentProperty -> {
+        for( PropertyDescriptor persistentProperty : encoder.properties )
+        {
             Property<?> property = state.propertyFor( persistentProperty.accessor() );
             try
             {
@@ -368,8 +427,9 @@ public abstract class ValueSerializerAdapter<OutputType>
             {
                 throw new ValueSerializationException( "Unable to serialize property " + persistentProperty, e );
             }
-        } );
-        descriptor.valueType().associations().forEach(associationDescriptor ->        {
+        }
+        for( AssociationDescriptor associationDescriptor : encoder.associations )
+        {
             Association<?> association = state.associationFor( associationDescriptor.accessor() );
             try
             {
@@ -391,8 +451,9 @@ public abstract class ValueSerializerAdapter<OutputType>
             {
                 throw new ValueSerializationException( "Unable to serialize association " + associationDescriptor, e );
             }
-        } );
-        descriptor.valueType().manyAssociations().forEach( associationDescriptor -> {
+        }
+        for( AssociationDescriptor associationDescriptor : encoder.manyAssociations )
+        {
             ManyAssociation<?> manyAssociation = state.manyAssociationFor( associationDescriptor.accessor() );
             try
             {
@@ -413,8 +474,9 @@ public abstract class ValueSerializerAdapter<OutputType>
             {
                 throw new ValueSerializationException( "Unable to serialize manyassociation " + associationDescriptor, e );
             }
-        });
-        descriptor.valueType().namedAssociations().forEach( associationDescriptor -> {
+        }
+        for( AssociationDescriptor associationDescriptor : encoder.namedAssociations )
+        {
             NamedAssociation<?> namedAssociation = state.namedAssociationFor( associationDescriptor.accessor() );
             try
             {
@@ -438,7 +500,7 @@ public abstract class ValueSerializerAdapter<OutputType>
             {
                 throw new ValueSerializationException( "Unable to serialize namedassociation " + associationDescriptor, e );
             }
-        } );
+        }
 
         onObjectEnd( output );
     }
@@ -511,19 +573,25 @@ public abstract class ValueSerializerAdapter<OutputType>
     private void serializeBase64Serializable( Object object, OutputType output )
         throws Exception
     {
-        onValue( output, serializeBase64Serializable( object ) );
+        onBinaryValue( output, serializeJavaSerializable( object ) );
     }
 
     private String serializeBase64Serializable( Object object )
         throws Exception
+    {
+        byte[] bytes = Base64.getEncoder().encode( serializeJavaSerializable( object ) );
+        return new String( bytes, UTF_8 );
+    }
+
+    private static byte[] serializeJavaSerializable( Object object )
+        throws Exception
     {
         ByteArrayOutputStream bout = new ByteArrayOutputStream();
         try (ObjectOutputStream out = new ObjectOutputStream( bout ))
         {
             out.writeUnshared( object );
         }
-        byte[] bytes = Base64.getEncoder().encode( bout.toByteArray() );
-        return new String( bytes, UTF_8 );
+        return bout.toByteArray();
     }
 
     protected abstract OutputType adaptOutput( OutputStream output )
@@ -576,4 +644,65 @@ public abstract class ValueSerializerAdapter<OutputType>
     {
         // NOOP
     }
+
+    /**
+     * Write binary content, Java serialized values for example.
+     * <p>
+     * Defaults to a Base64 encoded String value, formats with native binary support should override this.
+     * </p>
+     *
+     * @param output Output
+     * @param bytes  Binary content
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected void onBinaryValue( OutputType output, byte[] bytes )
+        throws Exception
+    {
+        onValue( output, Base64.getEncoder().encodeToString( bytes ) );
+    }
+
+    /**
+     * Convert serialized state to the String returned by the String producing serialize methods.
+     * <p>
+     * Defaults to UTF-8 decoding, binary formats should override this to use a text safe encoding.
+     * </p>
+     *
+     * @param state Serialized state
+     *
+     * @return Serialized state as a String
+     *
+     * @throws Exception that will be wrapped in a {@link ValueSerializationException}
+     */
+    protected String toStateString( byte[] state )
+        throws Exception
+    {
+        return new String( state, UTF_8 );
+    }
+
+    /**
+     * ValueComposite state layout, computed once per ValueDescriptor.
+     * <p>
+     * Resolving the type name and the property and association descriptors through the descriptor streams on every
+     * serialized value is the dominant cost when serializing many small values of the same type.
+     * </p>
+     */
+    private static final class CompositeEncoder
+    {
+        private final String typeName;
+        private final PropertyDescriptor[] properties;
+        private final AssociationDescriptor[] associations;
+        private final AssociationDescriptor[] manyAssociations;
+        private final AssociationDescriptor[] namedAssociations;
+
+        private CompositeEncoder( ValueDescriptor descriptor )
+        {
+            ValueCompositeType valueType = descriptor.valueType();
+            typeName = valueType.types().findFirst().get().getName();
+            properties = valueType.properties().toArray( PropertyDescriptor[]::new );
+            associations = valueType.associations().toArray( AssociationDescriptor[]::new );
+            manyAssociations = valueType.manyAssociations().toArray( AssociationDescriptor[]::new );
+            namedAssociations = valueType.namedAssociations().toArray( AssociationDescriptor[]::new );
+        }
+    }
 }
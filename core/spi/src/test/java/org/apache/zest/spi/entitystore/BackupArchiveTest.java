@@ -0,0 +1,233 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Transforms;
+import org.apache.zest.spi.uuid.UuidIdentityGeneratorService;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BackupArchiveTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.services( MemoryEntityStoreService.class );
+        module.services( UuidIdentityGeneratorService.class );
+        module.services( OrgJsonValueSerializationService.class )
+            .taggedWith( ValueSerialization.Formats.JSON );
+        module.entities( Note.class );
+    }
+
+    @Test
+    public void givenEntitiesWhenBackingUpAndRestoringThenStatesAreRestored()
+        throws Exception
+    {
+        List<String> identities = newNotes( 250 );
+        BackupRestore backupRestore = serviceFinder.findService( BackupRestore.class ).get();
+        File archive = File.createTempFile( "backup", ".zba" );
+        try
+        {
+            backupRestore.backup().transferTo( BackupArchive.writeTo( archive, 4, 20 ) );
+
+            BackupArchive.Index index = BackupArchive.index( archive );
+            assertThat( index.entities(), equalTo( 250L ) );
+            assertThat( index.chunks(), equalTo( 13 ) );
+
+            BackupArchive.readFrom( 4, archive ).transferTo( backupRestore.restore() );
+
+            assertThat( backedUp().size(), equalTo( 250 ) );
+            try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+            {
+                assertThat( uow.get( Note.class, identities.get( 123 ) ).text().get(), equalTo( "Note 123" ) );
+            }
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void givenChangesAfterBackupWhenBackingUpIncrementallyThenOnlyChangedStatesAreArchived()
+        throws Exception
+    {
+        List<String> identities = newNotes( 50 );
+        BackupRestore backupRestore = serviceFinder.findService( BackupRestore.class ).get();
+        File full = File.createTempFile( "backup", ".zba" );
+        File incremental = File.createTempFile( "backup", ".zba" );
+        try
+        {
+            backupRestore.backup().transferTo( BackupArchive.writeTo( full ) );
+            long since = BackupArchive.index( full ).lastModified();
+
+            Thread.sleep( 10 );
+            try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+            {
+                uow.get( Note.class, identities.get( 7 ) ).text().set( "Changed" );
+                uow.complete();
+            }
+            backupRestore.backup().transferTo(
+                Transforms.filter( BackupArchive.modifiedAfter( since ), BackupArchive.writeTo( incremental, since ) ) );
+            assertThat( BackupArchive.index( incremental ).entities(), equalTo( 1L ) );
+
+            BackupArchive.readFrom( full, incremental ).transferTo( backupRestore.restore() );
+
+            assertThat( backedUp().size(), equalTo( 50 ) );
+            try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+            {
+                assertThat( uow.get( Note.class, identities.get( 7 ) ).text().get(), equalTo( "Changed" ) );
+            }
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            full.delete();
+            //noinspection ResultOfMethodCallIgnored
+            incremental.delete();
+        }
+    }
+
+    @Test
+    public void givenNoChangesWhenChainingIncrementalBackupsThenEmptyArchiveKeepsTimestamp()
+        throws Exception
+    {
+        newNotes( 20 );
+        BackupRestore backupRestore = serviceFinder.findService( BackupRestore.class ).get();
+        File full = File.createTempFile( "backup", ".zba" );
+        File empty = File.createTempFile( "backup", ".zba" );
+        File next = File.createTempFile( "backup", ".zba" );
+        try
+        {
+            backupRestore.backup().transferTo( BackupArchive.writeTo( full ) );
+            long since = BackupArchive.index( full ).lastModified();
+
+            backupRestore.backup().transferTo(
+                Transforms.filter( BackupArchive.modifiedAfter( since ), BackupArchive.writeTo( empty, since ) ) );
+            BackupArchive.Index index = BackupArchive.index( empty );
+            assertThat( index.entities(), equalTo( 0L ) );
+            assertThat( index.lastModified(), equalTo( since ) );
+
+            long chained = index.lastModified();
+            backupRestore.backup().transferTo(
+                Transforms.filter( BackupArchive.modifiedAfter( chained ), BackupArchive.writeTo( next, chained ) ) );
+            assertThat( BackupArchive.index( next ).entities(), equalTo( 0L ) );
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            full.delete();
+            //noinspection ResultOfMethodCallIgnored
+            empty.delete();
+            //noinspection ResultOfMethodCallIgnored
+            next.delete();
+        }
+    }
+
+    @Test
+    public void givenCorruptChunkWhenReadingThenFailsChecksum()
+        throws Exception
+    {
+        newNotes( 10 );
+        File archive = File.createTempFile( "backup", ".zba" );
+        try
+        {
+            serviceFinder.findService( BackupRestore.class ).get().backup()
+                .transferTo( BackupArchive.writeTo( archive ) );
+            try( RandomAccessFile file = new RandomAccessFile( archive, "rw" ) )
+            {
+                // First byte of the first chunk data, after the archive and chunk headers
+                file.seek( 24 );
+                int value = file.read();
+                file.seek( 24 );
+                file.write( value ^ 0xFF );
+            }
+
+            try
+            {
+                BackupArchive.readFrom( archive ).transferTo( Outputs.<String>noop() );
+                fail( "Corrupt chunk should not be read" );
+            }
+            catch( IOException e )
+            {
+                assertThat( e.getMessage(), equalTo( "Corrupt backup archive chunk at offset 8" ) );
+            }
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            archive.delete();
+        }
+    }
+
+    private List<String> newNotes( int count )
+        throws Exception
+    {
+        List<String> identities = new ArrayList<>();
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            for( int i = 0; i < count; i++ )
+            {
+                EntityBuilder<Note> builder = uow.newEntityBuilder( Note.class );
+                builder.instance().text().set( "Note " + i );
+                identities.add( builder.newInstance().identity().get() );
+            }
+            uow.complete();
+        }
+        return identities;
+    }
+
+    private List<String> backedUp()
+        throws IOException
+    {
+        List<String> states = new ArrayList<>();
+        serviceFinder.findService( BackupRestore.class ).get().backup().transferTo( Outputs.collection( states ) );
+        return states;
+    }
+
+    public interface Note
+        extends EntityComposite
+    {
+        Property<String> text();
+    }
+}
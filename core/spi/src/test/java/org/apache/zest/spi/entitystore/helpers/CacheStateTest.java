@@ -0,0 +1,83 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CacheStateTest
+{
+    @Test
+    public void givenSmallStateWhenRoundTrippedExpectSameState()
+        throws Exception
+    {
+        JSONObject json = new JSONObject();
+        json.put( "identity", "123" );
+        json.put( "name", "Zout é中" );
+
+        assertEquals( json.toString(), roundTrip( json, null ).json.toString() );
+    }
+
+    @Test
+    public void givenStateLargerThan64KWhenRoundTrippedExpectSameStateCompressed()
+        throws Exception
+    {
+        JSONObject json = new JSONObject();
+        json.put( "identity", "123" );
+        StringBuilder text = new StringBuilder();
+        for( int i = 0; i < 20000; i++ )
+        {
+            text.append( "Habba" ).append( i );
+        }
+        json.put( "text", text.toString() );
+        int[] size = new int[ 1 ];
+
+        assertEquals( json.toString(), roundTrip( json, size ).json.toString() );
+        assertTrue( "Not compressed", size[ 0 ] < json.toString().length() / 2 );
+    }
+
+    private static JSONMapEntityStoreMixin.CacheState roundTrip( JSONObject json, int[] size )
+        throws Exception
+    {
+        JSONMapEntityStoreMixin.CacheState state = new JSONMapEntityStoreMixin.CacheState();
+        state.json = json;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( state );
+        }
+        if( size != null )
+        {
+            size[ 0 ] = bytes.size();
+        }
+        try( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            return (JSONMapEntityStoreMixin.CacheState) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.zest.api.common.QualifiedName;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JSONEntityStateTest
+{
+    private static final QualifiedName ASSOCIATION = QualifiedName.fromName( "Order", "customer" );
+    private static final QualifiedName MANY_ASSOCIATION = QualifiedName.fromName( "Order", "lines" );
+    private static final QualifiedName NAMED_ASSOCIATION = QualifiedName.fromName( "Order", "addresses" );
+
+    @Test
+    public void givenLoadedStateWhenChangingAssociationExpectOnlyThatSectionCopied()
+        throws JSONException
+    {
+        JSONObject cached = cachedState();
+        String before = cached.toString();
+        JSONEntityState entityState = loaded( cached );
+
+        entityState.setAssociationValue( ASSOCIATION, EntityReference.parseEntityReference( "customer-2" ) );
+
+        assertThat( cached.toString(), equalTo( before ) );
+        assertThat( entityState.status(), equalTo( EntityStatus.UPDATED ) );
+        assertThat( entityState.state(), not( sameInstance( cached ) ) );
+        assertThat( entityState.associationValueOf( ASSOCIATION ).identity(), equalTo( "customer-2" ) );
+        assertThat( entityState.state().getJSONObject( JSONKeys.PROPERTIES ),
+                    sameInstance( cached.getJSONObject( JSONKeys.PROPERTIES ) ) );
+        assertThat( entityState.state().getJSONObject( JSONKeys.MANY_ASSOCIATIONS ),
+                    sameInstance( cached.getJSONObject( JSONKeys.MANY_ASSOCIATIONS ) ) );
+    }
+
+    @Test
+    public void givenLoadedStateWhenChangingManyAssociationExpectCachedReferencesUntouched()
+        throws JSONException
+    {
+        JSONObject cached = cachedState();
+        String before = cached.toString();
+        JSONEntityState entityState = loaded( cached );
+
+        assertThat( entityState.manyAssociationValueOf( MANY_ASSOCIATION ).add( 0, EntityReference.parseEntityReference( "line-0" ) ),
+                    is( true ) );
+        assertThat( entityState.manyAssociationValueOf( MANY_ASSOCIATION ).remove( EntityReference.parseEntityReference( "line-2" ) ),
+                    is( true ) );
+
+        assertThat( cached.toString(), equalTo( before ) );
+        assertThat( entityState.state().getJSONObject( JSONKeys.MANY_ASSOCIATIONS ).getJSONArray( "lines" ).toString(),
+                    equalTo( "[\"line-0\",\"line-1\"]" ) );
+        assertThat( entityState.state().getJSONObject( JSONKeys.NAMED_ASSOCIATIONS ),
+                    sameInstance( cached.getJSONObject( JSONKeys.NAMED_ASSOCIATIONS ) ) );
+    }
+
+    @Test
+    public void givenLoadedStateWhenChangingNamedAssociationExpectCachedReferencesUntouched()
+        throws JSONException
+    {
+        JSONObject cached = cachedState();
+        String before = cached.toString();
+        JSONEntityState entityState = loaded( cached );
+
+        assertThat( entityState.namedAssociationValueOf( NAMED_ASSOCIATION ).put( "billing", EntityReference.parseEntityReference( "address-2" ) ),
+                    is( true ) );
+
+        assertThat( cached.toString(), equalTo( before ) );
+        assertThat( entityState.namedAssociationValueOf( NAMED_ASSOCIATION ).get( "billing" ).identity(),
+                    equalTo( "address-2" ) );
+    }
+
+    @Test
+    public void givenLoadedStateWhenReadingMissingAssociationsExpectStateUntouched()
+        throws JSONException
+    {
+        JSONObject cached = cachedState();
+        String before = cached.toString();
+        JSONEntityState entityState = loaded( cached );
+
+        assertThat( entityState.manyAssociationValueOf( QualifiedName.fromName( "Order", "missing" ) ).count(), equalTo( 0 ) );
+        assertThat( entityState.namedAssociationValueOf( QualifiedName.fromName( "Order", "missing" ) ).count(), equalTo( 0 ) );
+
+        assertThat( cached.toString(), equalTo( before ) );
+        assertThat( entityState.state(), sameInstance( cached ) );
+        assertThat( entityState.status(), equalTo( EntityStatus.LOADED ) );
+    }
+
+    @Test
+    public void givenKnownSectionTextsWhenChangingOneSectionExpectOnlyUntouchedSectionTextsShared()
+        throws JSONException
+    {
+        JSONObject cached = cachedState();
+        Map<String, String> texts = new HashMap<>();
+        texts.put( JSONKeys.PROPERTIES, cached.getJSONObject( JSONKeys.PROPERTIES ).toString() );
+        texts.put( JSONKeys.ASSOCIATIONS, cached.getJSONObject( JSONKeys.ASSOCIATIONS ).toString() );
+        JSONEntityState entityState = loaded( cached );
+        entityState.sectionTexts( texts );
+
+        entityState.setAssociationValue( ASSOCIATION, EntityReference.parseEntityReference( "customer-2" ) );
+
+        assertThat( entityState.sharedSectionText( JSONKeys.PROPERTIES ), equalTo( texts.get( JSONKeys.PROPERTIES ) ) );
+        assertThat( entityState.sharedSectionText( JSONKeys.ASSOCIATIONS ), nullValue() );
+        assertThat( entityState.sharedSectionText( JSONKeys.MANY_ASSOCIATIONS ), nullValue() );
+    }
+
+    private static JSONEntityState loaded( JSONObject state )
+    {
+        return new JSONEntityState( null,
+                                    null,
+                                    "1",
+                                    System.currentTimeMillis(),
+                                    EntityReference.parseEntityReference( "order-1" ),
+                                    EntityStatus.LOADED,
+                                    null,
+                                    state );
+    }
+
+    private static JSONObject cachedState()
+        throws JSONException
+    {
+        JSONObject state = new JSONObject();
+        state.put( JSONKeys.IDENTITY, "order-1" );
+        state.put( JSONKeys.VERSION, "1" );
+        state.put( JSONKeys.PROPERTIES, new JSONObject().put( "reference", "4711" ) );
+        state.put( JSONKeys.ASSOCIATIONS, new JSONObject().put( "customer", "customer-1" ) );
+        state.put( JSONKeys.MANY_ASSOCIATIONS, new JSONObject().put( "lines", new JSONArray().put( "line-1" ).put( "line-2" ) ) );
+        state.put( JSONKeys.NAMED_ASSOCIATIONS, new JSONObject().put( "addresses", new JSONObject().put( "billing", "address-1" ) ) );
+        return state;
+    }
+}
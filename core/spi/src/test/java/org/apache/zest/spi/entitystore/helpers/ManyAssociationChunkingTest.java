@@ -0,0 +1,192 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.association.ManyAssociation;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entitystore.BackupRestore;
+import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.uuid.UuidIdentityGeneratorService;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ManyAssociationChunkingTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.services( MemoryEntityStoreService.class )
+            .setMetaInfo( new ManyAssociationChunking( 4, 3 ) );
+        module.services( UuidIdentityGeneratorService.class );
+        module.services( OrgJsonValueSerializationService.class )
+            .taggedWith( ValueSerialization.Formats.JSON );
+        module.entities( Owner.class, Item.class );
+    }
+
+    @Test
+    public void givenManyAssociationBelowThresholdExpectInlineStorage()
+        throws Exception
+    {
+        String owner = newOwner( 4 );
+
+        assertThat( chunkRecords().size(), equalTo( 0 ) );
+        assertThat( items( owner ).size(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void givenManyAssociationAboveThresholdExpectChunkedStorageWithSameReferences()
+        throws Exception
+    {
+        String owner = newOwner( 10 );
+        List<String> expected = items( owner );
+
+        assertThat( chunkRecords().size(), equalTo( 4 ) );
+        assertThat( entityStateCount(), equalTo( 11 ) );
+        try (UnitOfWork uow = unitOfWorkFactory.newUnitOfWork())
+        {
+            ManyAssociation<Item> items = uow.get( Owner.class, owner ).items();
+            assertThat( items.count(), equalTo( 10 ) );
+            assertThat( items.get( 7 ).identity().get(), equalTo( expected.get( 7 ) ) );
+            assertThat( items.contains( uow.get( Item.class, expected.get( 9 ) ) ), is( true ) );
+        }
+    }
+
+    @Test
+    public void givenChunkedManyAssociationWhenChangingExpectChangesPersistedInOrder()
+        throws Exception
+    {
+        String owner = newOwner( 10 );
+        List<String> expected = items( owner );
+        try (UnitOfWork uow = unitOfWorkFactory.newUnitOfWork())
+        {
+            ManyAssociation<Item> items = uow.get( Owner.class, owner ).items();
+            Item first = uow.newEntity( Item.class );
+            Item last = uow.newEntity( Item.class );
+            assertThat( items.remove( uow.get( Item.class, expected.get( 4 ) ) ), is( true ) );
+            assertThat( items.add( 0, first ), is( true ) );
+            assertThat( items.add( last ), is( true ) );
+            assertThat( items.add( last ), is( false ) );
+            expected.remove( 4 );
+            expected.add( 0, first.identity().get() );
+            expected.add( last.identity().get() );
+            uow.complete();
+        }
+
+        assertThat( items( owner ), equalTo( expected ) );
+        assertThat( chunkRecords().size(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void givenChunkedManyAssociationWhenRemovingOwnerExpectChunksRemoved()
+        throws Exception
+    {
+        String owner = newOwner( 10 );
+        try (UnitOfWork uow = unitOfWorkFactory.newUnitOfWork())
+        {
+            uow.remove( uow.get( Owner.class, owner ) );
+            uow.complete();
+        }
+
+        assertThat( chunkRecords().size(), equalTo( 0 ) );
+    }
+
+    private String newOwner( int itemCount )
+        throws Exception
+    {
+        try (UnitOfWork uow = unitOfWorkFactory.newUnitOfWork())
+        {
+            Owner owner = uow.newEntity( Owner.class );
+            for( int idx = 0; idx < itemCount; idx++ )
+            {
+                owner.items().add( uow.newEntity( Item.class ) );
+            }
+            String identity = owner.identity().get();
+            uow.complete();
+            return identity;
+        }
+    }
+
+    private List<String> items( String owner )
+    {
+        try (UnitOfWork uow = unitOfWorkFactory.newUnitOfWork())
+        {
+            List<String> identities = new ArrayList<>();
+            for( EntityReference reference : uow.get( Owner.class, owner ).items().references() )
+            {
+                identities.add( reference.identity() );
+            }
+            return identities;
+        }
+    }
+
+    private List<String> chunkRecords()
+        throws Exception
+    {
+        List<String> records = new ArrayList<>();
+        serviceFinder.findService( BackupRestore.class ).get().backup().transferTo( Outputs.collection( records ) );
+        List<String> chunks = new ArrayList<>();
+        for( String record : records )
+        {
+            if( new JSONObject( record ).has( JSONKeys.CHUNK_REFERENCES ) )
+            {
+                chunks.add( record );
+            }
+        }
+        return chunks;
+    }
+
+    private int entityStateCount()
+        throws Exception
+    {
+        List<EntityState> states = new ArrayList<>();
+        serviceFinder.findService( EntityStore.class ).get().entityStates( module ).transferTo( Outputs.collection( states ) );
+        return states.size();
+    }
+
+    public interface Owner
+        extends EntityComposite
+    {
+        ManyAssociation<Item> items();
+    }
+
+    public interface Item
+        extends EntityComposite
+    {
+    }
+}
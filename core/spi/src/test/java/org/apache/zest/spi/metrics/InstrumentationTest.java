@@ -0,0 +1,124 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.metrics.MetricsTimer;
+import org.apache.zest.api.metrics.MetricsTimerFactory;
+import org.apache.zest.api.structure.MetaInfoHolder;
+import org.apache.zest.api.usecase.Usecase;
+import org.apache.zest.api.usecase.UsecaseBuilder;
+import org.junit.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class InstrumentationTest
+{
+    private final List<String> created = new ArrayList<>();
+
+    @Test
+    public void givenServiceWithoutInstrumentationOptionsExpectDisabled()
+    {
+        Instrumentation underTest = Instrumentation.of( new RecordingMetricsProvider(), holder( null ), "store", getClass() );
+        assertThat( underTest, sameInstance( Instrumentation.DISABLED ) );
+        assertThat( underTest.isEnabled(), is( false ) );
+        underTest.time( "load", String.class, null ).stop();
+        underTest.count( "load", String.class, null );
+        assertThat( created.isEmpty(), is( true ) );
+    }
+
+    @Test
+    public void givenNoMetricsProviderExpectDisabled()
+    {
+        Instrumentation underTest = Instrumentation.of( null, holder( InstrumentationOptions.ALL ), "store", getClass() );
+        assertThat( underTest, sameInstance( Instrumentation.DISABLED ) );
+    }
+
+    @Test
+    public void givenAllTagsWhenCountingExpectTaggedNameAndSingleMetricCreation()
+    {
+        Instrumentation underTest = Instrumentation.of( new RecordingMetricsProvider(), holder( InstrumentationOptions.ALL ), "store", getClass() );
+        Usecase usecase = UsecaseBuilder.newUsecase( "checkout" );
+        underTest.count( "cache hit", String.class, usecase );
+        underTest.count( "cache hit", String.class, usecase );
+        assertThat( created, equalTo( singletonList( "cache hit [store=store, type=java.lang.String, usecase=checkout]" ) ) );
+    }
+
+    @Test
+    public void givenStoreOnlyTagsWhenTimingExpectStoreTaggedName()
+    {
+        Instrumentation underTest = Instrumentation.of( new RecordingMetricsProvider(), holder( InstrumentationOptions.STORE_ONLY ), "store", getClass() );
+        underTest.time( "commit", String.class, UsecaseBuilder.newUsecase( "checkout" ) ).stop();
+        assertThat( created, equalTo( singletonList( "commit [store=store]" ) ) );
+    }
+
+    private static MetaInfoHolder holder( final InstrumentationOptions options )
+    {
+        return new MetaInfoHolder()
+        {
+            @Override
+            public <T> T metaInfo( Class<T> infoType )
+            {
+                return infoType.cast( options );
+            }
+        };
+    }
+
+    private class RecordingMetricsProvider extends MetricsProviderAdapter
+    {
+        @Override
+        protected MetricsCounterFactory createMetricsCounterFactory()
+        {
+            return new NullMetricsFactory.NullCounterFactory()
+            {
+                @Override
+                public MetricsCounter createCounter( Class<?> origin, String name )
+                {
+                    created.add( name );
+                    return super.createCounter( origin, name );
+                }
+            };
+        }
+
+        @Override
+        protected MetricsTimerFactory createMetricsTimerFactory()
+        {
+            return new NullMetricsFactory.NullTimerFactory()
+            {
+                @Override
+                public MetricsTimer createTimer( Class<?> origin, String name, TimeUnit duration, TimeUnit rate )
+                {
+                    created.add( name );
+                    return super.createTimer( origin, name, duration, rate );
+                }
+            };
+        }
+    }
+}
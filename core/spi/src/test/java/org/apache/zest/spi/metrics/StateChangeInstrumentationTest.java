@@ -0,0 +1,141 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.metrics.MetricsHistogram;
+import org.apache.zest.api.metrics.MetricsHistogramFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.metrics.MetricsTimer;
+import org.apache.zest.api.metrics.MetricsTimerFactory;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entitystore.StateChangeListener;
+import org.apache.zest.spi.uuid.UuidIdentityGeneratorService;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class StateChangeInstrumentationTest
+    extends AbstractZestTest
+{
+    private static final List<String> CREATED = new ArrayList<>();
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.services( MemoryEntityStoreService.class );
+        module.services( UuidIdentityGeneratorService.class );
+        module.services( OrgJsonValueSerializationService.class )
+            .taggedWith( ValueSerialization.Formats.JSON );
+        module.services( ListenerService.class )
+            .identifiedBy( "listener" )
+            .setMetaInfo( InstrumentationOptions.STORE_ONLY );
+        module.importedServices( MetricsProvider.class )
+            .setMetaInfo( new RecordingMetricsProvider() );
+        module.entities( Counted.class );
+    }
+
+    @Test
+    public void givenInstrumentedListenerWhenCommittingTwiceExpectMetricsCreatedOnce()
+        throws Exception
+    {
+        CREATED.clear();
+        for( int i = 0; i < 2; i++ )
+        {
+            try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+            {
+                uow.newEntity( Counted.class );
+                uow.complete();
+            }
+        }
+        List<String> listenerMetrics = CREATED.stream()
+            .filter( name -> name.endsWith( "[store=listener]" ) )
+            .collect( Collectors.toList() );
+        assertThat( listenerMetrics, equalTo( asList( "index [store=listener]", "index lag [store=listener]" ) ) );
+    }
+
+    public interface Counted
+        extends EntityComposite
+    {
+    }
+
+    @Mixins( ListenerService.Mixin.class )
+    public interface ListenerService
+        extends StateChangeListener, ServiceComposite
+    {
+        class Mixin
+            implements StateChangeListener
+        {
+            @Override
+            public void notifyChanges( Iterable<EntityState> changedStates )
+            {
+            }
+        }
+    }
+
+    public static class RecordingMetricsProvider
+        extends MetricsProviderAdapter
+    {
+        @Override
+        protected MetricsTimerFactory createMetricsTimerFactory()
+        {
+            return new NullMetricsFactory.NullTimerFactory()
+            {
+                @Override
+                public MetricsTimer createTimer( Class<?> origin, String name, TimeUnit duration, TimeUnit rate )
+                {
+                    CREATED.add( name );
+                    return super.createTimer( origin, name, duration, rate );
+                }
+            };
+        }
+
+        @Override
+        protected MetricsHistogramFactory createMetricsHistogramFactory()
+        {
+            return new NullMetricsFactory.NullHistogramFactory()
+            {
+                @Override
+                public MetricsHistogram createHistogram( Class<?> origin, String name )
+                {
+                    CREATED.add( name );
+                    return super.createHistogram( origin, name );
+                }
+            };
+        }
+    }
+}
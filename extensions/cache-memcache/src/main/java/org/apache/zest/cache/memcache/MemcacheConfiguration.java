@@ -78,5 +78,16 @@ public interface MemcacheConfiguration
      */
     @Optional
     Property<String> authMechanism();
+
+    /**
+     * Share caches with the other nodes using the same Memcached servers.
+     * When set, a cache is identified by its id only, so that nodes fetching the same cache id see the same entries,
+     * and the entries outlive the cache being returned to the pool. This is what a near-cache needs of its L2.
+     * EntityStores then fetch their cache with their identity rather than with an id unique to each run.
+     * Defaulted to false, every fetched cache then only sees its own entries.
+     * @return Shared caches configuration property
+     */
+    @Optional
+    Property<Boolean> shared();
 }
 // END SNIPPET: config
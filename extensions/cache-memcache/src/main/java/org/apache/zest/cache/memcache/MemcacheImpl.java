@@ -40,11 +40,13 @@ import org.apache.zest.spi.cache.Cache;
     private final int expiration;
     private int refCount;
 
-    /* package */ MemcacheImpl( MemcachedClient client, String cacheId, Class<T> valueType, int expiration )
+    /* package */ MemcacheImpl( MemcachedClient client, String cacheId, Class<T> valueType, int expiration, boolean shared )
     {
         this.client = client;
         this.cacheId = cacheId;
-        this.cachePrefix = cacheId + "." + INSTANCES.incrementAndGet() + ".";
+        this.cachePrefix = shared
+                           ? cacheId + "."
+                           : cacheId + "." + INSTANCES.incrementAndGet() + ".";
         this.valueType = valueType;
         this.expiration = expiration;
     }
@@ -45,6 +45,7 @@ public class MemcachePoolMixin
     private Configuration<MemcacheConfiguration> configuration;
     private MemcachedClient client;
     private int expiration;
+    private boolean shared;
 
     @Override
     public void activateService()
@@ -67,6 +68,7 @@ public class MemcachePoolMixin
             String authMech = config.authMechanism().get() == null
                               ? "PLAIN"
                               : config.authMechanism().get();
+            shared = Boolean.TRUE.equals( config.shared().get() );
 
             ConnectionFactoryBuilder builder = new ConnectionFactoryBuilder();
             builder.setProtocol( protocol );
@@ -107,7 +109,7 @@ public class MemcachePoolMixin
             MemcacheImpl<?> cache = caches.get( cacheId );
             if( cache == null )
             {
-                cache = new MemcacheImpl<>( client, cacheId, valueType, expiration );
+                cache = new MemcacheImpl<>( client, cacheId, valueType, expiration, shared );
                 caches.put( cacheId, cache );
             }
             cache.incRefCount();
@@ -128,4 +130,10 @@ public class MemcachePoolMixin
             }
         }
     }
+
+    @Override
+    public boolean isShared()
+    {
+        return shared;
+    }
 }
@@ -21,13 +21,13 @@ package org.apache.zest.cache.memcache;
 
 import org.apache.zest.api.mixin.Mixins;
 import org.apache.zest.api.service.ServiceActivation;
-import org.apache.zest.spi.cache.CachePool;
+import org.apache.zest.spi.cache.SharedCachePool;
 
 /**
  * Memcache CachePool Service.
  */
 @Mixins( MemcachePoolMixin.class )
 public interface MemcachePoolService
-    extends CachePool, ServiceActivation
+    extends SharedCachePool, ServiceActivation
 {
 }
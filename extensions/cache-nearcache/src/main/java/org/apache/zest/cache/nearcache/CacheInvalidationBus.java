@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+/**
+ * Publish/subscribe channel of Cache invalidations between nodes.
+ * <p>
+ * Implement this on top of the messaging available in the cluster. See {@link LocalCacheInvalidationBusService}
+ * for an in-JVM stand-in.
+ * </p>
+ */
+public interface CacheInvalidationBus
+{
+    /**
+     * Publish the invalidation of a cached entry to all subscribers, including the publishing node.
+     *
+     * @param origin  identity of the publishing node
+     * @param cacheId identity of the Cache
+     * @param key     key of the invalidated entry
+     */
+    void publish( String origin, String cacheId, String key );
+
+    void subscribe( Listener listener );
+
+    void unsubscribe( Listener listener );
+
+    /**
+     * Receiver of Cache invalidations.
+     */
+    interface Listener
+    {
+        void invalidated( String origin, String cacheId, String key );
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM CacheInvalidationBus Mixin.
+ */
+public class LocalCacheInvalidationBusMixin
+    implements CacheInvalidationBus
+{
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish( String origin, String cacheId, String key )
+    {
+        for( Listener listener : LISTENERS )
+        {
+            listener.invalidated( origin, cacheId, key );
+        }
+    }
+
+    @Override
+    public void subscribe( Listener listener )
+    {
+        LISTENERS.add( listener );
+    }
+
+    @Override
+    public void unsubscribe( Listener listener )
+    {
+        LISTENERS.remove( listener );
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.property.Property;
+
+/**
+ * Near-Cache CachePool Configuration.
+ */
+// START SNIPPET: config
+public interface NearCacheConfiguration
+    extends Configuration<NearCachePoolService>
+{
+    /**
+     * Maximum number of entries kept in the local L1 of each Cache, least recently used entries are evicted first.
+     * Defaulted to 10000.
+     * @return Maximum L1 entries configuration property
+     */
+    @Optional
+    Property<Integer> maxEntries();
+}
+// END SNIPPET: config
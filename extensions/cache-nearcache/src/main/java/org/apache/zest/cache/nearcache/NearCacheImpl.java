@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.zest.spi.cache.Cache;
+
+/**
+ * Near-Cache Implementation.
+ * A bounded, least recently used, local L1 in front of a shared L2 Cache.
+ * Changes are written through to the L2 and published on the CacheInvalidationBus so that other nodes drop their
+ * L1 copy.
+ * @param <T> Parameterized Type of cached entries
+ */
+/* package */ class NearCacheImpl<T>
+    implements Cache<T>
+{
+    private final String cacheId;
+    private final Cache<T> l2;
+    private final Map<String, T> l1;
+    private final Publisher publisher;
+    private final AtomicLong invalidations = new AtomicLong();
+    private int refCount;
+
+    /* package */ NearCacheImpl( String cacheId, final int maxEntries, Cache<T> l2, Publisher publisher )
+    {
+        this.cacheId = cacheId;
+        this.l2 = l2;
+        this.publisher = publisher;
+        this.l1 = new LinkedHashMap<String, T>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, T> eldest )
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public T get( String key )
+    {
+        synchronized( l1 )
+        {
+            T value = l1.get( key );
+            if( value != null )
+            {
+                return value;
+            }
+        }
+        // An invalidation received while reading the L2 may be newer than the value read, so it is not kept in L1
+        long seen = invalidations.get();
+        T value = l2.get( key );
+        if( value != null )
+        {
+            synchronized( l1 )
+            {
+                if( invalidations.get() == seen )
+                {
+                    l1.put( key, value );
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public T remove( String key )
+    {
+        T old;
+        synchronized( l1 )
+        {
+            invalidations.incrementAndGet();
+            old = l1.remove( key );
+        }
+        T l2Old = l2.remove( key );
+        publisher.publish( cacheId, key );
+        return old == null ? l2Old : old;
+    }
+
+    @Override
+    public void put( String key, T value )
+    {
+        synchronized( l1 )
+        {
+            invalidations.incrementAndGet();
+            l1.put( key, value );
+        }
+        l2.put( key, value );
+        publisher.publish( cacheId, key );
+    }
+
+    @Override
+    public boolean exists( String key )
+    {
+        synchronized( l1 )
+        {
+            if( l1.containsKey( key ) )
+            {
+                return true;
+            }
+        }
+        return l2.exists( key );
+    }
+
+    /* package */ void invalidate( String key )
+    {
+        synchronized( l1 )
+        {
+            invalidations.incrementAndGet();
+            l1.remove( key );
+        }
+    }
+
+    /* package */ Cache<T> l2()
+    {
+        return l2;
+    }
+
+    /* package */ int l1Size()
+    {
+        synchronized( l1 )
+        {
+            return l1.size();
+        }
+    }
+
+    synchronized void decRefCount()
+    {
+        refCount--;
+    }
+
+    synchronized void incRefCount()
+    {
+        refCount++;
+    }
+
+    synchronized boolean isNotUsed()
+    {
+        return refCount == 0;
+    }
+
+    public String cacheId()
+    {
+        return cacheId;
+    }
+
+    /**
+     * Publishes the invalidations of a NearCacheImpl.
+     */
+    /* package */ interface Publisher
+    {
+        void publish( String cacheId, String key );
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.spi.cache.Cache;
+import org.apache.zest.spi.cache.CachePool;
+import org.apache.zest.spi.cache.NullCache;
+
+import static org.apache.zest.api.util.NullArgumentException.validateNotEmpty;
+
+/**
+ * Near-Cache CachePool Mixin.
+ */
+public class NearCachePoolMixin
+    implements NearCachePoolService
+{
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final Map<String, NearCacheImpl<?>> caches = new HashMap<>();
+    private final String origin = UUID.randomUUID().toString();
+    @This @Optional
+    private Configuration<NearCacheConfiguration> configuration;
+    @Service
+    private Iterable<ServiceReference<CachePool>> pools;
+    @Service @Optional
+    private CacheInvalidationBus bus;
+    private CachePool l2Pool;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private CacheInvalidationBus.Listener listener;
+
+    @Override
+    public void activateService()
+        throws Exception
+    {
+        if( configuration != null && configuration.get().maxEntries().get() != null )
+        {
+            maxEntries = configuration.get().maxEntries().get();
+        }
+        if( bus != null )
+        {
+            listener = ( from, cacheId, key ) -> {
+                if( origin.equals( from ) )
+                {
+                    return;
+                }
+                NearCacheImpl<?> cache;
+                synchronized( caches )
+                {
+                    cache = caches.get( cacheId );
+                }
+                if( cache != null )
+                {
+                    cache.invalidate( key );
+                }
+            };
+            bus.subscribe( listener );
+        }
+    }
+
+    @Override
+    public void passivateService()
+        throws Exception
+    {
+        if( listener != null )
+        {
+            bus.unsubscribe( listener );
+            listener = null;
+        }
+        synchronized( caches )
+        {
+            caches.clear();
+        }
+    }
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public <T> Cache<T> fetchCache( String cacheId, Class<T> valueType )
+    {
+        validateNotEmpty( "cacheId", cacheId );
+        synchronized( caches )
+        {
+            NearCacheImpl<?> cache = caches.get( cacheId );
+            if( cache == null )
+            {
+                CachePool l2Pool = l2Pool();
+                Cache<T> l2 = l2Pool == null ? new NullCache<>() : l2Pool.fetchCache( cacheId, valueType );
+                cache = new NearCacheImpl<>( cacheId, maxEntries, l2, this::publish );
+                caches.put( cacheId, cache );
+            }
+            cache.incRefCount();
+            return (Cache<T>) cache;
+        }
+    }
+
+    @Override
+    public void returnCache( Cache<?> cache )
+    {
+        NearCacheImpl<?> nearCache = (NearCacheImpl<?>) cache;
+        nearCache.decRefCount();
+        synchronized( caches )
+        {
+            if( nearCache.isNotUsed() )
+            {
+                caches.remove( nearCache.cacheId() );
+                if( !( nearCache.l2() instanceof NullCache ) )
+                {
+                    l2Pool().returnCache( nearCache.l2() );
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isShared()
+    {
+        // Other nodes must see the same cache ids for invalidations to reach their L1
+        return true;
+    }
+
+    private CachePool l2Pool()
+    {
+        // Resolved lazily as EntityStores may fetch caches while this service is being activated
+        if( l2Pool == null )
+        {
+            for( ServiceReference<CachePool> pool : pools )
+            {
+                if( !pool.hasType( NearCachePoolService.class ) )
+                {
+                    l2Pool = pool.get();
+                    break;
+                }
+            }
+        }
+        return l2Pool;
+    }
+
+    private void publish( String cacheId, String key )
+    {
+        if( bus != null )
+        {
+            bus.publish( origin, cacheId, key );
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.cache.nearcache;
+
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.test.cache.MemoryCachePoolService;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * EntityStores fetch their cache with their identity when behind a Near-Cache, so that all nodes share it.
+ */
+public class NearCacheEntityStoreTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ModuleAssembly confModule = module.layer().module( "confModule" );
+        new EntityTestAssembler().visibleIn( Visibility.layer ).assemble( confModule );
+        new NearCacheAssembler().
+            visibleIn( Visibility.module ).
+            withConfig( confModule, Visibility.layer ).
+            assemble( module );
+        module.services( MemoryCachePoolService.class );
+        new EntityTestAssembler().identifiedBy( "store" ).assemble( module );
+        module.entities( TestEntity.class );
+    }
+
+    @Test
+    public void givenNearCacheWhenEntityStoredExpectCacheFetchedWithStoreIdentity()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            EntityBuilder<TestEntity> builder = uow.newEntityBuilder( TestEntity.class, "123" );
+            builder.instance().name().set( "Foo" );
+            builder.newInstance();
+            uow.complete();
+        }
+
+        MemoryCachePoolService l2 = serviceFinder.findService( MemoryCachePoolService.class ).get();
+        assertEquals( "store", l2.singleCache().cacheId() );
+    }
+
+    public interface TestEntity
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.cache.nearcache;
+
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.cache.Cache;
+import org.apache.zest.spi.cache.CachePool;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.test.cache.MemoryCachePoolService;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Two Near-Cache CachePools over the same L2 stand in for two nodes of a cluster.
+ */
+public class NearCacheInvalidationTest
+    extends AbstractZestTest
+{
+    private CachePool poolA;
+    private CachePool poolB;
+    private Cache<String> cacheA;
+    private Cache<String> cacheB;
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ModuleAssembly confModule = module.layer().module( "confModule" );
+        new EntityTestAssembler().visibleIn( Visibility.layer ).assemble( confModule );
+        new NearCacheAssembler().
+            identifiedBy( "node-a" ).visibleIn( Visibility.layer ).withConfig( confModule, Visibility.layer ).
+            assemble( module.layer().module( "node-a" ).withDefaultUnitOfWorkFactory() );
+        new NearCacheAssembler().
+            identifiedBy( "node-b" ).visibleIn( Visibility.layer ).withConfig( confModule, Visibility.layer ).
+            assemble( module.layer().module( "node-b" ).withDefaultUnitOfWorkFactory() );
+        module.layer().module( "l2" ).services( MemoryCachePoolService.class ).visibleIn( Visibility.layer );
+        module.services( LocalCacheInvalidationBusService.class ).visibleIn( Visibility.layer );
+    }
+
+    @Override
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        poolA = pool( "node-a" );
+        poolB = pool( "node-b" );
+        cacheA = poolA.fetchCache( "entities", String.class );
+        cacheB = poolB.fetchCache( "entities", String.class );
+    }
+
+    @Override
+    public void tearDown()
+        throws Exception
+    {
+        poolA.returnCache( cacheA );
+        poolB.returnCache( cacheB );
+        super.tearDown();
+    }
+
+    @Test
+    public void givenValueCachedOnBothNodesWhenUpdatedOnOneExpectNewValueOnTheOther()
+    {
+        cacheA.put( "123", "v1" );
+        assertEquals( "v1", cacheB.get( "123" ) );
+
+        cacheA.put( "123", "v2" );
+        assertEquals( "v2", cacheB.get( "123" ) );
+        assertEquals( "v2", cacheA.get( "123" ) );
+    }
+
+    @Test
+    public void givenValueCachedOnBothNodesWhenRemovedOnOneExpectItGoneOnTheOther()
+    {
+        cacheA.put( "123", "v1" );
+        assertEquals( "v1", cacheB.get( "123" ) );
+
+        cacheA.remove( "123" );
+        assertNull( cacheB.get( "123" ) );
+        assertNull( cacheA.get( "123" ) );
+    }
+
+    private CachePool pool( String identity )
+    {
+        for( ServiceReference<CachePool> ref : module.instance().findServices( CachePool.class ) )
+        {
+            if( identity.equals( ref.identity() ) )
+            {
+                return ref.get();
+            }
+        }
+        throw new IllegalStateException( "No CachePool " + identity );
+    }
+}
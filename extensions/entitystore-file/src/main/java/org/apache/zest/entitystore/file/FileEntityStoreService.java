@@ -31,6 +31,7 @@ import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.helpers.MigratableStateStore;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
 
 /**
@@ -45,6 +46,7 @@ public interface FileEntityStoreService
                 EntityStore,
                 EntityStateVersions,
                 StateStore,
+                MigratableStateStore,
                 BackupRestore,
                 ServiceComposite,
                 LockingAbstractComposite,
@@ -77,5 +77,16 @@ public interface GeodeConfiguration
      */
     @UseDefaults( "zest:entitystore:region" )
     Property<String> regionName();
+
+    /**
+     * Maximum number of entries kept in the client side near cache.
+     *
+     * Only used in {@literal CLIENT_SERVER} {@link #topology()}, when set the {@link #regionShortcut()} defaults to
+     * {@literal CACHING_PROXY} and least recently used entries are evicted from the client beyond this size.
+     *
+     * @return Maximum number of near cached entries
+     */
+    @Optional
+    Property<Integer> nearCacheMaxEntries();
 }
 // END SNIPPET: config
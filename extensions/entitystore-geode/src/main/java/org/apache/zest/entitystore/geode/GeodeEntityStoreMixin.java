@@ -19,6 +19,9 @@ package org.apache.zest.entitystore.geode;
 
 import com.gemstone.gemfire.cache.Cache;
 import com.gemstone.gemfire.cache.CacheFactory;
+import com.gemstone.gemfire.cache.EvictionAction;
+import com.gemstone.gemfire.cache.EvictionAttributes;
+import com.gemstone.gemfire.cache.InterestResultPolicy;
 import com.gemstone.gemfire.cache.Region;
 import com.gemstone.gemfire.cache.RegionFactory;
 import com.gemstone.gemfire.cache.RegionShortcut;
@@ -32,8 +35,12 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
@@ -47,17 +54,27 @@ import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Geode EntityStore Mixin.
+ * <p>
+ * Entity states are stored as UTF-8 encoded byte arrays, states stored as Strings by previous versions are still
+ * read. All the changes of a unit of work are written with a single {@code putAll} and {@code removeAll}. Full scans
+ * list the keys and fetch the states a bounded number at a time.
+ * </p>
  */
 public class GeodeEntityStoreMixin
         implements ServiceActivation, MapEntityStore
 {
+    private static final int SCAN_BATCH_SIZE = 1000;
+
     @This
     private Configuration<GeodeConfiguration> config;
 
     private AutoCloseable closeable;
-    private Region<String, String> region;
+    private Region<String, Object> region;
+    private boolean client;
 
     @Override
     public void activateService()
@@ -91,8 +108,9 @@ public class GeodeEntityStoreMixin
 
         CacheFactory cacheFactory = new CacheFactory( cacheProperties );
         Cache cache = cacheFactory.create();
-        RegionFactory<String, String> regionFactory = cache.createRegionFactory( regionShortcut );
+        RegionFactory<String, Object> regionFactory = cache.createRegionFactory( regionShortcut );
         region = regionFactory.create( regionName );
+        client = false;
         closeable = cache;
     }
 
@@ -100,16 +118,33 @@ public class GeodeEntityStoreMixin
             throws IOException
     {
         Properties cacheProperties = buildCacheProperties( configuration );
+        Integer nearCacheMaxEntries = configuration.nearCacheMaxEntries().get();
+        boolean nearCache = nearCacheMaxEntries != null && nearCacheMaxEntries > 0;
         String regionShortcutName = configuration.regionShortcut().get();
         ClientRegionShortcut regionShortcut = regionShortcutName == null
-                                              ? ClientRegionShortcut.PROXY
+                                              ? nearCache ? ClientRegionShortcut.CACHING_PROXY : ClientRegionShortcut.PROXY
                                               : ClientRegionShortcut.valueOf( regionShortcutName );
         String regionName = configuration.regionName().get();
 
         ClientCacheFactory cacheFactory = new ClientCacheFactory( cacheProperties );
+        if( nearCache )
+        {
+            // Server side changes are pushed to the client so that near cached entries get invalidated
+            cacheFactory.setPoolSubscriptionEnabled( true );
+        }
         ClientCache cache = cacheFactory.create();
-        ClientRegionFactory<String, String> regionFactory = cache.createClientRegionFactory( regionShortcut );
+        ClientRegionFactory<String, Object> regionFactory = cache.createClientRegionFactory( regionShortcut );
+        if( nearCache )
+        {
+            regionFactory.setEvictionAttributes(
+                EvictionAttributes.createLRUEntryAttributes( nearCacheMaxEntries, EvictionAction.LOCAL_DESTROY ) );
+        }
         region = regionFactory.create( regionName );
+        if( nearCache )
+        {
+            region.registerInterest( "ALL_KEYS", InterestResultPolicy.NONE );
+        }
+        client = true;
         closeable = cache;
     }
 
@@ -149,17 +184,19 @@ public class GeodeEntityStoreMixin
     @Override
     public Reader get( EntityReference entityReference ) throws EntityStoreException
     {
-        String serializedState = region.get( entityReference.identity() );
+        Object serializedState = region.get( entityReference.identity() );
         if( serializedState == null )
         {
             throw new EntityNotFoundException( entityReference );
         }
-        return new StringReader( serializedState );
+        return reader( serializedState );
     }
 
     @Override
     public void applyChanges( MapChanges changes ) throws IOException
     {
+        final Map<String, Object> updated = new HashMap<>();
+        final List<String> removed = new ArrayList<>();
         changes.visitMap( new MapChanger()
         {
 
@@ -175,7 +212,7 @@ public class GeodeEntityStoreMixin
                             throws IOException
                     {
                         super.close();
-                        region.put( ref.identity(), toString() );
+                        updated.put( ref.identity(), toString().getBytes( UTF_8 ) );
                     }
                 };
             }
@@ -191,9 +228,18 @@ public class GeodeEntityStoreMixin
             public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
                     throws EntityNotFoundException
             {
-                region.remove( ref.identity() );
+                updated.remove( ref.identity() );
+                removed.add( ref.identity() );
             }
         } );
+        if( !updated.isEmpty() )
+        {
+            region.putAll( updated );
+        }
+        if( !removed.isEmpty() )
+        {
+            region.removeAll( removed );
+        }
     }
 
     @Override
@@ -211,13 +257,47 @@ public class GeodeEntityStoreMixin
                     public <RTT extends Throwable> void sendTo( Receiver<? super Reader, RTT> receiver )
                             throws RTT, IOException
                     {
-                        for( Map.Entry<String, String> eachEntry : region.entrySet() )
+                        Set<String> keys = client ? region.keySetOnServer() : region.keySet();
+                        List<String> batch = new ArrayList<>( SCAN_BATCH_SIZE );
+                        for( String key : keys )
                         {
-                            receiver.receive( new StringReader( eachEntry.getValue() ) );
+                            batch.add( key );
+                            if( batch.size() == SCAN_BATCH_SIZE )
+                            {
+                                receiveAll( batch, receiver );
+                                batch.clear();
+                            }
                         }
+                        receiveAll( batch, receiver );
                     }
                 } );
             }
         };
     }
+
+    private <RTT extends Throwable> void receiveAll( List<String> keys, Receiver<? super Reader, RTT> receiver )
+        throws RTT
+    {
+        if( keys.isEmpty() )
+        {
+            return;
+        }
+        for( Object serializedState : region.getAll( keys ).values() )
+        {
+            // Entities removed since the keys were listed come back as null
+            if( serializedState != null )
+            {
+                receiver.receive( reader( serializedState ) );
+            }
+        }
+    }
+
+    private static Reader reader( Object serializedState )
+    {
+        if( serializedState instanceof byte[] )
+        {
+            return new StringReader( new String( (byte[]) serializedState, UTF_8 ) );
+        }
+        return new StringReader( (String) serializedState );
+    }
 }
@@ -20,12 +20,20 @@
 package org.apache.zest.entitystore.geode;
 
 import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
 import org.apache.zest.entitystore.geode.assembly.GeodeEntityStoreAssembler;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Transforms;
+import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.test.EntityTestAssembler;
 import org.apache.zest.test.entity.AbstractEntityStoreTest;
 import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 
 public class GeodeEntityStoreTest
     extends AbstractEntityStoreTest
@@ -44,4 +52,22 @@ public class GeodeEntityStoreTest
         new GeodeEntityStoreAssembler().withConfig( config, Visibility.layer ).assemble( module );
     }
     // END SNIPPET: assembly
+
+    @Test
+    public void givenMoreEntitiesThanScanBatchWhenScanningThenAllStatesAreReturned()
+        throws Exception
+    {
+        UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork();
+        for( int i = 0; i < 1500; i++ )
+        {
+            createEntity( unitOfWork );
+        }
+        unitOfWork.complete();
+
+        GeodeEntityStoreService es = serviceFinder.findService( GeodeEntityStoreService.class ).get();
+        Transforms.Counter<EntityState> counter = new Transforms.Counter<>();
+        es.entityStates( module ).transferTo( Transforms.map( counter, Outputs.<EntityState>noop() ) );
+
+        assertThat( counter.count(), equalTo( 1500L ) );
+    }
 }
@@ -19,6 +19,7 @@
  */
 package org.apache.zest.entitystore.hazelcast;
 
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.common.UseDefaults;
 import org.apache.zest.api.configuration.ConfigurationComposite;
 import org.apache.zest.api.property.Property;
@@ -37,5 +38,8 @@ public interface HazelcastConfiguration
     @UseDefaults
     Property<String> mapName();
 
+    @Optional
+    Property<Integer> nearCacheMaxSize();
+
 }
 // END SNIPPET: config
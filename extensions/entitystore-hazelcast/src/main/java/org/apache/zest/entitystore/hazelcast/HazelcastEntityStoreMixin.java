@@ -21,16 +21,24 @@ package org.apache.zest.entitystore.hazelcast;
 
 import com.hazelcast.config.ClasspathXmlConfig;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.UrlXmlConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.PartitionService;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
@@ -44,19 +52,27 @@ import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Hazelcast implementation of MapEntityStore.
+ * <p>
+ * Entity states are stored as UTF-8 encoded byte arrays, states stored as Strings by previous versions are still
+ * read. All the changes of a unit of work are written with a single {@code putAll}. Full scans list the keys and
+ * fetch the states member by member, a bounded number at a time, instead of pulling the whole map at once.
+ * </p>
  */
 public class HazelcastEntityStoreMixin
     implements ServiceActivation, HazelcastAccessors, MapEntityStore
 {
 
     private static final String DEFAULT_MAPNAME = "zest:entitystore:data";
+    private static final int SCAN_BATCH_SIZE = 1000;
 
     @This
     private Configuration<HazelcastConfiguration> config;
 
-    private IMap<String, String> stringMap;
+    private IMap<String, Object> stateMap;
     private HazelcastInstance hazelcastInstance;
 
     @Override
@@ -64,21 +80,29 @@ public class HazelcastEntityStoreMixin
         throws Exception
     {
         HazelcastConfiguration configuration = config.get();
+        String mapName = configuration.mapName().get();
+        if( mapName == null || mapName.isEmpty() )
+        {
+            mapName = DEFAULT_MAPNAME;
+        }
         Config conf = createConfig( configuration );
-        hazelcastInstance = Hazelcast.newHazelcastInstance( conf );
-        String mapName = DEFAULT_MAPNAME;
-        if( configuration != null && configuration.mapName() != null )
+        Integer nearCacheMaxSize = configuration.nearCacheMaxSize().get();
+        if( nearCacheMaxSize != null && nearCacheMaxSize > 0 )
         {
-            mapName = configuration.mapName().get();
+            NearCacheConfig nearCacheConfig = new NearCacheConfig();
+            nearCacheConfig.setMaxSize( nearCacheMaxSize );
+            nearCacheConfig.setInvalidateOnChange( true );
+            conf.getMapConfig( mapName ).setNearCacheConfig( nearCacheConfig );
         }
-        stringMap = hazelcastInstance.getMap( mapName );
+        hazelcastInstance = Hazelcast.newHazelcastInstance( conf );
+        stateMap = hazelcastInstance.getMap( mapName );
     }
 
     @Override
     public void passivateService()
         throws Exception
     {
-        stringMap = null;
+        stateMap = null;
         hazelcastInstance.getLifecycleService().shutdown();
     }
 
@@ -91,25 +115,27 @@ public class HazelcastEntityStoreMixin
     @Override
     public IMap hazelcastMapUsed()
     {
-        return stringMap;
+        return stateMap;
     }
 
     @Override
     public Reader get( EntityReference ref )
         throws EntityStoreException
     {
-        final String serializedState = stringMap.get( ref.identity() );
+        Object serializedState = stateMap.get( ref.identity() );
         if( serializedState == null )
         {
             throw new EntityNotFoundException( ref );
         }
-        return new StringReader( serializedState );
+        return reader( serializedState );
     }
 
     @Override
     public void applyChanges( MapChanges changes )
         throws IOException
     {
+        final Map<String, Object> updated = new HashMap<>();
+        final List<String> removed = new ArrayList<>();
         changes.visitMap( new MapChanger()
         {
 
@@ -125,7 +151,7 @@ public class HazelcastEntityStoreMixin
                         throws IOException
                     {
                         super.close();
-                        stringMap.put( ref.identity(), toString() );
+                        updated.put( ref.identity(), toString().getBytes( UTF_8 ) );
                     }
                 };
             }
@@ -141,9 +167,18 @@ public class HazelcastEntityStoreMixin
             public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
                 throws EntityNotFoundException
             {
-                stringMap.remove( ref.identity() );
+                updated.remove( ref.identity() );
+                removed.add( ref.identity() );
             }
         } );
+        if( !updated.isEmpty() )
+        {
+            stateMap.putAll( updated );
+        }
+        for( String identity : removed )
+        {
+            stateMap.delete( identity );
+        }
     }
 
     @Override
@@ -161,9 +196,12 @@ public class HazelcastEntityStoreMixin
                     public <RTT extends Throwable> void sendTo( Receiver<? super Reader, RTT> receiver )
                         throws RTT, IOException
                     {
-                        for( Map.Entry<String, String> eachEntry : stringMap.entrySet() )
+                        for( Set<String> keys : keysByOwner() )
                         {
-                            receiver.receive( new StringReader( eachEntry.getValue() ) );
+                            for( Object serializedState : stateMap.getAll( keys ).values() )
+                            {
+                                receiver.receive( reader( serializedState ) );
+                            }
                         }
                     }
                 } );
@@ -171,6 +209,42 @@ public class HazelcastEntityStoreMixin
         };
     }
 
+    /**
+     * Group the keys by the member owning their partition, so that each getAll is served by a single member, in sets
+     * of at most SCAN_BATCH_SIZE keys.
+     */
+    private List<Set<String>> keysByOwner()
+    {
+        PartitionService partitionService = hazelcastInstance.getPartitionService();
+        // Keys of partitions without an owner, while migrating, are grouped together under null
+        Map<Member, List<Set<String>>> owners = new HashMap<>();
+        for( String key : stateMap.keySet() )
+        {
+            List<Set<String>> batches = owners.computeIfAbsent(
+                partitionService.getPartition( key ).getOwner(), owner -> new ArrayList<>() );
+            if( batches.isEmpty() || batches.get( batches.size() - 1 ).size() >= SCAN_BATCH_SIZE )
+            {
+                batches.add( new HashSet<>() );
+            }
+            batches.get( batches.size() - 1 ).add( key );
+        }
+        List<Set<String>> batches = new ArrayList<>();
+        for( List<Set<String>> ownerBatches : owners.values() )
+        {
+            batches.addAll( ownerBatches );
+        }
+        return batches;
+    }
+
+    private static Reader reader( Object serializedState )
+    {
+        if( serializedState instanceof byte[] )
+        {
+            return new StringReader( new String( (byte[]) serializedState, UTF_8 ) );
+        }
+        return new StringReader( (String) serializedState );
+    }
+
     private Config createConfig( HazelcastConfiguration configuration )
         throws IOException
     {
@@ -22,14 +22,21 @@ package org.apache.zest.entitystore.hazelcast;
 import org.junit.After;
 import org.junit.Test;
 import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
 import org.apache.zest.entitystore.hazelcast.assembly.HazelcastEntityStoreAssembler;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Transforms;
+import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.test.EntityTestAssembler;
 import org.apache.zest.test.entity.AbstractEntityStoreTest;
 import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
 public class HazelcastEntityStoreTest
     extends AbstractEntityStoreTest
 {
@@ -57,6 +64,24 @@ public class HazelcastEntityStoreTest
         super.givenConcurrentUnitOfWorksWhenUoWCompletesThenCheckConcurrentModification();
     }
 
+    @Test
+    public void givenMoreEntitiesThanScanBatchWhenScanningThenAllStatesAreReturned()
+        throws Exception
+    {
+        UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork();
+        for( int i = 0; i < 1500; i++ )
+        {
+            createEntity( unitOfWork );
+        }
+        unitOfWork.complete();
+
+        HazelcastEntityStoreService es = serviceFinder.findService( HazelcastEntityStoreService.class ).get();
+        Transforms.Counter<EntityState> counter = new Transforms.Counter<>();
+        es.entityStates( module ).transferTo( Transforms.map( counter, Outputs.<EntityState>noop() ) );
+
+        assertThat( counter.count(), equalTo( 1500L ) );
+    }
+
     @After
     @Override
     public void tearDown()
@@ -346,10 +346,18 @@ public class JdbmEntityStoreMixin
                             String id = item.substring( "{\"identity\":\"".length() );
                             id = id.substring( 0, id.indexOf( '"' ) );
 
-                            // Insert
+                            // Insert, or replace the state restored from an earlier archive
+                            byte[] idArray = id.getBytes( "UTF-8" );
                             byte[] stateArray = item.getBytes( "UTF-8" );
-                            long stateIndex = recordManager.insert( stateArray, serializer );
-                            index.insert( id.getBytes( "UTF-8" ), stateIndex, false );
+                            Long stateIndex = (Long) index.find( idArray );
+                            if( stateIndex == null )
+                            {
+                                index.insert( idArray, recordManager.insert( stateArray, serializer ), false );
+                            }
+                            else
+                            {
+                                recordManager.update( stateIndex, stateArray, serializer );
+                            }
                         }
                     } );
                 }
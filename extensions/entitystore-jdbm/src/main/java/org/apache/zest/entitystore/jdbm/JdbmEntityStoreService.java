@@ -29,6 +29,7 @@ import org.apache.zest.library.locking.WriteLockConcern;
 import org.apache.zest.spi.entitystore.*;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.helpers.MigratableStateStore;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
 
 /**
@@ -43,6 +44,7 @@ public interface JdbmEntityStoreService
             EntityStore,
             EntityStateVersions,
             StateStore,
+            MigratableStateStore,
             BackupRestore,
             ServiceComposite,
             LockingAbstractComposite,
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.entitystore.jdbm;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.entitystore.jdbm.assembly.JdbmEntityStoreAssembler;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.library.fileconfig.FileConfiguration;
+import org.apache.zest.library.fileconfig.FileConfigurationDataWiper;
+import org.apache.zest.library.fileconfig.FileConfigurationService;
+import org.apache.zest.spi.entitystore.BackupRestore;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.apache.zest.spi.entitystore.helpers.MigratableStateStore;
+import org.apache.zest.spi.entitystore.helpers.StateStore;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Bulk migration of a JDBM store, which holds its lock while streaming its states.
+ */
+public class JdbmMigrateAllTest
+{
+    private static final int ENTITIES = 250;
+    private static final int WORKERS = 2;
+    // Many more batches than the workers hold in flight
+    private static final int BATCH_SIZE = 10;
+
+    @Test( timeout = 60000 )
+    public void givenManyMoreBatchesThanWorkersWhenMigrateAllThenAllStatesMigrated()
+        throws Exception
+    {
+        // States of version 1.0
+        List<String> ids = new ArrayList<>();
+        List<String> states = new ArrayList<>();
+        SingletonAssembler v1_0 = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.layer().application().setVersion( "1.0" );
+                module.withDefaultUnitOfWorkFactory();
+                new EntityTestAssembler().assemble( module );
+                module.entities( TestEntity.class );
+            }
+        };
+        try( UnitOfWork uow = v1_0.module().unitOfWorkFactory().newUnitOfWork() )
+        {
+            for( int i = 0; i < ENTITIES; i++ )
+            {
+                EntityBuilder<TestEntity> builder = uow.newEntityBuilder( TestEntity.class );
+                builder.instance().name().set( "Entity " + i );
+                ids.add( builder.newInstance().identity().get() );
+            }
+            uow.complete();
+        }
+        v1_0.module().findService( BackupRestore.class ).get().backup().transferTo( Outputs.collection( states ) );
+        v1_0.application().passivate();
+
+        // Restored in a JDBM store of version 1.1 and migrated all at once
+        SingletonAssembler v1_1 = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.layer().application().setVersion( "1.1" );
+                module.withDefaultUnitOfWorkFactory();
+                ModuleAssembly config = module.layer().module( "config" );
+                config.services( FileConfigurationService.class ).visibleIn( Visibility.layer ).instantiateOnStartup();
+                new EntityTestAssembler().assemble( config );
+
+                new OrgJsonValueSerializationAssembler().assemble( module );
+                new JdbmEntityStoreAssembler().withConfig( config, Visibility.layer ).assemble( module );
+                module.entities( TestEntity.class );
+            }
+        };
+        Module module = v1_1.module();
+        FileConfiguration fileConfig = module.findService( FileConfiguration.class ).get();
+        FileConfigurationDataWiper.registerApplicationPassivationDataWiper( fileConfig, v1_1.application() );
+        try
+        {
+            Inputs.iterable( states ).transferTo( module.findService( BackupRestore.class ).get().restore() );
+
+            MigratableStateStore store = module.findService( MigratableStateStore.class ).get();
+            assertThat( store.migrateAll( module.descriptor(), WORKERS, BATCH_SIZE, null ), equalTo( (long) ENTITIES ) );
+
+            StateStore stateStore = module.findService( StateStore.class ).get();
+            for( String id : ids )
+            {
+                assertThat( stateStore.jsonStateOf( id ).getString( JSONKeys.APPLICATION_VERSION ), equalTo( "1.1" ) );
+            }
+            assertThat( store.migrateAll( module.descriptor(), WORKERS, BATCH_SIZE, null ), equalTo( 0L ) );
+        }
+        finally
+        {
+            v1_1.application().passivate();
+        }
+    }
+
+    public interface TestEntity
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+}
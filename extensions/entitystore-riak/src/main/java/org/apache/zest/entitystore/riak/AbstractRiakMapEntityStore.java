@@ -24,11 +24,23 @@ import com.basho.riak.client.IRiakObject;
 import com.basho.riak.client.RiakException;
 import com.basho.riak.client.RiakRetryFailedException;
 import com.basho.riak.client.bucket.Bucket;
+import com.basho.riak.client.builders.RiakObjectBuilder;
+import com.basho.riak.client.cap.ClobberMutation;
+import com.basho.riak.client.cap.VClock;
+import com.basho.riak.client.operations.StoreObject;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.service.ServiceActivation;
@@ -44,6 +56,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Base Riak implementation of MapEntityStore.
+ * <p>
+ * The bucket is fetched once at activation. Updates are written without fetching the stored object first, carrying
+ * the vector clock seen when the entity was last read or written so that Riak does not create siblings. Writes return
+ * the stored object to learn its new vector clock. When no vector clock is known the stored object is fetched before
+ * writing. Entity states are listed by streaming the bucket keys and fetching the states concurrently, a bounded
+ * number at a time.
+ * </p>
  */
 /* package */ abstract class AbstractRiakMapEntityStore
     implements ServiceActivation, MapEntityStore, RiakAccessors
@@ -51,17 +70,66 @@ import org.slf4j.LoggerFactory;
 
     protected static final Logger LOGGER = LoggerFactory.getLogger( "org.apache.zest.entitystore.riak" );
     protected static final int DEFAULT_MAX_CONNECTIONS = 50;
+    private static final int DEFAULT_FETCH_CONCURRENCY = 16;
+    private static final int MAX_VCLOCKS = 10000;
 
     /* package */ static final String DEFAULT_BUCKET_KEY = "zest:entities";
     protected IRiakClient riakClient;
     protected String bucketKey;
+    private Bucket bucket;
+    private ExecutorService fetchExecutor;
+    private int fetchConcurrency;
+
+    // Vector clocks of the last read or written states, by key, bounded to the most recently used ones
+    private final Map<String, VClock> vclocks = new LinkedHashMap<String, VClock>( 16, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, VClock> eldest )
+        {
+            return size() > MAX_VCLOCKS;
+        }
+    };
+
+    /**
+     * Fetch, or create, the bucket and start the fetch workers.
+     * Called by implementations once {@link #riakClient} and {@link #bucketKey} are set.
+     *
+     * @param maxConnections Maximum total connections, 0 meaning infinite
+     * @throws RiakException if the bucket cannot be fetched nor created
+     */
+    protected void openBucket( int maxConnections )
+        throws RiakException
+    {
+        if( riakClient.listBuckets().contains( bucketKey ) )
+        {
+            bucket = riakClient.fetchBucket( bucketKey ).execute();
+        }
+        else
+        {
+            bucket = riakClient.createBucket( bucketKey ).execute();
+        }
+        fetchConcurrency = maxConnections > 0
+                           ? Math.min( maxConnections, DEFAULT_FETCH_CONCURRENCY )
+                           : DEFAULT_FETCH_CONCURRENCY;
+        fetchExecutor = Executors.newFixedThreadPool( fetchConcurrency );
+    }
 
     @Override
     public void passivateService()
         throws Exception
     {
+        if( fetchExecutor != null )
+        {
+            fetchExecutor.shutdownNow();
+            fetchExecutor = null;
+        }
+        synchronized( vclocks )
+        {
+            vclocks.clear();
+        }
         riakClient.shutdown();
         riakClient = null;
+        bucket = null;
         bucketKey = null;
     }
 
@@ -83,16 +151,12 @@ import org.slf4j.LoggerFactory;
     {
         try
         {
-
-            Bucket bucket = riakClient.fetchBucket( bucketKey ).execute();
-            IRiakObject entity = bucket.fetch( entityReference.identity() ).execute();
+            IRiakObject entity = fetch( entityReference.identity() );
             if( entity == null )
             {
                 throw new EntityNotFoundException( entityReference );
             }
-            String jsonState = entity.getValueAsString();
-            return new StringReader( jsonState );
-
+            return new StringReader( entity.getValueAsString() );
         }
         catch( RiakRetryFailedException ex )
         {
@@ -100,98 +164,95 @@ import org.slf4j.LoggerFactory;
         }
     }
 
+    @Override
+    public Map<EntityReference, Reader> getAll( Iterable<EntityReference> entityReferences )
+        throws EntityStoreException
+    {
+        Map<EntityReference, Future<IRiakObject>> fetches = new LinkedHashMap<>();
+        for( EntityReference entityReference : entityReferences )
+        {
+            String key = entityReference.identity();
+            fetches.put( entityReference, fetchExecutor.submit( () -> fetch( key ) ) );
+        }
+        Map<EntityReference, Reader> states = new LinkedHashMap<>();
+        for( Map.Entry<EntityReference, Future<IRiakObject>> fetch : fetches.entrySet() )
+        {
+            IRiakObject entity = await( fetch.getValue() );
+            if( entity != null )
+            {
+                states.put( fetch.getKey(), new StringReader( entity.getValueAsString() ) );
+            }
+        }
+        return states;
+    }
+
     @Override
     public void applyChanges( MapChanges changes )
         throws IOException
     {
-        try
+        changes.visitMap( new MapChanger()
         {
-            final Bucket bucket = riakClient.fetchBucket( bucketKey ).execute();
 
-            changes.visitMap( new MapChanger()
+            @Override
+            public Writer newEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
+                throws IOException
             {
-
-                @Override
-                public Writer newEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
-                    throws IOException
+                return new StringWriter( 1000 )
                 {
-                    return new StringWriter( 1000 )
-                    {
 
-                        @Override
-                        public void close()
-                            throws IOException
-                        {
-                            try
-                            {
-                                super.close();
-                                bucket.store( ref.identity(), toString() ).execute();
-                            }
-                            catch( RiakException ex )
-                            {
-                                throw new EntityStoreException( "Unable to apply entity change: newEntity", ex );
-                            }
-                        }
+                    @Override
+                    public void close()
+                        throws IOException
+                    {
+                        super.close();
+                        store( ref.identity(), toString(), "newEntity" );
+                    }
 
-                    };
-                }
+                };
+            }
 
-                @Override
-                public Writer updateEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
-                    throws IOException
+            @Override
+            public Writer updateEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
+                throws IOException
+            {
+                return new StringWriter( 1000 )
                 {
-                    return new StringWriter( 1000 )
-                    {
 
-                        @Override
-                        public void close()
-                            throws IOException
-                        {
-                            try
-                            {
-                                super.close();
-                                IRiakObject entity = bucket.fetch( ref.identity() ).execute();
-                                if( entity == null )
-                                {
-                                    throw new EntityNotFoundException( ref );
-                                }
-                                bucket.store( ref.identity(), toString() ).execute();
-                            }
-                            catch( RiakException ex )
-                            {
-                                throw new EntityStoreException( "Unable to apply entity change: updateEntity", ex );
-                            }
-                        }
+                    @Override
+                    public void close()
+                        throws IOException
+                    {
+                        super.close();
+                        store( ref.identity(), toString(), "updateEntity" );
+                    }
 
-                    };
-                }
+                };
+            }
 
-                @Override
-                public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
-                    throws EntityNotFoundException
+            @Override
+            public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
+                throws EntityNotFoundException
+            {
+                try
                 {
-                    try
+                    IRiakObject entity = bucket.fetch( ref.identity() ).execute();
+                    if( entity == null )
                     {
-                        IRiakObject entity = bucket.fetch( ref.identity() ).execute();
-                        if( entity == null )
-                        {
-                            throw new EntityNotFoundException( ref );
-                        }
-                        bucket.delete( ref.identity() ).execute();
+                        throw new EntityNotFoundException( ref );
                     }
-                    catch( RiakException ex )
+                    bucket.delete( ref.identity() ).execute();
+                    synchronized( vclocks )
                     {
-                        throw new EntityStoreException( "Unable to apply entity change: removeEntity", ex );
+                        vclocks.remove( ref.identity() );
                     }
                 }
+                catch( RiakException ex )
+                {
+                    throw new EntityStoreException( "Unable to apply entity change: removeEntity", ex );
+                }
+            }
 
-            } );
-
-        }
-        catch( RiakRetryFailedException ex )
-        {
-            throw new EntityStoreException( "Unable to apply entity changes.", ex );
-        }
+        } );
     }
 
     @Override
@@ -211,18 +272,44 @@ import org.slf4j.LoggerFactory;
                     public <ReceiverThrowableType extends Throwable> void sendTo( Receiver<? super Reader, ReceiverThrowableType> receiver )
                         throws ReceiverThrowableType, IOException
                     {
+                        // Keys are streamed, each one is fetched as soon as listed, fetchConcurrency at a time
+                        Deque<Future<IRiakObject>> fetches = new ArrayDeque<>( fetchConcurrency );
                         try
                         {
-                            final Bucket bucket = riakClient.fetchBucket( bucketKey ).execute();
                             for( String key : bucket.keys() )
                             {
-                                String jsonState = bucket.fetch( key ).execute().getValueAsString();
-                                receiver.receive( new StringReader( jsonState ) );
+                                if( fetches.size() >= fetchConcurrency )
+                                {
+                                    receive( await( fetches.poll() ), receiver );
+                                }
+                                fetches.add( fetchExecutor.submit( () -> fetch( key ) ) );
+                            }
+                            while( !fetches.isEmpty() )
+                            {
+                                receive( await( fetches.poll() ), receiver );
                             }
                         }
                         catch( RiakException ex )
                         {
-                            throw new EntityStoreException( "Unable to apply entity changes.", ex );
+                            throw new EntityStoreException( "Unable to list entities.", ex );
+                        }
+                        finally
+                        {
+                            for( Future<IRiakObject> fetch : fetches )
+                            {
+                                fetch.cancel( true );
+                            }
+                        }
+                    }
+
+                    private <ReceiverThrowableType extends Throwable> void receive( IRiakObject entity,
+                                                                                    Receiver<? super Reader, ReceiverThrowableType> receiver )
+                        throws ReceiverThrowableType
+                    {
+                        // Entities removed since their key was listed are skipped
+                        if( entity != null )
+                        {
+                            receiver.receive( new StringReader( entity.getValueAsString() ) );
                         }
                     }
 
@@ -232,4 +319,84 @@ import org.slf4j.LoggerFactory;
         };
     }
 
+    private IRiakObject fetch( String key )
+        throws RiakRetryFailedException
+    {
+        IRiakObject entity = bucket.fetch( key ).execute();
+        if( entity != null && entity.getVClock() != null )
+        {
+            synchronized( vclocks )
+            {
+                vclocks.put( key, entity.getVClock() );
+            }
+        }
+        return entity;
+    }
+
+    private void store( String key, String json, String operation )
+        throws EntityStoreException
+    {
+        VClock vclock;
+        synchronized( vclocks )
+        {
+            vclock = vclocks.get( key );
+        }
+        RiakObjectBuilder builder = RiakObjectBuilder.newBuilder( bucketKey, key )
+            .withContentType( "application/json" )
+            .withValue( json );
+        if( vclock != null )
+        {
+            builder.withVClock( vclock );
+        }
+        StoreObject<IRiakObject> store = bucket.store( key, json )
+            .withMutator( new ClobberMutation<>( builder.build() ) )
+            .returnBody( true );
+        if( vclock != null )
+        {
+            store.withoutFetch();
+        }
+        // Else the stored object, if any, is fetched first and its vector clock carried over
+        try
+        {
+            IRiakObject stored = store.execute();
+            synchronized( vclocks )
+            {
+                if( stored != null && stored.getVClock() != null )
+                {
+                    vclocks.put( key, stored.getVClock() );
+                }
+                else
+                {
+                    vclocks.remove( key );
+                }
+            }
+        }
+        catch( RiakException ex )
+        {
+            synchronized( vclocks )
+            {
+                vclocks.remove( key );
+            }
+            throw new EntityStoreException( "Unable to apply entity change: " + operation, ex );
+        }
+    }
+
+    private static IRiakObject await( Future<IRiakObject> fetch )
+        throws EntityStoreException
+    {
+        try
+        {
+            return fetch.get();
+        }
+        catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new EntityStoreException( "Interrupted while fetching entities.", ex );
+        }
+        catch( ExecutionException ex )
+        {
+            throw new EntityStoreException( "Unable to fetch entity.", ex.getCause() );
+        }
+    }
+
 }
@@ -20,6 +20,10 @@
 package org.apache.zest.entitystore.riak;
 
 import com.basho.riak.client.IRiakClient;
+import java.io.Reader;
+import java.util.Map;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entitystore.EntityStoreException;
 
 public interface RiakAccessors
 {
@@ -28,4 +32,14 @@ public interface RiakAccessors
 
     String bucket();
 
+    /**
+     * Fetch the states of several entities concurrently.
+     *
+     * @param entityReferences References of the entities
+     * @return Entity state Readers by reference, missing entities are absent
+     * @throws EntityStoreException if an entity could not be fetched
+     */
+    Map<EntityReference, Reader> getAll( Iterable<EntityReference> entityReferences )
+        throws EntityStoreException;
+
 }
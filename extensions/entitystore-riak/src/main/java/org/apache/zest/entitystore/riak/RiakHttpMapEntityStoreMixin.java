@@ -61,10 +61,7 @@ public class RiakHttpMapEntityStoreMixin
         }
         riakClient = RiakFactory.newClient( httpClusterConfig );
 
-        if( !riakClient.listBuckets().contains( bucketKey ) )
-        {
-            riakClient.createBucket( bucketKey ).execute();
-        }
+        openBucket( maxConnections );
     }
 
 }
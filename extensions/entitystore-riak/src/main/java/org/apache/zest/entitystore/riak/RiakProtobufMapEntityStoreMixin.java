@@ -81,10 +81,7 @@ public class RiakProtobufMapEntityStoreMixin
         }
         riakClient = RiakFactory.newClient( pbClusterConfig );
 
-        if( !riakClient.listBuckets().contains( bucketKey ) )
-        {
-            riakClient.createBucket( bucketKey ).execute();
-        }
+        openBucket( maxConnections );
     }
 
 }
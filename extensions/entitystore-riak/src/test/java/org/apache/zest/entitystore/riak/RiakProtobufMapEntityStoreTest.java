@@ -21,8 +21,13 @@ package org.apache.zest.entitystore.riak;
 
 import com.basho.riak.client.IRiakClient;
 import com.basho.riak.client.bucket.Bucket;
+import java.io.Reader;
+import java.util.Map;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.entitystore.riak.assembly.RiakProtobufEntityStoreAssembler;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.apache.zest.api.common.Visibility;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
@@ -30,7 +35,11 @@ import org.apache.zest.test.EntityTestAssembler;
 import org.apache.zest.test.entity.AbstractEntityStoreTest;
 import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
 
+import static java.util.Arrays.asList;
 import static org.apache.zest.test.util.Assume.assumeConnectivity;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class RiakProtobufMapEntityStoreTest
     extends AbstractEntityStoreTest
@@ -80,4 +89,21 @@ public class RiakProtobufMapEntityStoreTest
         }
         super.tearDown();
     }
+
+    @Test
+    public void givenEntitiesWhenGettingAllExpectExistingStates()
+        throws Exception
+    {
+        UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork();
+        EntityReference first = EntityReference.entityReferenceFor( createEntity( unitOfWork ) );
+        EntityReference second = EntityReference.entityReferenceFor( createEntity( unitOfWork ) );
+        unitOfWork.complete();
+
+        RiakMapEntityStoreService es = serviceFinder.findService( RiakMapEntityStoreService.class ).get();
+        Map<EntityReference, Reader> states = es.getAll( asList( first, new EntityReference( "missing" ), second ) );
+
+        assertThat( states.size(), equalTo( 2 ) );
+        assertTrue( states.containsKey( first ) );
+        assertTrue( states.containsKey( second ) );
+    }
 }
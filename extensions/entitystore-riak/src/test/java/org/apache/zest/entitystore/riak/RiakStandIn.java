@@ -0,0 +1,212 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.riak;
+
+import com.basho.riak.client.IRiakClient;
+import com.basho.riak.client.IRiakObject;
+import com.basho.riak.client.builders.BucketPropertiesBuilder;
+import com.basho.riak.client.builders.RiakObjectBuilder;
+import com.basho.riak.client.query.StreamingOperation;
+import com.basho.riak.client.raw.RawClient;
+import com.basho.riak.client.raw.RiakResponse;
+import com.basho.riak.client.raw.StoreMeta;
+import com.basho.riak.client.raw.Transport;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory stand-in for a single Riak node, with siblings allowed in every bucket.
+ * <p>
+ * A write carrying the vector clock of the stored object replaces it. Any other write to an existing key, blind or
+ * carrying an outdated vector clock, adds a sibling, as Riak does when {@code allow_mult} is set.
+ * </p>
+ */
+class RiakStandIn
+{
+    private final Map<String, Map<String, Siblings>> buckets = new HashMap<>();
+    private long clock;
+
+    static IRiakClient newClient()
+        throws Exception
+    {
+        RiakStandIn riak = new RiakStandIn();
+        RawClient rawClient = (RawClient) Proxy.newProxyInstance(
+            RawClient.class.getClassLoader(),
+            new Class<?>[]{ RawClient.class },
+            ( proxy, method, args ) -> riak.invoke( method.getName(), args ) );
+        // The client has no public factory taking a RawClient
+        Constructor<?> constructor = Class.forName( "com.basho.riak.client.DefaultRiakClient" )
+            .getDeclaredConstructor( RawClient.class );
+        constructor.setAccessible( true );
+        return (IRiakClient) constructor.newInstance( rawClient );
+    }
+
+    private synchronized Object invoke( String method, Object[] args )
+    {
+        switch( method )
+        {
+            case "fetch":
+                return fetch( (String) args[ 0 ], (String) args[ 1 ] );
+            case "store":
+                return store( (IRiakObject) args[ 0 ], args.length > 1 ? (StoreMeta) args[ 1 ] : null );
+            case "delete":
+                bucket( (String) args[ 0 ] ).remove( (String) args[ 1 ] );
+                return null;
+            case "listBuckets":
+                return new HashSet<>( buckets.keySet() );
+            case "fetchBucket":
+                return new BucketPropertiesBuilder().allowSiblings( true ).build();
+            case "updateBucket":
+                bucket( (String) args[ 0 ] );
+                return null;
+            case "listKeys":
+                return new Keys( new ArrayList<>( bucket( (String) args[ 0 ] ).keySet() ) );
+            case "getTransport":
+                return Transport.PB;
+            case "shutdown":
+                return null;
+            case "hashCode":
+                return System.identityHashCode( this );
+            case "equals":
+                return args[ 0 ] == this;
+            case "toString":
+                return "RiakStandIn";
+            default:
+                throw new UnsupportedOperationException( method );
+        }
+    }
+
+    private RiakResponse fetch( String bucket, String key )
+    {
+        Siblings siblings = bucket( bucket ).get( key );
+        return siblings == null ? RiakResponse.empty() : siblings.response();
+    }
+
+    private RiakResponse store( IRiakObject object, StoreMeta meta )
+    {
+        Map<String, Siblings> bucket = bucket( object.getBucket() );
+        Siblings siblings = bucket.get( object.getKey() );
+        if( siblings == null )
+        {
+            siblings = new Siblings();
+            bucket.put( object.getKey(), siblings );
+        }
+        byte[] vclock = object.getVClock() == null ? null : object.getVClock().getBytes();
+        if( !Arrays.equals( vclock, siblings.vclock ) )
+        {
+            // Blind or outdated write, both values are kept
+            siblings.values.add( object );
+        }
+        else
+        {
+            siblings.values.clear();
+            siblings.values.add( object );
+        }
+        siblings.vclock = String.valueOf( ++clock ).getBytes( StandardCharsets.UTF_8 );
+        if( meta != null && meta.hasReturnBody() && meta.getReturnBody() )
+        {
+            return siblings.response();
+        }
+        return RiakResponse.empty();
+    }
+
+    private Map<String, Siblings> bucket( String name )
+    {
+        return buckets.computeIfAbsent( name, key -> new HashMap<>() );
+    }
+
+    private static class Siblings
+    {
+        private final List<IRiakObject> values = new ArrayList<>();
+        private byte[] vclock;
+
+        private RiakResponse response()
+        {
+            IRiakObject[] objects = new IRiakObject[ values.size() ];
+            for( int idx = 0; idx < objects.length; idx++ )
+            {
+                objects[ idx ] = RiakObjectBuilder.from( values.get( idx ) ).withVClock( vclock ).build();
+            }
+            return new RiakResponse( vclock, objects );
+        }
+    }
+
+    private static class Keys
+        implements StreamingOperation<String>
+    {
+        private final List<String> keys;
+        private final Iterator<String> iterator;
+
+        private Keys( List<String> keys )
+        {
+            this.keys = keys;
+            this.iterator = keys.iterator();
+        }
+
+        @Override
+        public List<String> getAll()
+        {
+            return keys;
+        }
+
+        @Override
+        public void cancel()
+        {
+        }
+
+        @Override
+        public boolean hasContinuation()
+        {
+            return false;
+        }
+
+        @Override
+        public String getContinuation()
+        {
+            return null;
+        }
+
+        @Override
+        public Iterator<String> iterator()
+        {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public String next()
+        {
+            return iterator.next();
+        }
+    }
+}
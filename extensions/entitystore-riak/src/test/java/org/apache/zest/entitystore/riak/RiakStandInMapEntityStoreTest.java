@@ -0,0 +1,94 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.riak;
+
+import com.basho.riak.client.IRiakObject;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.cache.AbstractEntityStoreWithCacheTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Riak EntityStore tests against an in-memory stand-in, run without a Riak node.
+ * <p>
+ * The stand-in allows siblings, so any write made without the current vector clock shows up as a conflict on the
+ * next read. States are cached, so updates are written without the store reading them first.
+ * </p>
+ */
+public class RiakStandInMapEntityStoreTest
+    extends AbstractEntityStoreWithCacheTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        super.assemble( module );
+        new OrgJsonValueSerializationAssembler().assemble( module );
+        module.services( RiakMapEntityStoreService.class ).withMixins( RiakStandInMapEntityStoreMixin.class );
+    }
+
+    @Test
+    public void givenEntityUpdatedInSuccessiveUnitOfWorksWhenReadThenNoSiblings()
+        throws Exception
+    {
+        String identity;
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            identity = createEntity( unitOfWork ).identity().get();
+            unitOfWork.complete();
+        }
+        for( int idx = 0; idx < 5; idx++ )
+        {
+            try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+            {
+                unitOfWork.get( TestEntity.class, identity ).name().set( "Update " + idx );
+                unitOfWork.complete();
+            }
+        }
+
+        RiakMapEntityStoreService es = serviceFinder.findService( RiakMapEntityStoreService.class ).get();
+        // The default resolver fails when the stored object has siblings
+        IRiakObject stored = es.riakClient().fetchBucket( es.bucket() ).execute().fetch( identity ).execute();
+        assertThat( stored.getValueAsString(), containsString( "Update 4" ) );
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            assertThat( unitOfWork.get( TestEntity.class, identity ).name().get(), equalTo( "Update 4" ) );
+        }
+    }
+
+    public static class RiakStandInMapEntityStoreMixin
+        extends AbstractRiakMapEntityStore
+    {
+        @Override
+        public void activateService()
+            throws Exception
+        {
+            riakClient = RiakStandIn.newClient();
+            bucketKey = DEFAULT_BUCKET_KEY;
+            openBucket( 0 );
+        }
+    }
+}
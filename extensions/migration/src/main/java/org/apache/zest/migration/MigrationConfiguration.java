@@ -20,6 +20,7 @@
 
 package org.apache.zest.migration;
 
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.common.UseDefaults;
 import org.apache.zest.api.configuration.ConfigurationComposite;
 import org.apache.zest.api.property.Property;
@@ -32,4 +33,32 @@ public interface MigrationConfiguration
 {
     @UseDefaults
     Property<String> lastStartupVersion();
+
+    /**
+     * Application version all stored entities were last migrated to by {@link MigrationService#migrateAll()}.
+     *
+     * @return the property containing the last bulk migration version.
+     */
+    @UseDefaults
+    Property<String> lastMigrateAllVersion();
+
+    /**
+     * How many workers migrate entities in parallel during {@link MigrationService#migrateAll()}.
+     *
+     * If not specified, the number of available processors will be used.
+     *
+     * @return the property containing the number of workers.
+     */
+    @Optional
+    Property<Integer> migrateAllWorkers();
+
+    /**
+     * How many migrated entities are written back at a time during {@link MigrationService#migrateAll()}.
+     *
+     * If not specified, the value of 100 will be used.
+     *
+     * @return the property containing the batch size.
+     */
+    @Optional
+    Property<Integer> migrateAllBatchSize();
 }
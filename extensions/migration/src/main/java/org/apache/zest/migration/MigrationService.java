@@ -19,6 +19,7 @@
  */
 package org.apache.zest.migration;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.apache.zest.api.activation.ActivatorAdapter;
 import org.apache.zest.api.activation.Activators;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
@@ -36,12 +38,18 @@ import org.apache.zest.api.mixin.Mixins;
 import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.service.ServiceReference;
 import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Transforms;
 import org.apache.zest.migration.assembly.EntityMigrationRule;
 import org.apache.zest.migration.assembly.MigrationBuilder;
 import org.apache.zest.migration.assembly.MigrationRule;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.apache.zest.spi.entitystore.helpers.MigratableStateStore;
 import org.apache.zest.spi.entitystore.helpers.Migration;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
 import org.slf4j.Logger;
@@ -67,6 +75,21 @@ public interface MigrationService
     void initialize()
         throws Exception;
 
+    /**
+     * Migrate all stored entities to the application version at once, instead of lazily each time they are read.
+     * <p>
+     * EntityStores implementing {@link MigratableStateStore} migrate in parallel workers and write back in batches,
+     * other EntityStores migrate and write back while streaming their states. Written entities stay migrated, so an
+     * interrupted run resumes by calling this method again. Once complete, the version is recorded in the
+     * {@link MigrationConfiguration} and subsequent calls return immediately.
+     * </p>
+     *
+     * @return Number of migrated entities
+     * @throws IOException if reading or writing entities failed
+     */
+    long migrateAll()
+        throws IOException;
+
     class Activator
         extends ActivatorAdapter<ServiceReference<MigrationService>>
     {
@@ -96,8 +119,13 @@ public interface MigrationService
         StateStore store;
         @Service
         EntityStore entityStore;
+        @Optional
+        @Service
+        MigratableStateStore migratableStore;
         @Structure
         UnitOfWorkFactory uowf;
+        @Structure
+        ModuleDescriptor module;
 
         @This
         Migrator migrator;
@@ -189,6 +217,49 @@ public interface MigrationService
             }
         }
 
+        @Override
+        public long migrateAll()
+            throws IOException
+        {
+            config.refresh();
+            MigrationConfiguration conf = config.get();
+            final String version = app.version();
+            if( version.equals( conf.lastMigrateAllVersion().get() ) )
+            {
+                return 0;
+            }
+            int workers = conf.migrateAllWorkers().get() == null
+                          ? Runtime.getRuntime().availableProcessors()
+                          : conf.migrateAllWorkers().get();
+            int batchSize = conf.migrateAllBatchSize().get() == null
+                            ? 100
+                            : conf.migrateAllBatchSize().get();
+
+            long migrated;
+            if( migratableStore != null )
+            {
+                migrated = migratableStore.migrateAll(
+                    module, workers, batchSize,
+                    written -> log.info( "Migrated " + written + " entities to " + version )
+                );
+            }
+            else
+            {
+                // Streaming the states migrates them and writes them back
+                Transforms.Counter<EntityState> counter = new Transforms.Counter<>();
+                entityStore.entityStates( module ).transferTo(
+                    Transforms.filter( state -> state.status() == EntityStatus.UPDATED,
+                                       Transforms.map( counter, Outputs.<EntityState>noop() ) )
+                );
+                migrated = counter.count();
+            }
+            log.info( "Migrated " + migrated + " entities to " + version );
+
+            conf.lastMigrateAllVersion().set( version );
+            config.save();
+            return migrated;
+        }
+
         // Migrator implementation
         @Override
         public boolean addProperty( JSONObject state, String name, Object defaultValue )
@@ -22,6 +22,8 @@ package org.apache.zest.migration;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.zest.bootstrap.unitofwork.DefaultUnitOfWorkAssembler;
 import org.hamcrest.CoreMatchers;
 import org.json.JSONException;
@@ -213,6 +215,75 @@ public class MigrationTest
         }
     }
 
+    @Test
+    public void testMigrateAll()
+        throws UnitOfWorkCompletionException, IOException, ActivationException, AssemblyException, JSONException
+    {
+        // Set up version 1 with enough entities for several batches
+        List<String> ids = new ArrayList<>();
+        StringInputOutput data_v1 = new StringInputOutput();
+        {
+            SingletonAssembler v1 = new SingletonAssembler()
+            {
+                @Override
+                public void assemble( ModuleAssembly module )
+                    throws AssemblyException
+                {
+                    MigrationTest.this.assemble( module );
+                    module.layer().application().setVersion( "1.0" );
+                }
+            };
+
+            UnitOfWork uow = v1.module().unitOfWorkFactory().newUnitOfWork();
+            for( int i = 0; i < 250; i++ )
+            {
+                TestEntity1_0 entity = uow.newEntity( TestEntity1_0.class );
+                entity.foo().set( "Some value " + i );
+                ids.add( entity.identity().get() );
+            }
+            uow.complete();
+
+            v1.module().findService( BackupRestore.class ).get().backup().transferTo( data_v1 );
+        }
+
+        // Migrate all of them to version 1.1 at once
+        {
+            SingletonAssembler v1_1 = new SingletonAssembler()
+            {
+                @Override
+                public void assemble( ModuleAssembly module )
+                    throws AssemblyException
+                {
+                    MigrationTest.this.assemble( module );
+                    module.layer().application().setVersion( "1.1" );
+                    MigrationConfiguration config = module.forMixin( MigrationConfiguration.class ).declareDefaults();
+                    config.migrateAllWorkers().set( 2 );
+                    // Many more batches than the workers hold in flight
+                    config.migrateAllBatchSize().set( 10 );
+                }
+            };
+
+            data_v1.transferTo( v1_1.module().findService( BackupRestore.class ).get().restore() );
+
+            MigrationService migration = v1_1.module().findService( MigrationService.class ).get();
+            assertThat( "All entities migrated", migration.migrateAll(), CoreMatchers.equalTo( 250L ) );
+            assertThat( "Completed migration is not run again", migration.migrateAll(), CoreMatchers.equalTo( 0L ) );
+
+            StateStore stateStore = v1_1.module().findService( StateStore.class ).get();
+            for( String id : ids )
+            {
+                JSONObject state = stateStore.jsonStateOf( id );
+                assertThat( "Stored state migrated", state.getString( JSONKeys.APPLICATION_VERSION ), CoreMatchers.equalTo( "1.1" ) );
+                assertThat( "Stored type migrated", state.getString( JSONKeys.TYPE ), CoreMatchers.equalTo( TestEntity1_1.class.getName() ) );
+            }
+
+            UnitOfWork uow = v1_1.module().unitOfWorkFactory().newUnitOfWork();
+            TestEntity1_1 entity = uow.get( TestEntity1_1.class, ids.get( 42 ) );
+            assertThat( "Property has been renamed", entity.newFoo().get(), CoreMatchers.equalTo( "Some value 42" ) );
+            uow.discard();
+        }
+    }
+
     private static class CustomBarOperation
         implements EntityMigrationOperation
     {
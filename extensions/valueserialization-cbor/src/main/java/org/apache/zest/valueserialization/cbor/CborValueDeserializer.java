@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.valueserialization.cbor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.time.Instant;
+import java.util.Base64;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.valueserialization.jackson.JacksonValueDeserializer;
+
+/**
+ * ValueDeserializer reading Values from CBOR documents using Jackson.
+ * <p>
+ * String consuming deserialize methods expect the CBOR document Base64 encoded.
+ * </p>
+ */
+public class CborValueDeserializer
+    extends JacksonValueDeserializer
+{
+    public CborValueDeserializer()
+    {
+        super( new ObjectMapper( new CBORFactory() ).getFactory() );
+        registerDeserializer( Instant.class, CborValueDeserializer::instant );
+    }
+
+    @Override
+    protected byte[] fromStateString( String input )
+        throws Exception
+    {
+        return Base64.getDecoder().decode( input );
+    }
+
+    @Override
+    protected byte[] readBinaryValue( ModuleDescriptor module, JsonParser input )
+        throws Exception
+    {
+        return asBinaryValue( module, input.readValueAsTree() );
+    }
+
+    @Override
+    protected byte[] asBinaryValue( ModuleDescriptor module, JsonNode inputNode )
+        throws Exception
+    {
+        if( inputNode == null || inputNode.isNull() || inputNode.isMissingNode() )
+        {
+            return null;
+        }
+        return inputNode.binaryValue();
+    }
+
+    private static Instant instant( Object input )
+    {
+        if( input instanceof Number )
+        {
+            return Instant.ofEpochMilli( ( (Number) input ).longValue() );
+        }
+        String string = input.toString();
+        return string.indexOf( 'T' ) < 0 ? Instant.ofEpochMilli( Long.parseLong( string ) ) : Instant.parse( string );
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.cbor;
+
+import java.util.function.Function;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.Assemblers;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+
+/**
+ * Assemble a ValueSerialization Service producing and consuming CBOR documents.
+ */
+public class CborValueSerializationAssembler
+    extends Assemblers.Visibility<CborValueSerializationAssembler>
+{
+    private Function<Application, Module> valuesModuleFinder;
+
+    public CborValueSerializationAssembler withValuesModuleFinder( Function<Application, Module> valuesModuleFinder )
+    {
+        this.valuesModuleFinder = valuesModuleFinder;
+        return this;
+    }
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        if( valuesModuleFinder == null )
+        {
+            module.services( CborValueSerializationService.class ).
+                visibleIn( visibility() ).
+                taggedWith( ValueSerialization.Formats.CBOR );
+        }
+        else
+        {
+            module.services( CborValueSerializationService.class ).
+                visibleIn( visibility() ).
+                taggedWith( ValueSerialization.Formats.CBOR ).
+                setMetaInfo( valuesModuleFinder );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.valueserialization.cbor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.time.Instant;
+import java.util.Base64;
+import org.apache.zest.valueserialization.jackson.JacksonValueSerializer;
+
+/**
+ * ValueSerializer producing Values state as CBOR documents using Jackson.
+ * <p>
+ * Binary content, Java serialized values for example, is written as native CBOR byte strings and Instants with
+ * millisecond precision as epoch milliseconds.
+ * String producing serialize methods return the CBOR document Base64 encoded.
+ * </p>
+ */
+public class CborValueSerializer
+    extends JacksonValueSerializer
+{
+    public CborValueSerializer()
+    {
+        super( new ObjectMapper( new CBORFactory() ).getFactory() );
+        registerSerializer( Instant.class, ( options, instant ) -> instant.getNano() % 1000000 == 0
+                                                                   ? (Object) instant.toEpochMilli()
+                                                                   : instant.toString() );
+    }
+
+    @Override
+    protected void onBinaryValue( JsonGenerator output, byte[] bytes )
+        throws Exception
+    {
+        output.writeBinary( bytes );
+    }
+
+    @Override
+    protected String toStateString( byte[] state )
+        throws Exception
+    {
+        return Base64.getEncoder().encodeToString( state );
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.valueserialization.cbor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class CborValueCompositeSerializationTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new CborValueSerializationAssembler().assemble( module );
+        module.values( Snapshot.class, Counter.class );
+    }
+
+    @Service
+    private ValueSerialization valueSerialization;
+
+    @Test
+    public void givenValueCompositeWhenSerializingAndDeserializingStreamExpectEquals()
+    {
+        Snapshot snapshot = newSnapshot();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        valueSerialization.serialize( snapshot, output );
+        Snapshot deserialized = valueSerialization.deserialize( module, Snapshot.class,
+                                                                new ByteArrayInputStream( output.toByteArray() ) );
+
+        assertThat( deserialized, equalTo( snapshot ) );
+        assertThat( deserialized.blob().get().payload, equalTo( "binary payload" ) );
+    }
+
+    @Test
+    public void givenValueCompositeWhenSerializingAndDeserializingStringExpectBase64EncodedCbor()
+    {
+        Snapshot snapshot = newSnapshot();
+
+        String serialized = valueSerialization.serialize( snapshot );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        valueSerialization.serialize( snapshot, output );
+
+        assertArrayEquals( output.toByteArray(), Base64.getDecoder().decode( serialized ) );
+        assertThat( valueSerialization.deserialize( module, Snapshot.class, serialized ), equalTo( snapshot ) );
+    }
+
+    @Test
+    public void givenValueCompositeWhenSerializingExpectNativeBinaryAndCompactInstant()
+        throws Exception
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        valueSerialization.serialize( newSnapshot(), output );
+
+        JsonNode tree = new ObjectMapper( new CBORFactory() ).readTree( output.toByteArray() );
+        assertThat( tree.get( "blob" ).isBinary(), is( true ) );
+        assertThat( tree.get( "timestamp" ).asLong(), equalTo( 1462368275123L ) );
+        assertThat( tree.get( "counters" ).isArray(), is( true ) );
+    }
+
+    private Snapshot newSnapshot()
+    {
+        ValueBuilder<Counter> counter = valueBuilderFactory.newValueBuilder( Counter.class );
+        counter.prototype().name().set( "orders" );
+        counter.prototype().count().set( 42L );
+
+        ValueBuilder<Snapshot> builder = valueBuilderFactory.newValueBuilder( Snapshot.class );
+        builder.prototype().name().set( "snapshot" );
+        builder.prototype().timestamp().set( Instant.ofEpochMilli( 1462368275123L ) );
+        builder.prototype().tags().set( Arrays.asList( "foo", "bar" ) );
+        builder.prototype().attributes().set( Collections.singletonMap( "cathedral", "bazar" ) );
+        builder.prototype().counters().set( Collections.singletonList( counter.newInstance() ) );
+        builder.prototype().blob().set( new Blob( "binary payload" ) );
+        return builder.newInstance();
+    }
+
+    public interface Snapshot
+    {
+        Property<String> name();
+
+        Property<Instant> timestamp();
+
+        Property<List<String>> tags();
+
+        Property<Map<String, String>> attributes();
+
+        Property<List<Counter>> counters();
+
+        @Optional
+        Property<Blob> blob();
+    }
+
+    public interface Counter
+    {
+        Property<String> name();
+
+        Property<Long> count();
+    }
+
+    public static class Blob
+        implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final String payload;
+
+        public Blob( String payload )
+        {
+            this.payload = payload;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            return o instanceof Blob && payload.equals( ( (Blob) o ).payload );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return payload.hashCode();
+        }
+    }
+}
@@ -43,7 +43,20 @@ public class JacksonValueDeserializer
     extends ValueDeserializerAdapter<JsonParser, JsonNode>
 {
 
-    private final JsonFactory jsonFactory = new MappingJsonFactory();
+    private final JsonFactory jsonFactory;
+
+    public JacksonValueDeserializer()
+    {
+        this( new MappingJsonFactory() );
+    }
+
+    /**
+     * @param jsonFactory JsonFactory used to create parsers, must have an ObjectCodec able to read trees
+     */
+    protected JacksonValueDeserializer( JsonFactory jsonFactory )
+    {
+        this.jsonFactory = jsonFactory;
+    }
 
     @Override
     protected JsonParser adaptInput( ModuleDescriptor module, InputStream input )
@@ -213,6 +226,53 @@ public class JacksonValueDeserializer
         return (ObjectNode) input.readValueAsTree();
     }
 
+    @Override
+    protected boolean canReadObjectFields()
+    {
+        return true;
+    }
+
+    @Override
+    protected boolean readObjectFields( ModuleDescriptor module, JsonParser input, FieldReader<JsonParser> fieldReader )
+        throws Exception
+    {
+        JsonToken token = input.getCurrentToken();
+        if( token == JsonToken.VALUE_NULL )
+        {
+            return false;
+        }
+        if( token != JsonToken.START_OBJECT )
+        {
+            token = input.nextToken();
+        }
+        if( token != JsonToken.START_OBJECT )
+        {
+            String message = "Expected an object start at " + input.getCurrentLocation().toString();
+            throw new ValueSerializationException( message );
+        }
+        while( input.nextToken() == JsonToken.FIELD_NAME )
+        {
+            String name = input.getCurrentName();
+            input.nextToken();
+            if( !fieldReader.read( name, input ) )
+            {
+                input.skipChildren();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected JsonNode readValueTree( ModuleDescriptor module, JsonParser input )
+        throws Exception
+    {
+        if( input.getCurrentToken() == null )
+        {
+            input.nextToken();
+        }
+        return input.readValueAsTree();
+    }
+
     @Override
     protected Object asSimpleValue( ModuleDescriptor module, JsonNode inputNode )
         throws Exception
@@ -32,7 +32,20 @@ public class JacksonValueSerializer
     extends ValueSerializerAdapter<JsonGenerator>
 {
 
-    private final JsonFactory jsonFactory = new MappingJsonFactory();
+    private final JsonFactory jsonFactory;
+
+    public JacksonValueSerializer()
+    {
+        this( new MappingJsonFactory() );
+    }
+
+    /**
+     * @param jsonFactory JsonFactory used to create generators, can be a binary dataformat factory
+     */
+    protected JacksonValueSerializer( JsonFactory jsonFactory )
+    {
+        this.jsonFactory = jsonFactory;
+    }
 
     @Override
     protected JsonGenerator adaptOutput( OutputStream output )
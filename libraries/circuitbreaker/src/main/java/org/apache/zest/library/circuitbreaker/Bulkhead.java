@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the Bulkhead pattern, limiting the number of concurrent calls to a resource.
+ * <p>
+ * Calls beyond the limit are rejected right away instead of queueing, so that a slow resource cannot hold all the
+ * threads of the application.
+ * </p>
+ */
+public class Bulkhead
+{
+    private final int maxConcurrentCalls;
+    private final AtomicInteger activeCalls = new AtomicInteger();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public Bulkhead( int maxConcurrentCalls )
+    {
+        if( maxConcurrentCalls < 1 )
+        {
+            throw new IllegalArgumentException( "Max concurrent calls must be at least 1, was " + maxConcurrentCalls );
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Enter the bulkhead. Each successful call must be followed by a call to {@link #exit()}.
+     *
+     * @return false if the maximum number of concurrent calls is reached
+     */
+    public boolean tryEnter()
+    {
+        int active;
+        do
+        {
+            active = activeCalls.get();
+            if( active >= maxConcurrentCalls )
+            {
+                rejectedCalls.increment();
+                return false;
+            }
+        }
+        while( !activeCalls.compareAndSet( active, active + 1 ) );
+        return true;
+    }
+
+    public void exit()
+    {
+        activeCalls.decrementAndGet();
+    }
+
+    public int maxConcurrentCalls()
+    {
+        return maxConcurrentCalls;
+    }
+
+    public int activeCalls()
+    {
+        return activeCalls.get();
+    }
+
+    public long rejectedCalls()
+    {
+        return rejectedCalls.sum();
+    }
+}
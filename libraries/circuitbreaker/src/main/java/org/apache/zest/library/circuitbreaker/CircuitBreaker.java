@@ -19,16 +19,33 @@
  */
 package org.apache.zest.library.circuitbreaker;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
 import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
 import java.beans.VetoableChangeSupport;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 /**
  * Implementation of CircuitBreaker pattern
+ * <p>
+ * The breaker is lock-free, recording a success while the service level is full is a single volatile read.
+ * </p>
+ * <p>
+ * By default each failure lowers the service level and each success raises it again, the breaker trips when
+ * {@code threshold} more failures than successes have been recorded. Alternatively, a time window can be given so that
+ * the breaker trips when {@code threshold} failures happen within that window.
+ * </p>
+ * <p>
+ * Once the timeout has elapsed a single caller probes the breaker back on, half-open: the next failure trips it again
+ * right away, while successes restore the full service level. Turning the breaker on manually restores the full
+ * service level at once.
+ * </p>
  */
 public class CircuitBreaker
 {
@@ -38,27 +55,35 @@ public class CircuitBreaker
         on
     }
 
-    private int threshold;
-    private long timeout;
-    private Predicate<Throwable> allowedThrowables;
+    private final int threshold;
+    private final long timeout;
+    private final Predicate<Throwable> allowedThrowables;
+    private final FailureWindow failures;
 
-    private int countDown;
-    private Instant trippedOn;
-    private Instant enableOn;
+    // Null when the breaker is on
+    private final AtomicReference<Trip> trip = new AtomicReference<>();
 
-    private Status status = Status.on;
+    private volatile Throwable lastThrowable;
 
-    private Throwable lastThrowable;
-
-    PropertyChangeSupport pcs = new PropertyChangeSupport( this );
+    private final List<PropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
     VetoableChangeSupport vcs = new VetoableChangeSupport( this );
 
     public CircuitBreaker( int threshold, long timeout, Predicate<Throwable> allowedThrowables )
     {
-        this.threshold = threshold;
-        this.countDown = threshold;
-        this.timeout = timeout;
-        this.allowedThrowables = allowedThrowables;
+        this( threshold, timeout, allowedThrowables, new FailureWindow.CountDown( threshold ) );
+    }
+
+    /**
+     * Create a CircuitBreaker that trips when a number of failures happen within a time window.
+     *
+     * @param threshold         number of failures within the window that trips the breaker
+     * @param window            length of the sliding failure window in milliseconds
+     * @param timeout           time in milliseconds after which a tripped breaker is probed back on
+     * @param allowedThrowables throwables that count as success
+     */
+    public CircuitBreaker( int threshold, long window, long timeout, Predicate<Throwable> allowedThrowables )
+    {
+        this( threshold, timeout, allowedThrowables, new FailureWindow.Timed( threshold, window ) );
     }
 
     public CircuitBreaker( int threshold, long timeout )
@@ -71,57 +96,36 @@ public class CircuitBreaker
         this( 1, 1000 * 60 * 5 ); // 5 minute timeout as default
     }
 
-    public synchronized void trip()
+    private CircuitBreaker( int threshold, long timeout, Predicate<Throwable> allowedThrowables, FailureWindow failures )
+    {
+        this.threshold = threshold;
+        this.timeout = timeout;
+        this.allowedThrowables = allowedThrowables;
+        this.failures = failures;
+    }
+
+    public void trip()
     {
-        if( status == Status.on )
+        Trip tripped = new Trip( Instant.now(), timeout );
+        if( trip.compareAndSet( null, tripped ) )
         {
-            if( countDown != 0 )
+            // If this was invoked manually, then set the service level to zero automatically
+            int oldRemaining = failures.trip();
+            if( oldRemaining != 0 )
             {
-                // If this was invoked manually, then set countDown to zero automatically
-                int oldCountDown = countDown;
-                countDown = 0;
-                pcs.firePropertyChange( "serviceLevel", ( oldCountDown ) / ( (double) threshold ), countDown / ( (double) threshold ) );
+                firePropertyChange( "serviceLevel", oldRemaining / ( (double) threshold ), 0.0 );
             }
-
-            status = Status.off;
-            pcs.firePropertyChange( "status", Status.on, Status.off );
-
-            trippedOn = Instant.now();
-            enableOn = trippedOn.plusMillis( timeout );
+            firePropertyChange( "status", Status.on, Status.off );
         }
     }
 
-    public synchronized void turnOn()
+    public void turnOn()
         throws PropertyVetoException
     {
-        if( status == Status.off )
+        Trip tripped = trip.get();
+        if( tripped != null )
         {
-            try
-            {
-                vcs.fireVetoableChange( "status", Status.off, Status.on );
-                status = Status.on;
-                countDown = threshold;
-                trippedOn = null;
-                enableOn = null;
-                lastThrowable = null;
-
-                pcs.firePropertyChange( "status", Status.off, Status.on );
-            }
-            catch( PropertyVetoException e )
-            {
-                // Reset timeout
-                enableOn = Instant.now().plusMillis( timeout );
-
-                if( e.getCause() != null )
-                {
-                    lastThrowable = e.getCause();
-                }
-                else
-                {
-                    lastThrowable = e;
-                }
-                throw e;
-            }
+            turnOn( tripped, false );
         }
     }
 
@@ -130,51 +134,48 @@ public class CircuitBreaker
         return threshold;
     }
 
-    public synchronized Throwable lastThrowable()
+    public Throwable lastThrowable()
     {
         return lastThrowable;
     }
 
-    public synchronized double serviceLevel()
+    public double serviceLevel()
     {
-        return countDown / ( (double) threshold );
+        return failures.remaining() / ( (double) threshold );
     }
 
-    public synchronized Status status()
+    public Status status()
     {
-        if( status == Status.off )
+        Trip tripped = trip.get();
+        if( tripped == null )
+        {
+            return Status.on;
+        }
+        if( System.currentTimeMillis() > tripped.enableOnMillis && tripped.probing.compareAndSet( false, true ) )
         {
-            if( Instant.now().isAfter( enableOn ) )
+            // Only one caller probes, the others see the breaker off until it is back on
+            try
             {
-                try
-                {
-                    turnOn();
-                }
-                catch( PropertyVetoException e )
-                {
-                    if( e.getCause() != null )
-                    {
-                        lastThrowable = e.getCause();
-                    }
-                    else
-                    {
-                        lastThrowable = e;
-                    }
-                }
+                turnOn( tripped, true );
+            }
+            catch( PropertyVetoException e )
+            {
+                // lastThrowable was set by turnOn
             }
         }
-
-        return status;
+        return trip.get() == null ? Status.on : Status.off;
     }
 
     public Instant trippedOn()
     {
-        return trippedOn;
+        Trip tripped = trip.get();
+        return tripped == null ? null : tripped.trippedOn;
     }
 
     public Instant enabledOn()
     {
-        return enableOn;
+        Trip tripped = trip.get();
+        return tripped == null ? null : Instant.ofEpochMilli( tripped.enableOnMillis );
     }
 
     public boolean isOn()
@@ -182,9 +183,9 @@ public class CircuitBreaker
         return status().equals( Status.on );
     }
 
-    public synchronized void throwable( Throwable throwable )
+    public void throwable( Throwable throwable )
     {
-        if( status == Status.on )
+        if( trip.get() == null )
         {
             if( allowedThrowables.test( throwable ) )
             {
@@ -193,13 +194,16 @@ public class CircuitBreaker
             }
             else
             {
-                countDown--;
-
                 lastThrowable = throwable;
 
-                pcs.firePropertyChange( "serviceLevel", ( countDown + 1 ) / ( (double) threshold ), countDown / ( (double) threshold ) );
+                int remaining = failures.failure();
+
+                if( !listeners.isEmpty() )
+                {
+                    firePropertyChange( "serviceLevel", ( remaining + 1 ) / ( (double) threshold ), remaining / ( (double) threshold ) );
+                }
 
-                if( countDown == 0 )
+                if( remaining == 0 )
                 {
                     trip();
                 }
@@ -207,13 +211,15 @@ public class CircuitBreaker
         }
     }
 
-    public synchronized void success()
+    public void success()
     {
-        if( status == Status.on && countDown < threshold )
+        if( trip.get() == null )
         {
-            countDown++;
-
-            pcs.firePropertyChange( "serviceLevel", ( countDown - 1 ) / ( (double) threshold ), countDown / ( (double) threshold ) );
+            int remaining = failures.success();
+            if( remaining > 0 && !listeners.isEmpty() )
+            {
+                firePropertyChange( "serviceLevel", ( remaining - 1 ) / ( (double) threshold ), remaining / ( (double) threshold ) );
+            }
         }
     }
 
@@ -229,11 +235,76 @@ public class CircuitBreaker
 
     public void addPropertyChangeListener( PropertyChangeListener pcl )
     {
-        pcs.addPropertyChangeListener( pcl );
+        listeners.add( pcl );
     }
 
     public void removePropertyChangeListener( PropertyChangeListener pcl )
     {
-        pcs.removePropertyChangeListener( pcl );
+        listeners.remove( pcl );
+    }
+
+    private void turnOn( Trip tripped, boolean halfOpen )
+        throws PropertyVetoException
+    {
+        try
+        {
+            vcs.fireVetoableChange( "status", Status.off, Status.on );
+        }
+        catch( PropertyVetoException e )
+        {
+            // Reset timeout
+            trip.compareAndSet( tripped, new Trip( tripped.trippedOn, timeout ) );
+
+            if( e.getCause() != null )
+            {
+                lastThrowable = e.getCause();
+            }
+            else
+            {
+                lastThrowable = e;
+            }
+            throw e;
+        }
+
+        // Failures are ignored while tripped, so reset them before turning on
+        if( halfOpen )
+        {
+            failures.halfOpen();
+        }
+        else
+        {
+            failures.reset();
+        }
+        if( trip.compareAndSet( tripped, null ) )
+        {
+            lastThrowable = null;
+            firePropertyChange( "status", Status.off, Status.on );
+        }
+    }
+
+    private void firePropertyChange( String propertyName, Object oldValue, Object newValue )
+    {
+        if( listeners.isEmpty() || oldValue.equals( newValue ) )
+        {
+            return;
+        }
+        PropertyChangeEvent event = new PropertyChangeEvent( this, propertyName, oldValue, newValue );
+        for( PropertyChangeListener listener : listeners )
+        {
+            listener.propertyChange( event );
+        }
+    }
+
+    private static class Trip
+    {
+        private final Instant trippedOn;
+        private final long enableOnMillis;
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        private Trip( Instant trippedOn, long timeout )
+        {
+            this.trippedOn = trippedOn;
+            this.enableOnMillis = System.currentTimeMillis() + timeout;
+        }
     }
 }
@@ -0,0 +1,231 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free failure accounting of a CircuitBreaker.
+ * <p>
+ * The remaining number of failures before tripping ranges from the threshold, full service level, down to zero.
+ * </p>
+ */
+abstract class FailureWindow
+{
+    final int threshold;
+
+    FailureWindow( int threshold )
+    {
+        if( threshold < 1 )
+        {
+            throw new IllegalArgumentException( "Threshold must be at least 1, was " + threshold );
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return the remaining number of failures, zero means the breaker should trip
+     */
+    abstract int failure();
+
+    /**
+     * @return the remaining number of failures if changed by this success, -1 otherwise
+     */
+    abstract int success();
+
+    abstract int remaining();
+
+    /**
+     * Restore the full service level.
+     */
+    abstract void reset();
+
+    /**
+     * Leave a single failure before tripping again.
+     */
+    abstract void halfOpen();
+
+    /**
+     * @return the remaining number of failures before tripping
+     */
+    abstract int trip();
+
+    /**
+     * Each failure counts down and each success counts up again, bounded by the threshold.
+     */
+    static final class CountDown
+        extends FailureWindow
+    {
+        private final AtomicInteger countDown;
+
+        CountDown( int threshold )
+        {
+            super( threshold );
+            countDown = new AtomicInteger( threshold );
+        }
+
+        @Override
+        int failure()
+        {
+            int current;
+            do
+            {
+                current = countDown.get();
+                if( current == 0 )
+                {
+                    return 0;
+                }
+            }
+            while( !countDown.compareAndSet( current, current - 1 ) );
+            return current - 1;
+        }
+
+        @Override
+        int success()
+        {
+            int current;
+            do
+            {
+                current = countDown.get();
+                if( current >= threshold )
+                {
+                    return -1;
+                }
+            }
+            while( !countDown.compareAndSet( current, current + 1 ) );
+            return current + 1;
+        }
+
+        @Override
+        int remaining()
+        {
+            return countDown.get();
+        }
+
+        @Override
+        void reset()
+        {
+            countDown.set( threshold );
+        }
+
+        @Override
+        void halfOpen()
+        {
+            countDown.set( 1 );
+        }
+
+        @Override
+        int trip()
+        {
+            return countDown.getAndSet( 0 );
+        }
+    }
+
+    /**
+     * Counts the failures that happened within a sliding time window, successes do not offset failures.
+     * <p>
+     * The time of the last {@code threshold} failures is kept in a ring.
+     * </p>
+     */
+    static final class Timed
+        extends FailureWindow
+    {
+        private final long window;
+        private final AtomicLongArray failureTimes;
+        private final AtomicLong failureCount = new AtomicLong();
+
+        Timed( int threshold, long window )
+        {
+            super( threshold );
+            if( window < 1 )
+            {
+                throw new IllegalArgumentException( "Window must be at least 1ms, was " + window );
+            }
+            this.window = window;
+            this.failureTimes = new AtomicLongArray( threshold );
+        }
+
+        @Override
+        int failure()
+        {
+            long now = System.currentTimeMillis();
+            failureTimes.set( (int) ( failureCount.getAndIncrement() % threshold ), now );
+            return remaining( now );
+        }
+
+        @Override
+        int success()
+        {
+            return -1;
+        }
+
+        @Override
+        int remaining()
+        {
+            return remaining( System.currentTimeMillis() );
+        }
+
+        @Override
+        void reset()
+        {
+            fill( threshold, 0 );
+        }
+
+        @Override
+        void halfOpen()
+        {
+            fill( threshold - 1, System.currentTimeMillis() );
+        }
+
+        @Override
+        int trip()
+        {
+            int remaining = remaining();
+            fill( threshold, System.currentTimeMillis() );
+            return remaining;
+        }
+
+        private int remaining( long now )
+        {
+            int failures = 0;
+            for( int i = 0; i < threshold; i++ )
+            {
+                long time = failureTimes.get( i );
+                if( time != 0 && now - time < window )
+                {
+                    failures++;
+                }
+            }
+            return threshold - failures;
+        }
+
+        private void fill( int count, long time )
+        {
+            for( int i = 0; i < threshold; i++ )
+            {
+                failureTimes.set( i, i < count ? time : 0 );
+            }
+            // Next failure goes to the first empty slot
+            failureCount.set( count % threshold );
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket rate limiter.
+ * <p>
+ * The bucket holds up to {@code burst} permits and is refilled at {@code permitsPerSecond}. It is implemented as a
+ * single atomic theoretical arrival time, so acquiring a permit is one compare-and-set.
+ * </p>
+ */
+public class RateLimiter
+{
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public RateLimiter( double permitsPerSecond, int burst )
+    {
+        if( permitsPerSecond <= 0 )
+        {
+            throw new IllegalArgumentException( "Permits per second must be positive, was " + permitsPerSecond );
+        }
+        if( burst < 1 )
+        {
+            throw new IllegalArgumentException( "Burst must be at least 1, was " + burst );
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max( 1, (long) ( TimeUnit.SECONDS.toNanos( 1 ) / permitsPerSecond ) );
+        this.toleranceNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong( System.nanoTime() );
+    }
+
+    public RateLimiter( double permitsPerSecond )
+    {
+        this( permitsPerSecond, 1 );
+    }
+
+    /**
+     * @return false if no permit is available
+     */
+    public boolean tryAcquire()
+    {
+        long now = System.nanoTime();
+        long arrival;
+        long next;
+        do
+        {
+            arrival = theoreticalArrival.get();
+            next = Math.max( arrival - now, 0 ) + now + intervalNanos;
+            if( next - now > toleranceNanos )
+            {
+                rejectedCalls.increment();
+                return false;
+            }
+        }
+        while( !theoreticalArrival.compareAndSet( arrival, next ) );
+        return true;
+    }
+
+    public double permitsPerSecond()
+    {
+        return permitsPerSecond;
+    }
+
+    public int burst()
+    {
+        return burst;
+    }
+
+    public long rejectedCalls()
+    {
+        return rejectedCalls.sum();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker.service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.apache.zest.api.common.AppliesTo;
+import org.apache.zest.api.composite.CompositeInstance;
+import org.apache.zest.api.concern.GenericConcern;
+import org.apache.zest.library.circuitbreaker.Bulkhead;
+
+/**
+ * This concern limits the concurrent invocations of methods annotated with
+ * {@link LimitsConcurrency} using the Bulkhead from the service meta-info.
+ * Invocations beyond the limit throw a {@link CallRejectedException}.
+ */
+@AppliesTo( LimitsConcurrency.class )
+public class BulkheadConcern
+        extends GenericConcern
+{
+
+    @Override
+    public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+    {
+        CompositeInstance service = (CompositeInstance) Proxy.getInvocationHandler( proxy );
+        Bulkhead bulkhead = service.metaInfo( Bulkhead.class );
+        if( bulkhead == null )
+        {
+            return next.invoke( proxy, method, args );
+        }
+        if( !bulkhead.tryEnter() )
+        {
+            throw new CallRejectedException( "Bulkhead full, " + bulkhead.maxConcurrentCalls()
+                                             + " concurrent calls to " + method.getName() );
+        }
+        try
+        {
+            return next.invoke( proxy, method, args );
+        }
+        finally
+        {
+            bulkhead.exit();
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker.service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.apache.zest.api.common.AppliesTo;
+import org.apache.zest.api.composite.CompositeInstance;
+import org.apache.zest.api.concern.GenericConcern;
+import org.apache.zest.library.circuitbreaker.RateLimiter;
+
+/**
+ * This concern rate limits the invocations of methods annotated with
+ * {@link RateLimited} using the RateLimiter from the service meta-info.
+ * Invocations beyond the rate throw a {@link CallRejectedException}.
+ */
+@AppliesTo( RateLimited.class )
+public class RateLimitConcern
+        extends GenericConcern
+{
+
+    @Override
+    public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+    {
+        CompositeInstance service = (CompositeInstance) Proxy.getInvocationHandler( proxy );
+        RateLimiter rateLimiter = service.metaInfo( RateLimiter.class );
+        if( rateLimiter != null && !rateLimiter.tryAcquire() )
+        {
+            throw new CallRejectedException( "Rate limit of " + rateLimiter.permitsPerSecond()
+                                             + " calls per second exceeded for " + method.getName() );
+        }
+        return next.invoke( proxy, method, args );
+    }
+
+}
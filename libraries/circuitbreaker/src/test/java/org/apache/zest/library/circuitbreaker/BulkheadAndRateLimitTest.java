@@ -0,0 +1,143 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.circuitbreaker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.zest.api.concern.Concerns;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.library.circuitbreaker.service.BulkheadConcern;
+import org.apache.zest.library.circuitbreaker.service.CallRejectedException;
+import org.apache.zest.library.circuitbreaker.service.LimitsConcurrency;
+import org.apache.zest.library.circuitbreaker.service.RateLimitConcern;
+import org.apache.zest.library.circuitbreaker.service.RateLimited;
+import org.apache.zest.test.AbstractZestTest;
+
+/**
+ * Test @LimitsConcurrency and @RateLimited annotations
+ */
+public class BulkheadAndRateLimitTest
+        extends AbstractZestTest
+{
+    static final CountDownLatch entered = new CountDownLatch( 1 );
+    static final CountDownLatch release = new CountDownLatch( 1 );
+
+    // START SNIPPET: service
+    public void assemble( ModuleAssembly module )
+            throws AssemblyException
+    {
+        module.services( TestService.class )
+            .setMetaInfo( new Bulkhead( 1 ) )
+            .setMetaInfo( new RateLimiter( 0.1, 3 ) );
+    }
+    // END SNIPPET: service
+
+    @Test
+    public void testBulkhead()
+            throws InterruptedException
+    {
+        ServiceReference<TestService> serviceReference = serviceFinder.findService( TestService.class );
+        TestService service = serviceReference.get();
+        Thread blocking = new Thread( service::blockingMethod );
+        blocking.start();
+        Assert.assertTrue( entered.await( 5, TimeUnit.SECONDS ) );
+
+        try {
+            service.blockingMethod();
+            Assert.fail( "Bulkhead should have rejected the call" );
+        } catch ( CallRejectedException e ) {
+            // Ok
+        }
+
+        release.countDown();
+        blocking.join();
+        Bulkhead bulkhead = serviceReference.metaInfo( Bulkhead.class );
+        Assert.assertEquals( 0, bulkhead.activeCalls() );
+        Assert.assertEquals( 1, bulkhead.rejectedCalls() );
+    }
+
+    @Test
+    public void testRateLimit()
+    {
+        ServiceReference<TestService> serviceReference = serviceFinder.findService( TestService.class );
+        TestService service = serviceReference.get();
+
+        // Burst of 3 calls is allowed
+        service.limitedMethod();
+        service.limitedMethod();
+        service.limitedMethod();
+
+        try {
+            service.limitedMethod();
+            Assert.fail( "Rate limiter should have rejected the call" );
+        } catch ( CallRejectedException e ) {
+            // Ok
+        }
+        Assert.assertEquals( 1, serviceReference.metaInfo( RateLimiter.class ).rejectedCalls() );
+    }
+
+    @Mixins( TestService.Mixin.class )
+    // START SNIPPET: service
+    @Concerns( { BulkheadConcern.class, RateLimitConcern.class } )
+    public interface TestService
+            extends ServiceComposite
+    {
+
+        @LimitsConcurrency
+        void blockingMethod();
+
+        @RateLimited
+        void limitedMethod();
+
+        // END SNIPPET: service
+        abstract class Mixin
+                implements TestService
+        {
+
+            public void blockingMethod()
+            {
+                entered.countDown();
+                try
+                {
+                    release.await( 5, TimeUnit.SECONDS );
+                }
+                catch( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            public void limitedMethod()
+            {
+            }
+
+        }
+
+        // START SNIPPET: service
+    }
+    // END SNIPPET: service
+
+}
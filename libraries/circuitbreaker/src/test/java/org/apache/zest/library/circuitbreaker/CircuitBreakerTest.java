@@ -223,4 +223,103 @@ public class CircuitBreakerTest
         assertThat( cb.lastThrowable().getMessage(), CoreMatchers.equalTo( "Service is down" ) );
     }
 
+    @Test
+    public void GivenCBWhenTimeoutThenProbedHalfOpenAndNextFailureTrips()
+            throws InterruptedException
+    {
+        cb.throwable( new IOException() );
+        cb.throwable( new IOException() );
+        cb.throwable( new IOException() );
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.off ) );
+
+        await().atMost( ONE_SECOND ).until( circuitBreakerStatus(), is( CircuitBreaker.Status.on ) );
+
+        // Half-open, a single failure trips again
+        cb.throwable( new IOException() );
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.off ) );
+    }
+
+    @Test
+    public void GivenCBWhenHalfOpenAndSuccessesThenServiceLevelIsRestored()
+            throws PropertyVetoException
+    {
+        cb.throwable( new IOException() );
+        cb.throwable( new IOException() );
+        cb.throwable( new IOException() );
+
+        await().atMost( ONE_SECOND ).until( circuitBreakerStatus(), is( CircuitBreaker.Status.on ) );
+
+        cb.success();
+        cb.success();
+        assertThat( cb.serviceLevel(), CoreMatchers.equalTo( 1.0 ) );
+        cb.throwable( new IOException() );
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.on ) );
+    }
+
+    @Test
+    public void GivenTimeWindowCBWhenFailuresWithinWindowThenStatusIsOff()
+    {
+        // START SNIPPET: window
+        // Trip when 3 failures happen within 10 seconds, turn on again after 250ms
+        CircuitBreaker cb = new CircuitBreaker( 3, 10000, 250, CircuitBreakers.in( IllegalArgumentException.class ) );
+        // END SNIPPET: window
+
+        cb.throwable( new IOException() );
+        cb.success();
+        cb.throwable( new IOException() );
+        cb.success();
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.on ) );
+        assertThat( cb.serviceLevel(), CoreMatchers.equalTo( 1.0 / 3 ) );
+
+        // Successes do not offset failures within the window
+        cb.throwable( new IOException() );
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.off ) );
+    }
+
+    @Test
+    public void GivenTimeWindowCBWhenFailuresOutsideWindowThenStatusIsOn()
+            throws InterruptedException
+    {
+        CircuitBreaker cb = new CircuitBreaker( 2, 50, 250, CircuitBreakers.in( IllegalArgumentException.class ) );
+
+        cb.throwable( new IOException() );
+        Thread.sleep( 100 );
+        cb.throwable( new IOException() );
+        assertThat( cb.status(), CoreMatchers.equalTo( CircuitBreaker.Status.on ) );
+        assertThat( cb.serviceLevel(), CoreMatchers.equalTo( 0.5 ) );
+    }
+
+    @Test
+    public void GivenCBWhenConcurrentFailuresAndSuccessesThenServiceLevelStaysInBounds()
+            throws InterruptedException
+    {
+        CircuitBreaker cb = new CircuitBreaker( 1000, 60000 );
+        int threads = 32;
+        Thread[] workers = new Thread[ threads ];
+        for( int i = 0; i < threads; i++ )
+        {
+            final boolean failing = i % 2 == 0;
+            workers[ i ] = new Thread( () -> {
+                for( int j = 0; j < 10000; j++ )
+                {
+                    if( failing )
+                    {
+                        cb.throwable( new IOException() );
+                    }
+                    else
+                    {
+                        cb.success();
+                    }
+                }
+            } );
+            workers[ i ].start();
+        }
+        for( Thread worker : workers )
+        {
+            worker.join();
+        }
+        assertThat( cb.serviceLevel() >= 0.0 && cb.serviceLevel() <= 1.0, is( true ) );
+        assertThat( cb.status() == CircuitBreaker.Status.off, is( cb.serviceLevel() == 0.0 ) );
+    }
+
 }
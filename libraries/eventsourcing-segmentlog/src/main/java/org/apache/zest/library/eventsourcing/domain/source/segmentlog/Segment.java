@@ -0,0 +1,357 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source.segmentlog;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One file of the segment log, holding the transactions from its base offset on.
+ * <p>
+ * The log file is a sequence of records, each an int length, an int CRC32 and the serialized transaction.
+ * The index file holds the int position of each record in the log file, and is also kept in memory.
+ * Records are appended by one writer at a time, while any number of readers read the records published to them.
+ * The segment being written to is read through its channel, sealed segments through a read-only mapping.
+ * </p>
+ */
+final class Segment
+{
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int HEADER_SIZE = 8;
+
+    final long baseOffset;
+    private final File logFile;
+    private final File indexFile;
+    private final FileChannel log;
+    private final FileChannel index;
+
+    private volatile int[] positions;
+    private volatile int count;
+    private volatile long size;
+    private volatile ByteBuffer mapped;
+
+    static Segment open( File directory, long baseOffset )
+        throws IOException
+    {
+        Segment segment = new Segment( directory, baseOffset );
+        segment.recover();
+        return segment;
+    }
+
+    static String fileName( long baseOffset, String suffix )
+    {
+        return String.format( "%020d%s", baseOffset, suffix );
+    }
+
+    private Segment( File directory, long baseOffset )
+        throws IOException
+    {
+        this.baseOffset = baseOffset;
+        this.logFile = new File( directory, fileName( baseOffset, LOG_SUFFIX ) );
+        this.indexFile = new File( directory, fileName( baseOffset, INDEX_SUFFIX ) );
+        this.log = FileChannel.open( logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                     StandardOpenOption.WRITE );
+        this.index = FileChannel.open( indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE );
+    }
+
+    /**
+     * @return number of records in the segment
+     */
+    int count()
+    {
+        return count;
+    }
+
+    /**
+     * @return size of the log file in bytes
+     */
+    long size()
+    {
+        return size;
+    }
+
+    /**
+     * Append records to the segment. Either all records are appended, or none.
+     *
+     * @param payloads the serialized transactions
+     * @throws IOException if the records could not be written
+     */
+    void append( List<byte[]> payloads )
+        throws IOException
+    {
+        int length = 0;
+        for( byte[] payload : payloads )
+        {
+            length += HEADER_SIZE + payload.length;
+        }
+        if( size + length > Integer.MAX_VALUE )
+        {
+            throw new IOException( "Segment " + logFile + " is full" );
+        }
+
+        ByteBuffer records = ByteBuffer.allocate( length );
+        ByteBuffer recordPositions = ByteBuffer.allocate( payloads.size() * 4 );
+        CRC32 crc = new CRC32();
+        long position = size;
+        for( byte[] payload : payloads )
+        {
+            crc.reset();
+            crc.update( payload, 0, payload.length );
+            recordPositions.putInt( (int) position );
+            records.putInt( payload.length ).putInt( (int) crc.getValue() ).put( payload );
+            position += HEADER_SIZE + payload.length;
+        }
+        records.flip();
+        recordPositions.flip();
+
+        try
+        {
+            writeFully( log, records, size );
+            writeFully( index, recordPositions, count * 4L );
+        }
+        catch( IOException e )
+        {
+            log.truncate( size );
+            index.truncate( count * 4L );
+            throw e;
+        }
+
+        int[] current = positions;
+        if( current.length < count + payloads.size() )
+        {
+            current = Arrays.copyOf( current, Math.max( current.length * 2, count + payloads.size() ) );
+        }
+        for( int i = 0; i < payloads.size(); i++ )
+        {
+            current[ count + i ] = recordPositions.getInt( i * 4 );
+        }
+        positions = current;
+        size = position;
+        count = count + payloads.size();
+    }
+
+    /**
+     * Read a record.
+     *
+     * @param record number of the record within this segment
+     * @return the serialized transaction
+     * @throws IOException if the record could not be read or is corrupt
+     */
+    byte[] read( int record )
+        throws IOException
+    {
+        int position = positions[ record ];
+        int length;
+        int checksum;
+        byte[] payload;
+        ByteBuffer mapped = this.mapped;
+        if( mapped != null )
+        {
+            ByteBuffer buffer = mapped.duplicate();
+            buffer.position( position );
+            length = buffer.getInt();
+            checksum = buffer.getInt();
+            payload = new byte[ length ];
+            buffer.get( payload );
+        }
+        else
+        {
+            ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+            readFully( log, header, position );
+            length = header.getInt( 0 );
+            checksum = header.getInt( 4 );
+            payload = new byte[ length ];
+            readFully( log, ByteBuffer.wrap( payload ), position + HEADER_SIZE );
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update( payload, 0, payload.length );
+        if( (int) crc.getValue() != checksum )
+        {
+            throw new IOException( "Corrupt transaction " + ( baseOffset + record ) + " in " + logFile );
+        }
+        return payload;
+    }
+
+    /**
+     * Force appended records to disk.
+     *
+     * @throws IOException if forcing failed
+     */
+    void force()
+        throws IOException
+    {
+        log.force( false );
+        index.force( false );
+    }
+
+    /**
+     * No more records will be appended, force them to disk and switch readers to a mapping of the log file.
+     *
+     * @throws IOException if forcing or mapping failed
+     */
+    void seal()
+        throws IOException
+    {
+        force();
+        mapped = log.map( FileChannel.MapMode.READ_ONLY, 0, size );
+    }
+
+    void close()
+        throws IOException
+    {
+        try
+        {
+            log.close();
+        }
+        finally
+        {
+            index.close();
+        }
+    }
+
+    void delete()
+        throws IOException
+    {
+        close();
+        Files.delete( logFile.toPath() );
+        Files.delete( indexFile.toPath() );
+    }
+
+    void moveTo( File directory )
+        throws IOException
+    {
+        close();
+        Files.move( logFile.toPath(), new File( directory, logFile.getName() ).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING );
+        Files.move( indexFile.toPath(), new File( directory, indexFile.getName() ).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING );
+    }
+
+    /**
+     * Load the index, then verify the last indexed record and any records written after it, dropping a torn tail
+     * left by a crash.
+     */
+    private void recover()
+        throws IOException
+    {
+        long logSize = log.size();
+        int indexed = (int) ( index.size() / 4 );
+        ByteBuffer indexBuffer = ByteBuffer.allocate( indexed * 4 );
+        readFully( index, indexBuffer, 0 );
+        int[] recovered = new int[ Math.max( 16, indexed ) ];
+        int records = 0;
+        for( ; records < indexed - 1; records++ )
+        {
+            int position = indexBuffer.getInt( records * 4 );
+            if( position < 0 || position >= logSize || ( records > 0 && position <= recovered[ records - 1 ] ) )
+            {
+                break;
+            }
+            recovered[ records ] = position;
+        }
+
+        // Scan from the last trusted record on
+        long position = 0;
+        if( records > 0 )
+        {
+            records--;
+            position = recovered[ records ];
+        }
+        ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+        CRC32 crc = new CRC32();
+        while( position + HEADER_SIZE <= logSize )
+        {
+            header.clear();
+            readFully( log, header, position );
+            int length = header.getInt( 0 );
+            if( length < 0 || position + HEADER_SIZE + length > logSize )
+            {
+                break;
+            }
+            byte[] payload = new byte[ length ];
+            readFully( log, ByteBuffer.wrap( payload ), position + HEADER_SIZE );
+            crc.reset();
+            crc.update( payload, 0, length );
+            if( (int) crc.getValue() != header.getInt( 4 ) )
+            {
+                break;
+            }
+            if( records == recovered.length )
+            {
+                recovered = Arrays.copyOf( recovered, recovered.length * 2 );
+            }
+            recovered[ records++ ] = (int) position;
+            position += HEADER_SIZE + length;
+        }
+        if( position < logSize )
+        {
+            log.truncate( position );
+        }
+        ByteBuffer recoveredIndex = ByteBuffer.allocate( records * 4 );
+        for( int i = 0; i < records; i++ )
+        {
+            recoveredIndex.putInt( recovered[ i ] );
+        }
+        recoveredIndex.flip();
+        writeFully( index, recoveredIndex, 0 );
+        index.truncate( records * 4L );
+
+        positions = recovered;
+        size = position;
+        count = records;
+    }
+
+    private static void writeFully( FileChannel channel, ByteBuffer buffer, long position )
+        throws IOException
+    {
+        while( buffer.hasRemaining() )
+        {
+            position += channel.write( buffer, position );
+        }
+    }
+
+    private static void readFully( FileChannel channel, ByteBuffer buffer, long position )
+        throws IOException
+    {
+        while( buffer.hasRemaining() )
+        {
+            int read = channel.read( buffer, position );
+            if( read < 0 )
+            {
+                throw new EOFException( "Unexpected end of segment at " + position );
+            }
+            position += read;
+        }
+    }
+}
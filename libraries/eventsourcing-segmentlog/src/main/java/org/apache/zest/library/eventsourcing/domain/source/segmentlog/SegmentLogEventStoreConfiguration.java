@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source.segmentlog;
+
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.configuration.ConfigurationComposite;
+import org.apache.zest.api.property.Property;
+
+/**
+ * Configuration for the SegmentLogEventStoreService.
+ */
+public interface SegmentLogEventStoreConfiguration
+    extends ConfigurationComposite
+{
+    /**
+     * Size in bytes after which the store starts a new segment file. Segments are never split within a
+     * transaction, so a segment may grow slightly larger. Defaults to 64MB.
+     *
+     * @return segment size in bytes
+     */
+    @Optional
+    Property<Integer> segmentSize();
+
+    /**
+     * Whether stored transactions are forced to disk before they are made visible to readers and listeners.
+     * Concurrent writers share a single force. Defaults to true.
+     *
+     * @return true if transactions are forced to disk
+     */
+    @Optional
+    Property<Boolean> syncOnCommit();
+}
@@ -0,0 +1,401 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source.segmentlog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.apache.zest.api.activation.Activators;
+import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.service.qualifier.Tagged;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.io.Input;
+import org.apache.zest.io.Output;
+import org.apache.zest.io.Receiver;
+import org.apache.zest.io.Sender;
+import org.apache.zest.io.Transforms;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+import org.apache.zest.library.eventsourcing.domain.source.AbstractEventStoreMixin;
+import org.apache.zest.library.eventsourcing.domain.source.EventManagement;
+import org.apache.zest.library.eventsourcing.domain.source.EventSource;
+import org.apache.zest.library.eventsourcing.domain.source.EventStore;
+import org.apache.zest.library.eventsourcing.domain.source.EventStoreActivation;
+import org.apache.zest.library.eventsourcing.domain.source.EventStream;
+import org.apache.zest.library.fileconfig.FileConfiguration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * EventStore keeping transactions in append-only segment files.
+ * <p>
+ * Transactions are appended to the newest segment, and a new segment is started once it has reached the configured
+ * size. Each segment has an index from offset to position, so reading from any offset starts right away and then
+ * streams sequentially. Older segments are read through read-only mappings, and can be deleted or archived
+ * through {@link SegmentManagement}.
+ * </p>
+ * <p>
+ * Writers append while holding the store lock, and force to disk after releasing it, so that concurrent writers
+ * share a single force (group commit). Transactions become visible to readers, subscribers and listeners once
+ * they are on disk.
+ * </p>
+ */
+@Mixins( SegmentLogEventStoreService.SegmentLogEventStoreMixin.class )
+@Activators( EventStoreActivation.Activator.class )
+public interface SegmentLogEventStoreService
+    extends EventSource, EventStore, EventStream, EventManagement, SegmentManagement, EventStoreActivation,
+            ServiceComposite, Configuration
+{
+    int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    class SegmentLogEventStoreMixin
+        extends AbstractEventStoreMixin
+        implements EventManagement, EventSource, SegmentManagement
+    {
+        private static final int MAX_RECORDS_PER_APPEND = 1000;
+
+        @Service
+        private FileConfiguration fileConfig;
+
+        @Service
+        @Tagged( ValueSerialization.Formats.JSON )
+        private ValueSerialization valueSerialization;
+
+        @This
+        private Configuration<SegmentLogEventStoreConfiguration> config;
+
+        private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+        private final Object commitLock = new Object();
+
+        private File directory;
+        private int segmentSize;
+        private boolean syncOnCommit;
+
+        private volatile Segment active;
+        private volatile long appendedCount;
+        private volatile long visibleCount;
+
+        @Override
+        public void activateEventStore()
+            throws Exception
+        {
+            super.activateEventStore();
+            Integer size = config.get().segmentSize().get();
+            segmentSize = size == null ? DEFAULT_SEGMENT_SIZE : size;
+            Boolean sync = config.get().syncOnCommit().get();
+            syncOnCommit = sync == null || sync;
+
+            directory = new File( fileConfig.dataDirectory(), identity.identity().get() + "/segments" );
+            if( !directory.isDirectory() && !directory.mkdirs() )
+            {
+                throw new IOException( "Could not create directory " + directory );
+            }
+
+            String[] names = directory.list( ( dir, name ) -> name.endsWith( Segment.LOG_SUFFIX ) );
+            Arrays.sort( names );
+            Segment previous = null;
+            for( String name : names )
+            {
+                long baseOffset = Long.parseLong( name.substring( 0, name.length() - Segment.LOG_SUFFIX.length() ) );
+                if( previous != null && previous.baseOffset + previous.count() != baseOffset )
+                {
+                    throw new IOException( "Segment " + name + " does not follow offset "
+                                           + ( previous.baseOffset + previous.count() ) );
+                }
+                Segment segment = Segment.open( directory, baseOffset );
+                if( previous != null )
+                {
+                    previous.seal();
+                }
+                segments.put( baseOffset, segment );
+                previous = segment;
+            }
+            if( previous == null )
+            {
+                previous = Segment.open( directory, 0 );
+                segments.put( 0L, previous );
+            }
+
+            active = previous;
+            appendedCount = active.baseOffset + active.count();
+            visibleCount = appendedCount;
+        }
+
+        @Override
+        public void passivateEventStore()
+            throws Exception
+        {
+            super.passivateEventStore();
+            lock();
+            try
+            {
+                active.force();
+                for( Segment segment : segments.values() )
+                {
+                    segment.close();
+                }
+                segments.clear();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Output<String, IOException> restore()
+        {
+            final Output<String, IOException> restore = Transforms.lock(
+                SegmentLogEventStoreMixin.this.lock,
+                Transforms.map(
+                    item -> valueSerialization.<UnitOfWorkDomainEventsValue>deserialize( module, eventsType, item ),
+                    storeEvents0() ) );
+
+            return new Output<String, IOException>()
+            {
+                @Override
+                public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends String, SenderThrowableType> sender )
+                    throws IOException, SenderThrowableType
+                {
+                    restore.receiveFrom( sender );
+                    afterStoreEvents();
+                }
+            };
+        }
+
+        // EventSource implementation
+        @Override
+        public Input<UnitOfWorkDomainEventsValue, IOException> events( final long offset, final long limit )
+        {
+            if( offset < 0 || offset > count() )
+            {
+                throw new IllegalArgumentException( "Offset must be between 0 and current number of events in the store" );
+            }
+
+            if( limit <= 0 )
+            {
+                throw new IllegalArgumentException( "Limit must be above 0" );
+            }
+
+            return new Input<UnitOfWorkDomainEventsValue, IOException>()
+            {
+                @Override
+                public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super UnitOfWorkDomainEventsValue, ReceiverThrowableType> output )
+                    throws IOException, ReceiverThrowableType
+                {
+                    output.receiveFrom( new Sender<UnitOfWorkDomainEventsValue, IOException>()
+                    {
+                        @Override
+                        public <ReceiverThrowableType extends Throwable> void sendTo( Receiver<? super UnitOfWorkDomainEventsValue, ReceiverThrowableType> receiver )
+                            throws ReceiverThrowableType, IOException
+                        {
+                            long end = visibleCount;
+                            if( limit < end - offset )
+                            {
+                                end = offset + limit;
+                            }
+
+                            long current = offset;
+                            while( current < end )
+                            {
+                                Map.Entry<Long, Segment> entry = segments.floorEntry( current );
+                                if( entry == null )
+                                {
+                                    throw new IOException( "Transactions before offset " + firstOffset() + " have been removed" );
+                                }
+                                Segment segment = entry.getValue();
+                                long segmentEnd = Math.min( end, segment.baseOffset + segment.count() );
+                                if( segmentEnd <= current )
+                                {
+                                    throw new IOException( "Transaction " + current + " is missing" );
+                                }
+                                for( ; current < segmentEnd; current++ )
+                                {
+                                    byte[] payload = segment.read( (int) ( current - segment.baseOffset ) );
+                                    receiver.receive( valueSerialization.<UnitOfWorkDomainEventsValue>deserialize(
+                                        module, eventsType, new String( payload, UTF_8 ) ) );
+                                }
+                            }
+                        }
+                    } );
+                }
+            };
+        }
+
+        @Override
+        public long count()
+        {
+            return visibleCount;
+        }
+
+        // SegmentManagement implementation
+        @Override
+        public long firstOffset()
+        {
+            return segments.firstKey();
+        }
+
+        @Override
+        public int segmentCount()
+        {
+            return segments.size();
+        }
+
+        @Override
+        public int deleteSegmentsBefore( long offset )
+            throws IOException
+        {
+            int deleted = 0;
+            for( Segment segment : removeSegmentsBefore( offset ) )
+            {
+                segment.delete();
+                deleted++;
+            }
+            return deleted;
+        }
+
+        @Override
+        public int archiveSegmentsBefore( long offset, File archiveDirectory )
+            throws IOException
+        {
+            if( !archiveDirectory.isDirectory() && !archiveDirectory.mkdirs() )
+            {
+                throw new IOException( "Could not create directory " + archiveDirectory );
+            }
+            int archived = 0;
+            for( Segment segment : removeSegmentsBefore( offset ) )
+            {
+                segment.moveTo( archiveDirectory );
+                archived++;
+            }
+            return archived;
+        }
+
+        @Override
+        protected Output<UnitOfWorkDomainEventsValue, IOException> storeEvents0()
+        {
+            return new Output<UnitOfWorkDomainEventsValue, IOException>()
+            {
+                @Override
+                public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends UnitOfWorkDomainEventsValue, SenderThrowableType> sender )
+                    throws IOException, SenderThrowableType
+                {
+                    final List<byte[]> records = new ArrayList<>();
+                    sender.sendTo( new Receiver<UnitOfWorkDomainEventsValue, IOException>()
+                    {
+                        @Override
+                        public void receive( UnitOfWorkDomainEventsValue item )
+                            throws IOException
+                        {
+                            records.add( valueSerialization.serialize( item ).getBytes( UTF_8 ) );
+                            if( records.size() == MAX_RECORDS_PER_APPEND )
+                            {
+                                append( records );
+                                records.clear();
+                            }
+                        }
+                    } );
+                    append( records );
+                }
+            };
+        }
+
+        /**
+         * Force what has been appended so far to disk, unless another writer already did, and make it visible.
+         */
+        @Override
+        protected void afterStoreEvents()
+            throws IOException
+        {
+            long appended = appendedCount;
+            if( visibleCount >= appended )
+            {
+                return;
+            }
+            synchronized( commitLock )
+            {
+                if( visibleCount >= appended )
+                {
+                    return;
+                }
+                // Everything appended up to now, including by writers queued behind us, goes into this force
+                long committed = appendedCount;
+                if( syncOnCommit )
+                {
+                    active.force();
+                }
+                visibleCount = committed;
+            }
+        }
+
+        private void append( List<byte[]> records )
+            throws IOException
+        {
+            if( records.isEmpty() )
+            {
+                return;
+            }
+            Segment segment = active;
+            if( segment.size() >= segmentSize )
+            {
+                segment.seal();
+                segment = Segment.open( directory, segment.baseOffset + segment.count() );
+                segments.put( segment.baseOffset, segment );
+                active = segment;
+            }
+            segment.append( records );
+            appendedCount = segment.baseOffset + segment.count();
+        }
+
+        private List<Segment> removeSegmentsBefore( long offset )
+        {
+            List<Segment> removed = new ArrayList<>();
+            lock();
+            try
+            {
+                Iterator<Segment> iterator = segments.values().iterator();
+                while( iterator.hasNext() )
+                {
+                    Segment segment = iterator.next();
+                    if( segment == active || segment.baseOffset + segment.count() > offset )
+                    {
+                        break;
+                    }
+                    iterator.remove();
+                    removed.add( segment );
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source.segmentlog;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Management interface for the segments of a SegmentLogEventStoreService.
+ * <p>
+ * Only whole segments older than the given offset are removed, and never the segment currently written to.
+ * Transactions keep their offsets; reading from an offset whose segment has been removed fails.
+ * </p>
+ */
+public interface SegmentManagement
+{
+    /**
+     * @return offset of the oldest transaction still in the store
+     */
+    long firstOffset();
+
+    /**
+     * @return number of segments in the store
+     */
+    int segmentCount();
+
+    /**
+     * Delete the segments holding only transactions before the given offset.
+     *
+     * @param offset offset of the first transaction to keep
+     * @return number of deleted segments
+     * @throws IOException if a segment could not be deleted
+     */
+    int deleteSegmentsBefore( long offset )
+        throws IOException;
+
+    /**
+     * Move the segments holding only transactions before the given offset to another directory.
+     *
+     * @param offset offset of the first transaction to keep
+     * @param archiveDirectory directory to move the segment files to
+     * @return number of archived segments
+     * @throws IOException if a segment could not be moved
+     */
+    int archiveSegmentsBefore( long offset, File archiveDirectory )
+        throws IOException;
+}
@@ -0,0 +1,195 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source.segmentlog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.library.eventsourcing.domain.api.DomainEventValue;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+import org.apache.zest.library.eventsourcing.domain.source.EventSource;
+import org.apache.zest.library.eventsourcing.domain.source.EventStore;
+import org.apache.zest.library.fileconfig.FileConfigurationOverride;
+import org.apache.zest.library.fileconfig.FileConfigurationService;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.test.util.DelTreeAfter;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SegmentLogEventStoreServiceTest
+    extends AbstractZestTest
+{
+    private static final File DATA_DIR = new File( "build/tmp/segmentlog-eventstore-test" );
+
+    @Rule
+    public final DelTreeAfter delTreeAfter = new DelTreeAfter( DATA_DIR );
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ModuleAssembly config = module.layer().module( "config" );
+        new EntityTestAssembler().visibleIn( Visibility.module ).assemble( config );
+        config.entities( SegmentLogEventStoreConfiguration.class ).visibleIn( Visibility.layer );
+        config.forMixin( SegmentLogEventStoreConfiguration.class ).declareDefaults().segmentSize().set( 1024 );
+
+        module.values( DomainEventValue.class, UnitOfWorkDomainEventsValue.class );
+        module.services( FileConfigurationService.class )
+            .setMetaInfo( new FileConfigurationOverride().withData( new File( DATA_DIR, "data" ) ) );
+        new OrgJsonValueSerializationAssembler().assemble( module );
+        module.services( SegmentLogEventStoreService.class );
+    }
+
+    @Test
+    public void givenTransactionsInManySegmentsWhenReadingFromAnyOffsetThenTransactionsAreStreamedInOrder()
+        throws IOException
+    {
+        store( 50 );
+
+        SegmentLogEventStoreService store = serviceFinder.findService( SegmentLogEventStoreService.class ).get();
+        assertThat( store.count(), is( 50L ) );
+        assertTrue( store.segmentCount() > 1 );
+
+        assertThat( usecases( store, 0, Long.MAX_VALUE ), equalTo( expected( 0, 50 ) ) );
+        assertThat( usecases( store, 17, 5 ), equalTo( expected( 17, 22 ) ) );
+        assertThat( usecases( store, 49, 10 ), equalTo( expected( 49, 50 ) ) );
+        assertThat( usecases( store, 50, 10 ).size(), is( 0 ) );
+    }
+
+    @Test
+    public void givenOldSegmentsWhenDeletingThenLaterTransactionsCanStillBeRead()
+        throws IOException
+    {
+        store( 50 );
+
+        SegmentLogEventStoreService store = serviceFinder.findService( SegmentLogEventStoreService.class ).get();
+        int segments = store.segmentCount();
+        assertTrue( store.deleteSegmentsBefore( 30 ) > 0 );
+        assertTrue( store.segmentCount() < segments );
+        long first = store.firstOffset();
+        assertTrue( first > 0 && first <= 30 );
+
+        assertThat( usecases( store, 30, Long.MAX_VALUE ), equalTo( expected( 30, 50 ) ) );
+        try
+        {
+            usecases( store, 0, Long.MAX_VALUE );
+            fail( "Removed transactions must not be readable" );
+        }
+        catch( IOException e )
+        {
+            // Expected
+        }
+
+        // The segment being written to is never removed
+        store.deleteSegmentsBefore( Long.MAX_VALUE );
+        assertThat( store.segmentCount(), is( 1 ) );
+        store( 1 );
+        assertThat( store.count(), is( 51L ) );
+    }
+
+    @Test
+    public void givenTornTailWhenOpeningSegmentThenCompleteRecordsAreRecovered()
+        throws IOException
+    {
+        File directory = new File( DATA_DIR, "recovery" );
+        assertTrue( directory.mkdirs() );
+        Segment segment = Segment.open( directory, 100 );
+        segment.append( asList( "one".getBytes( UTF_8 ), "two".getBytes( UTF_8 ) ) );
+        segment.append( asList( "three".getBytes( UTF_8 ) ) );
+        segment.close();
+
+        // Simulate a crash halfway through appending a record
+        try( RandomAccessFile log = new RandomAccessFile( new File( directory, Segment.fileName( 100, Segment.LOG_SUFFIX ) ), "rw" ) )
+        {
+            log.seek( log.length() );
+            log.writeInt( 1000 );
+            log.writeInt( 0 );
+            log.write( "four".getBytes( UTF_8 ) );
+        }
+
+        segment = Segment.open( directory, 100 );
+        assertThat( segment.count(), is( 3 ) );
+        assertThat( new String( segment.read( 2 ), UTF_8 ), equalTo( "three" ) );
+        segment.append( asList( "four".getBytes( UTF_8 ) ) );
+        segment.seal();
+        assertThat( new String( segment.read( 0 ), UTF_8 ), equalTo( "one" ) );
+        assertThat( new String( segment.read( 3 ), UTF_8 ), equalTo( "four" ) );
+        segment.close();
+    }
+
+    private int stored;
+
+    private void store( int count )
+        throws IOException
+    {
+        EventStore store = serviceFinder.findService( EventStore.class ).get();
+        for( int i = 0; i < count; i++ )
+        {
+            ValueBuilder<UnitOfWorkDomainEventsValue> builder = valueBuilderFactory.newValueBuilder( UnitOfWorkDomainEventsValue.class );
+            builder.prototype().version().set( "1.0" );
+            builder.prototype().usecase().set( "usecase-" + stored++ );
+            builder.prototype().timestamp().set( Instant.now() );
+            Inputs.iterable( asList( builder.newInstance() ) ).transferTo( store.storeEvents() );
+        }
+    }
+
+    private static List<String> usecases( EventSource source, long offset, long limit )
+        throws IOException
+    {
+        List<UnitOfWorkDomainEventsValue> transactions = new ArrayList<>();
+        source.events( offset, limit ).transferTo( Outputs.collection( transactions ) );
+        List<String> usecases = new ArrayList<>();
+        for( UnitOfWorkDomainEventsValue transaction : transactions )
+        {
+            usecases.add( transaction.usecase().get() );
+        }
+        return usecases;
+    }
+
+    private static List<String> expected( int from, int to )
+    {
+        List<String> usecases = new ArrayList<>();
+        for( int i = from; i < to; i++ )
+        {
+            usecases.add( "usecase-" + i );
+        }
+        return usecases;
+    }
+}
@@ -31,6 +31,21 @@ public interface DomainEventPlayer
     public void playTransaction( UnitOfWorkDomainEventsValue unitOfWorkDomainValue )
             throws EventReplayException;
 
+    /**
+     * Replay transactions, playing the events of different entities in parallel.
+     * <p>
+     * Events are partitioned by entity identity, so the events of each entity are played in their original order.
+     * Each transaction is played in one UnitOfWork per partition it touches. Use this only when the events of an
+     * entity do not depend on the state of entities in other partitions.
+     * </p>
+     *
+     * @param transactions transactions to replay, in order
+     * @param partitions number of partitions played in parallel, 1 plays all transactions in order
+     * @throws EventReplayException if unable to play an event, the first failure stops the replay
+     */
+    public void playTransactions( Iterable<UnitOfWorkDomainEventsValue> transactions, int partitions )
+            throws EventReplayException;
+
     /**
      * Invoke a domain event on a particular object. The object could
      * be the original object, but could also be a service that wants
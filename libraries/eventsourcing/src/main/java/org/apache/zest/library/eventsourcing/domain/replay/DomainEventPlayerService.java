@@ -20,10 +20,26 @@
 
 package org.apache.zest.library.eventsourcing.domain.replay;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.text.ParseException;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.mixin.Mixins;
@@ -45,6 +61,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * DomainEventValue player
+ * <p>
+ * Event methods are looked up once per entity type, and invoked through MethodHandles with parameter decoders
+ * resolved once per event method.
+ * </p>
  */
 @Mixins( DomainEventPlayerService.Mixin.class )
 public interface DomainEventPlayerService
@@ -53,6 +73,10 @@ public interface DomainEventPlayerService
     class Mixin
         implements DomainEventPlayer
     {
+        private static final MethodType INVOKER_TYPE = MethodType.methodType( void.class, Object.class, Object[].class );
+        private static final int QUEUE_SIZE = 1000;
+        private static final long ENQUEUE_TIMEOUT_MILLIS = 100;
+
         final Logger logger = LoggerFactory.getLogger( DomainEventPlayer.class );
 
         @Structure
@@ -66,21 +90,139 @@ public interface DomainEventPlayerService
 
         DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern( "EEE MMM dd HH:mm:ss zzz yyyy" );
 
+        private final Map<String, Class<?>> entityTypes = new ConcurrentHashMap<>();
+        private final Map<Class<?>, Map<String, EventMethod>> eventMethods = new ConcurrentHashMap<>();
+
         @Override
         public void playTransaction( UnitOfWorkDomainEventsValue unitOfWorkDomainValue )
             throws EventReplayException
+        {
+            playEvents( unitOfWorkDomainValue, unitOfWorkDomainValue.events().get() );
+        }
+
+        @Override
+        public void playTransactions( Iterable<UnitOfWorkDomainEventsValue> transactions, int partitions )
+            throws EventReplayException
+        {
+            if( partitions <= 1 )
+            {
+                for( UnitOfWorkDomainEventsValue transaction : transactions )
+                {
+                    playTransaction( transaction );
+                }
+                return;
+            }
+
+            List<BlockingQueue<Batch>> queues = new ArrayList<>( partitions );
+            List<Future<?>> workers = new ArrayList<>( partitions );
+            AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            ExecutorService executor = Executors.newFixedThreadPool( partitions );
+            try
+            {
+                for( int i = 0; i < partitions; i++ )
+                {
+                    BlockingQueue<Batch> queue = new ArrayBlockingQueue<>( QUEUE_SIZE );
+                    queues.add( queue );
+                    workers.add( executor.submit( () -> playPartition( queue, failure ) ) );
+                }
+
+                for( UnitOfWorkDomainEventsValue transaction : transactions )
+                {
+                    if( failure.get() != null )
+                    {
+                        break;
+                    }
+                    // Split the transaction per partition, keeping the order of events within each partition
+                    Map<Integer, List<DomainEventValue>> split = new HashMap<>();
+                    for( DomainEventValue event : transaction.events().get() )
+                    {
+                        int partition = Math.floorMod( event.entityId().get().hashCode(), partitions );
+                        split.computeIfAbsent( partition, p -> new ArrayList<>() ).add( event );
+                    }
+                    for( Map.Entry<Integer, List<DomainEventValue>> entry : split.entrySet() )
+                    {
+                        int partition = entry.getKey();
+                        enqueue( queues.get( partition ), new Batch( transaction, entry.getValue() ),
+                                 workers.get( partition ), failure );
+                    }
+                }
+            }
+            finally
+            {
+                for( int i = 0; i < queues.size(); i++ )
+                {
+                    enqueue( queues.get( i ), Batch.END, workers.get( i ), failure );
+                }
+                executor.shutdown();
+                awaitTermination( executor );
+            }
+
+            if( failure.get() != null )
+            {
+                throw failure.get();
+            }
+        }
+
+        @Override
+        public void playEvent( DomainEventValue domainEventValue, Object object )
+            throws EventReplayException
+        {
+            UnitOfWork uow = uowf.currentUnitOfWork();
+            Class entityType = object.getClass();
+
+            // Get method
+            EventMethod eventMethod = eventMethods.computeIfAbsent( entityType, this::eventMethodsOf )
+                .get( domainEventValue.name().get() );
+
+            if( eventMethod == null )
+            {
+                logger.warn( "Could not find event method " + domainEventValue.name()
+                    .get() + " in entity of type " + entityType.getName() );
+                return;
+            }
+
+            // Build parameters
+            try
+            {
+                String jsonParameters = domainEventValue.parameters().get();
+                JSONObject parameters = (JSONObject) new JSONTokener( jsonParameters ).nextValue();
+                Object[] args = new Object[ eventMethod.decoders.length ];
+                for( int i = 1; i < args.length; i++ )
+                {
+                    Object value = parameters.get( eventMethod.parameterNames[ i ] );
+                    args[ i ] = value.equals( JSONObject.NULL ) ? null : eventMethod.decoders[ i ].decode( value, uow );
+                }
+                args[ 0 ] = domainEventValue;
+
+                // Invoke method
+                if( logger.isDebugEnabled() )
+                {
+                    logger.debug( "Replay:" + domainEventValue + " on:" + object );
+                }
+
+                eventMethod.invoker.invokeExact( object, args );
+            }
+            catch( Throwable e )
+            {
+                throw new EventReplayException( domainEventValue, e );
+            }
+        }
+
+        /**
+         * Play some or all events of a transaction in a UnitOfWork of their own.
+         */
+        private void playEvents( UnitOfWorkDomainEventsValue unitOfWorkDomainValue, List<DomainEventValue> events )
+            throws EventReplayException
         {
             UnitOfWork uow = uowf.newUnitOfWork( UsecaseBuilder.newUsecase( "Event replay" ) );
             DomainEventValue currentEventValue = null;
             try
             {
-                for( DomainEventValue domainEventValue : unitOfWorkDomainValue.events().get() )
+                for( DomainEventValue domainEventValue : events )
                 {
                     currentEventValue = domainEventValue;
                     // Get the entity
-                    Class entityType = module.descriptor()
-                        .classLoader()
-                        .loadClass( domainEventValue.entityType().get() );
+                    Class entityType = entityType( domainEventValue.entityType().get() );
                     String id = domainEventValue.entityId().get();
                     Object entity = null;
                     try
@@ -118,109 +260,223 @@ public interface DomainEventPlayerService
             }
         }
 
-        @Override
-        public void playEvent( DomainEventValue domainEventValue, Object object )
-            throws EventReplayException
+        private void playPartition( BlockingQueue<Batch> queue, AtomicReference<RuntimeException> failure )
         {
-            UnitOfWork uow = uowf.currentUnitOfWork();
-            Class entityType = object.getClass();
-
-            // Get method
-            Method eventMethod = getEventMethod( entityType, domainEventValue.name().get() );
-
-            if( eventMethod == null )
+            try
             {
-                logger.warn( "Could not find event method " + domainEventValue.name()
-                    .get() + " in entity of type " + entityType.getName() );
-                return;
+                for( Batch batch = queue.take(); batch != Batch.END; batch = queue.take() )
+                {
+                    // After a failure the remaining batches are drained without being played
+                    if( failure.get() == null )
+                    {
+                        playEvents( batch.transaction, batch.events );
+                    }
+                }
+            }
+            catch( RuntimeException e )
+            {
+                failure.compareAndSet( null, e );
+            }
+            catch( InterruptedException e )
+            {
+                failure.compareAndSet( null, new EventReplayException( null, e ) );
+                Thread.currentThread().interrupt();
             }
+            catch( Throwable e )
+            {
+                failure.compareAndSet( null, new EventReplayException( null, e ) );
+                throw e;
+            }
+        }
 
-            // Build parameters
+        /**
+         * Hand a batch over to a partition, without ever blocking on a partition whose worker has stopped.
+         * Batches are no longer handed over once the replay has failed, but {@link Batch#END} still is.
+         */
+        private void enqueue( BlockingQueue<Batch> queue, Batch batch, Future<?> worker,
+                              AtomicReference<RuntimeException> failure )
+        {
             try
             {
-                String jsonParameters = domainEventValue.parameters().get();
-                JSONObject parameters = (JSONObject) new JSONTokener( jsonParameters ).nextValue();
-                Object[] args = new Object[ eventMethod.getParameterTypes().length ];
-                for( int i = 1; i < eventMethod.getParameterTypes().length; i++ )
+                while( !queue.offer( batch, ENQUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) )
                 {
-                    Class<?> parameterType = eventMethod.getParameterTypes()[ i ];
-                    String paramName = "param" + i;
-                    Object value = parameters.get( paramName );
-                    args[ i ] = getParameterArgument( parameterType, value, uow );
+                    if( worker.isDone() )
+                    {
+                        failure.compareAndSet( null, new EventReplayException(
+                            null, new IllegalStateException( "Replay partition stopped" ) ) );
+                        return;
+                    }
+                    if( batch != Batch.END && failure.get() != null )
+                    {
+                        return;
+                    }
                 }
-                args[ 0 ] = domainEventValue;
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet( null, new EventReplayException( null, e ) );
+            }
+        }
 
-                // Invoke method
-                logger.debug( "Replay:" + domainEventValue + " on:" + object );
+        private void awaitTermination( ExecutorService executor )
+        {
+            try
+            {
+                while( !executor.awaitTermination( 1, TimeUnit.SECONDS ) )
+                {
+                    // Partitions are still replaying
+                }
+            }
+            catch( InterruptedException e )
+            {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
 
-                eventMethod.invoke( object, args );
+        private Class<?> entityType( String name )
+            throws ClassNotFoundException
+        {
+            Class<?> type = entityTypes.get( name );
+            if( type == null )
+            {
+                type = module.descriptor().classLoader().loadClass( name );
+                entityTypes.put( name, type );
             }
-            catch( Exception e )
+            return type;
+        }
+
+        /**
+         * Dispatch table of an entity type, from event name to event method.
+         */
+        private Map<String, EventMethod> eventMethodsOf( Class<?> aClass )
+        {
+            Map<String, EventMethod> methods = new HashMap<>();
+            for( Method method : aClass.getMethods() )
             {
-                throw new EventReplayException( domainEventValue, e );
+                Class[] parameterTypes = method.getParameterTypes();
+                if( parameterTypes.length > 0 && parameterTypes[ 0 ].equals( DomainEventValue.class )
+                    && !methods.containsKey( method.getName() ) )
+                {
+                    methods.put( method.getName(), new EventMethod( method, parameterDecoders( parameterTypes ) ) );
+                }
             }
+            return Collections.unmodifiableMap( methods );
         }
 
-        private Object getParameterArgument( Class<?> parameterType, Object value, UnitOfWork uow )
-            throws ParseException
+        private ParameterDecoder[] parameterDecoders( Class<?>[] parameterTypes )
         {
-            if( value.equals( JSONObject.NULL ) )
+            ParameterDecoder[] decoders = new ParameterDecoder[ parameterTypes.length ];
+            for( int i = 1; i < parameterTypes.length; i++ )
             {
-                return null;
+                decoders[ i ] = parameterDecoder( parameterTypes[ i ] );
             }
+            return decoders;
+        }
 
+        private ParameterDecoder parameterDecoder( Class<?> parameterType )
+        {
             if( parameterType.equals( String.class ) )
             {
-                return (String) value;
+                return ( value, uow ) -> (String) value;
             }
             else if( parameterType.equals( Boolean.class ) || parameterType.equals( Boolean.TYPE ) )
             {
-                return (Boolean) value;
+                return ( value, uow ) -> (Boolean) value;
             }
             else if( parameterType.equals( Long.class ) || parameterType.equals( Long.TYPE ) )
             {
-                return ( (Number) value ).longValue();
+                return ( value, uow ) -> ( (Number) value ).longValue();
             }
             else if( parameterType.equals( Integer.class ) || parameterType.equals( Integer.TYPE ) )
             {
-                return ( (Number) value ).intValue();
+                return ( value, uow ) -> ( (Number) value ).intValue();
             }
             else if( parameterType.equals( Instant.class ) )
             {
-                return dateFormat.parse( (String) value );
+                return ( value, uow ) -> parseInstant( (String) value );
             }
             else if( ValueComposite.class.isAssignableFrom( parameterType ) )
             {
-                return module.newValueFromSerializedState( parameterType, (String) value );
+                return ( value, uow ) -> module.newValueFromSerializedState( parameterType, (String) value );
             }
             else if( parameterType.isInterface() )
             {
-                return uow.get( parameterType, (String) value );
+                return ( value, uow ) -> uow.get( parameterType, (String) value );
             }
             else if( parameterType.isEnum() )
             {
-                return Enum.valueOf( (Class<? extends Enum>) parameterType, value.toString() );
+                return ( value, uow ) -> Enum.valueOf( (Class<? extends Enum>) parameterType, value.toString() );
             }
             else
             {
-                throw new IllegalArgumentException( "Unknown parameter type:" + parameterType.getName() );
+                return ( value, uow ) -> {
+                    throw new IllegalArgumentException( "Unknown parameter type:" + parameterType.getName() );
+                };
             }
         }
 
-        private Method getEventMethod( Class<?> aClass, String eventName )
+        private Instant parseInstant( String value )
         {
-            for( Method method : aClass.getMethods() )
+            try
             {
-                if( method.getName().equals( eventName ) )
+                return Instant.parse( value );
+            }
+            catch( DateTimeParseException e )
+            {
+                return Instant.from( dateFormat.parse( value ) );
+            }
+        }
+
+        private interface ParameterDecoder
+        {
+            Object decode( Object value, UnitOfWork uow )
+                throws Exception;
+        }
+
+        private static final class EventMethod
+        {
+            private final MethodHandle invoker;
+            private final String[] parameterNames;
+            private final ParameterDecoder[] decoders;
+
+            private EventMethod( Method method, ParameterDecoder[] decoders )
+            {
+                this.decoders = decoders;
+                this.parameterNames = new String[ decoders.length ];
+                for( int i = 1; i < decoders.length; i++ )
                 {
-                    Class[] parameterTypes = method.getParameterTypes();
-                    if( parameterTypes.length > 0 && parameterTypes[ 0 ].equals( DomainEventValue.class ) )
-                    {
-                        return method;
-                    }
+                    parameterNames[ i ] = "param" + i;
+                }
+                try
+                {
+                    // Entity classes may be non-public
+                    method.setAccessible( true );
+                    this.invoker = MethodHandles.lookup()
+                        .unreflect( method )
+                        .asSpreader( Object[].class, method.getParameterCount() )
+                        .asType( INVOKER_TYPE );
                 }
+                catch( IllegalAccessException e )
+                {
+                    throw new IllegalStateException( "Could not access event method " + method, e );
+                }
+            }
+        }
+
+        private static final class Batch
+        {
+            private static final Batch END = new Batch( null, null );
+
+            private final UnitOfWorkDomainEventsValue transaction;
+            private final List<DomainEventValue> events;
+
+            private Batch( UnitOfWorkDomainEventsValue transaction, List<DomainEventValue> events )
+            {
+                this.transaction = transaction;
+                this.events = events;
             }
-            return null;
         }
     }
-}
\ No newline at end of file
+}
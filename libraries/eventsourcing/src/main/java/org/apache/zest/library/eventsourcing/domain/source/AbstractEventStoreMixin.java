@@ -23,6 +23,9 @@ package org.apache.zest.library.eventsourcing.domain.source;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -42,10 +45,12 @@ import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsVa
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.util.Collections.synchronizedList;
-
 /**
  * Base implementation for EventStores.
+ * <p>
+ * Listeners are notified on a single notifier thread. Subscriptions are drained on a shared pool, each at the pace
+ * of its own subscriber, so that neither the writer nor other subscribers wait for a slow one.
+ * </p>
  */
 public abstract class AbstractEventStoreMixin
         implements EventStore, EventStream, EventStoreActivation
@@ -53,6 +58,9 @@ public abstract class AbstractEventStoreMixin
     @This
     protected Identity identity;
 
+    @This
+    protected EventSource source;
+
     protected Logger logger;
     protected ValueType domainEventType;
     protected ValueType eventsType;
@@ -63,8 +71,10 @@ public abstract class AbstractEventStoreMixin
     protected ModuleDescriptor module;
 
     private ExecutorService transactionNotifier;
+    private ExecutorService subscriptionExecutor;
 
-    final private List<UnitOfWorkEventsListener> listeners = synchronizedList( new ArrayList<UnitOfWorkEventsListener>() );
+    final private List<UnitOfWorkEventsListener> listeners = new CopyOnWriteArrayList<>();
+    final private Set<EventStoreSubscription> subscriptions = ConcurrentHashMap.newKeySet();
 
     @Override
     public void activateEventStore() throws Exception
@@ -75,13 +85,20 @@ public abstract class AbstractEventStoreMixin
         eventsType = module.valueDescriptor( UnitOfWorkDomainEventsValue.class.getName() ).valueType();
 
         transactionNotifier = Executors.newSingleThreadExecutor();
+        subscriptionExecutor = Executors.newCachedThreadPool();
     }
 
     @Override
     public void passivateEventStore() throws Exception
     {
+        for( EventStoreSubscription subscription : subscriptions )
+        {
+            subscription.cancel();
+        }
+        subscriptionExecutor.shutdown();
         transactionNotifier.shutdown();
         transactionNotifier.awaitTermination( 10000, TimeUnit.MILLISECONDS );
+        subscriptionExecutor.awaitTermination( 10000, TimeUnit.MILLISECONDS );
     }
 
     // UnitOfWorkEventsVisitor implementation
@@ -124,13 +141,21 @@ public abstract class AbstractEventStoreMixin
                     lock.unlock();
                 }
 
+                afterStoreEvents();
+
+                // Wake up subscriptions, each reads the new transactions from the store as far as requested
+                for( EventStoreSubscription subscription : subscriptions )
+                {
+                    subscription.signal();
+                }
+
                 // Notify listeners
-                transactionNotifier.submit( new Runnable()
+                if( !listeners.isEmpty() )
                 {
-                    @Override
-                    public void run()
+                    transactionNotifier.submit( new Runnable()
                     {
-                        synchronized(listeners)
+                        @Override
+                        public void run()
                         {
                             for( UnitOfWorkEventsListener listener : listeners )
                             {
@@ -143,8 +168,8 @@ public abstract class AbstractEventStoreMixin
                                 }
                             }
                         }
-                    }
-                } );
+                    } );
+                }
             }
         };
     }
@@ -162,8 +187,30 @@ public abstract class AbstractEventStoreMixin
         listeners.remove( subscriber );
     }
 
+    @Override
+    public EventSubscription subscribe( long offset, EventSubscriber subscriber )
+    {
+        EventStoreSubscription subscription = new EventStoreSubscription( offset, source, subscriber,
+                                                                          subscriptionExecutor, subscriptions::remove );
+        subscriptions.add( subscription );
+        subscriber.onSubscribe( subscription );
+        return subscription;
+    }
+
     abstract protected Output<UnitOfWorkDomainEventsValue, IOException> storeEvents0();
 
+    /**
+     * Called after a successful store, outside of the lock and before subscriptions and listeners are notified.
+     * Stores can override this to make the stored transactions durable and visible, e.g. to commit a group of
+     * concurrent writers at once.
+     *
+     * @throws IOException if the stored transactions could not be made durable
+     */
+    protected void afterStoreEvents()
+        throws IOException
+    {
+    }
+
     /**
      * Fix for this bug:
      * http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6822370
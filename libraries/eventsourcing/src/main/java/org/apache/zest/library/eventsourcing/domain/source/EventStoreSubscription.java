@@ -0,0 +1,143 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+
+/**
+ * Subscription with its own cursor, drained on an executor.
+ * <p>
+ * At most one drain runs at a time per subscription; signals arriving while it runs make it loop once more
+ * instead of scheduling another one.
+ * </p>
+ */
+final class EventStoreSubscription
+    implements EventSubscription
+{
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final EventSource source;
+    private final EventSubscriber subscriber;
+    private final Executor executor;
+    private final Consumer<EventStoreSubscription> onCancel;
+
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger signals = new AtomicInteger();
+    private volatile long offset;
+    private volatile boolean cancelled;
+
+    EventStoreSubscription( long offset, EventSource source, EventSubscriber subscriber, Executor executor,
+                            Consumer<EventStoreSubscription> onCancel )
+    {
+        this.offset = offset;
+        this.source = source;
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.onCancel = onCancel;
+    }
+
+    @Override
+    public void request( long count )
+    {
+        if( count <= 0 )
+        {
+            cancel();
+            subscriber.onError( new IllegalArgumentException( "Requested count must be positive: " + count ) );
+            return;
+        }
+        demand.accumulateAndGet( count, ( current, added ) -> {
+            long sum = current + added;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        } );
+        signal();
+    }
+
+    @Override
+    public void cancel()
+    {
+        if( !cancelled )
+        {
+            cancelled = true;
+            onCancel.accept( this );
+        }
+    }
+
+    @Override
+    public long offset()
+    {
+        return offset;
+    }
+
+    /**
+     * New transactions may be available.
+     */
+    void signal()
+    {
+        if( !cancelled && demand.get() > 0 && signals.getAndIncrement() == 0 )
+        {
+            executor.execute( this::drain );
+        }
+    }
+
+    private void drain()
+    {
+        int missed = 1;
+        do
+        {
+            try
+            {
+                while( !cancelled && demand.get() > 0 && offset < source.count() )
+                {
+                    List<UnitOfWorkDomainEventsValue> batch = new ArrayList<>();
+                    source.events( offset, Math.min( demand.get(), MAX_BATCH_SIZE ) )
+                        .transferTo( Outputs.collection( batch ) );
+                    if( batch.isEmpty() )
+                    {
+                        break;
+                    }
+
+                    long first = offset;
+                    offset = first + batch.size();
+                    if( demand.get() != Long.MAX_VALUE )
+                    {
+                        demand.addAndGet( -batch.size() );
+                    }
+                    subscriber.onNext( first, batch );
+                }
+            }
+            catch( Throwable e )
+            {
+                cancel();
+                subscriber.onError( e );
+                return;
+            }
+            missed = signals.addAndGet( -missed );
+        }
+        while( missed != 0 );
+    }
+}
@@ -24,10 +24,23 @@ package org.apache.zest.library.eventsourcing.domain.source;
  * Stream of event transactions. Registering with a stream will
  * allow the subscriber to get callbacks when new transactions
  * are available. The callbacks are done asynchronously.
+ * <p>
+ * Listeners are notified of new transactions only. Subscribers read the store from an offset of their choosing
+ * and are pushed transactions as far as they request them.
+ * </p>
  */
 public interface EventStream
 {
     void registerListener( UnitOfWorkEventsListener listener );
 
     void unregisterListener( UnitOfWorkEventsListener listener );
+
+    /**
+     * Subscribe to the transactions of the store, starting at the given offset.
+     *
+     * @param offset offset of the first transaction to deliver, 0 to start from the beginning
+     * @param subscriber the subscriber
+     * @return the subscription, which has also been handed to {@link EventSubscriber#onSubscribe(EventSubscription)}
+     */
+    EventSubscription subscribe( long offset, EventSubscriber subscriber );
 }
@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source;
+
+import java.util.List;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+
+/**
+ * Subscriber of an {@link EventStream}, in the style of reactive streams.
+ * <p>
+ * Transactions are pushed to the subscriber only as far as it has requested them through its
+ * {@link EventSubscription}, so a slow subscriber is never overrun and never holds up the writer or other
+ * subscribers. Calls to a subscriber are never concurrent.
+ * </p>
+ */
+public interface EventSubscriber
+{
+    /**
+     * Called once, before any transaction is delivered.
+     *
+     * @param subscription the subscription, use it to request transactions
+     */
+    void onSubscribe( EventSubscription subscription );
+
+    /**
+     * Called with the next batch of transactions. A batch never holds more transactions than requested.
+     *
+     * @param offset offset of the first transaction of the batch
+     * @param transactions the transactions
+     */
+    void onNext( long offset, List<UnitOfWorkDomainEventsValue> transactions );
+
+    /**
+     * Called if reading from the store or delivering to the subscriber failed. The subscription is cancelled.
+     *
+     * @param error the failure
+     */
+    void onError( Throwable error );
+}
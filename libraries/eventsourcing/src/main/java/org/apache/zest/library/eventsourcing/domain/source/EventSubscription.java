@@ -0,0 +1,48 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source;
+
+/**
+ * Subscription of an {@link EventSubscriber} to an {@link EventStream}.
+ * <p>
+ * Each subscription has its own cursor in the store. Acknowledging, i.e. remembering how far the subscriber has
+ * processed, is left to the subscriber so that it can be done in batches.
+ * </p>
+ */
+public interface EventSubscription
+{
+    /**
+     * Request more transactions.
+     *
+     * @param count number of transactions, Long.MAX_VALUE for an unbounded demand
+     */
+    void request( long count );
+
+    /**
+     * Stop delivering transactions. Transactions may still be delivered shortly after this call.
+     */
+    void cancel();
+
+    /**
+     * @return offset of the next transaction to deliver
+     */
+    long offset();
+}
@@ -20,12 +20,15 @@
 
 package org.apache.zest.library.eventsourcing.domain.source.helper;
 
+import java.util.List;
 import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.io.Inputs;
 import org.apache.zest.io.Output;
-import org.apache.zest.io.Transforms;
 import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
 import org.apache.zest.library.eventsourcing.domain.source.EventSource;
 import org.apache.zest.library.eventsourcing.domain.source.EventStream;
+import org.apache.zest.library.eventsourcing.domain.source.EventSubscriber;
+import org.apache.zest.library.eventsourcing.domain.source.EventSubscription;
 import org.apache.zest.library.eventsourcing.domain.source.UnitOfWorkEventsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,34 +37,56 @@ import org.slf4j.LoggerFactory;
  * Helper that enables a service to easily track transactions.
  * <p>
  * Upon startup
- * the tracker will get all the transactions from the store since the last
- * check, and delegate them to the given Output. It will also register itself
- * with the store so that it can get continuous updates.
+ * the tracker will subscribe to the store from the last handled transaction, and delegate
+ * the transactions to the given Output. The store pushes transactions in batches, never more
+ * than the tracker has asked for, so a slow Output holds back only its own tracker.
  * </p>
  * <p>
  * Then, as transactions come in from the store, they will be processed in real-time.
- * If a transaction is successfully handled the configuration of the service, which must
- * extend DomainEventTrackerConfiguration, will update the marker for the last successfully handled transaction.
+ * The configuration of the service, which must extend DomainEventTrackerConfiguration, is updated with
+ * the marker for the last successfully handled transaction once per batch, and whenever the tracker has caught up.
+ * If handling fails the tracker stops, and resumes from the last saved marker upon the next transaction
+ * notification, so transactions are delivered at least once.
  * </p>
  */
 public class DomainEventTracker
-        implements Runnable, UnitOfWorkEventsListener
+        implements Runnable, UnitOfWorkEventsListener, EventSubscriber
 {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
     private Configuration<? extends DomainEventTrackerConfiguration> configuration;
     private final Output<UnitOfWorkDomainEventsValue, ? extends Throwable> output;
+    private final int batchSize;
     private EventStream stream;
     private EventSource source;
     private boolean started = false;
     private Logger logger;
 
+    private EventSubscription subscription;
+    private long handledOffset;
+    private int unacknowledged;
+
     public DomainEventTracker( EventStream stream, EventSource source,
                                Configuration<? extends DomainEventTrackerConfiguration> configuration,
                                Output<UnitOfWorkDomainEventsValue, ? extends Throwable> output )
     {
+        this( stream, source, configuration, output, DEFAULT_BATCH_SIZE );
+    }
+
+    public DomainEventTracker( EventStream stream, EventSource source,
+                               Configuration<? extends DomainEventTrackerConfiguration> configuration,
+                               Output<UnitOfWorkDomainEventsValue, ? extends Throwable> output,
+                               int batchSize )
+    {
+        if( batchSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Batch size must be positive: " + batchSize );
+        }
         this.stream = stream;
         this.configuration = configuration;
         this.output = output;
         this.source = source;
+        this.batchSize = batchSize;
 
         logger = LoggerFactory.getLogger( configuration.get().identity().get() );
     }
@@ -84,28 +109,27 @@ public class DomainEventTracker
         {
             started = false;
             stream.unregisterListener( this );
+            if( subscription != null )
+            {
+                subscription.cancel();
+                subscription = null;
+                acknowledge();
+            }
         }
     }
 
+    /**
+     * Subscribe to the store from the last saved marker, unless already subscribed.
+     */
     @Override
     public synchronized void run()
     {
         // TODO This should optionally use a CircuitBreaker
-        if (started && configuration.get().enabled().get())
+        if (started && subscription == null && configuration.get().enabled().get())
         {
-            Transforms.Counter counter = new Transforms.Counter();
-            try
-            {
-                long currentOffset = configuration.get().lastOffset().get();
-                source.events( currentOffset, Long.MAX_VALUE ).transferTo( Transforms.map( counter, output ) );
-
-                // Save new offset, to be used in next round
-                configuration.get().lastOffset().set( currentOffset+counter.count() );
-                configuration.save();
-            } catch (Throwable throwable)
-            {
-                logger.warn( "Event handling failed", throwable );
-            }
+            handledOffset = configuration.get().lastOffset().get();
+            unacknowledged = 0;
+            stream.subscribe( handledOffset, this );
         }
     }
 
@@ -114,4 +138,72 @@ public class DomainEventTracker
     {
         run();
     }
+
+    // EventSubscriber implementation
+    @Override
+    public synchronized void onSubscribe( EventSubscription subscription )
+    {
+        this.subscription = subscription;
+        subscription.request( batchSize );
+    }
+
+    @Override
+    public synchronized void onNext( long offset, List<UnitOfWorkDomainEventsValue> transactions )
+    {
+        if( subscription == null || offset != handledOffset )
+        {
+            // Stale delivery from a cancelled subscription
+            return;
+        }
+
+        try
+        {
+            Inputs.iterable( transactions ).transferTo( output );
+        }
+        catch( Throwable throwable )
+        {
+            logger.warn( "Event handling failed", throwable );
+            subscription.cancel();
+            subscription = null;
+            acknowledge();
+            return;
+        }
+
+        handledOffset += transactions.size();
+        unacknowledged += transactions.size();
+        if( unacknowledged >= batchSize || handledOffset >= source.count() )
+        {
+            acknowledge();
+        }
+        subscription.request( transactions.size() );
+    }
+
+    @Override
+    public synchronized void onError( Throwable error )
+    {
+        logger.warn( "Event subscription failed", error );
+        subscription = null;
+        acknowledge();
+    }
+
+    /**
+     * Save the marker, to be used when resubscribing.
+     */
+    private void acknowledge()
+    {
+        if( unacknowledged == 0 )
+        {
+            return;
+        }
+        try
+        {
+            configuration.get().lastOffset().set( handledOffset );
+            configuration.save();
+            unacknowledged = 0;
+        }
+        catch( Throwable throwable )
+        {
+            logger.warn( "Could not save last handled offset", throwable );
+        }
+    }
 }
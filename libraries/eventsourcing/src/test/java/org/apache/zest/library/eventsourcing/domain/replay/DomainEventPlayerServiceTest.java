@@ -0,0 +1,206 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.replay;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.library.eventsourcing.domain.api.DomainEventValue;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DomainEventPlayerServiceTest
+    extends AbstractZestTest
+{
+    private static final int ENTITIES = 20;
+    private static final int TRANSACTIONS = 200;
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.values( DomainEventValue.class, UnitOfWorkDomainEventsValue.class );
+        module.entities( TestEntity.class );
+        module.services( DomainEventPlayerService.class );
+    }
+
+    @Test
+    public void givenTransactionsWhenPlayingInOrderThenEventsAreApplied()
+        throws Exception
+    {
+        replayAndVerify( 1 );
+    }
+
+    @Test
+    public void givenTransactionsWhenPlayingPartitionedThenEventsOfEachEntityAreAppliedInOrder()
+        throws Exception
+    {
+        replayAndVerify( 4 );
+    }
+
+    @Test
+    public void givenFailingEventWhenPlayingPartitionedThenReplayFails()
+    {
+        DomainEventPlayer player = serviceFinder.findService( DomainEventPlayer.class ).get();
+        List<UnitOfWorkDomainEventsValue> transactions = new ArrayList<>();
+        transactions.add( transaction( event( "entity-0", "append", "{\"param1\":\"0\"}" ) ) );
+        transactions.add( transaction( event( "entity-1", "fail", "{}" ) ) );
+        try
+        {
+            player.playTransactions( transactions, 4 );
+            fail( "Replay should have failed" );
+        }
+        catch( EventReplayException e )
+        {
+            // Expected
+        }
+    }
+
+    @Test( timeout = 60000 )
+    public void givenStoppedPartitionWhenMoreTransactionsThanQueueSizeThenReplayFailsInsteadOfBlocking()
+    {
+        DomainEventPlayer player = serviceFinder.findService( DomainEventPlayer.class ).get();
+        List<UnitOfWorkDomainEventsValue> transactions = new ArrayList<>();
+        // Leaves the partition thread interrupted, so that it stops on its next take from the queue
+        transactions.add( transaction( event( "entity-0", "interrupt", "{}" ) ) );
+        for( int i = 0; i < 3000; i++ )
+        {
+            transactions.add( transaction( event( "entity-0", "append", "{\"param1\":\"" + i + "\"}" ) ) );
+        }
+        try
+        {
+            player.playTransactions( transactions, 2 );
+            fail( "Replay should have failed" );
+        }
+        catch( EventReplayException e )
+        {
+            // Expected
+        }
+    }
+
+    private void replayAndVerify( int partitions )
+        throws Exception
+    {
+        List<UnitOfWorkDomainEventsValue> transactions = new ArrayList<>();
+        List<StringBuilder> expected = new ArrayList<>();
+        for( int i = 0; i < ENTITIES; i++ )
+        {
+            expected.add( new StringBuilder() );
+        }
+        for( int i = 0; i < TRANSACTIONS; i++ )
+        {
+            // Each transaction touches two entities
+            int first = i % ENTITIES;
+            int second = ( i * 7 + 3 ) % ENTITIES;
+            transactions.add( transaction( event( "entity-" + first, "append", "{\"param1\":\"" + i + ",\"}" ),
+                                           event( "entity-" + second, "append", "{\"param1\":\"" + i + ";\"}" ) ) );
+            expected.get( first ).append( i ).append( ',' );
+            expected.get( second ).append( i ).append( ';' );
+        }
+
+        serviceFinder.findService( DomainEventPlayer.class ).get().playTransactions( transactions, partitions );
+
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            for( int i = 0; i < ENTITIES; i++ )
+            {
+                assertThat( uow.get( TestEntity.class, "entity-" + i ).log().get(),
+                            equalTo( expected.get( i ).toString() ) );
+            }
+        }
+    }
+
+    private UnitOfWorkDomainEventsValue transaction( DomainEventValue... events )
+    {
+        ValueBuilder<UnitOfWorkDomainEventsValue> builder = valueBuilderFactory.newValueBuilder( UnitOfWorkDomainEventsValue.class );
+        builder.prototype().version().set( "1.0" );
+        builder.prototype().usecase().set( "Replay test" );
+        // Events from the future are always newer than the replayed state
+        builder.prototype().timestamp().set( Instant.now().plus( 1, ChronoUnit.DAYS ) );
+        List<DomainEventValue> list = new ArrayList<>();
+        Collections.addAll( list, events );
+        builder.prototype().events().set( list );
+        return builder.newInstance();
+    }
+
+    private DomainEventValue event( String entityId, String name, String parameters )
+    {
+        ValueBuilder<DomainEventValue> builder = valueBuilderFactory.newValueBuilder( DomainEventValue.class );
+        builder.prototype().entityType().set( TestEntity.class.getName() );
+        builder.prototype().entityId().set( entityId );
+        builder.prototype().name().set( name );
+        builder.prototype().parameters().set( parameters );
+        return builder.newInstance();
+    }
+
+    @Mixins( TestEntity.Mixin.class )
+    public interface TestEntity
+        extends EntityComposite
+    {
+        @UseDefaults
+        Property<String> log();
+
+        void append( DomainEventValue event, String text );
+
+        void fail( DomainEventValue event );
+
+        void interrupt( DomainEventValue event );
+
+        abstract class Mixin
+            implements TestEntity
+        {
+            @Override
+            public void append( DomainEventValue event, String text )
+            {
+                log().set( log().get() + text );
+            }
+
+            @Override
+            public void fail( DomainEventValue event )
+            {
+                throw new IllegalStateException( "Failing event" );
+            }
+
+            @Override
+            public void interrupt( DomainEventValue event )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
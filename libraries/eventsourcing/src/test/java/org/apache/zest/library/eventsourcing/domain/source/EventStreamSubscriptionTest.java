@@ -0,0 +1,187 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.eventsourcing.domain.source;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.library.eventsourcing.domain.api.DomainEventValue;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+import org.apache.zest.library.eventsourcing.domain.source.memory.MemoryEventStoreService;
+import org.apache.zest.test.AbstractZestTest;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class EventStreamSubscriptionTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.values( DomainEventValue.class, UnitOfWorkDomainEventsValue.class );
+        module.services( MemoryEventStoreService.class );
+    }
+
+    @Test
+    public void givenSubscriberWhenRequestingInStepsThenTransactionsArePushedAsFarAsRequested()
+        throws Exception
+    {
+        store( 10 );
+
+        RecordingSubscriber subscriber = new RecordingSubscriber( 3 );
+        EventSubscription subscription = serviceFinder.findService( EventStream.class ).get()
+            .subscribe( 0, subscriber );
+        subscriber.await();
+        Thread.sleep( 100 );
+        assertThat( subscriber.usecases(), equalTo( usecases( 0, 3 ) ) );
+        assertThat( subscription.offset(), is( 3L ) );
+
+        subscriber.expect( 7 );
+        subscription.request( 7 );
+        subscriber.await();
+        assertThat( subscriber.usecases(), equalTo( usecases( 0, 10 ) ) );
+
+        // Demand exhausted, new transactions wait in the store
+        store( 2 );
+        Thread.sleep( 100 );
+        assertThat( subscriber.usecases().size(), is( 10 ) );
+
+        subscriber.expect( 2 );
+        subscription.request( Long.MAX_VALUE );
+        subscriber.await();
+        assertThat( subscriber.usecases(), equalTo( usecases( 0, 12 ) ) );
+
+        // Unbounded demand, new transactions are pushed as they are stored
+        subscriber.expect( 1 );
+        store( 1 );
+        subscriber.await();
+        assertThat( subscriber.usecases(), equalTo( usecases( 0, 13 ) ) );
+        subscription.cancel();
+    }
+
+    @Test
+    public void givenSubscriberWhenRequestingNonPositiveCountThenErrorIsSignalled()
+        throws Exception
+    {
+        RecordingSubscriber subscriber = new RecordingSubscriber( 0 );
+        serviceFinder.findService( EventStream.class ).get().subscribe( 0, subscriber );
+        assertTrue( subscriber.error instanceof IllegalArgumentException );
+    }
+
+    private int stored;
+
+    private void store( int count )
+        throws IOException
+    {
+        List<UnitOfWorkDomainEventsValue> transactions = new ArrayList<>();
+        for( int i = 0; i < count; i++ )
+        {
+            ValueBuilder<UnitOfWorkDomainEventsValue> builder = valueBuilderFactory.newValueBuilder( UnitOfWorkDomainEventsValue.class );
+            builder.prototype().version().set( "1.0" );
+            builder.prototype().usecase().set( "usecase-" + stored++ );
+            builder.prototype().timestamp().set( Instant.now() );
+            transactions.add( builder.newInstance() );
+        }
+        Inputs.iterable( transactions ).transferTo( serviceFinder.findService( EventStore.class ).get().storeEvents() );
+    }
+
+    private static List<String> usecases( int from, int to )
+    {
+        List<String> usecases = new ArrayList<>();
+        for( int i = from; i < to; i++ )
+        {
+            usecases.add( "usecase-" + i );
+        }
+        return usecases;
+    }
+
+    private static class RecordingSubscriber
+        implements EventSubscriber
+    {
+        private final long initialRequest;
+        private final List<String> usecases = new ArrayList<>();
+        private volatile CountDownLatch latch;
+        private volatile Throwable error;
+
+        private RecordingSubscriber( long initialRequest )
+        {
+            this.initialRequest = initialRequest;
+            expect( (int) initialRequest );
+        }
+
+        @Override
+        public void onSubscribe( EventSubscription subscription )
+        {
+            subscription.request( initialRequest );
+        }
+
+        @Override
+        public void onNext( long offset, List<UnitOfWorkDomainEventsValue> transactions )
+        {
+            synchronized( usecases )
+            {
+                assertThat( offset, is( (long) usecases.size() ) );
+                for( UnitOfWorkDomainEventsValue transaction : transactions )
+                {
+                    usecases.add( transaction.usecase().get() );
+                    latch.countDown();
+                }
+            }
+        }
+
+        @Override
+        public void onError( Throwable error )
+        {
+            this.error = error;
+        }
+
+        private void expect( int count )
+        {
+            latch = new CountDownLatch( count );
+        }
+
+        private void await()
+            throws InterruptedException
+        {
+            assertTrue( latch.await( 10, TimeUnit.SECONDS ) );
+        }
+
+        private List<String> usecases()
+        {
+            synchronized( usecases )
+            {
+                return new ArrayList<>( usecases );
+            }
+        }
+    }
+}
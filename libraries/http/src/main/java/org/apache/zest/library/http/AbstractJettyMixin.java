@@ -48,6 +48,7 @@ import static org.apache.zest.library.http.JettyConfigurationHelper.configureCon
 import static org.apache.zest.library.http.JettyConfigurationHelper.configureContext;
 import static org.apache.zest.library.http.JettyConfigurationHelper.configureHttp;
 import static org.apache.zest.library.http.JettyConfigurationHelper.configureServer;
+import static org.apache.zest.library.http.JettyConfigurationHelper.configureUnitOfWorkAdmission;
 
 public abstract class AbstractJettyMixin
     implements HttpService, JettyActivation
@@ -112,10 +113,13 @@ public abstract class AbstractJettyMixin
         root.setDisplayName( identity );
         configureContext( root, configuration() );
 
+        // Bound the running UnitOfWorks if configured, waiting requests are suspended
+        boolean asyncSupported = configureUnitOfWorkAdmission( root, configuration() );
+
         // Register ContextListeners, Servlets and Filters
         addContextListeners( root, contextListeners );
-        addServlets( root, servlets );
-        addFilters( root, filters );
+        addServlets( root, servlets, asyncSupported );
+        addFilters( root, filters, asyncSupported );
 
         // Start
         server.start();
@@ -166,5 +166,47 @@ public interface JettyConfiguration
     @GreaterThan( 0 )
     Property<Integer> gracefullShutdownTimeout();
 
+    /**
+     * @return Minimum number of threads of the Jetty request thread pool.
+     */
+    @Optional
+    @GreaterThan( 0 )
+    Property<Integer> minThreads();
+
+    /**
+     * @return Maximum number of threads of the Jetty request thread pool.
+     */
+    @Optional
+    @GreaterThan( 0 )
+    Property<Integer> maxThreads();
+
+    // ## UnitOfWork Admission Properties #####################################
+    /**
+     * Maximum number of UnitOfWorks running at once.
+     * 
+     * If set, servlets and filters are registered as async supported and the {@link UnitOfWorkFilter} bounds the
+     * number of requests running in a UnitOfWork, for example to the number of connections of the entity store.
+     * Requests beyond that wait for admission without holding a Jetty request thread.
+     * If not set, every request runs in a UnitOfWork as soon as it arrives.
+     * 
+     * @return Maximum number of UnitOfWorks running at once.
+     */
+    @Optional
+    @GreaterThan( 0 )
+    Property<Integer> maxConcurrentUnitOfWorks();
+
+    /**
+     * Number of requests waiting for admission to a UnitOfWork.
+     * 
+     * Only used when {@link #maxConcurrentUnitOfWorks()} is set. Requests arriving while the limit is reached and
+     * the queue is full are answered with 503 Service Unavailable.
+     * Defaults to 1024.
+     * 
+     * @return Number of requests waiting for admission to a UnitOfWork.
+     */
+    @Optional
+    @GreaterThan( 0 )
+    Property<Integer> unitOfWorkQueueSize();
+
 }
 // END SNIPPET: config
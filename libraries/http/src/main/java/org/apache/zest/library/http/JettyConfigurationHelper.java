@@ -36,6 +36,8 @@ import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 import org.apache.zest.api.common.InvalidApplicationException;
 import org.apache.zest.api.service.ServiceReference;
 
@@ -51,6 +53,8 @@ final class JettyConfigurationHelper
 
     private static final String COMA = ",";
 
+    private static final Integer DEFAULT_UNIT_OF_WORK_QUEUE_SIZE = 1024;
+
     static void configureServer( Server server, JettyConfiguration config )
     {
         // Shutdown
@@ -74,6 +78,39 @@ final class JettyConfigurationHelper
         {
             server.addBean( new ConnectorStatistics() );
         }
+
+        // Request threads
+        ThreadPool threadPool = server.getThreadPool();
+        if( threadPool instanceof QueuedThreadPool )
+        {
+            Integer maxThreads = config.maxThreads().get();
+            if( maxThreads != null )
+            {
+                ( (QueuedThreadPool) threadPool ).setMaxThreads( maxThreads );
+            }
+            Integer minThreads = config.minThreads().get();
+            if( minThreads != null )
+            {
+                ( (QueuedThreadPool) threadPool ).setMinThreads( minThreads );
+            }
+        }
+    }
+
+    static boolean configureUnitOfWorkAdmission( ServletContextHandler root, JettyConfiguration config )
+    {
+        Integer maxConcurrentUnitOfWorks = config.maxConcurrentUnitOfWorks().get();
+        if( maxConcurrentUnitOfWorks == null )
+        {
+            return false;
+        }
+        Integer unitOfWorkQueueSize = config.unitOfWorkQueueSize().get();
+        if( unitOfWorkQueueSize == null )
+        {
+            unitOfWorkQueueSize = DEFAULT_UNIT_OF_WORK_QUEUE_SIZE;
+        }
+        root.setAttribute( UnitOfWorkFilter.ADMISSION_ATTRIBUTE,
+                           new UnitOfWorkAdmission( maxConcurrentUnitOfWorks, unitOfWorkQueueSize ) );
+        return true;
     }
 
     static void configureHttp( HttpConfiguration httpConfig, JettyConfiguration config )
@@ -332,7 +369,8 @@ final class JettyConfigurationHelper
         }
     }
 
-    static void addServlets( ServletContextHandler root, Iterable<ServiceReference<Servlet>> servlets )
+    static void addServlets( ServletContextHandler root, Iterable<ServiceReference<Servlet>> servlets,
+                             boolean asyncSupported )
     {
         // Iterate the available servlets and add it to the server
         for( ServiceReference<Servlet> servlet : servlets )
@@ -342,11 +380,13 @@ final class JettyConfigurationHelper
             Servlet servletInstance = servlet.get();
             ServletHolder holder = new ServletHolder( servletInstance );
             holder.setInitParameters( servletInfo.initParams() );
+            holder.setAsyncSupported( asyncSupported );
             root.addServlet( holder, servletPath );
         }
     }
 
-    static void addFilters( ServletContextHandler root, Iterable<ServiceReference<Filter>> filters )
+    static void addFilters( ServletContextHandler root, Iterable<ServiceReference<Filter>> filters,
+                            boolean asyncSupported )
     {
         // Iterate the available filters and add them to the server
         for( ServiceReference<Filter> filter : filters )
@@ -357,6 +397,7 @@ final class JettyConfigurationHelper
             Filter filterInstance = filter.get();
             FilterHolder holder = new FilterHolder( filterInstance );
             holder.setInitParameters( filterInfo.initParameters() );
+            holder.setAsyncSupported( asyncSupported );
             root.addFilter( holder, filterPath, filterInfo.dispatchers() );
         }
     }
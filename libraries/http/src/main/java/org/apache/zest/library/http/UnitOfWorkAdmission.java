@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import javax.servlet.AsyncContext;
+
+/**
+ * Bounded admission of requests to UnitOfWorks.
+ * <p>
+ * At most {@code limit} UnitOfWorks run at once. Requests arriving while the limit is reached wait, suspended in
+ * their {@link AsyncContext} without holding a thread, in a queue of {@code queueSize} requests. They are resumed in
+ * arrival order through {@link AsyncContext#start(Runnable)} as running UnitOfWorks exit. Requests that find the queue
+ * full are refused.
+ * </p>
+ */
+final class UnitOfWorkAdmission
+{
+    private final Semaphore permits;
+    private final BlockingQueue<Runnable> waiting;
+
+    UnitOfWorkAdmission( int limit, int queueSize )
+    {
+        this.permits = new Semaphore( limit );
+        this.waiting = new ArrayBlockingQueue<>( queueSize );
+    }
+
+    /**
+     * @return true if the caller may run a UnitOfWork now, in which case it must call {@link #exit()} once done
+     */
+    boolean tryEnter()
+    {
+        // Do not overtake waiting requests
+        return waiting.isEmpty() && permits.tryAcquire();
+    }
+
+    /**
+     * Queue a suspended request.
+     *
+     * @param asyncContext the suspended request
+     * @param unitOfWork   runs the UnitOfWork once admitted, and must call {@link #exit()} once done
+     *
+     * @return false if the queue is full
+     */
+    boolean await( AsyncContext asyncContext, Runnable unitOfWork )
+    {
+        if( !waiting.offer( () -> asyncContext.start( unitOfWork ) ) )
+        {
+            return false;
+        }
+        admitWaiting();
+        return true;
+    }
+
+    void exit()
+    {
+        permits.release();
+        admitWaiting();
+    }
+
+    int waiting()
+    {
+        return waiting.size();
+    }
+
+    private void admitWaiting()
+    {
+        // Both a new waiting request and an exiting UnitOfWork check again, so no request is left behind
+        while( !waiting.isEmpty() && permits.tryAcquire() )
+        {
+            Runnable next = waiting.poll();
+            if( next == null )
+            {
+                permits.release();
+                continue;
+            }
+            try
+            {
+                next.run();
+            }
+            catch( RuntimeException e )
+            {
+                // The request could not be resumed, it was already completed or timed out
+                permits.release();
+            }
+        }
+    }
+}
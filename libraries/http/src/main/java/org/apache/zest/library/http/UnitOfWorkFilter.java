@@ -21,33 +21,101 @@
 package org.apache.zest.library.http;
 
 import java.io.IOException;
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
 
 /**
- * JAVADOC
+ * Run each request in a UnitOfWork.
+ * <p>
+ * If the JettyService is configured with {@link JettyConfiguration#maxConcurrentUnitOfWorks()} this filter also
+ * bounds the number of UnitOfWorks running at once, which is admission control and not a throughput gain: requests
+ * are admitted on their own thread while the limit is not reached. Beyond it they are suspended through an
+ * {@link AsyncContext}, releasing their Jetty thread, until a UnitOfWork completes; the whole UnitOfWork, including
+ * the rest of the filter chain, then runs on a container thread obtained with {@link AsyncContext#start(Runnable)}.
+ * Requests that find the waiting queue full are answered with 503 Service Unavailable.
+ * </p>
  */
 public class UnitOfWorkFilter
     implements Filter
 {
+    /**
+     * ServletContext attribute holding the {@link UnitOfWorkAdmission} bounding the running UnitOfWorks.
+     */
+    static final String ADMISSION_ATTRIBUTE = UnitOfWorkFilter.class.getName() + ".admission";
+
     @Structure private UnitOfWorkFactory uowf;
 
+    private UnitOfWorkAdmission admission;
+
     @Override
     public void init( FilterConfig filterConfig )
         throws ServletException
     {
+        admission = (UnitOfWorkAdmission) filterConfig.getServletContext().getAttribute( ADMISSION_ATTRIBUTE );
     }
 
     @Override
     public void doFilter( ServletRequest request, ServletResponse response, FilterChain chain )
         throws IOException, ServletException
+    {
+        if( admission == null || request.getDispatcherType() != DispatcherType.REQUEST )
+        {
+            inUnitOfWork( request, response, chain );
+            return;
+        }
+
+        if( admission.tryEnter() )
+        {
+            try
+            {
+                inUnitOfWork( request, response, chain );
+            }
+            finally
+            {
+                admission.exit();
+            }
+            return;
+        }
+
+        if( !request.isAsyncSupported() )
+        {
+            // Cannot wait without holding the request thread
+            ( (HttpServletResponse) response ).sendError( HttpServletResponse.SC_SERVICE_UNAVAILABLE );
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync( request, response );
+        // The UnitOfWork is not time bound when run on the request thread either
+        asyncContext.setTimeout( 0 );
+        boolean queued = admission.await( asyncContext, () -> {
+            try
+            {
+                inUnitOfWork( request, response, chain );
+            }
+            finally
+            {
+                asyncContext.complete();
+                admission.exit();
+            }
+        } );
+        if( !queued )
+        {
+            ( (HttpServletResponse) response ).sendError( HttpServletResponse.SC_SERVICE_UNAVAILABLE );
+            asyncContext.complete();
+        }
+    }
+
+    private void inUnitOfWork( ServletRequest request, ServletResponse response, FilterChain chain )
     {
         UnitOfWork unitOfWork = uowf.newUnitOfWork();
         try
@@ -63,11 +131,11 @@ public class UnitOfWorkFilter
         {
             unitOfWork.discard();
         }
-
     }
 
     @Override
     public void destroy()
     {
+        admission = null;
     }
 }
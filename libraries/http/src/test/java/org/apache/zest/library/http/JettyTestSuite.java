@@ -26,6 +26,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses( {
     VirtualHostJettyServiceTest.class,
     JettyServiceTest.class,
+    UnitOfWorkAdmissionJettyServiceTest.class,
+    UnitOfWorkQueueJettyServiceTest.class,
     JettyJMXStatisticsTest.class,
     SecureJettyServiceTest.class,
     MutualSecureJettyServiceTest.class
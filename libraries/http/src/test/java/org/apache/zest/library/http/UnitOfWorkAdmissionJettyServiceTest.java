@@ -0,0 +1,150 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+
+import static javax.servlet.DispatcherType.REQUEST;
+import static org.apache.zest.library.http.Servlets.addFilters;
+import static org.apache.zest.library.http.Servlets.addServlets;
+import static org.apache.zest.library.http.Servlets.filter;
+import static org.apache.zest.library.http.Servlets.serve;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class UnitOfWorkAdmissionJettyServiceTest
+    extends AbstractJettyTest
+{
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    @Override
+    public final void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ModuleAssembly configModule = module;
+        new EntityTestAssembler().assemble( configModule );
+        new JettyServiceAssembler().withConfig( configModule, Visibility.layer ).assemble( module );
+
+        JettyConfiguration config = configModule.forMixin( JettyConfiguration.class ).declareDefaults();
+        config.hostName().set( "127.0.0.1" );
+        config.port().set( HTTP_PORT );
+        // START SNIPPET: admission
+        config.maxConcurrentUnitOfWorks().set( 2 );
+        // END SNIPPET: admission
+
+        addServlets( serve( "/uow" ).with( UnitOfWorkServletService.class ),
+                     serve( "/slow" ).with( SlowServletService.class ) ).to( module );
+        addFilters( filter( "/*" ).through( UnitOfWorkFilterService.class ).on( REQUEST ) ).to( module );
+    }
+
+    @Test
+    public void givenUnitOfWorkLimitWhenRequestThenHandledInUnitOfWork()
+        throws Exception
+    {
+        String output = defaultHttpClient.execute( new HttpGet( "http://127.0.0.1:8041/uow" ), stringResponseHandler );
+        assertThat( output, equalTo( "true" ) );
+    }
+
+    @Test
+    public void givenConcurrentRequestsWhenAdmittedThenAllAreServedWithinLimit()
+        throws Exception
+    {
+        ExecutorService clients = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            List<Future<String>> responses = new ArrayList<>();
+            for( int i = 0; i < 32; i++ )
+            {
+                Callable<String> get = () -> defaultHttpClient.execute( new HttpGet( "http://127.0.0.1:8041/slow" ),
+                                                                        stringResponseHandler );
+                responses.add( clients.submit( get ) );
+            }
+            for( Future<String> response : responses )
+            {
+                assertThat( response.get(), equalTo( "true" ) );
+            }
+            assertTrue( "Running UnitOfWorks: " + MAX_RUNNING.get(), MAX_RUNNING.get() <= 2 );
+        }
+        finally
+        {
+            clients.shutdown();
+        }
+    }
+
+    @Mixins( SlowServlet.class )
+    public interface SlowServletService
+        extends Servlet, ServiceComposite
+    {
+    }
+
+    public static class SlowServlet
+        extends HttpServlet
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Structure
+        private transient UnitOfWorkFactory uowf;
+
+        @Override
+        protected final void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws IOException
+        {
+            int running = RUNNING.incrementAndGet();
+            MAX_RUNNING.accumulateAndGet( running, Math::max );
+            try
+            {
+                Thread.sleep( 20 );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                RUNNING.decrementAndGet();
+            }
+            resp.getWriter().append( String.valueOf( uowf.isUnitOfWorkActive() ) );
+        }
+    }
+}
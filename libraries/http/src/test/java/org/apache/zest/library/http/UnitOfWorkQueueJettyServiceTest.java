@@ -0,0 +1,152 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.http;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+
+import static javax.servlet.DispatcherType.REQUEST;
+import static org.apache.zest.library.http.Servlets.addFilters;
+import static org.apache.zest.library.http.Servlets.addServlets;
+import static org.apache.zest.library.http.Servlets.filter;
+import static org.apache.zest.library.http.Servlets.serve;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class UnitOfWorkQueueJettyServiceTest
+    extends AbstractJettyTest
+{
+    private static final Semaphore STARTED = new Semaphore( 0 );
+    private static final CountDownLatch RELEASE = new CountDownLatch( 1 );
+    private static volatile UnitOfWorkAdmission admission;
+
+    @Override
+    public final void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ModuleAssembly configModule = module;
+        new EntityTestAssembler().assemble( configModule );
+        new JettyServiceAssembler().withConfig( configModule, Visibility.layer ).assemble( module );
+
+        JettyConfiguration config = configModule.forMixin( JettyConfiguration.class ).declareDefaults();
+        config.hostName().set( "127.0.0.1" );
+        config.port().set( HTTP_PORT );
+        config.maxConcurrentUnitOfWorks().set( 1 );
+        config.unitOfWorkQueueSize().set( 1 );
+
+        addServlets( serve( "/blocking" ).with( BlockingServletService.class ) ).to( module );
+        addFilters( filter( "/*" ).through( UnitOfWorkFilterService.class ).on( REQUEST ) ).to( module );
+    }
+
+    @Test
+    public void givenLimitReachedAndFullQueueWhenRequestThenServiceUnavailable()
+        throws Exception
+    {
+        ExecutorService clients = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            Callable<String> get = () -> defaultHttpClient.execute( new HttpGet( "http://127.0.0.1:8041/blocking" ),
+                                                                    stringResponseHandler );
+            // First request runs the only admitted UnitOfWork
+            Future<String> running = clients.submit( get );
+            assertTrue( STARTED.tryAcquire( 10, TimeUnit.SECONDS ) );
+
+            // Second request is suspended and fills the queue
+            Future<String> queued = clients.submit( get );
+            long deadline = System.currentTimeMillis() + 10000;
+            while( admission.waiting() < 1 && System.currentTimeMillis() < deadline )
+            {
+                Thread.sleep( 10 );
+            }
+            assertThat( admission.waiting(), equalTo( 1 ) );
+
+            // Third request is rejected
+            try( CloseableHttpClient client = HttpClients.createDefault();
+                 CloseableHttpResponse response = client.execute( new HttpGet( "http://127.0.0.1:8041/blocking" ) ) )
+            {
+                EntityUtils.consume( response.getEntity() );
+                assertThat( response.getStatusLine().getStatusCode(),
+                            equalTo( HttpServletResponse.SC_SERVICE_UNAVAILABLE ) );
+            }
+
+            RELEASE.countDown();
+            assertThat( running.get( 10, TimeUnit.SECONDS ), equalTo( "released" ) );
+            assertThat( queued.get( 10, TimeUnit.SECONDS ), equalTo( "released" ) );
+        }
+        finally
+        {
+            RELEASE.countDown();
+            clients.shutdown();
+        }
+    }
+
+    @Mixins( BlockingServlet.class )
+    public interface BlockingServletService
+        extends Servlet, ServiceComposite
+    {
+    }
+
+    public static class BlockingServlet
+        extends HttpServlet
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected final void doGet( HttpServletRequest req, HttpServletResponse resp )
+            throws IOException
+        {
+            admission = (UnitOfWorkAdmission) getServletContext().getAttribute( UnitOfWorkFilter.ADMISSION_ATTRIBUTE );
+            STARTED.release();
+            try
+            {
+                RELEASE.await( 10, TimeUnit.SECONDS );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            resp.getWriter().append( "released" );
+        }
+    }
+}
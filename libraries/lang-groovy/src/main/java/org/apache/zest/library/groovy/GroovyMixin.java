@@ -22,22 +22,30 @@ package org.apache.zest.library.groovy;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyObject;
-import groovy.lang.GroovyShell;
 import groovy.lang.MissingPropertyException;
+import groovy.lang.Script;
 import java.io.File;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
 import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.mixin.Initializable;
+import org.apache.zest.api.structure.Application;
 import org.apache.zest.io.Inputs;
 import org.apache.zest.io.Outputs;
+import org.apache.zest.library.scripting.ScriptCache;
+import org.apache.zest.library.scripting.ScriptException;
+import org.apache.zest.library.scripting.ScriptReloadable;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 /**
  * Generic mixin that implements interfaces by delegating to Groovy functions
@@ -51,16 +59,28 @@ import org.apache.zest.io.Outputs;
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.groovy
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.sayAgain.groovy
  * </code></pre>
- *
+ * <p>
+ * Groovy sources are compiled once per interface and method, and shared by all composites of the Application.
+ * Scripts are instantiated with a fresh binding on each call. Call {@link ScriptReloadable#reloadScripts()} to pick
+ * up changed sources; this recompiles the sources of the calling composite's Application only.
+ * </p>
  */
 @AppliesTo( GroovyMixin.AppliesTo.class )
 public class GroovyMixin
-    implements InvocationHandler
+    implements InvocationHandler, ScriptReloadable, Initializable
 {
+    private static final String FUNCTION_RESOURCES = GroovyMixin.class.getName() + ".resources";
+    private static final String SCRIPT_CLASSES = GroovyMixin.class.getName() + ".scripts";
+    private static final String OBJECT_CLASSES = GroovyMixin.class.getName() + ".objects";
 
     @This
     private Composite me;
 
+    @Structure
+    private Application application;
+
+    private ScriptCache scripts;
+
     private final Map<Class, GroovyObject> groovyObjects;
 
     public static class AppliesTo
@@ -69,14 +89,19 @@ public class GroovyMixin
         @Override
         public boolean appliesTo( Method method, Class compositeType, Class mixin, Class modelClass )
         {
-            return getFunctionResource( method ) != null;
+            return findFunctionResource( method ) != null;
         }
     }
 
     public GroovyMixin()
     {
+        groovyObjects = new ConcurrentHashMap<>();
+    }
 
-        groovyObjects = new HashMap<Class, GroovyObject>();
+    @Override
+    public void initialize()
+    {
+        scripts = ScriptCache.of( application );
     }
 
     @Override
@@ -95,6 +120,15 @@ public class GroovyMixin
         throw new RuntimeException( "Internal error: Mixin invoked even if it does not apply" );
     }
 
+    @Override
+    public void reloadScripts()
+    {
+        scripts.clear( FUNCTION_RESOURCES );
+        scripts.clear( SCRIPT_CLASSES );
+        scripts.clear( OBJECT_CLASSES );
+        groovyObjects.clear();
+    }
+
     private Object invokeAsObject( Method method, Object[] args, URL groovySource )
         throws Throwable
     {
@@ -104,29 +138,19 @@ public class GroovyMixin
             GroovyObject groovyObject = groovyObjects.get( declaringClass );
             if( groovyObject == null )
             {
-                InputStream is = null;
-                final Class groovyClass;
-                try
-                {
-                    is = groovySource.openStream();
-                    StringBuilder sourceBuilder = new StringBuilder();
-                    Inputs.text( groovySource ).transferTo( Outputs.text( sourceBuilder ) );
-                    GroovyClassLoader groovyClassLoader = new GroovyClassLoader( declaringClass.getClassLoader() );
-                    groovyClass = groovyClassLoader.parseClass( sourceBuilder.toString() );
-                }
-                finally
-                {
-                    if( is != null )
-                    {
-                        is.close();
-                    }
-                }
+                ConcurrentMap<Class<?>, Class<?>> objectClasses = scripts.entries( OBJECT_CLASSES );
+                Class groovyClass = objectClasses.computeIfAbsent(
+                    declaringClass, type -> parseClass( type, groovySource ) );
                 groovyObject = (GroovyObject) groovyClass.newInstance();
                 if( hasProperty( groovyObject, "This" ) )
                 {
                     groovyObject.setProperty( "This", me );
                 }
-                groovyObjects.put( declaringClass, groovyObject );
+                GroovyObject existing = groovyObjects.putIfAbsent( declaringClass, groovyObject );
+                if( existing != null )
+                {
+                    groovyObject = existing;
+                }
             }
             return groovyObject.invokeMethod( method.getName(), args );
         }
@@ -155,23 +179,14 @@ public class GroovyMixin
     {
         try
         {
+            ConcurrentMap<Method, Class<?>> scriptClasses = scripts.entries( SCRIPT_CLASSES );
+            Class<?> scriptClass = scriptClasses.computeIfAbsent(
+                method, key -> parseClass( key.getDeclaringClass(), groovySource ) );
             Binding binding = new Binding();
             binding.setVariable( "This", me );
             binding.setVariable( "args", args );
-            GroovyShell shell = new GroovyShell( binding );
-            InputStream is = null;
-            try
-            {
-                is = groovySource.openStream();
-                return shell.evaluate( new InputStreamReader( is ) );
-            }
-            finally
-            {
-                if( is != null )
-                {
-                    is.close();
-                }
-            }
+            Script script = InvokerHelper.createScript( scriptClass, binding );
+            return script.run();
         }
         catch( Exception e )
         {
@@ -180,7 +195,31 @@ public class GroovyMixin
         }
     }
 
-    private static FunctionResource getFunctionResource( final Method method )
+    private static Class<?> parseClass( Class<?> declaringClass, URL groovySource )
+    {
+        try
+        {
+            StringBuilder sourceBuilder = new StringBuilder();
+            Inputs.text( groovySource ).transferTo( Outputs.text( sourceBuilder ) );
+            GroovyClassLoader groovyClassLoader = new GroovyClassLoader( declaringClass.getClassLoader() );
+            String path = groovySource.getPath();
+            return groovyClassLoader.parseClass( sourceBuilder.toString(), path.substring( path.lastIndexOf( '/' ) + 1 ) );
+        }
+        catch( IOException e )
+        {
+            throw new ScriptException( "Could not read " + groovySource, e );
+        }
+    }
+
+    private FunctionResource getFunctionResource( final Method method )
+    {
+        ConcurrentMap<Method, Optional<FunctionResource>> resources =
+            scripts.entries( FUNCTION_RESOURCES );
+        return resources.computeIfAbsent( method, key -> Optional.ofNullable( findFunctionResource( key ) ) )
+            .orElse( null );
+    }
+
+    private static FunctionResource findFunctionResource( final Method method )
     {
         boolean script = false;
         final String scriptPath = method.getDeclaringClass().getName().replace( '.', File.separatorChar );
@@ -41,6 +41,16 @@ public class HelloSpeakerTest extends AbstractZestTest
         Assert.assertEquals( "Hello World!", speaker.sayHello( "World" ) );
     }
 
+    @Test
+    public void givenCompiledScriptWhenInvokedAgainThenUsesNewArguments()
+    {
+        HelloSpeaker speaker1 = transientBuilderFactory.newTransient( HelloSpeaker.class );
+        HelloSpeaker speaker2 = transientBuilderFactory.newTransient( HelloSpeaker.class );
+        Assert.assertEquals( "Hello World!", speaker1.sayHello( "World" ) );
+        Assert.assertEquals( "Hello Zest!", speaker1.sayHello( "Zest" ) );
+        Assert.assertEquals( "Hello Groovy!", speaker2.sayHello( "Groovy" ) );
+    }
+
     @Test
     public void testGroovyScriptResourceMixin()
         throws Exception
@@ -23,8 +23,12 @@ import java.io.*;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.mozilla.javascript.*;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
@@ -32,6 +36,9 @@ import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.composite.TransientBuilderFactory;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.mixin.Initializable;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.library.scripting.ScriptCache;
 import org.apache.zest.library.scripting.ScriptException;
 import org.apache.zest.library.scripting.ScriptReloadable;
 
@@ -46,35 +53,59 @@ import org.apache.zest.library.scripting.ScriptReloadable;
  * <pre><code>
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.say.js
  * </code></pre>
+ * <p>
+ * Scripts are compiled once per interface and shared by all composites of the Application. Their functions are
+ * declared once per mixin, in a scope where {@code This} and {@code compositeBuilderFactory} are defined and where
+ * globals assigned by the functions are kept from one call to the next. The standard objects are shared, and their
+ * prototypes may be extended by the scripts. The composite is available to the functions as {@code this}, together
+ * with {@code this.This} and {@code this.compositeBuilderFactory}. Call {@link ScriptReloadable#reloadScripts()} to
+ * pick up changed sources; this recompiles the scripts of the calling composite's Application only.
+ * </p>
  */
 @AppliesTo( JavaScriptMixin.AppliesTo.class )
 public class JavaScriptMixin
-    implements InvocationHandler, ScriptReloadable
+    implements InvocationHandler, ScriptReloadable, Initializable
 {
-    @This private Composite me;
+    private static final String COMPILED_SCRIPTS = JavaScriptMixin.class.getName() + ".scripts";
 
-    static private Scriptable standardScope;
+    @This private Composite me;
 
-    private HashMap<String, Function> cachedScripts;
+    static private ScriptableObject standardScope;
 
     @Structure private TransientBuilderFactory factory;
+    @Structure private Application application;
+    private ScriptCache scripts;
     private Scriptable instanceScope;
-    
+    private volatile Scriptable proxyScope;
+    private final Map<Class<?>, Scriptable> interfaceScopes = new ConcurrentHashMap<>();
+    private final Map<Method, Function> functions = new ConcurrentHashMap<>();
+
     static
     {
         Context cx = Context.enter();
-        standardScope = cx.initStandardObjects();
+        // Only the global object is sealed, so that scripts may still extend the prototypes of the standard objects
+        standardScope = cx.initStandardObjects( null, false );
+        standardScope.sealObject();
         Context.exit();
     }
 
-    public JavaScriptMixin()
+    @Override
+    public void initialize()
     {
-        cachedScripts = new HashMap<String, Function>();
+        scripts = ScriptCache.of( application );
         Context cx = Context.enter();
-        instanceScope = cx.newObject( standardScope );
-        instanceScope.setPrototype( standardScope );
-        Context.exit();
-
+        try
+        {
+            instanceScope = cx.newObject( standardScope );
+            instanceScope.setPrototype( standardScope );
+            instanceScope.setParentScope( null );
+            instanceScope.put( "compositeBuilderFactory", instanceScope, factory );
+            instanceScope.put( "This", instanceScope, me );
+        }
+        finally
+        {
+            Context.exit();
+        }
     }
 
     @Override
@@ -83,11 +114,8 @@ public class JavaScriptMixin
         Context cx = Context.enter();
         try
         {
-            Scriptable proxyScope = Context.toObject( proxy, instanceScope );
-            proxyScope.setPrototype( instanceScope );
-            proxyScope.put( "compositeBuilderFactory", proxyScope, factory );
-            proxyScope.put( "This", proxyScope, me );
-            Function fn = getFunction( cx, proxyScope, method );
+            Scriptable proxyScope = getProxyScope( proxy );
+            Function fn = functions.computeIfAbsent( method, key -> getFunction( cx, key ) );
             Object result = fn.call( cx, instanceScope, proxyScope, args );
 
             if( result instanceof Undefined )
@@ -112,52 +140,89 @@ public class JavaScriptMixin
     @Override
     public void reloadScripts()
     {
-        cachedScripts.clear();
+        scripts.clear( COMPILED_SCRIPTS );
+        interfaceScopes.clear();
+        functions.clear();
     }
 
-    private Function getFunction( Context cx, Scriptable scope, Method method )
-        throws IOException
+    private Scriptable getProxyScope( Object proxy )
     {
-        Class<?> declaringClass = method.getDeclaringClass();
-        String classname = declaringClass.getName();
-        String methodName = method.getName();
-        String requestedFunctionName = classname + ":" + methodName;
+        Scriptable scope = proxyScope;
+        if( scope == null )
+        {
+            scope = Context.toObject( proxy, instanceScope );
+            scope.setPrototype( instanceScope );
+            proxyScope = scope;
+        }
+        return scope;
+    }
 
-        Function fx = cachedScripts.get( requestedFunctionName );
-        if( fx != null )
+    private Function getFunction( Context cx, Method method )
+    {
+        Scriptable scope = interfaceScopes.computeIfAbsent(
+            method.getDeclaringClass(), type -> declareFunctions( cx, method ) );
+        Object fn = scope.get( method.getName(), scope );
+        if( !( fn instanceof Function ) )
         {
-            return fx;
+            throw new ScriptException( "No function found for method " + method.getName()
+                                       + " in script " + getScriptName( method ) );
         }
-        compileScripts( cx, scope, method );
-        fx = cachedScripts.get( requestedFunctionName );
-        return fx;
+        return (Function) fn;
     }
 
-    private void compileScripts( Context cx, Scriptable scope, Method method )
-        throws IOException
+    /**
+     * Declares the functions of the interface of the given method in this mixin.
+     * <p>
+     * Each interface gets its own scope, so that functions of different interfaces may share a name. Its parent is
+     * the scope of this mixin, where free variables are resolved and globals are assigned.
+     * </p>
+     */
+    private Scriptable declareFunctions( Context cx, Method method )
+    {
+        ConcurrentMap<Class<?>, Map<String, Script>> compiledScripts = scripts.entries( COMPILED_SCRIPTS );
+        Map<String, Script> compiled = compiledScripts.computeIfAbsent(
+            method.getDeclaringClass(), type -> compileScripts( cx, method ) );
+        Scriptable interfaceScope = cx.newObject( instanceScope );
+        interfaceScope.setParentScope( instanceScope );
+        for( Script script : compiled.values() )
+        {
+            // Executing a compiled declaration only creates the function object, bound to the interface scope
+            script.exec( cx, interfaceScope );
+        }
+        return interfaceScope;
+    }
+
+    private Map<String, Script> compileScripts( Context cx, Method method )
     {
         URL scriptUrl = getFunctionResource( method );
         if( scriptUrl == null )
         {
-            throw new IOException( "No script found for method " + method.getName() );
+            throw new ScriptException( "No script found for method " + method.getName() );
         }
 
-        InputStream in = scriptUrl.openStream();
-        BufferedReader scriptReader = new BufferedReader( new InputStreamReader( in ) );
-        int lineNo = 1;
-        String classname = method.getDeclaringClass().getName();
-        while( true )
+        Map<String, Script> scripts = new HashMap<>();
+        try( InputStream in = scriptUrl.openStream() )
         {
-            ScriptFragment fragment = extractFunction( scriptReader );
-            if( "".equals( fragment.script.trim() ) )
+            BufferedReader scriptReader = new BufferedReader( new InputStreamReader( in ) );
+            int lineNo = 1;
+            while( true )
             {
-                break;
+                ScriptFragment fragment = extractFunction( scriptReader );
+                if( "".equals( fragment.script.trim() ) )
+                {
+                    break;
+                }
+                String functionName = parseFunctionName( fragment.script, scriptUrl.toString() );
+                Script script = cx.compileString( fragment.script, "<" + scriptUrl.toString() + ">", lineNo, null );
+                scripts.put( functionName, script );
+                lineNo = lineNo + fragment.numberOfLines;
             }
-            String functionName = parseFunctionName( fragment.script, scriptUrl.toString() );
-            Function function = cx.compileFunction( scope, fragment.script, "<" + scriptUrl.toString() + ">", lineNo, null );
-            cachedScripts.put( classname + ":" + functionName, function );
-            lineNo = lineNo + fragment.numberOfLines;
         }
+        catch( IOException e )
+        {
+            throw new ScriptException( "Could not read script " + scriptUrl, e );
+        }
+        return Collections.unmodifiableMap( scripts );
     }
 
     /**
@@ -22,4 +22,14 @@ package org.apache.zest.library.javascript;
 public interface DomainType
 {
     String do1();
+
+    String do2();
+
+    String do3();
+
+    String do4();
+
+    String do5();
+
+    String do6( DomainType other );
 }
\ No newline at end of file
@@ -40,4 +40,38 @@ public class JavaScriptMixinTest
         DomainType domain = transientBuilderFactory.newTransient( DomainType.class );
         Assert.assertEquals( "do1 script \" and ' for many cases is harder.", domain.do1() );
     }
+
+    @Test
+    public void testGlobalsAreKeptAcrossCallsOfOneComposite() throws Throwable
+    {
+        DomainType first = transientBuilderFactory.newTransient( DomainType.class );
+        DomainType second = transientBuilderFactory.newTransient( DomainType.class );
+        Assert.assertEquals( "}1", first.do3() );
+        Assert.assertEquals( "}2", first.do3() );
+        Assert.assertEquals( "}1", second.do3() );
+    }
+
+    @Test
+    public void testNestedCallsAreScopedToTheirComposite() throws Throwable
+    {
+        DomainType first = transientBuilderFactory.newTransient( DomainType.class );
+        DomainType second = transientBuilderFactory.newTransient( DomainType.class );
+        Assert.assertEquals( "}1,}1", first.do6( second ) );
+        Assert.assertEquals( "}2", first.do3() );
+        Assert.assertEquals( "}2", second.do3() );
+    }
+
+    @Test
+    public void testCompositeBuilderFactoryIsAvailable() throws Throwable
+    {
+        DomainType domain = transientBuilderFactory.newTransient( DomainType.class );
+        Assert.assertEquals( "factory", domain.do4() );
+    }
+
+    @Test
+    public void testStandardPrototypesCanBeExtended() throws Throwable
+    {
+        DomainType domain = transientBuilderFactory.newTransient( DomainType.class );
+        Assert.assertEquals( "HELLO!", domain.do5() );
+    }
 }
\ No newline at end of file
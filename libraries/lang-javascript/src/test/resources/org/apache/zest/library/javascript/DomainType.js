@@ -30,4 +30,29 @@ function /* not even here*/ do1()
 function do2()
 {
     return "}";
-}
\ No newline at end of file
+}
+
+function do3()
+{
+    // Free variable and global assignment, both resolved in the scope of this mixin
+    calls = ( typeof calls == "undefined" ) ? 1 : calls + 1;
+    return [ This.do2(), calls ].join( "" );
+}
+
+function do4()
+{
+    return compositeBuilderFactory == null ? "none" : "factory";
+}
+
+function do5()
+{
+    // Prototypes of the standard objects may be extended
+    String.prototype.shout = function() { return this.toUpperCase() + "!"; };
+    return "hello".shout();
+}
+
+function do6( other )
+{
+    // Calling into another composite keeps each one in its own scope
+    return [ other.do3(), do3() ].join( "," );
+}
@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.logging.batch;
+
+/**
+ * BatchOptions is a metaInfo class that turns on asynchronous, batched persistence of records.
+ * <p>
+ * Assign it to the declaration of a LoggingService or TraceService. Records are then put in a bounded buffer and
+ * persisted by a background writer, {@link #batchSize()} records per UnitOfWork. Without it, each record is persisted
+ * in its own UnitOfWork by the calling thread.
+ * </p>
+ */
+public final class BatchOptions
+{
+    /**
+     * What to do with a record when the buffer is full.
+     */
+    public enum Overflow
+    {
+        /**
+         * Drop the record and count it as dropped.
+         */
+        DROP,
+        /**
+         * Block the calling thread until the writer has made room in the buffer.
+         */
+        BLOCK
+    }
+
+    private final int capacity;
+    private final int batchSize;
+    private final Overflow overflow;
+
+    /**
+     * Constructor for BatchOptions.
+     *
+     * @param capacity  the maximum number of records waiting to be persisted, rounded up to a power of two.
+     * @param batchSize the maximum number of records persisted in a single UnitOfWork.
+     * @param overflow  what to do with records when the buffer is full.
+     */
+    public BatchOptions( int capacity, int batchSize, Overflow overflow )
+    {
+        if( capacity < 1 || batchSize < 1 )
+        {
+            throw new IllegalArgumentException( "Capacity and batch size must be positive" );
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflow = overflow;
+    }
+
+    /**
+     * @return the maximum number of records waiting to be persisted
+     */
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return the maximum number of records persisted in a single UnitOfWork
+     */
+    public int batchSize()
+    {
+        return batchSize;
+    }
+
+    /**
+     * @return what to do with records when the buffer is full
+     */
+    public Overflow overflow()
+    {
+        return overflow;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.logging.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.api.usecase.Usecase;
+import org.apache.zest.api.usecase.UsecaseBuilder;
+
+/**
+ * Persists records in batches from a background thread.
+ * <p>
+ * A record is a function creating the entities of one Log or Trace record in a given UnitOfWork. The state of a record
+ * must be captured by the calling thread, as it is persisted later on by the writer thread.
+ * </p>
+ */
+public final class BatchedRecordWriter
+    implements RecordWriterStatistics
+{
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 10 );
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 100 );
+
+    private final String name;
+    private final UnitOfWorkFactory uowf;
+    private final BatchOptions options;
+    private final Usecase usecase;
+    private final RecordBuffer<Consumer<UnitOfWork>> buffer;
+    private final AtomicLong writtenRecords = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile Thread writer;
+
+    public BatchedRecordWriter( String name, UnitOfWorkFactory uowf, BatchOptions options )
+    {
+        this.name = name;
+        this.uowf = uowf;
+        this.options = options;
+        this.usecase = UsecaseBuilder.newUsecase( "Write " + name + " records" );
+        this.buffer = new RecordBuffer<>( options.capacity() );
+    }
+
+    public void start()
+    {
+        running = true;
+        Thread thread = new Thread( this::writeLoop, name + " record writer" );
+        thread.setDaemon( true );
+        writer = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the writer thread and persist the records still in the buffer.
+     */
+    public void stop()
+        throws InterruptedException
+    {
+        running = false;
+        Thread thread = writer;
+        if( thread != null )
+        {
+            LockSupport.unpark( thread );
+            thread.join();
+            writer = null;
+        }
+        drain();
+    }
+
+    /**
+     * Queue a record for persistence.
+     * <p>
+     * If the writer is not running the record is persisted immediately by the calling thread.
+     * </p>
+     *
+     * @param record function creating the record entities in the given UnitOfWork
+     *
+     * @return false if the record was dropped because the buffer was full
+     */
+    public boolean write( Consumer<UnitOfWork> record )
+    {
+        if( !running )
+        {
+            persist( Collections.singletonList( record ) );
+            return true;
+        }
+        while( !buffer.offer( record ) )
+        {
+            if( options.overflow() == BatchOptions.Overflow.DROP || !running )
+            {
+                droppedRecords.incrementAndGet();
+                return false;
+            }
+            wakeUpWriter();
+            LockSupport.parkNanos( FULL_PARK_NANOS );
+        }
+        if( idle )
+        {
+            wakeUpWriter();
+        }
+        return true;
+    }
+
+    @Override
+    public long writtenRecords()
+    {
+        return writtenRecords.get();
+    }
+
+    @Override
+    public long droppedRecords()
+    {
+        return droppedRecords.get();
+    }
+
+    @Override
+    public long failedRecords()
+    {
+        return failedRecords.get();
+    }
+
+    private void wakeUpWriter()
+    {
+        Thread thread = writer;
+        if( thread != null )
+        {
+            LockSupport.unpark( thread );
+        }
+    }
+
+    private void writeLoop()
+    {
+        while( running )
+        {
+            if( !drain() )
+            {
+                idle = true;
+                if( buffer.isEmpty() && running )
+                {
+                    // Bounded, so that a wake up lost between the check and the park only delays the next batch
+                    LockSupport.parkNanos( this, IDLE_PARK_NANOS );
+                }
+                idle = false;
+            }
+        }
+    }
+
+    /**
+     * @return true if any record was persisted
+     */
+    private boolean drain()
+    {
+        boolean drained = false;
+        List<Consumer<UnitOfWork>> batch = new ArrayList<>( Math.min( options.batchSize(), buffer.capacity() ) );
+        Consumer<UnitOfWork> record;
+        while( ( record = buffer.poll() ) != null )
+        {
+            batch.add( record );
+            if( batch.size() == options.batchSize() )
+            {
+                persist( batch );
+                batch.clear();
+            }
+            drained = true;
+        }
+        if( !batch.isEmpty() )
+        {
+            persist( batch );
+        }
+        return drained;
+    }
+
+    private void persist( List<Consumer<UnitOfWork>> batch )
+    {
+        UnitOfWork uow = uowf.newUnitOfWork( usecase );
+        int created = 0;
+        try
+        {
+            for( Consumer<UnitOfWork> record : batch )
+            {
+                try
+                {
+                    record.accept( uow );
+                    created++;
+                }
+                catch( RuntimeException e )
+                {
+                    // e.g. the source entity of the record is gone, skip that record only
+                    failedRecords.incrementAndGet();
+                }
+            }
+            uow.complete();
+            writtenRecords.addAndGet( created );
+        }
+        catch( RuntimeException e )
+        {
+            failedRecords.addAndGet( created );
+            uow.discard();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.logging.batch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer, safe for any number of producers and consumers.
+ * <p>
+ * Each slot carries a sequence number telling whether it is free for the producer of a given position, or holds the
+ * element for the consumer of that position. Producers and consumers claim positions with a single CAS.
+ * </p>
+ *
+ * @param <T> type of the buffered elements
+ */
+final class RecordBuffer<T>
+{
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    RecordBuffer( int capacity )
+    {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit( capacity - 1 ) << 1;
+        elements = new AtomicReferenceArray<>( size );
+        sequences = new AtomicLongArray( size );
+        for( int idx = 0; idx < size; idx++ )
+        {
+            sequences.set( idx, idx );
+        }
+        mask = size - 1;
+    }
+
+    int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * @param element element to add
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer( T element )
+    {
+        long position = tail.get();
+        while( true )
+        {
+            int idx = (int) ( position & mask );
+            long difference = sequences.get( idx ) - position;
+            if( difference == 0 )
+            {
+                if( tail.compareAndSet( position, position + 1 ) )
+                {
+                    elements.set( idx, element );
+                    sequences.set( idx, position + 1 );
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if( difference < 0 )
+            {
+                return false;
+            }
+            else
+            {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the buffer is empty
+     */
+    T poll()
+    {
+        long position = head.get();
+        while( true )
+        {
+            int idx = (int) ( position & mask );
+            long difference = sequences.get( idx ) - ( position + 1 );
+            if( difference == 0 )
+            {
+                if( head.compareAndSet( position, position + 1 ) )
+                {
+                    T element = elements.get( idx );
+                    elements.set( idx, null );
+                    sequences.set( idx, position + mask + 1 );
+                    return element;
+                }
+                position = head.get();
+            }
+            else if( difference < 0 )
+            {
+                return null;
+            }
+            else
+            {
+                position = head.get();
+            }
+        }
+    }
+
+    boolean isEmpty()
+    {
+        return head.get() >= tail.get();
+    }
+}
@@ -23,16 +23,37 @@ package org.apache.zest.library.logging.log.assemblies;
 import org.apache.zest.bootstrap.Assembler;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.ServiceDeclaration;
+import org.apache.zest.library.logging.batch.BatchOptions;
 import org.apache.zest.library.logging.log.service.LoggingServiceComposite;
 
 public class LoggingAssembler
     implements Assembler
 {
+    private final BatchOptions batchOptions;
+
+    public LoggingAssembler()
+    {
+        this( null );
+    }
+
+    /**
+     * @param batchOptions if not null, records are persisted asynchronously in batches
+     */
+    public LoggingAssembler( BatchOptions batchOptions )
+    {
+        this.batchOptions = batchOptions;
+    }
+
     @Override
     public void assemble( ModuleAssembly module )
         throws AssemblyException
     {
-        module.services( LoggingServiceComposite.class );
+        ServiceDeclaration service = module.services( LoggingServiceComposite.class );
+        if( batchOptions != null )
+        {
+            service.setMetaInfo( batchOptions );
+        }
     }
 
 }
\ No newline at end of file
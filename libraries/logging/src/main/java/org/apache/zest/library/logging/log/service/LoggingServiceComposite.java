@@ -21,11 +21,14 @@
 package org.apache.zest.library.logging.log.service;
 
 import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceActivation;
 import org.apache.zest.api.service.ServiceComposite;
 import org.apache.zest.api.sideeffect.SideEffects;
+import org.apache.zest.library.logging.batch.RecordWriterStatistics;
 
 @SideEffects( { LogOnConsoleSideEffect.class } )
 @Mixins( { LoggingServiceMixin.class } )
-public interface LoggingServiceComposite extends LoggingService, ServiceComposite
+public interface LoggingServiceComposite
+    extends LoggingService, RecordWriterStatistics, ServiceComposite, ServiceActivation
 {
 }
@@ -24,16 +24,23 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.entity.EntityBuilder;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.service.ServiceActivation;
 import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.unitofwork.ConcurrentEntityModificationException;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.library.logging.batch.BatchOptions;
+import org.apache.zest.library.logging.batch.BatchedRecordWriter;
+import org.apache.zest.library.logging.batch.RecordWriterStatistics;
 import org.apache.zest.library.logging.log.LogType;
 import org.apache.zest.library.logging.log.records.CompositeLogRecord;
 import org.apache.zest.library.logging.log.records.EntityLogRecord;
@@ -42,78 +49,98 @@ import org.apache.zest.library.logging.log.records.ServiceLogRecord;
 
 
 public abstract class LoggingServiceMixin
-    implements LoggingService
+    implements LoggingService, ServiceActivation, RecordWriterStatistics
 {
     @Structure private UnitOfWorkFactory uowf;
+    @Uses private ServiceDescriptor descriptor;
+    private volatile BatchedRecordWriter writer;
 
-    public void log( LogType type, Composite composite, String category, String message )
+    @Override
+    public void activateService()
+        throws Exception
     {
-        UnitOfWork uow = uowf.newUnitOfWork();
-        try
-        {
-            List<Serializable> paramsList = new ArrayList<Serializable>();
-            createLogRecord( uow, type, composite, category, message, paramsList );
-            uow.complete();
-        }
-        catch( ConcurrentEntityModificationException e )
+        BatchOptions batchOptions = descriptor.metaInfo( BatchOptions.class );
+        if( batchOptions != null )
         {
-            // ignore for now. Perhaps discard() and try again.
+            writer = new BatchedRecordWriter( "Logging", uowf, batchOptions );
+            writer.start();
         }
-        catch( UnitOfWorkCompletionException e )
+    }
+
+    @Override
+    public void passivateService()
+        throws Exception
+    {
+        if( writer != null )
         {
-            // ignore for now. Perhaps discard() and try again.
+            writer.stop();
+            writer = null;
         }
     }
 
+    public void log( LogType type, Composite composite, String category, String message )
+    {
+        record( type, composite, category, message, new ArrayList<Serializable>() );
+    }
+
     public void log( LogType type, Composite composite, String category, String message, Serializable param1 )
     {
-        UnitOfWork uow = uowf.newUnitOfWork();
-        try
-        {
-            List<Serializable> paramsList = new ArrayList<Serializable>();
-            paramsList.add( param1 );
-            createLogRecord( uow, type, composite, category, message, paramsList );
-            uow.complete();
-        }
-        catch( ConcurrentEntityModificationException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
-        catch( UnitOfWorkCompletionException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
+        List<Serializable> paramsList = new ArrayList<Serializable>();
+        paramsList.add( param1 );
+        record( type, composite, category, message, paramsList );
     }
 
     public void log( LogType type, Composite composite, String category, String message, Serializable param1, Serializable param2 )
     {
-        UnitOfWork uow = uowf.newUnitOfWork();
-        try
-        {
-            List<Serializable> paramsList = new ArrayList<Serializable>();
-            paramsList.add( param1 );
-            paramsList.add( param2 );
-            createLogRecord( uow, type, composite, category, message, paramsList );
-            uow.complete();
-        }
-        catch( ConcurrentEntityModificationException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
-        catch( UnitOfWorkCompletionException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
+        List<Serializable> paramsList = new ArrayList<Serializable>();
+        paramsList.add( param1 );
+        paramsList.add( param2 );
+        record( type, composite, category, message, paramsList );
     }
 
     @Override
     public void log( LogType type, Composite composite, String category, String message, Serializable... params )
     {
+        record( type, composite, category, message, new ArrayList<Serializable>( Arrays.asList( params ) ) );
+    }
+
+    @Override
+    public long writtenRecords()
+    {
+        return writer == null ? 0 : writer.writtenRecords();
+    }
+
+    @Override
+    public long droppedRecords()
+    {
+        return writer == null ? 0 : writer.droppedRecords();
+    }
+
+    @Override
+    public long failedRecords()
+    {
+        return writer == null ? 0 : writer.failedRecords();
+    }
+
+    private void record( LogType type, Composite composite, String category, String message, List<Serializable> params )
+    {
+        // Capture the state now, the record may be persisted later by another thread
+        long time = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+        Consumer<UnitOfWork> record = uow -> createLogRecord(
+            uow, type, composite, category, message, params, time, threadName );
+
+        BatchedRecordWriter batchedWriter = writer;
+        if( batchedWriter != null )
+        {
+            batchedWriter.write( record );
+            return;
+        }
+
         UnitOfWork uow = uowf.newUnitOfWork();
         try
         {
-            List<Serializable> paramsList = new ArrayList<Serializable>( Arrays.asList( params ) );
-            createLogRecord( uow, type, composite, category, message, paramsList );
+            record.accept( uow );
             uow.complete();
         }
         catch( ConcurrentEntityModificationException e )
@@ -126,13 +153,14 @@ public abstract class LoggingServiceMixin
         }
     }
 
-    private void createLogRecord( UnitOfWork uow, LogType type, Composite composite, String category, String message, List<Serializable> params )
+    private void createLogRecord( UnitOfWork uow, LogType type, Composite composite, String category, String message,
+                                  List<Serializable> params, long time, String threadName )
     {
         if( composite instanceof ServiceComposite )
         {
             EntityBuilder<ServiceLogRecord> builder = uow.newEntityBuilder( ServiceLogRecord.class );
             ServiceLogRecord state = builder.instance();
-            setStandardStuff( type, composite, category, message, state, params );
+            setStandardStuff( type, composite, category, message, state, params, time, threadName );
             state.source().set( ( (ServiceComposite) composite ).identity().get() );
             ServiceLogRecord slr = builder.newInstance();
         }
@@ -140,7 +168,7 @@ public abstract class LoggingServiceMixin
         {
             EntityBuilder<EntityLogRecord> builder = uow.newEntityBuilder( EntityLogRecord.class );
             EntityLogRecord state = builder.instance();
-            setStandardStuff( type, composite, category, message, state, params );
+            setStandardStuff( type, composite, category, message, state, params, time, threadName );
             state.source().set( (EntityComposite) composite );
             EntityLogRecord elr = builder.newInstance();
         }
@@ -148,21 +176,21 @@ public abstract class LoggingServiceMixin
         {
             EntityBuilder<CompositeLogRecord> builder = uow.newEntityBuilder( CompositeLogRecord.class );
             CompositeLogRecord state = builder.instance();
-            setStandardStuff( type, composite, category, message, state, params );
+            setStandardStuff( type, composite, category, message, state, params, time, threadName );
             state.source().set( composite );
             CompositeLogRecord clr = builder.newInstance();
         }
     }
 
     private void setStandardStuff( LogType type, Composite composite, String category, String message,
-                                   LogRecord state, List<Serializable> params )
+                                   LogRecord state, List<Serializable> params, long time, String threadName )
     {
         state.logtype().set( type );
-        state.time().set( System.currentTimeMillis() );
+        state.time().set( time );
         state.category().set( category );
         state.message().set( message );
         state.compositeTypeName().set( getCompositeName( composite ) );
-        state.threadName().set( Thread.currentThread().getName() );
+        state.threadName().set( threadName );
         state.parameters().set( params );
     }
 
@@ -24,17 +24,38 @@ import org.apache.zest.api.common.Visibility;
 import org.apache.zest.bootstrap.Assembler;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.ServiceDeclaration;
+import org.apache.zest.library.logging.batch.BatchOptions;
 import org.apache.zest.library.logging.trace.service.StandardTraceServiceComposite;
 import org.apache.zest.library.logging.trace.service.TraceServiceConfiguration;
 
 public class TracingAssembler
     implements Assembler
 {
+    private final BatchOptions batchOptions;
+
+    public TracingAssembler()
+    {
+        this( null );
+    }
+
+    /**
+     * @param batchOptions if not null, records are persisted asynchronously in batches
+     */
+    public TracingAssembler( BatchOptions batchOptions )
+    {
+        this.batchOptions = batchOptions;
+    }
+
     @Override
     public void assemble( ModuleAssembly module )
         throws AssemblyException
     {
-        module.services( StandardTraceServiceComposite.class ).visibleIn( Visibility.application );
+        ServiceDeclaration service = module.services( StandardTraceServiceComposite.class ).visibleIn( Visibility.application );
+        if( batchOptions != null )
+        {
+            service.setMetaInfo( batchOptions );
+        }
         module.entities( TraceServiceConfiguration.class );
     }
 }
@@ -21,12 +21,15 @@
 package org.apache.zest.library.logging.trace.service;
 
 import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceActivation;
 import org.apache.zest.api.service.ServiceComposite;
 import org.apache.zest.api.sideeffect.SideEffects;
+import org.apache.zest.library.logging.batch.RecordWriterStatistics;
 import org.apache.zest.library.logging.trace.TraceOnConsoleSideEffect;
 
 @SideEffects( TraceOnConsoleSideEffect.class )
 @Mixins( TraceServiceMixin.class )
-public interface StandardTraceServiceComposite extends TraceService, ServiceComposite
+public interface StandardTraceServiceComposite
+    extends TraceService, RecordWriterStatistics, ServiceComposite, ServiceActivation
 {
 }
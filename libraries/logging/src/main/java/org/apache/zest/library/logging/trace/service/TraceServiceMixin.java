@@ -23,6 +23,7 @@ package org.apache.zest.library.logging.trace.service;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.configuration.Configuration;
@@ -30,23 +31,32 @@ import org.apache.zest.api.entity.EntityBuilder;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.service.ServiceActivation;
 import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.unitofwork.ConcurrentEntityModificationException;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.library.logging.batch.BatchOptions;
+import org.apache.zest.library.logging.batch.BatchedRecordWriter;
+import org.apache.zest.library.logging.batch.RecordWriterStatistics;
 import org.apache.zest.library.logging.trace.records.CompositeTraceRecordEntity;
 import org.apache.zest.library.logging.trace.records.EntityTraceRecordEntity;
 import org.apache.zest.library.logging.trace.records.ServiceTraceRecordEntity;
 import org.apache.zest.library.logging.trace.records.TraceRecord;
 
 public class TraceServiceMixin
-    implements TraceService
+    implements TraceService, ServiceActivation, RecordWriterStatistics
 {
     @Structure
     private UnitOfWorkFactory uowf;
     @This
     private Configuration<TraceServiceConfiguration> configuration;
+    @Uses
+    private ServiceDescriptor descriptor;
+    private volatile BatchedRecordWriter writer;
     private int counter;
     private Integer traceLevel;
 
@@ -61,6 +71,29 @@ public class TraceServiceMixin
         return traceLevel;
     }
 
+    @Override
+    public void activateService()
+        throws Exception
+    {
+        BatchOptions batchOptions = descriptor.metaInfo( BatchOptions.class );
+        if( batchOptions != null )
+        {
+            writer = new BatchedRecordWriter( "Trace", uowf, batchOptions );
+            writer.start();
+        }
+    }
+
+    @Override
+    public void passivateService()
+        throws Exception
+    {
+        if( writer != null )
+        {
+            writer.stop();
+            writer = null;
+        }
+    }
+
     @Override
     public void traceSuccess( Class compositeType,
                               Composite object,
@@ -71,20 +104,7 @@ public class TraceServiceMixin
                               long durationNano
     )
     {
-        UnitOfWork uow = uowf.newUnitOfWork();
-        try
-        {
-            createTraceRecord( uow, compositeType, object, method, args, entryTime, durationNano, null );
-            uow.complete();
-        }
-        catch( ConcurrentEntityModificationException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
-        catch( UnitOfWorkCompletionException e )
-        {
-            // ignore for now. Perhaps discard() and try again.
-        }
+        trace( compositeType, object, method, args, entryTime, durationNano, null );
     }
 
     @Override
@@ -97,10 +117,53 @@ public class TraceServiceMixin
                                 long durationNano
     )
     {
+        trace( compositeType, object, method, args, entryTime, durationNano, t );
+    }
+
+    @Override
+    public long writtenRecords()
+    {
+        return writer == null ? 0 : writer.writtenRecords();
+    }
+
+    @Override
+    public long droppedRecords()
+    {
+        return writer == null ? 0 : writer.droppedRecords();
+    }
+
+    @Override
+    public long failedRecords()
+    {
+        return writer == null ? 0 : writer.failedRecords();
+    }
+
+    private void trace( Class compositeType,
+                        Composite object,
+                        Method method,
+                        Object[] args,
+                        long entryTime,
+                        long durationNano,
+                        Throwable exception
+    )
+    {
+        // Capture the state now, the record may be persisted later by another thread
+        List<String> arguments = convertArguments( args );
+        String threadName = Thread.currentThread().getName();
+        Consumer<UnitOfWork> record = uow -> createTraceRecord(
+            uow, compositeType, object, method, arguments, threadName, entryTime, durationNano, exception );
+
+        BatchedRecordWriter batchedWriter = writer;
+        if( batchedWriter != null )
+        {
+            batchedWriter.write( record );
+            return;
+        }
+
         UnitOfWork uow = uowf.newUnitOfWork();
         try
         {
-            createTraceRecord( uow, compositeType, object, method, args, entryTime, durationNano, t );
+            record.accept( uow );
             uow.complete();
         }
         catch( ConcurrentEntityModificationException e )
@@ -117,7 +180,8 @@ public class TraceServiceMixin
                                     Class compositeType,
                                     Composite object,
                                     Method method,
-                                    Object[] args,
+                                    List<String> args,
+                                    String threadName,
                                     long entryTime,
                                     long durationNano,
                                     Throwable exception
@@ -134,7 +198,7 @@ public class TraceServiceMixin
                     .orElse( null ), identity );
             EntityBuilder<EntityTraceRecordEntity> builder = uow.newEntityBuilder( EntityTraceRecordEntity.class );
             EntityTraceRecordEntity state = builder.instance();
-            setStandardStuff( compositeType, method, args, entryTime, durationNano, state, exception );
+            setStandardStuff( compositeType, method, args, threadName, entryTime, durationNano, state, exception );
             state.source().set( source );
             EntityTraceRecordEntity etr = builder.newInstance();  // Record is created.
         }
@@ -143,7 +207,7 @@ public class TraceServiceMixin
             ServiceComposite service = (ServiceComposite) object;
             EntityBuilder<ServiceTraceRecordEntity> builder = uow.newEntityBuilder( ServiceTraceRecordEntity.class );
             ServiceTraceRecordEntity state = builder.instance();
-            setStandardStuff( compositeType, method, args, entryTime, durationNano, state, exception );
+            setStandardStuff( compositeType, method, args, threadName, entryTime, durationNano, state, exception );
             state.source().set( service.toString() );
             ServiceTraceRecordEntity str = builder.newInstance();  // Record is created.
         }
@@ -152,14 +216,15 @@ public class TraceServiceMixin
             EntityBuilder<CompositeTraceRecordEntity> builder = uow.newEntityBuilder( CompositeTraceRecordEntity.class );
             CompositeTraceRecordEntity state = builder.instance();
             state.source().set( object );
-            setStandardStuff( compositeType, method, args, entryTime, durationNano, state, exception );
+            setStandardStuff( compositeType, method, args, threadName, entryTime, durationNano, state, exception );
             CompositeTraceRecordEntity ctr = builder.newInstance();  // Record is created.
         }
     }
 
     private void setStandardStuff( Class compositeType,
                                    Method method,
-                                   Object[] args,
+                                   List<String> args,
+                                   String threadName,
                                    long entryTime,
                                    long durationNano,
                                    TraceRecord state,
@@ -170,8 +235,8 @@ public class TraceServiceMixin
         state.entryTime().set( entryTime );
         state.methodName().set( method.getName() );
         state.compositeTypeName().set( compositeType.getName() );
-        state.arguments().set( convertArguments( args ) );
-        state.threadName().set( Thread.currentThread().getName() );
+        state.arguments().set( args );
+        state.threadName().set( threadName );
         state.exception().set( exception );
     }
 
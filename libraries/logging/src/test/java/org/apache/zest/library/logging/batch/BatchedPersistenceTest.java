@@ -0,0 +1,287 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.logging.batch;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.apache.zest.api.concern.ConcernOf;
+import org.apache.zest.api.concern.Concerns;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.library.logging.log.LogType;
+import org.apache.zest.library.logging.log.assemblies.LoggingAssembler;
+import org.apache.zest.library.logging.log.records.ServiceLogRecord;
+import org.apache.zest.library.logging.log.service.LoggingService;
+import org.apache.zest.library.logging.trace.TraceAllConcern;
+import org.apache.zest.library.logging.trace.assemblies.TracingAssembler;
+import org.apache.zest.library.logging.trace.records.ServiceTraceRecordEntity;
+import org.apache.zest.library.logging.trace.service.TraceService;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.apache.zest.spi.entitystore.EntityStoreSPI;
+import org.apache.zest.spi.uuid.UuidIdentityGeneratorService;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Runs the Trace and Logging services with BatchOptions against an entity store whose commits can be held back.
+ */
+public class BatchedPersistenceTest
+{
+    private static final List<Integer> BATCHES = new CopyOnWriteArrayList<>();
+    private static final Semaphore ENTERED = new Semaphore( 0 );
+    private static volatile CountDownLatch gate = new CountDownLatch( 0 );
+
+    private SingletonAssembler assembler;
+
+    @After
+    public void openGateAndPassivate()
+        throws Exception
+    {
+        gate.countDown();
+        if( assembler != null )
+        {
+            assembler.application().passivate();
+        }
+    }
+
+    @Test
+    public void givenBatchOptionsWhenTracingThenRecordsArePersistedInBatches()
+        throws Exception
+    {
+        Module module = newApplication( new BatchOptions( 64, 10, BatchOptions.Overflow.BLOCK ) );
+        Some some = module.findService( SomeService.class ).get();
+        RecordWriterStatistics statistics = (RecordWriterStatistics) module.findService( TraceService.class ).get();
+
+        holdWriterOnFirstRecord( some );
+        for( int i = 0; i < 25; i++ )
+        {
+            some.doSomething();
+        }
+        gate.countDown();
+        waitFor( statistics, 26 );
+
+        assertThat( statistics.writtenRecords(), equalTo( 26L ) );
+        assertThat( BATCHES, equalTo( asList( 1, 10, 10, 5 ) ) );
+    }
+
+    @Test
+    public void givenDropOverflowWhenBufferIsFullThenRecordsAreDropped()
+        throws Exception
+    {
+        Module module = newApplication( new BatchOptions( 4, 1, BatchOptions.Overflow.DROP ) );
+        Some some = module.findService( SomeService.class ).get();
+        RecordWriterStatistics statistics = (RecordWriterStatistics) module.findService( TraceService.class ).get();
+
+        holdWriterOnFirstRecord( some );
+        for( int i = 0; i < 7; i++ )
+        {
+            some.doSomething();
+        }
+        assertThat( statistics.droppedRecords(), equalTo( 3L ) );
+
+        gate.countDown();
+        waitFor( statistics, 5 );
+        assertThat( statistics.writtenRecords(), equalTo( 5L ) );
+        assertThat( statistics.droppedRecords(), equalTo( 3L ) );
+    }
+
+    @Test
+    public void givenBlockOverflowWhenBufferIsFullThenCallerWaitsForRoom()
+        throws Exception
+    {
+        Module module = newApplication( new BatchOptions( 4, 1, BatchOptions.Overflow.BLOCK ) );
+        Some some = module.findService( SomeService.class ).get();
+        RecordWriterStatistics statistics = (RecordWriterStatistics) module.findService( TraceService.class ).get();
+
+        holdWriterOnFirstRecord( some );
+        for( int i = 0; i < 4; i++ )
+        {
+            some.doSomething();
+        }
+        Thread caller = new Thread( some::doSomething );
+        caller.start();
+        caller.join( 200 );
+        assertThat( caller.isAlive(), equalTo( true ) );
+
+        gate.countDown();
+        caller.join( 10000 );
+        assertThat( caller.isAlive(), equalTo( false ) );
+        waitFor( statistics, 6 );
+        assertThat( statistics.writtenRecords(), equalTo( 6L ) );
+        assertThat( statistics.droppedRecords(), equalTo( 0L ) );
+    }
+
+    @Test
+    public void givenPendingLogRecordsWhenPassivatingThenRecordsAreFlushed()
+        throws Exception
+    {
+        Module module = newApplication( new BatchOptions( 64, 100, BatchOptions.Overflow.BLOCK ) );
+        LoggingService log = module.findService( LoggingService.class ).get();
+        UntracedService source = module.findService( UntracedService.class ).get();
+
+        gate = new CountDownLatch( 1 );
+        log.log( LogType.INFO, source, "test", "first" );
+        assertThat( ENTERED.tryAcquire( 10, TimeUnit.SECONDS ), equalTo( true ) );
+        for( int i = 0; i < 5; i++ )
+        {
+            log.log( LogType.INFO, source, "test", "pending " + i );
+        }
+
+        Thread passivation = new Thread( () -> {
+            try
+            {
+                assembler.application().passivate();
+            }
+            catch( Exception e )
+            {
+                throw new RuntimeException( e );
+            }
+        } );
+        passivation.start();
+        gate.countDown();
+        passivation.join( 10000 );
+        assertThat( passivation.isAlive(), equalTo( false ) );
+        assembler = null;
+
+        assertThat( BATCHES.stream().mapToInt( Integer::intValue ).sum(), equalTo( 6 ) );
+    }
+
+    private Module newApplication( BatchOptions options )
+        throws Exception
+    {
+        BATCHES.clear();
+        ENTERED.drainPermits();
+        gate = new CountDownLatch( 0 );
+        assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.withDefaultUnitOfWorkFactory();
+                module.services( MemoryEntityStoreService.class ).withConcerns( GatedCommitConcern.class )
+                    .instantiateOnStartup();
+                module.services( UuidIdentityGeneratorService.class );
+                module.services( OrgJsonValueSerializationService.class ).taggedWith( ValueSerialization.Formats.JSON );
+                new TracingAssembler( options ).assemble( module );
+                new LoggingAssembler( options ).assemble( module );
+                module.services( SomeService.class, UntracedService.class );
+                module.entities( ServiceTraceRecordEntity.class, ServiceLogRecord.class );
+            }
+        };
+        return assembler.module();
+    }
+
+    private void holdWriterOnFirstRecord( Some some )
+        throws InterruptedException
+    {
+        gate = new CountDownLatch( 1 );
+        some.doSomething();
+        assertThat( ENTERED.tryAcquire( 10, TimeUnit.SECONDS ), equalTo( true ) );
+    }
+
+    private static void waitFor( RecordWriterStatistics statistics, long written )
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        while( statistics.writtenRecords() < written && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+    }
+
+    /**
+     * Records the number of new entities in each commit, and holds commits back while the gate is closed.
+     */
+    public static class GatedCommitConcern
+        extends ConcernOf<InvocationHandler>
+        implements InvocationHandler
+    {
+        @Override
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            if( method.getDeclaringClass().equals( EntityStoreSPI.class ) && method.getName().equals( "applyChanges" ) )
+            {
+                int created = 0;
+                for( EntityState state : (Iterable<EntityState>) args[ 1 ] )
+                {
+                    if( state.status() == EntityStatus.NEW )
+                    {
+                        created++;
+                    }
+                }
+                if( created > 0 )
+                {
+                    BATCHES.add( created );
+                    ENTERED.release();
+                    gate.await();
+                }
+            }
+            return next.invoke( proxy, method, args );
+        }
+    }
+
+    @Mixins( SomeMixin.class )
+    @Concerns( TraceAllConcern.class )
+    public interface SomeService
+        extends Some, ServiceComposite
+    {
+    }
+
+    @Mixins( SomeMixin.class )
+    public interface UntracedService
+        extends Some, ServiceComposite
+    {
+    }
+
+    public interface Some
+    {
+        int doSomething();
+    }
+
+    public static class SomeMixin
+        implements Some
+    {
+        @Override
+        public int doSomething()
+        {
+            return 42;
+        }
+    }
+}
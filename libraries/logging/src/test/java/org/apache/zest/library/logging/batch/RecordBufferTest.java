@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.logging.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RecordBufferTest
+{
+    @Test
+    public void givenCapacityWhenCreatedThenRoundedUpToPowerOfTwo()
+    {
+        assertThat( new RecordBuffer<String>( 1 ).capacity(), equalTo( 1 ) );
+        assertThat( new RecordBuffer<String>( 5 ).capacity(), equalTo( 8 ) );
+        assertThat( new RecordBuffer<String>( 1024 ).capacity(), equalTo( 1024 ) );
+    }
+
+    @Test
+    public void givenFullBufferWhenOfferingThenRejected()
+    {
+        RecordBuffer<Integer> buffer = new RecordBuffer<>( 4 );
+        for( int i = 0; i < 4; i++ )
+        {
+            assertThat( buffer.offer( i ), equalTo( true ) );
+        }
+        assertThat( buffer.offer( 4 ), equalTo( false ) );
+        assertThat( buffer.poll(), equalTo( 0 ) );
+        assertThat( buffer.offer( 4 ), equalTo( true ) );
+        for( int i = 1; i <= 4; i++ )
+        {
+            assertThat( buffer.poll(), equalTo( i ) );
+        }
+        assertThat( buffer.isEmpty(), equalTo( true ) );
+        assertThat( buffer.poll() == null, equalTo( true ) );
+    }
+
+    @Test
+    public void givenConcurrentProducersWhenPollingThenNoRecordIsLost()
+        throws InterruptedException
+    {
+        int producers = 4;
+        int perProducer = 10000;
+        RecordBuffer<Integer> buffer = new RecordBuffer<>( 64 );
+        CountDownLatch start = new CountDownLatch( 1 );
+        List<Thread> threads = new ArrayList<>();
+        for( int p = 0; p < producers; p++ )
+        {
+            Thread thread = new Thread( () -> {
+                try
+                {
+                    start.await();
+                }
+                catch( InterruptedException e )
+                {
+                    return;
+                }
+                for( int i = 0; i < perProducer; i++ )
+                {
+                    while( !buffer.offer( 1 ) )
+                    {
+                        Thread.yield();
+                    }
+                }
+            } );
+            thread.start();
+            threads.add( thread );
+        }
+        start.countDown();
+
+        long sum = 0;
+        while( sum < producers * perProducer )
+        {
+            Integer value = buffer.poll();
+            if( value == null )
+            {
+                Thread.yield();
+            }
+            else
+            {
+                sum += value;
+            }
+        }
+        for( Thread thread : threads )
+        {
+            thread.join();
+        }
+        assertThat( sum, equalTo( (long) producers * perProducer ) );
+        assertThat( buffer.isEmpty(), equalTo( true ) );
+    }
+}
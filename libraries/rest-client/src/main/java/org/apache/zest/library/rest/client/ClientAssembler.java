@@ -32,15 +32,56 @@ import org.apache.zest.library.rest.client.responsereader.DefaultResponseReader;
 import org.apache.zest.library.rest.client.responsereader.JSONResponseReader;
 import org.apache.zest.library.rest.client.responsereader.TableResponseReader;
 
+import static org.apache.zest.bootstrap.ImportedServiceDeclaration.INSTANCE;
+
 /**
  * JAVADOC
  */
 public class ClientAssembler
    implements Assembler
 {
+   private ClientCache clientCache;
+   private ClientConnectionPool connectionPool;
+
+   /**
+    * Share one bounded ClientCache between all ContextResourceClientFactory instances that are not given their own.
+    *
+    * @param maxEntries maximum number of cache entries
+    * @return this assembler
+    */
+   public ClientAssembler withClientCache( int maxEntries )
+   {
+      clientCache = new ClientCache( maxEntries );
+      return this;
+   }
+
+   /**
+    * Share one HTTP client between all ContextResourceClientFactory instances that are not given their own.
+    *
+    * @param maxConnectionsPerHost maximum number of connections per host
+    * @param maxTotalConnections maximum number of connections in total
+    * @return this assembler
+    */
+   public ClientAssembler withConnectionPool( int maxConnectionsPerHost, int maxTotalConnections )
+   {
+      connectionPool = new ClientConnectionPool( maxConnectionsPerHost, maxTotalConnections );
+      return this;
+   }
+
     @Override
    public void assemble( ModuleAssembly module ) throws AssemblyException
    {
+      if( clientCache != null )
+      {
+         module.importedServices( ClientCache.class ).importedBy( INSTANCE ).setMetaInfo( clientCache ).visibleIn( Visibility.application );
+      }
+
+      if( connectionPool != null )
+      {
+         module.importedServices( ClientConnectionPool.class ).importedBy( INSTANCE ).setMetaInfo( connectionPool )
+               .withActivators( ClientConnectionPool.Passivator.class ).visibleIn( Visibility.application );
+      }
+
       module.objects( ContextResourceClientFactory.class, ContextResourceClient.class ).visibleIn( Visibility.application );
 
       module.objects( ResponseReaderDelegator.class,
@@ -20,83 +20,159 @@
 
 package org.apache.zest.library.rest.client;
 
+import java.io.IOException;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.restlet.Request;
 import org.restlet.Response;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
 import org.restlet.data.Method;
 import org.restlet.data.Reference;
+import org.restlet.data.Status;
 import org.restlet.data.Tag;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.security.User;
 
 import static java.util.Date.from;
 
 /**
- * Cache for the ContextResourceClient. This is primarily used to keep track of ETags and lastmodified timestamps for now.
+ * Cache for the ContextResourceClient.
+ * <p>
+ * It keeps track of ETags and last modified timestamps of entities for conditional commands, and of the
+ * representations returned by queries so that they can be revalidated with conditional GETs. A 304 Not Modified
+ * answer is then served from the cached representation. Cached representations are kept per user, and only
+ * textual ones are cached.
+ * </p>
+ * <p>
+ * The cache is thread-safe and can be shared by all clients of an application. Both the number of tracked paths
+ * and the number of cached representations are bounded, the oldest entries are evicted first.
+ * </p>
  */
 public class ClientCache
 {
-    private Map<String, CacheInfo> identityToTimestamp = new HashMap<>();
-    private Map<String, String> pathToIdentity = new HashMap<>();
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final String CACHED_REPRESENTATION = ClientCache.class.getName() + ".representation";
+
+    private final int maxEntries;
+    private final Map<String, CacheInfo> identityToTimestamp = new ConcurrentHashMap<>();
+    private final Map<String, String> pathToIdentity = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> identityToPaths = new ConcurrentHashMap<>();
+    private final Map<String, CachedRepresentation> representations = new ConcurrentHashMap<>();
+    private final Eviction pathEviction = new Eviction();
+    private final Eviction representationEviction = new Eviction();
+
+    public ClientCache()
+    {
+        this( DEFAULT_MAX_ENTRIES );
+    }
+
+    public ClientCache( int maxEntries )
+    {
+        if( maxEntries <= 0 )
+        {
+            throw new IllegalArgumentException( "maxEntries must be positive" );
+        }
+        this.maxEntries = maxEntries;
+    }
 
     public void updateCache( Response response )
     {
-        if( response.getRequest().getMethod().equals( Method.DELETE ) )
+        Request request = response.getRequest();
+        if( request.getMethod().equals( Method.DELETE ) )
         {
-            String path = getIdentityPath( response.getRequest().getResourceRef() );
-            String id = pathToIdentity.get( path );
+            representations.remove( representationKey( request ) );
+            String id = pathToIdentity.get( getIdentityPath( request.getResourceRef() ) );
             if( id != null )
             {
                 // Clear anything related to this id from cache
-                identityToTimestamp.remove( id );
-                Iterator<Map.Entry<String, String>> paths = pathToIdentity.entrySet().iterator();
-                while( paths.hasNext() )
-                {
-                    Map.Entry<String, String> entry = paths.next();
-                    if( entry.getValue().equals( id ) )
-                    {
-                        paths.remove();
-                    }
-                }
+                invalidate( id );
             }
         }
-        else if( response.getRequest().getMethod().equals( Method.PUT ) || response.getRequest()
-            .getMethod()
-            .equals( Method.POST ) )
+        else if( request.getMethod().equals( Method.PUT ) || request.getMethod().equals( Method.POST ) )
         {
             Tag tag = response.getEntity().getTag();
             if( tag != null )
             {
-                Reference ref = response.getRequest().getResourceRef().clone();
-
-                CacheInfo value = new CacheInfo( response.getEntity().getModificationDate().toInstant(), tag);
+                CacheInfo value = new CacheInfo( response.getEntity().getModificationDate().toInstant(), tag );
                 identityToTimestamp.put( value.getEntity(), value );
 
-                String path = getIdentityPath( ref );
-
-                pathToIdentity.put( path, value.getEntity() );
-
-//            LoggerFactory.getLogger( ClientCache.class ).info( "Update:"+value.getEntity()+" ("+ref.toString()+") -> "+value.getLastModified() );
+                String path = getIdentityPath( request.getResourceRef() );
+                String previous = pathToIdentity.put( path, value.getEntity() );
+                identityToPaths.computeIfAbsent( value.getEntity(), id -> ConcurrentHashMap.newKeySet() ).add( path );
+                if( previous == null )
+                {
+                    pathEviction.added( path, maxEntries, this::evictPath );
+                }
+                else if( !previous.equals( value.getEntity() ) )
+                {
+                    removePath( previous, path );
+                }
             }
         }
-        else
+        else if( request.getMethod().equals( Method.GET ) )
         {
-            // TODO GET caching goes here
-            System.out.println("Caching of GET is not implemented...");
+            String key = representationKey( request );
+            if( Status.REDIRECTION_NOT_MODIFIED.equals( response.getStatus() ) )
+            {
+                // Serve the representation that was revalidated
+                CachedRepresentation cached = (CachedRepresentation) request.getAttributes().get( CACHED_REPRESENTATION );
+                if( cached != null )
+                {
+                    response.setStatus( Status.SUCCESS_OK );
+                    response.setEntity( cached.newRepresentation() );
+                }
+            }
+            else if( response.getStatus().isSuccess() && response.getEntity() != null
+                     && response.getEntity().getTag() != null && isText( response.getEntity().getMediaType() ) )
+            {
+                try
+                {
+                    CachedRepresentation cached = new CachedRepresentation( response.getEntity() );
+                    response.setEntity( cached.newRepresentation() );
+                    if( representations.put( key, cached ) == null )
+                    {
+                        representationEviction.added( key, maxEntries, representations::remove );
+                    }
+                }
+                catch( IOException e )
+                {
+                    // Not cacheable, the response entity is consumed though
+                    representations.remove( key );
+                    throw new IllegalStateException( "Could not read response entity of " + key, e );
+                }
+            }
+            else
+            {
+                representations.remove( key );
+            }
         }
     }
 
     public void updateQueryConditions( Request request )
     {
-        String identity = pathToIdentity.get( getIdentityPath( request.getResourceRef() ) );
-        if( identity != null )
+        CachedRepresentation cached = representations.get( representationKey( request ) );
+        if( cached != null )
         {
-            CacheInfo cacheInfo = identityToTimestamp.get( identity );
-            if( cacheInfo != null )
+            request.getAttributes().put( CACHED_REPRESENTATION, cached );
+            request.getConditions().setNoneMatch( new ArrayList<>( Collections.singletonList( cached.tag ) ) );
+            if( cached.modificationDate != null )
             {
-//            LoggerFactory.getLogger( ClientCache.class ).info( "Send:  "+cacheInfo.getEntity()+" ("+request.getMethod().getName()+":"+request.getResourceRef()+") -> "+cacheInfo.getLastModified() );
-                request.getConditions().setModifiedSince( from( cacheInfo.getLastModified() ) );
+                request.getConditions().setModifiedSince( cached.modificationDate );
             }
         }
     }
@@ -109,12 +185,90 @@ public class ClientCache
             CacheInfo cacheInfo = identityToTimestamp.get( identity );
             if( cacheInfo != null )
             {
-//            LoggerFactory.getLogger( ClientCache.class ).info( "Send:  "+cacheInfo.getEntity()+" ("+request.getMethod().getName()+":"+request.getResourceRef()+") -> "+cacheInfo.getLastModified() );
                 request.getConditions().setUnmodifiedSince( from( cacheInfo.getLastModified() ) );
             }
         }
     }
 
+    public int size()
+    {
+        return pathToIdentity.size() + representations.size();
+    }
+
+    private void invalidate( String identity )
+    {
+        identityToTimestamp.remove( identity );
+        Set<String> paths = identityToPaths.remove( identity );
+        if( paths != null )
+        {
+            paths.forEach( path -> pathToIdentity.remove( path, identity ) );
+        }
+    }
+
+    private void evictPath( String path )
+    {
+        String identity = pathToIdentity.remove( path );
+        if( identity != null )
+        {
+            removePath( identity, path );
+        }
+    }
+
+    private void removePath( String identity, String path )
+    {
+        identityToPaths.computeIfPresent( identity, ( id, paths ) -> {
+            paths.remove( path );
+            if( paths.isEmpty() )
+            {
+                identityToTimestamp.remove( id );
+                return null;
+            }
+            return paths;
+        } );
+    }
+
+    private String representationKey( Request request )
+    {
+        // Accepted media types and the user are part of the key since the cache may be shared by clients with
+        // different settings and credentials
+        StringBuilder key = new StringBuilder();
+        key.append( request.getResourceRef() ).append( ' ' ).append( request.getClientInfo().getAcceptedMediaTypes() );
+        User user = request.getClientInfo().getUser();
+        ChallengeResponse challenge = request.getChallengeResponse();
+        if( user != null )
+        {
+            // The challenge response is derived from the user after the query conditions are set
+            key.append( " user=" ).append( user.getIdentifier() );
+        }
+        else if( challenge != null )
+        {
+            key.append( " challenge=" ).append( challenge.getScheme() ).append( ':' ).append( challenge.getIdentifier() );
+        }
+        return key.toString();
+    }
+
+    /**
+     * Binary representations would be corrupted by keeping them as text.
+     */
+    private static boolean isText( MediaType mediaType )
+    {
+        if( mediaType == null )
+        {
+            return false;
+        }
+        if( MediaType.TEXT_ALL.includes( mediaType )
+            || MediaType.APPLICATION_JSON.includes( mediaType )
+            || MediaType.APPLICATION_XML.includes( mediaType )
+            || MediaType.APPLICATION_XHTML.includes( mediaType )
+            || MediaType.APPLICATION_JAVASCRIPT.includes( mediaType )
+            || MediaType.APPLICATION_WWW_FORM.includes( mediaType ) )
+        {
+            return true;
+        }
+        String subType = mediaType.getSubType();
+        return subType != null && ( subType.endsWith( "+xml" ) || subType.endsWith( "+json" ) );
+    }
+
     private String getIdentityPath( Reference ref )
     {
         String path = ref.getPath();
@@ -127,8 +281,8 @@ public class ClientCache
 
     private static class CacheInfo
     {
-        private Instant lastModified;
-        private String entity;
+        private final Instant lastModified;
+        private final String entity;
 
         CacheInfo( Instant lastModified, Tag tag )
         {
@@ -146,4 +300,59 @@ public class ClientCache
             return entity;
         }
     }
+
+    private static class CachedRepresentation
+    {
+        private final String text;
+        private final MediaType mediaType;
+        private final CharacterSet characterSet;
+        private final List<Language> languages;
+        private final Tag tag;
+        private final Date modificationDate;
+
+        CachedRepresentation( Representation entity )
+            throws IOException
+        {
+            text = entity.getText();
+            mediaType = entity.getMediaType();
+            characterSet = entity.getCharacterSet();
+            languages = new ArrayList<>( entity.getLanguages() );
+            tag = entity.getTag();
+            modificationDate = entity.getModificationDate();
+        }
+
+        Representation newRepresentation()
+        {
+            StringRepresentation representation = new StringRepresentation( text, mediaType, null, characterSet );
+            representation.getLanguages().addAll( languages );
+            representation.setTag( tag );
+            representation.setModificationDate( modificationDate );
+            return representation;
+        }
+    }
+
+    /**
+     * Approximate insertion order of cache keys, used to keep the cache bounded without a global lock.
+     */
+    private static class Eviction
+    {
+        private final Queue<String> keys = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void added( String key, int maxEntries, Consumer<String> evict )
+        {
+            keys.add( key );
+            size.incrementAndGet();
+            while( size.get() > maxEntries )
+            {
+                String eldest = keys.poll();
+                if( eldest == null )
+                {
+                    return;
+                }
+                size.decrementAndGet();
+                evict.accept( eldest );
+            }
+        }
+    }
 }
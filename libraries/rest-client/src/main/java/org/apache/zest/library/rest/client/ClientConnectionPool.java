@@ -0,0 +1,127 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.rest.client;
+
+import java.util.Arrays;
+import org.apache.zest.api.service.ServiceActivatorAdapter;
+import org.apache.zest.api.service.ServiceReference;
+import org.restlet.Client;
+import org.restlet.Context;
+import org.restlet.Uniform;
+import org.restlet.data.Parameter;
+import org.restlet.data.Protocol;
+import org.restlet.util.Series;
+
+/**
+ * Shared HTTP client for all ContextResourceClientFactory instances.
+ * <p>
+ * Restlet clients are thread-safe; sharing one started client lets its connector keep persistent connections
+ * open across factories and threads, instead of each factory starting its own connector. The limits are handed to
+ * the connector as context parameters and are honoured by pooling connectors such as the Apache HTTP Client
+ * extension.
+ * </p>
+ * <p>
+ * When imported as a service, declare it with the {@link Passivator} so that the client is stopped together with
+ * the application.
+ * </p>
+ */
+public class ClientConnectionPool
+{
+    private final int maxConnectionsPerHost;
+    private final int maxTotalConnections;
+    private volatile Client client;
+
+    public ClientConnectionPool( int maxConnectionsPerHost, int maxTotalConnections )
+    {
+        if( maxConnectionsPerHost <= 0 || maxTotalConnections < maxConnectionsPerHost )
+        {
+            throw new IllegalArgumentException( "Invalid connection limits " + maxConnectionsPerHost
+                                                + "/" + maxTotalConnections );
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.maxTotalConnections = maxTotalConnections;
+    }
+
+    /**
+     * @return the shared client, started on first use
+     */
+    public Uniform client()
+    {
+        Client current = client;
+        if( current == null )
+        {
+            synchronized( this )
+            {
+                current = client;
+                if( current == null )
+                {
+                    current = newClient();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized void stop()
+        throws Exception
+    {
+        if( client != null )
+        {
+            client.stop();
+            client = null;
+        }
+    }
+
+    /**
+     * Stops the shared client when the imported service is passivated.
+     */
+    public static class Passivator
+        extends ServiceActivatorAdapter<ClientConnectionPool>
+    {
+        @Override
+        public void beforePassivation( ServiceReference<ClientConnectionPool> passivating )
+            throws Exception
+        {
+            passivating.get().stop();
+        }
+    }
+
+    private Client newClient()
+    {
+        Context context = new Context();
+        Series<Parameter> parameters = context.getParameters();
+        parameters.add( "persistingConnections", "true" );
+        parameters.add( "maxConnectionsPerHost", Integer.toString( maxConnectionsPerHost ) );
+        parameters.add( "maxTotalConnections", Integer.toString( maxTotalConnections ) );
+
+        Client newClient = new Client( context, Arrays.asList( Protocol.HTTP, Protocol.HTTPS ) );
+        try
+        {
+            newClient.start();
+        }
+        catch( Exception e )
+        {
+            throw new IllegalStateException( "Could not start HTTP client", e );
+        }
+        return newClient;
+    }
+}
@@ -241,10 +241,14 @@ public class ContextResourceClient
 
         contextResourceFactory.getClient().handle( request, response );
 
-        if( response.getStatus().isSuccess() )
+        if( response.getStatus().isSuccess() || response.getStatus().equals( Status.REDIRECTION_NOT_MODIFIED ) )
         {
+            // Not Modified is answered with the cached representation
             contextResourceFactory.updateCache( response );
+        }
 
+        if( response.getStatus().isSuccess() )
+        {
             return resourceHandler.handleResponse( response, this );
         } else if (response.getStatus().isRedirection())
         {
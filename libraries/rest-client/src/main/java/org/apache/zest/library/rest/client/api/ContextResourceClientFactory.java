@@ -23,10 +23,12 @@ package org.apache.zest.library.rest.client.api;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.Uses;
 import org.apache.zest.api.structure.Module;
 import org.apache.zest.library.rest.client.ClientCache;
+import org.apache.zest.library.rest.client.ClientConnectionPool;
 import org.apache.zest.library.rest.client.RequestWriterDelegator;
 import org.apache.zest.library.rest.client.ResponseReaderDelegator;
 import org.apache.zest.library.rest.client.spi.RequestWriter;
@@ -54,6 +56,14 @@ public class ContextResourceClientFactory
     @Optional
     private ClientCache cache;
 
+    @Service
+    @Optional
+    private ClientCache sharedCache;
+
+    @Service
+    @Optional
+    private ClientConnectionPool connectionPool;
+
     @Uses
     private ResponseReaderDelegator readerDelegator;
 
@@ -61,6 +71,7 @@ public class ContextResourceClientFactory
     private RequestWriterDelegator requestWriterDelegator;
 
     @Uses
+    @Optional
     private Uniform client;
 
     private ClientInfo info = new ClientInfo();
@@ -129,9 +140,10 @@ public class ContextResourceClientFactory
         request.setClientInfo( info );
 
         // Update cache information
-        if( cache != null )
+        ClientCache clientCache = cache();
+        if( clientCache != null )
         {
-            cache.updateCommandConditions( request );
+            clientCache.updateCommandConditions( request );
         }
 
         // Add all custom headers
@@ -144,24 +156,39 @@ public class ContextResourceClientFactory
         request.setClientInfo( info );
 
         // Update cache information
-        if( cache != null )
+        ClientCache clientCache = cache();
+        if( clientCache != null )
         {
-            cache.updateQueryConditions( request );
+            clientCache.updateQueryConditions( request );
         }
 
     }
 
     void updateCache( Response response )
     {
-        if( cache != null )
+        ClientCache clientCache = cache();
+        if( clientCache != null )
         {
-            cache.updateCache( response );
+            clientCache.updateCache( response );
         }
     }
 
     Uniform getClient()
     {
-        return client;
+        if( client != null )
+        {
+            return client;
+        }
+        if( connectionPool != null )
+        {
+            return connectionPool.client();
+        }
+        throw new IllegalStateException( "No client given and no ClientConnectionPool assembled" );
+    }
+
+    private ClientCache cache()
+    {
+        return cache != null ? cache : sharedCache;
     }
 
     public <T> T readResponse( Response response, Class<T> queryResult )
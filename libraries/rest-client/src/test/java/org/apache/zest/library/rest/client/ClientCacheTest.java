@@ -0,0 +1,149 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.rest.client;
+
+import java.io.IOException;
+import org.junit.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.ChallengeScheme;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.security.User;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ClientCacheTest
+{
+    @Test
+    public void givenCachedRepresentationWhenNotModifiedThenServeCachedRepresentation()
+        throws IOException
+    {
+        ClientCache cache = new ClientCache( 10 );
+        cache.updateCache( okResponse( "http://localhost/rest/", "1/2", "hello" ) );
+
+        Request conditional = new Request( Method.GET, "http://localhost/rest/" );
+        cache.updateQueryConditions( conditional );
+        assertThat( conditional.getConditions().getNoneMatch(), equalTo( singletonList( new Tag( "1/2" ) ) ) );
+
+        Response notModified = new Response( conditional );
+        notModified.setStatus( Status.REDIRECTION_NOT_MODIFIED );
+        cache.updateCache( notModified );
+        assertThat( notModified.getStatus(), equalTo( Status.SUCCESS_OK ) );
+        assertThat( notModified.getEntity().getText(), equalTo( "hello" ) );
+        assertThat( notModified.getEntity().getTag(), equalTo( new Tag( "1/2" ) ) );
+    }
+
+    @Test
+    public void givenMoreRepresentationsThanMaximumThenOldestAreEvicted()
+    {
+        ClientCache cache = new ClientCache( 2 );
+        cache.updateCache( okResponse( "http://localhost/rest/a/", "a/1", "a" ) );
+        cache.updateCache( okResponse( "http://localhost/rest/b/", "b/1", "b" ) );
+        cache.updateCache( okResponse( "http://localhost/rest/c/", "c/1", "c" ) );
+
+        assertThat( cache.size(), equalTo( 2 ) );
+
+        Request evicted = new Request( Method.GET, "http://localhost/rest/a/" );
+        cache.updateQueryConditions( evicted );
+        assertTrue( evicted.getConditions().getNoneMatch().isEmpty() );
+    }
+
+    @Test
+    public void givenRepresentationOfOneUserWhenOtherUserQueriesThenNotShared()
+        throws IOException
+    {
+        ClientCache cache = new ClientCache( 10 );
+        cache.updateCache( okResponse( query( "alice" ), "1/2", "alice's view" ) );
+
+        Request bob = query( "bob" );
+        cache.updateQueryConditions( bob );
+        assertTrue( bob.getConditions().getNoneMatch().isEmpty() );
+
+        Request anonymous = new Request( Method.GET, "http://localhost/rest/" );
+        cache.updateQueryConditions( anonymous );
+        assertTrue( anonymous.getConditions().getNoneMatch().isEmpty() );
+
+        // Not Modified for bob must not be answered with alice's representation
+        Response notModified = new Response( bob );
+        notModified.setStatus( Status.REDIRECTION_NOT_MODIFIED );
+        cache.updateCache( notModified );
+        assertThat( notModified.getStatus(), equalTo( Status.REDIRECTION_NOT_MODIFIED ) );
+
+        Request alice = query( "alice" );
+        cache.updateQueryConditions( alice );
+        assertThat( alice.getConditions().getNoneMatch(), equalTo( singletonList( new Tag( "1/2" ) ) ) );
+    }
+
+    @Test
+    public void givenBinaryRepresentationThenNotCached()
+    {
+        ClientCache cache = new ClientCache( 10 );
+        Response response = new Response( new Request( Method.GET, "http://localhost/rest/image/" ) );
+        ByteArrayRepresentation entity = new ByteArrayRepresentation( new byte[]{ (byte) 0x89, 'P', 'N', 'G' },
+                                                                      MediaType.IMAGE_PNG );
+        entity.setTag( new Tag( "1/2" ) );
+        response.setEntity( entity );
+        response.setStatus( Status.SUCCESS_OK );
+        cache.updateCache( response );
+
+        assertThat( cache.size(), equalTo( 0 ) );
+    }
+
+    private Request query( String user )
+    {
+        // Same as ContextResourceClient, which sets the challenge response after the query conditions
+        Request request = new Request( Method.GET, "http://localhost/rest/" );
+        request.getClientInfo().setUser( new User( user, "secret" ) );
+        return request;
+    }
+
+    private Response okResponse( Request request, String tag, String text )
+    {
+        request.setChallengeResponse( new ChallengeResponse( ChallengeScheme.HTTP_BASIC, request.getClientInfo()
+            .getUser()
+            .getIdentifier(), "secret" ) );
+        Response response = new Response( request );
+        StringRepresentation entity = new StringRepresentation( text, MediaType.TEXT_PLAIN );
+        entity.setTag( new Tag( tag ) );
+        response.setEntity( entity );
+        response.setStatus( Status.SUCCESS_OK );
+        return response;
+    }
+
+    private Response okResponse( String uri, String tag, String text )
+    {
+        Response response = new Response( new Request( Method.GET, uri ) );
+        StringRepresentation entity = new StringRepresentation( text, MediaType.TEXT_PLAIN );
+        entity.setTag( new Tag( tag ) );
+        response.setEntity( entity );
+        response.setStatus( Status.SUCCESS_OK );
+        return response;
+    }
+}
@@ -24,12 +24,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URLDecoder;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import org.apache.zest.api.association.ManyAssociation;
 import org.apache.zest.api.association.NamedAssociation;
 import org.apache.zest.api.common.Optional;
@@ -52,6 +48,7 @@ import org.apache.zest.library.rest.common.link.Link;
 import org.apache.zest.library.rest.server.restlet.ConstraintViolationMessages;
 import org.apache.zest.library.rest.server.restlet.InteractionConstraints;
 import org.apache.zest.library.rest.server.restlet.RequestReaderDelegator;
+import org.apache.zest.library.rest.server.restlet.ResponseCache;
 import org.apache.zest.library.rest.server.restlet.ResponseWriterDelegator;
 import org.apache.zest.library.rest.server.spi.ResultConverter;
 import org.apache.zest.spi.ZestSPI;
@@ -92,11 +89,7 @@ public class ContextResource
     protected Module module;
 
     // Private state
-    private final Map<String, Method> resourceMethodQueries = new HashMap<>();
-    private final Map<String, Method> resourceMethodCommands = new HashMap<>();
-    private final Map<String, Method> subResources = new LinkedHashMap<>();
-    private final List<Method> resourceQueries = new ArrayList<>();
-    private final List<Method> resourceCommands = new ArrayList<>();
+    private final ResourceMethods resourceMethods;
 
     @Structure
     private ZestSPI spi;
@@ -114,51 +107,17 @@ public class ContextResource
     @Service
     private ResultConverter converter;
 
+    @Optional
+    @Service
+    private ResponseCache responseCache;
+
     @Uses
     private ContextRestlet restlet;
 
     public ContextResource()
     {
         // Resource method mappings
-        for( Method method : getClass().getMethods() )
-        {
-            if( ContextResource.class.isAssignableFrom( method.getDeclaringClass() )
-                && !ContextResource.class.equals( method.getDeclaringClass() )
-                && !method.isSynthetic() )
-            {
-                if( method.getAnnotation( SubResource.class ) == null )
-                {
-                    Method oldMethod;
-
-                    if( isCommand( method ) )
-                    {
-                        oldMethod = resourceMethodCommands.put( method.getName().toLowerCase(), method );
-                        resourceCommands.add( method );
-                    }
-                    else
-                    {
-                        oldMethod = resourceMethodQueries.put( method.getName().toLowerCase(), method );
-                        resourceQueries.add( method );
-                    }
-
-                    if( oldMethod != null )
-                    {
-                        throw new IllegalStateException( "Two methods in resource " + getClass().getName() + " with same name " + oldMethod
-                            .getName() + ", which is not allowed" );
-                    }
-                }
-                else
-                {
-                    Method oldMethod = subResources.put( method.getName().toLowerCase(), method );
-
-                    if( oldMethod != null )
-                    {
-                        throw new IllegalStateException( "Two methods in resource " + getClass().getName() + " with same name " + oldMethod
-                            .getName() + ", which is not allowed" );
-                    }
-                }
-            }
-        }
+        resourceMethods = ResourceMethods.resourceMethodsOf( getClass() );
     }
 
     // Uniform implementation
@@ -326,7 +285,7 @@ public class ContextResource
                 StringBuilder template = (StringBuilder) Request.getCurrent().getAttributes().get( "template" );
                 template.append( segment ).append( "/" );
 
-                method.invoke( this );
+                resourceMethods.invoke( method, this );
             }
             catch( Throwable e )
             {
@@ -338,7 +297,7 @@ public class ContextResource
     private Method getSubResourceMethod( String resourceName )
         throws ResourceException
     {
-        Method method = subResources.get( resourceName );
+        Method method = resourceMethods.subResources.get( resourceName );
         if( method != null )
         {
             return method;
@@ -373,7 +332,7 @@ public class ContextResource
         ValueBuilder<Resource> builder = module.newValueBuilder( Resource.class );
 
         List<Link> queriesProperty = builder.prototype().queries().get();
-        for( Method query : resourceQueries )
+        for( Method query : resourceMethods.resourceQueries )
         {
             if( constraints.isValid( query, objectSelection, module ) )
             {
@@ -389,7 +348,7 @@ public class ContextResource
         }
 
         List<Link> commandsProperty = builder.prototype().commands().get();
-        for( Method command : resourceCommands )
+        for( Method command : resourceMethods.resourceCommands )
         {
             if( constraints.isValid( command, objectSelection, module ) )
             {
@@ -405,7 +364,7 @@ public class ContextResource
         }
 
         List<Link> resourcesProperty = builder.prototype().resources().get();
-        for( Method subResource : subResources.values() )
+        for( Method subResource : resourceMethods.subResources.values() )
         {
             if( constraints.isValid( subResource, objectSelection, module ) )
             {
@@ -422,10 +381,10 @@ public class ContextResource
 
         try
         {
-            Method indexMethod = resourceMethodQueries.get( "index" );
+            Method indexMethod = resourceMethods.queries.get( "index" );
             if( indexMethod != null )
             {
-                Object index = convert( indexMethod.invoke( this ) );
+                Object index = convert( resourceMethods.invoke( indexMethod, this ) );
 
                 if( index != null && index instanceof ValueComposite )
                 {
@@ -448,11 +407,6 @@ public class ContextResource
         }
     }
 
-    private boolean isCommand( Method method )
-    {
-        return method.getReturnType().equals( Void.TYPE ) || method.getName().equals( "create" );
-    }
-
     /**
      * Transform a Java name to a human readable string by replacing uppercase characters
      * with space+toLowerCase(char).
@@ -526,7 +480,7 @@ public class ContextResource
             StringBuilder template = (StringBuilder) request.getAttributes().get( "template" );
             template.append( segment );
 
-            if( resourceMethodCommands.containsKey( segment ) )
+            if( resourceMethods.commands.containsKey( segment ) )
             {
                 handleCommand( segment );
             }
@@ -543,7 +497,7 @@ public class ContextResource
         Response response = Response.getCurrent();
 
         // Check if this is a request to show the form for this command
-        Method interactionMethod = resourceMethodCommands.get( segment );
+        Method interactionMethod = resourceMethods.commands.get( segment );
         if( shouldShowCommandForm( interactionMethod ) )
         {
             // Show form
@@ -554,10 +508,10 @@ public class ContextResource
             try
             {
                 // Check if there is a query with this name - if so invoke it
-                Method queryMethod = resourceMethodQueries.get( segment );
+                Method queryMethod = resourceMethods.queries.get( segment );
                 if( queryMethod != null )
                 {
-                    result( queryMethod.invoke( this ) );
+                    result( resourceMethods.invoke( queryMethod, this ) );
                 }
                 else
                 {
@@ -594,7 +548,7 @@ public class ContextResource
             // Invoke method
             try
             {
-                Object result = interactionMethod.invoke( this, arguments );
+                Object result = resourceMethods.invoke( interactionMethod, this, arguments );
 
                 if( result != null )
                 {
@@ -643,16 +597,16 @@ public class ContextResource
         // Query
 
         // Try to locate either the query method or command method that should be used
-        Method queryMethod = resourceMethodQueries.get( segment );
+        Method queryMethod = resourceMethods.queries.get( segment );
         if( queryMethod == null )
         {
-            queryMethod = resourceMethodCommands.get( segment );
+            queryMethod = resourceMethods.commands.get( segment );
         }
 
         if( queryMethod == null )
         {
             // Not found as interaction, try SubResource
-            Method resourceMethod = subResources.get( segment );
+            Method resourceMethod = resourceMethods.subResources.get( segment );
             if( resourceMethod != null && resourceMethod.getAnnotation( SubResource.class ) != null )
             {
                 // Found it! Redirect to it
@@ -715,6 +669,18 @@ public class ContextResource
                 throw new ResourceException( Status.CLIENT_ERROR_NOT_FOUND );
             }
 
+            // Reuse a previously rendered representation of the same entity version
+            if( responseCache != null && validity != null && request.getMethod().isSafe() )
+            {
+                Representation cached = responseCache.lookup(
+                    request, validity.identity(), validity.tag(), spi, uowf.currentUnitOfWork() );
+                if( cached != null )
+                {
+                    response.setEntity( cached );
+                    return;
+                }
+            }
+
             try
             {
                 // Create argument
@@ -747,7 +713,7 @@ public class ContextResource
 
                 // Invoke method
                 Request.getCurrent().getAttributes().put( ARGUMENTS, arguments );
-                Object result = queryMethod.invoke( this, arguments );
+                Object result = resourceMethods.invoke( queryMethod, this, arguments );
                 if( result != null )
                 {
                     if( result instanceof Representation )
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.zest.api.cache.CacheOptions;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.object.ObjectFactory;
@@ -33,8 +34,10 @@ import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
 import org.apache.zest.api.usecase.Usecase;
 import org.apache.zest.api.usecase.UsecaseBuilder;
+import org.apache.zest.library.rest.server.restlet.ResponseCache;
 import org.apache.zest.library.rest.server.restlet.ResponseWriterDelegator;
 import org.apache.zest.library.rest.server.spi.CommandResult;
+import org.apache.zest.spi.ZestSPI;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
@@ -62,12 +65,19 @@ public abstract class ContextRestlet
     @Structure
     protected UnitOfWorkFactory uowf;
 
+    @Structure
+    protected ZestSPI spi;
+
     @Service
     private CommandResult commandResult;
 
     @Service
     private ResponseWriterDelegator responseWriter;
 
+    @Optional
+    @Service
+    private ResponseCache responseCache;
+
     private Map<Class, Uniform> subResources = Collections.synchronizedMap( new HashMap<>() );
 
     @Override
@@ -125,12 +135,11 @@ public abstract class ContextRestlet
 
                     if( response.getEntity() != null )
                     {
+                        ResourceValidity validity = (ResourceValidity) Request.getCurrent()
+                            .getAttributes()
+                            .get( ContextResource.RESOURCE_VALIDITY );
                         if( response.getEntity().getModificationDate() == null )
                         {
-
-                            ResourceValidity validity = (ResourceValidity) Request.getCurrent()
-                                .getAttributes()
-                                .get( ContextResource.RESOURCE_VALIDITY );
                             if( validity != null )
                             {
                                 validity.updateResponse( response );
@@ -149,6 +158,12 @@ public abstract class ContextRestlet
                             response.getEntity().getLanguages().add( Language.ENGLISH );
                         }
 
+                        // Remember the rendered representation for subsequent reads of the same entity versions
+                        if( responseCache != null && validity != null && request.getMethod().isSafe() )
+                        {
+                            responseCache.store( request, validity.identity(), response, spi.entityStatesOf( uow ) );
+                        }
+
                         uow.discard();
                     }
                     else
@@ -278,6 +293,13 @@ public abstract class ContextRestlet
         }
         catch( ResourceException e )
         {
+            if( Status.REDIRECTION_NOT_MODIFIED.equals( e.getStatus() ) )
+            {
+                // Conditional request matched, no entity is sent
+                response.setStatus( e.getStatus() );
+                return;
+            }
+
             // IAE (or subclasses) are considered client faults
             LoggerFactory.getLogger( getClass() ).debug( "ResourceException thrown during processing", e );
             response.setEntity( new StringRepresentation( e.getMessage() ) );
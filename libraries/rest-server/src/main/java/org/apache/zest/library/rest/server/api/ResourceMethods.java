@@ -0,0 +1,149 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.rest.server.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interaction routing table of a ContextResource class.
+ * <p>
+ * Computed once per resource class and shared by all its instances. Interactions are invoked through
+ * precompiled MethodHandles instead of reflection.
+ * </p>
+ */
+final class ResourceMethods
+{
+    private static final Map<Class<?>, ResourceMethods> RESOURCE_METHODS = new ConcurrentHashMap<>();
+    private static final MethodType INVOKER_TYPE = MethodType.methodType( Object.class, Object.class, Object[].class );
+    private static final Object[] NO_ARGUMENTS = new Object[ 0 ];
+
+    static ResourceMethods resourceMethodsOf( Class<? extends ContextResource> resourceClass )
+    {
+        return RESOURCE_METHODS.computeIfAbsent( resourceClass, ResourceMethods::new );
+    }
+
+    final Map<String, Method> queries;
+    final Map<String, Method> commands;
+    final Map<String, Method> subResources;
+    final List<Method> resourceQueries;
+    final List<Method> resourceCommands;
+    private final Map<Method, MethodHandle> invokers;
+
+    private ResourceMethods( Class<?> resourceClass )
+    {
+        Map<String, Method> queries = new HashMap<>();
+        Map<String, Method> commands = new HashMap<>();
+        Map<String, Method> subResources = new LinkedHashMap<>();
+        List<Method> resourceQueries = new ArrayList<>();
+        List<Method> resourceCommands = new ArrayList<>();
+        Map<Method, MethodHandle> invokers = new HashMap<>();
+
+        for( Method method : resourceClass.getMethods() )
+        {
+            if( ContextResource.class.isAssignableFrom( method.getDeclaringClass() )
+                && !ContextResource.class.equals( method.getDeclaringClass() )
+                && !method.isSynthetic() )
+            {
+                Method oldMethod;
+                if( method.getAnnotation( SubResource.class ) == null )
+                {
+                    if( isCommand( method ) )
+                    {
+                        oldMethod = commands.put( method.getName().toLowerCase(), method );
+                        resourceCommands.add( method );
+                    }
+                    else
+                    {
+                        oldMethod = queries.put( method.getName().toLowerCase(), method );
+                        resourceQueries.add( method );
+                    }
+                }
+                else
+                {
+                    oldMethod = subResources.put( method.getName().toLowerCase(), method );
+                }
+
+                if( oldMethod != null )
+                {
+                    throw new IllegalStateException( "Two methods in resource " + resourceClass.getName() + " with same name " + oldMethod
+                        .getName() + ", which is not allowed" );
+                }
+                invokers.put( method, invoker( method ) );
+            }
+        }
+
+        this.queries = Collections.unmodifiableMap( queries );
+        this.commands = Collections.unmodifiableMap( commands );
+        this.subResources = Collections.unmodifiableMap( subResources );
+        this.resourceQueries = Collections.unmodifiableList( resourceQueries );
+        this.resourceCommands = Collections.unmodifiableList( resourceCommands );
+        this.invokers = invokers;
+    }
+
+    /**
+     * Invoke an interaction with the same exception semantics as {@link Method#invoke(Object, Object...)}.
+     */
+    Object invoke( Method method, Object resource, Object... arguments )
+        throws InvocationTargetException
+    {
+        MethodHandle invoker = invokers.get( method );
+        try
+        {
+            return (Object) invoker.invokeExact( resource, arguments == null ? NO_ARGUMENTS : arguments );
+        }
+        catch( Throwable e )
+        {
+            throw new InvocationTargetException( e );
+        }
+    }
+
+    private static boolean isCommand( Method method )
+    {
+        return method.getReturnType().equals( Void.TYPE ) || method.getName().equals( "create" );
+    }
+
+    private static MethodHandle invoker( Method method )
+    {
+        try
+        {
+            // Resource classes may be non-public
+            method.setAccessible( true );
+            return MethodHandles.lookup()
+                .unreflect( method )
+                .asSpreader( Object[].class, method.getParameterCount() )
+                .asType( INVOKER_TYPE );
+        }
+        catch( IllegalAccessException e )
+        {
+            throw new IllegalStateException( "Could not access resource method " + method, e );
+        }
+    }
+}
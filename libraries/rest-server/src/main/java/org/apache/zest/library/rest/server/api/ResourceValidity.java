@@ -21,6 +21,8 @@
 package org.apache.zest.library.rest.server.api;
 
 import java.time.Instant;
+import java.util.Date;
+import java.util.List;
 import org.apache.zest.api.entity.EntityComposite;
 import org.apache.zest.api.unitofwork.NoSuchEntityException;
 import org.apache.zest.api.unitofwork.UnitOfWork;
@@ -61,6 +63,21 @@ class ResourceValidity
         }
     }
 
+    String identity()
+    {
+        return entity == null ? null : spi.entityStateOf( entity ).identity().identity();
+    }
+
+    Tag tag()
+    {
+        if( entity == null )
+        {
+            return null;
+        }
+        EntityState state = spi.entityStateOf( entity );
+        return new Tag( state.identity().identity() + "/" + state.version() );
+    }
+
     void updateResponse( Response response )
     {
         if( entity != null )
@@ -76,22 +93,40 @@ class ResourceValidity
         throws ResourceException
     {
         // Check command rules
-        Instant unmodifiedSince = request.getConditions().getUnmodifiedSince().toInstant();
         EntityState state = spi.entityStateOf( entity );
         Instant lastModified = cutoffMillis( state.lastModified() );
+        Date unmodifiedSince = request.getConditions().getUnmodifiedSince();
         if( unmodifiedSince != null )
         {
-            if( lastModified.isAfter( unmodifiedSince ) )
+            if( lastModified.isAfter( unmodifiedSince.toInstant() ) )
             {
                 throw new ResourceException( Status.CLIENT_ERROR_CONFLICT );
             }
         }
 
         // Check query rules
-        Instant modifiedSince = request.getConditions().getModifiedSince().toInstant();
+        if( request.getMethod().isSafe() )
+        {
+            List<Tag> noneMatch = request.getConditions().getNoneMatch();
+            if( !noneMatch.isEmpty() )
+            {
+                // If-None-Match takes precedence over If-Modified-Since
+                Tag tag = tag();
+                for( Tag candidate : noneMatch )
+                {
+                    if( Tag.ALL.equals( candidate ) || candidate.getName().equals( tag.getName() ) )
+                    {
+                        throw new ResourceException( Status.REDIRECTION_NOT_MODIFIED );
+                    }
+                }
+                return;
+            }
+        }
+
+        Date modifiedSince = request.getConditions().getModifiedSince();
         if( modifiedSince != null )
         {
-            if( !lastModified.isAfter( modifiedSince ) )
+            if( !lastModified.isAfter( modifiedSince.toInstant() ) )
             {
                 throw new ResourceException( Status.REDIRECTION_NOT_MODIFIED );
             }
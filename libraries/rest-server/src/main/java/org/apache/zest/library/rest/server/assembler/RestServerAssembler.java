@@ -34,6 +34,7 @@ import org.apache.zest.bootstrap.ClassScanner;
 import org.apache.zest.bootstrap.ModuleAssembly;
 import org.apache.zest.library.rest.server.restlet.InteractionConstraintsService;
 import org.apache.zest.library.rest.server.restlet.RequestReaderDelegator;
+import org.apache.zest.library.rest.server.restlet.ResponseCache;
 import org.apache.zest.library.rest.server.restlet.ResponseWriterDelegator;
 import org.apache.zest.library.rest.server.restlet.freemarker.ValueCompositeObjectWrapper;
 import org.apache.zest.library.rest.server.restlet.requestreader.DefaultRequestReader;
@@ -54,6 +55,23 @@ import static org.apache.zest.functional.Iterables.filter;
 public class RestServerAssembler
     implements Assembler
 {
+    private int responseCacheSize;
+
+    /**
+     * Cache rendered query representations of resources that declare their validity with an entity.
+     *
+     * @param maxEntries maximum number of cached representations
+     *
+     * @return this assembler
+     *
+     * @see ResponseCache
+     */
+    public RestServerAssembler withResponseCache( int maxEntries )
+    {
+        this.responseCacheSize = maxEntries;
+        return this;
+    }
+
     @Override
     public void assemble( ModuleAssembly module )
         throws AssemblyException
@@ -99,6 +117,15 @@ public class RestServerAssembler
             visibleIn( Visibility.application );
         module.objects( InteractionConstraintsService.class );
 
+        if( responseCacheSize > 0 )
+        {
+            // Application visibility so that EntityStores notify it of changes
+            module.importedServices( ResponseCache.class )
+                .importedBy( INSTANCE )
+                .setMetaInfo( new ResponseCache( responseCacheSize ) )
+                .visibleIn( Visibility.application );
+        }
+
         // Standard response writers
         Iterable<Class<?>> writers = ClassScanner.findClasses( DefaultResponseWriter.class );
         Predicate<Class<?>> responseWriterClass = isAssignableFrom( ResponseWriter.class );
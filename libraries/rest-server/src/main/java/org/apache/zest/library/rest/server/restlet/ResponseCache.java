@@ -0,0 +1,448 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.rest.server.restlet;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.unitofwork.NoSuchEntityException;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.spi.ZestSPI;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.apache.zest.spi.entitystore.StateChangeListener;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Tag;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.security.Role;
+
+/**
+ * Server-side cache of rendered query representations.
+ * <p>
+ * Only resources that declare their validity with an entity are cached. Entries are keyed by the resource
+ * reference, the entity tag (identity and version of that entity), the media types and languages accepted
+ * by the client, and the authenticated user, principals and roles of the request.
+ * </p>
+ * <p>
+ * A representation usually depends on more entities than the one it declared its validity with, so each entry also
+ * records the identity and version of every entity the UnitOfWork had read when it was rendered. A lookup only
+ * succeeds if all of them still have the recorded version, so a representation is never served stale, even when
+ * the change was committed elsewhere. The {@link StateChangeListener} callback releases the entries depending on
+ * changed entities early. Representations rendered from uncommitted changes are not cached.
+ * </p>
+ * <p>
+ * Only textual representations are cached, binary ones are always rendered again.
+ * </p>
+ */
+public class ResponseCache
+    implements StateChangeListener
+{
+    private final int maxEntries;
+    private final Map<Key, CachedRepresentation> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> keysByIdentity = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public ResponseCache( int maxEntries )
+    {
+        if( maxEntries <= 0 )
+        {
+            throw new IllegalArgumentException( "maxEntries must be positive" );
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param request    the current request
+     * @param identity   identity of the entity the resource declared its validity with
+     * @param tag        current tag of that entity
+     * @param spi        used to read the current version of the entities the representation depends on
+     * @param unitOfWork the UnitOfWork of the request
+     *
+     * @return a fresh copy of the cached representation, or null if none or if it is stale
+     */
+    public Representation lookup( Request request, String identity, Tag tag, ZestSPI spi, UnitOfWork unitOfWork )
+    {
+        if( identity == null || tag == null )
+        {
+            return null;
+        }
+        Key key = new Key( request, identity, tag );
+        CachedRepresentation cached = entries.get( key );
+        if( cached == null )
+        {
+            return null;
+        }
+        if( !cached.isCurrent( spi, unitOfWork ) )
+        {
+            if( entries.remove( key, cached ) )
+            {
+                forget( key, cached );
+            }
+            return null;
+        }
+        return cached.newRepresentation();
+    }
+
+    /**
+     * Remember the representation of a successful response.
+     * <p>
+     * The response entity is read once and replaced with an equivalent in-memory representation.
+     * </p>
+     *
+     * @param request      the current request
+     * @param identity     identity of the entity the resource declared its validity with
+     * @param response     the response to remember
+     * @param entityStates state of the entities read while rendering the response
+     *
+     * @throws IOException if the response entity could not be read
+     */
+    public void store( Request request, String identity, Response response, Stream<EntityState> entityStates )
+        throws IOException
+    {
+        Representation entity = response.getEntity();
+        if( identity == null || entity == null || entity.getTag() == null || !response.getStatus().isSuccess()
+            || !isText( entity.getMediaType() ) )
+        {
+            return;
+        }
+
+        Map<EntityReference, Dependency> dependencies = new HashMap<>();
+        for( EntityState state : (Iterable<EntityState>) entityStates::iterator )
+        {
+            if( state.status() != EntityStatus.LOADED )
+            {
+                // Rendered from changes that were never committed
+                return;
+            }
+            dependencies.put( state.identity(), new Dependency( state ) );
+        }
+
+        Key key = new Key( request, identity, entity.getTag() );
+        CachedRepresentation current = entries.get( key );
+        if( current != null && current.dependencies.equals( dependencies ) )
+        {
+            return;
+        }
+
+        CachedRepresentation cached = new CachedRepresentation( entity, dependencies );
+        response.setEntity( cached.newRepresentation() );
+        CachedRepresentation replaced = entries.put( key, cached );
+        if( replaced == null )
+        {
+            insertionOrder.add( key );
+            queued.incrementAndGet();
+        }
+        else
+        {
+            forget( key, replaced );
+        }
+        index( key, key.identity );
+        dependencies.keySet().forEach( dependency -> index( key, dependency.identity() ) );
+        evict();
+    }
+
+    /**
+     * Drop all cached representations that depend on an entity.
+     *
+     * @param identity identity of the entity
+     */
+    public void invalidate( String identity )
+    {
+        Set<Key> keys = keysByIdentity.remove( identity );
+        if( keys != null )
+        {
+            for( Key key : keys )
+            {
+                CachedRepresentation removed = entries.remove( key );
+                if( removed != null )
+                {
+                    forget( key, removed );
+                }
+            }
+        }
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    @Override
+    public void notifyChanges( Iterable<EntityState> changedStates )
+    {
+        for( EntityState changedState : changedStates )
+        {
+            invalidate( changedState.identity().identity() );
+        }
+    }
+
+    /**
+     * @param mediaType media type of a representation
+     *
+     * @return true if the representation can be kept as a String without corrupting it
+     */
+    static boolean isText( MediaType mediaType )
+    {
+        if( mediaType == null )
+        {
+            return false;
+        }
+        if( MediaType.TEXT_ALL.includes( mediaType )
+            || MediaType.APPLICATION_JSON.includes( mediaType )
+            || MediaType.APPLICATION_XML.includes( mediaType )
+            || MediaType.APPLICATION_XHTML.includes( mediaType )
+            || MediaType.APPLICATION_JAVASCRIPT.includes( mediaType )
+            || MediaType.APPLICATION_WWW_FORM.includes( mediaType ) )
+        {
+            return true;
+        }
+        String subType = mediaType.getSubType();
+        return subType != null && ( subType.endsWith( "+xml" ) || subType.endsWith( "+json" ) );
+    }
+
+    private void evict()
+    {
+        // Oldest first; keys that were already invalidated are simply dropped from the queue
+        while( queued.get() > maxEntries )
+        {
+            Key eldest = insertionOrder.poll();
+            if( eldest == null )
+            {
+                return;
+            }
+            queued.decrementAndGet();
+            CachedRepresentation evicted = entries.remove( eldest );
+            if( evicted != null )
+            {
+                forget( eldest, evicted );
+            }
+        }
+    }
+
+    private void index( Key key, String identity )
+    {
+        keysByIdentity.compute( identity, ( id, keys ) -> {
+            Set<Key> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            indexed.add( key );
+            return indexed;
+        } );
+    }
+
+    /**
+     * Remove a key that is no longer cached from the index of every entity its representation depended on.
+     */
+    private void forget( Key key, CachedRepresentation removed )
+    {
+        unindex( key, key.identity );
+        removed.dependencies.keySet().forEach( dependency -> unindex( key, dependency.identity() ) );
+    }
+
+    private void unindex( Key key, String identity )
+    {
+        keysByIdentity.computeIfPresent( identity, ( id, keys ) -> {
+            keys.remove( key );
+            return keys.isEmpty() ? null : keys;
+        } );
+    }
+
+    private static final class Key
+    {
+        private final String identity;
+        private final String reference;
+        private final String tag;
+        private final String variant;
+        private final String subject;
+
+        private Key( Request request, String identity, Tag tag )
+        {
+            this.identity = identity;
+            this.reference = request.getResourceRef().toString();
+            this.tag = tag.getName();
+            this.variant = request.getClientInfo().getAcceptedMediaTypes() + ";"
+                           + request.getClientInfo().getAcceptedLanguages();
+            this.subject = subjectOf( request );
+        }
+
+        /**
+         * Representations may depend on who asks, so the authenticated user, its principals and roles, and the
+         * credentials presented by the client all separate entries. An anonymous request has an empty subject.
+         */
+        private static String subjectOf( Request request )
+        {
+            StringBuilder subject = new StringBuilder();
+            ClientInfo clientInfo = request.getClientInfo();
+            if( clientInfo.getUser() != null )
+            {
+                subject.append( "user=" ).append( clientInfo.getUser().getIdentifier() ).append( ';' );
+            }
+            for( Principal principal : clientInfo.getPrincipals() )
+            {
+                subject.append( "principal=" ).append( principal.getName() ).append( ';' );
+            }
+            for( Role role : clientInfo.getRoles() )
+            {
+                subject.append( "role=" ).append( role.getName() ).append( ';' );
+            }
+            ChallengeResponse challenge = request.getChallengeResponse();
+            if( challenge != null )
+            {
+                subject.append( "challenge=" ).append( challenge.getScheme() ).append( ':' )
+                    .append( challenge.getIdentifier() ).append( ';' );
+            }
+            return subject.toString();
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if( this == o )
+            {
+                return true;
+            }
+            if( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Key key = (Key) o;
+            return tag.equals( key.tag ) && reference.equals( key.reference ) && variant.equals( key.variant )
+                   && subject.equals( key.subject );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = reference.hashCode();
+            result = 31 * result + tag.hashCode();
+            result = 31 * result + variant.hashCode();
+            result = 31 * result + subject.hashCode();
+            return result;
+        }
+    }
+
+    private static final class CachedRepresentation
+    {
+        private final String text;
+        private final MediaType mediaType;
+        private final CharacterSet characterSet;
+        private final List<Language> languages;
+        private final Tag tag;
+        private final Date modificationDate;
+        private final Map<EntityReference, Dependency> dependencies;
+
+        private CachedRepresentation( Representation entity, Map<EntityReference, Dependency> dependencies )
+            throws IOException
+        {
+            this.dependencies = dependencies;
+            this.text = entity.getText();
+            this.mediaType = entity.getMediaType();
+            this.characterSet = entity.getCharacterSet();
+            this.languages = new ArrayList<>( entity.getLanguages() );
+            this.tag = entity.getTag();
+            this.modificationDate = entity.getModificationDate();
+        }
+
+        private Representation newRepresentation()
+        {
+            StringRepresentation representation = new StringRepresentation( text, mediaType, null, characterSet );
+            representation.getLanguages().addAll( languages );
+            representation.setTag( tag );
+            representation.setModificationDate( modificationDate );
+            return representation;
+        }
+
+        private boolean isCurrent( ZestSPI spi, UnitOfWork unitOfWork )
+        {
+            for( Map.Entry<EntityReference, Dependency> dependency : dependencies.entrySet() )
+            {
+                try
+                {
+                    EntityComposite entity = (EntityComposite) unitOfWork.get(
+                        dependency.getValue().type, dependency.getKey().identity() );
+                    if( !dependency.getValue().version.equals( spi.entityStateOf( entity ).version() ) )
+                    {
+                        return false;
+                    }
+                }
+                catch( NoSuchEntityException e )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Version of an entity a representation was rendered from.
+     */
+    private static final class Dependency
+    {
+        private final Class<?> type;
+        private final String version;
+
+        private Dependency( EntityState state )
+        {
+            this.type = state.entityDescriptor().primaryType();
+            this.version = state.version();
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if( this == o )
+            {
+                return true;
+            }
+            if( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Dependency that = (Dependency) o;
+            return type.equals( that.type ) && version.equals( that.version );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * type.hashCode() + version.hashCode();
+        }
+    }
+}
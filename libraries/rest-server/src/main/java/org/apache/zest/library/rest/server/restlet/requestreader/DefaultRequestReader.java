@@ -30,6 +30,7 @@ import java.time.Period;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.apache.zest.api.association.AssociationDescriptor;
 import org.apache.zest.api.common.Optional;
@@ -92,14 +93,17 @@ public class DefaultRequestReader
     @Tagged( ValueSerialization.Formats.JSON )
     private ValueDeserializer valueDeserializer;
 
+    private final Map<Method, ParameterBinding[]> parameterBindings = new ConcurrentHashMap<>();
+
     @Override
     @SuppressWarnings( "unchecked" )
     public Object[] readRequest( Request request, Method method )
         throws ResourceException
     {
+        Class<?>[] parameterTypes = method.getParameterTypes();
         if( request.getMethod().equals( org.restlet.data.Method.GET ) )
         {
-            Object[] args = new Object[ method.getParameterTypes().length ];
+            Object[] args = new Object[ parameterTypes.length ];
 
             Form queryAsForm = Request.getCurrent().getResourceRef().getQueryAsForm();
             Form entityAsForm;
@@ -121,18 +125,18 @@ public class DefaultRequestReader
 
             if( args.length == 1 )
             {
-                if( ValueComposite.class.isAssignableFrom( method.getParameterTypes()[0] ) )
+                if( ValueComposite.class.isAssignableFrom( parameterTypes[0] ) )
                 {
-                    Class<?> valueType = method.getParameterTypes()[0];
+                    Class<?> valueType = parameterTypes[0];
                     args[0] = getValueFromForm( (Class<ValueComposite>) valueType, queryAsForm, entityAsForm );
                     return args;
                 }
-                else if( Form.class.equals( method.getParameterTypes()[0] ) )
+                else if( Form.class.equals( parameterTypes[0] ) )
                 {
                     args[0] = queryAsForm.isEmpty() ? entityAsForm : queryAsForm;
                     return args;
                 }
-                else if( Response.class.equals( method.getParameterTypes()[0] ) )
+                else if( Response.class.equals( parameterTypes[0] ) )
                 {
                     args[0] = Response.getCurrent();
                     return args;
@@ -145,9 +149,9 @@ public class DefaultRequestReader
         else
         {
 
-            Object[] args = new Object[ method.getParameterTypes().length ];
-            Class<? extends ValueComposite> commandType = (Class<? extends ValueComposite>) method.getParameterTypes()[0];
-            if( method.getParameterTypes()[0].equals( Response.class ) )
+            Object[] args = new Object[ parameterTypes.length ];
+            Class<? extends ValueComposite> commandType = (Class<? extends ValueComposite>) parameterTypes[0];
+            if( parameterTypes[0].equals( Response.class ) )
             {
                 return new Object[]
                 {
@@ -159,7 +163,7 @@ public class DefaultRequestReader
             if( type == null )
             {
                 Form queryAsForm = Request.getCurrent().getResourceRef().getQueryAsForm( CharacterSet.UTF_8 );
-                if( ValueComposite.class.isAssignableFrom( method.getParameterTypes()[0] ) )
+                if( ValueComposite.class.isAssignableFrom( parameterTypes[0] ) )
                 {
                     args[0] = getValueFromForm( commandType, queryAsForm, new Form() );
                 }
@@ -171,7 +175,7 @@ public class DefaultRequestReader
             }
             else
             {
-                if( method.getParameterTypes()[0].equals( Representation.class ) )
+                if( parameterTypes[0].equals( Representation.class ) )
                 {
                     // Command method takes Representation as input
                     return new Object[]
@@ -179,7 +183,7 @@ public class DefaultRequestReader
                         representation
                     };
                 }
-                else if( method.getParameterTypes()[0].equals( Form.class ) )
+                else if( parameterTypes[0].equals( Form.class ) )
                 {
                     // Command method takes Form as input
                     return new Object[]
@@ -187,7 +191,7 @@ public class DefaultRequestReader
                         new Form( representation )
                     };
                 }
-                else if( ValueComposite.class.isAssignableFrom( method.getParameterTypes()[0] ) )
+                else if( ValueComposite.class.isAssignableFrom( parameterTypes[0] ) )
                 {
                     // Need to parse input into ValueComposite
                     if( type.equals( MediaType.APPLICATION_JSON ) )
@@ -233,7 +237,7 @@ public class DefaultRequestReader
                             entityAsForm = new Form();
                         }
 
-                        Class<?> valueType = method.getParameterTypes()[0];
+                        Class<?> valueType = parameterTypes[0];
                         args[0] = getValueFromForm( (Class<ValueComposite>) valueType, queryAsForm, entityAsForm );
                         return args;
                     }
@@ -243,7 +247,7 @@ public class DefaultRequestReader
                                                      "Command has to be in JSON format" );
                     }
                 }
-                else if( method.getParameterTypes()[0].isInterface() && method.getParameterTypes().length == 1 )
+                else if( parameterTypes[0].isInterface() && parameterTypes.length == 1 )
                 {
                     Form queryAsForm = Request.getCurrent().getResourceRef().getQueryAsForm();
                     Form entityAsForm;
@@ -257,7 +261,7 @@ public class DefaultRequestReader
                         entityAsForm = new Form();
                     }
 
-                    args[0] = uowf.currentUnitOfWork().get( method.getParameterTypes()[0],
+                    args[0] = uowf.currentUnitOfWork().get( parameterTypes[0],
                                                            getValue( "entity", queryAsForm, entityAsForm ) );
 
                     return args;
@@ -352,158 +356,157 @@ public class DefaultRequestReader
         return builder.newInstance();
     }
 
-    @SuppressWarnings( "unchecked" )
     private void parseMethodArguments( Method method, Object[] args, Form queryAsForm, Form entityAsForm )
     {
-        // Parse each argument separately using the @Name annotation as help
-        int idx = 0;
-        for( Annotation[] annotations : method.getParameterAnnotations() )
+        // Parse each argument separately using the binding plan of the method
+        ParameterBinding[] bindings = parameterBindings.computeIfAbsent( method, this::bindParameters );
+        for( int idx = 0; idx < bindings.length; idx++ )
         {
-            Name name = (Name) first( filter( isType( Name.class ), iterable( annotations ) ) );
+            ParameterBinding binding = bindings[ idx ];
+            String argString = getValue( binding.name, queryAsForm, entityAsForm );
 
-            if( name == null )
+            Object arg = binding.parser.apply( argString );
+
+            if( arg == null && !binding.optional )
             {
-                throw new IllegalStateException( "No @Name annotation found on parameter of method:" + method );
+                throw new IllegalArgumentException( "Parameter " + binding.name + " was not set" );
             }
 
-            String argString = getValue( name.value(), queryAsForm, entityAsForm );
+            args[idx] = arg;
+        }
+    }
 
-            // Parameter conversion
-            Class<?> parameterType = method.getParameterTypes()[idx];
-            Object arg = null;
-            if( parameterType.equals( String.class ) )
-            {
-                arg = argString;
-            }
-            else if( parameterType.equals( EntityReference.class ) )
-            {
-                arg = EntityReference.parseEntityReference( argString );
-            }
-            else if( parameterType.isEnum() )
-            {
-                arg = Enum.valueOf( (Class<Enum>) parameterType, argString );
-            }
-            else if( Integer.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Integer.valueOf( argString );
-            }
-            else if( Integer.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Integer.valueOf( argString );
-                }
-            }
-            else if( Long.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Long.valueOf( argString );
-            }
-            else if( Long.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Long.valueOf( argString );
-                }
-            }
-            else if( Short.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Short.valueOf( argString );
-            }
-            else if( Short.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Short.valueOf( argString );
-                }
-            }
-            else if( Double.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Double.valueOf( argString );
-            }
-            else if( Double.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Double.valueOf( argString );
-                }
-            }
-            else if( Float.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Float.valueOf( argString );
-            }
-            else if( Float.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Float.valueOf( argString );
-                }
-            }
-            else if( Character.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = argString.charAt( 0 );
-            }
-            else if( Character.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = argString.charAt( 0 );
-                }
-            }
-            else if( Boolean.TYPE.isAssignableFrom( parameterType ) )
-            {
-                arg = Boolean.valueOf( argString );
-            }
-            else if( Boolean.class.isAssignableFrom( parameterType ) )
-            {
-                if( argString != null )
-                {
-                    arg = Boolean.valueOf( argString );
-                }
-            }
-            else if( LocalDate.class.isAssignableFrom( parameterType ) )
-            {
-                arg = LocalDate.parse( argString );
-            }
-            else if( LocalDateTime.class.isAssignableFrom( parameterType ) )
-            {
-                arg = LocalDateTime.parse( argString );
-            }
-            else if( ZonedDateTime.class.isAssignableFrom( parameterType ) )
-            {
-                arg = ZonedDateTime.parse( argString );
-            }
-            else if( OffsetDateTime.class.isAssignableFrom( parameterType ) )
-            {
-                arg = OffsetDateTime.parse( argString );
-            }
-            else if( Instant.class.isAssignableFrom( parameterType ) )
-            {
-                arg = Instant.parse( argString );
-            }
-            else if( Duration.class.isAssignableFrom( parameterType ) )
-            {
-                arg = Duration.parse( argString );
-            }
-            else if( Period.class.isAssignableFrom( parameterType ) )
-            {
-                arg = Period.parse( argString );
-            }
-            else if( parameterType.isInterface() )
-            {
-                arg = uowf.currentUnitOfWork().get( parameterType, argString );
-            }
-            else
-            {
-                throw new IllegalArgumentException( "Don't know how to parse parameter " + name.value()
-                                                    + " of type " + parameterType.getName() );
-            }
+    private ParameterBinding[] bindParameters( Method method )
+    {
+        // Bind each argument using the @Name annotation as help
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        ParameterBinding[] bindings = new ParameterBinding[ parameterTypes.length ];
+        for( int idx = 0; idx < parameterTypes.length; idx++ )
+        {
+            Annotation[] annotations = parameterAnnotations[ idx ];
+            Name name = (Name) first( filter( isType( Name.class ), iterable( annotations ) ) );
 
-            if( arg == null && !matchesAny( isType( Optional.class ), iterable( annotations ) ) )
+            if( name == null )
             {
-                throw new IllegalArgumentException( "Parameter " + name.value() + " was not set" );
+                throw new IllegalStateException( "No @Name annotation found on parameter of method:" + method );
             }
 
-            args[idx++] = arg;
+            bindings[ idx ] = new ParameterBinding( name.value(),
+                                                    matchesAny( isType( Optional.class ), iterable( annotations ) ),
+                                                    parameterParser( name.value(), parameterTypes[ idx ] ) );
+        }
+        return bindings;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private Function<String, Object> parameterParser( String name, Class<?> parameterType )
+    {
+        // Parameter conversion
+        if( parameterType.equals( String.class ) )
+        {
+            return value -> value;
+        }
+        else if( parameterType.equals( EntityReference.class ) )
+        {
+            return value -> EntityReference.parseEntityReference( value );
+        }
+        else if( parameterType.isEnum() )
+        {
+            return value -> Enum.valueOf( (Class<Enum>) parameterType, value );
+        }
+        else if( Integer.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Integer.valueOf( value );
+        }
+        else if( Integer.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Integer.valueOf( value );
+        }
+        else if( Long.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Long.valueOf( value );
+        }
+        else if( Long.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Long.valueOf( value );
+        }
+        else if( Short.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Short.valueOf( value );
+        }
+        else if( Short.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Short.valueOf( value );
+        }
+        else if( Double.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Double.valueOf( value );
+        }
+        else if( Double.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Double.valueOf( value );
+        }
+        else if( Float.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Float.valueOf( value );
+        }
+        else if( Float.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Float.valueOf( value );
+        }
+        else if( Character.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> value.charAt( 0 );
+        }
+        else if( Character.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : value.charAt( 0 );
+        }
+        else if( Boolean.TYPE.isAssignableFrom( parameterType ) )
+        {
+            return value -> Boolean.valueOf( value );
+        }
+        else if( Boolean.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> value == null ? null : Boolean.valueOf( value );
+        }
+        else if( LocalDate.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> LocalDate.parse( value );
+        }
+        else if( LocalDateTime.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> LocalDateTime.parse( value );
+        }
+        else if( ZonedDateTime.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> ZonedDateTime.parse( value );
+        }
+        else if( OffsetDateTime.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> OffsetDateTime.parse( value );
+        }
+        else if( Instant.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> Instant.parse( value );
+        }
+        else if( Duration.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> Duration.parse( value );
+        }
+        else if( Period.class.isAssignableFrom( parameterType ) )
+        {
+            return value -> Period.parse( value );
+        }
+        else if( parameterType.isInterface() )
+        {
+            return value -> uowf.currentUnitOfWork().get( parameterType, value );
+        }
+        else
+        {
+            throw new IllegalArgumentException( "Don't know how to parse parameter " + name
+                                                + " of type " + parameterType.getName() );
         }
     }
 
@@ -516,4 +519,18 @@ public class DefaultRequestReader
         }
         return value;
     }
+
+    private static class ParameterBinding
+    {
+        private final String name;
+        private final boolean optional;
+        private final Function<String, Object> parser;
+
+        private ParameterBinding( String name, boolean optional, Function<String, Object> parser )
+        {
+            this.name = name;
+            this.optional = optional;
+            this.parser = parser;
+        }
+    }
 }
@@ -0,0 +1,302 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.library.rest.server.api;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.library.rest.server.restlet.ResponseCache;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ResourceException;
+import org.restlet.security.User;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConditionalGetTest
+    extends AbstractZestTest
+{
+    private static final String ITEM = "http://localhost/items/1/";
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.entities( Item.class );
+    }
+
+    @Test
+    public void givenMatchingTagWhenConditionalGetThenNotModified()
+        throws Exception
+    {
+        createItem( "1", "Foo" );
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            Tag current = new ResourceValidity( item, spi, get( null ) ).tag();
+
+            Request request = get( null );
+            request.getConditions().getNoneMatch().add( current );
+            try
+            {
+                new ResourceValidity( item, spi, request ).checkRequest();
+                fail( "Expected 304 Not Modified" );
+            }
+            catch( ResourceException e )
+            {
+                assertThat( e.getStatus(), equalTo( Status.REDIRECTION_NOT_MODIFIED ) );
+            }
+        }
+        finally
+        {
+            uow.discard();
+        }
+    }
+
+    @Test
+    public void givenUpdatedEntityWhenConditionalGetThenRenderedAgain()
+        throws Exception
+    {
+        createItem( "1", "Foo" );
+        ResponseCache cache = new ResponseCache( 10 );
+
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        Tag before;
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            before = new ResourceValidity( item, spi, get( null ) ).tag();
+            cache.store( get( null ), "1", render( get( null ), "Foo", before ), spi.entityStatesOf( uow ) );
+            assertThat( cache.lookup( get( null ), "1", before, spi, uow ).getText(), equalTo( "Foo" ) );
+        }
+        finally
+        {
+            uow.discard();
+        }
+
+        uow = unitOfWorkFactory.newUnitOfWork();
+        uow.get( Item.class, "1" ).name().set( "Bar" );
+        uow.complete();
+
+        uow = unitOfWorkFactory.newUnitOfWork();
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            Request request = get( null );
+            request.getConditions().getNoneMatch().add( before );
+            ResourceValidity validity = new ResourceValidity( item, spi, request );
+
+            // No 304 for the old tag, and the representation of the old version is not served
+            validity.checkRequest();
+            assertThat( cache.lookup( request, validity.identity(), validity.tag(), spi, uow ), nullValue() );
+            assertThat( cache.lookup( get( null ), "1", before, spi, uow ), nullValue() );
+        }
+        finally
+        {
+            uow.discard();
+        }
+    }
+
+    @Test
+    public void givenRepresentationReadingOtherEntityWhenThatEntityIsUpdatedThenRenderedAgain()
+        throws Exception
+    {
+        createItem( "1", "Foo" );
+        createItem( "2", "Bar" );
+        ResponseCache cache = new ResponseCache( 10 );
+
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        Tag tag;
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            tag = new ResourceValidity( item, spi, get( null ) ).tag();
+            String text = item.name().get() + " " + uow.get( Item.class, "2" ).name().get();
+            cache.store( get( null ), "1", render( get( null ), text, tag ), spi.entityStatesOf( uow ) );
+        }
+        finally
+        {
+            uow.discard();
+        }
+        assertThat( lookup( cache, get( null ), tag ).getText(), equalTo( "Foo Bar" ) );
+
+        // Committed without notifying the cache, as if by another node
+        uow = unitOfWorkFactory.newUnitOfWork();
+        uow.get( Item.class, "2" ).name().set( "Baz" );
+        uow.complete();
+
+        assertThat( lookup( cache, get( null ), tag ), nullValue() );
+        assertThat( cache.size(), equalTo( 0 ) );
+    }
+
+    @Test
+    public void givenChangedDependencyWhenNotifiedThenEntryIsReleased()
+        throws Exception
+    {
+        createItem( "1", "Foo" );
+        createItem( "2", "Bar" );
+        ResponseCache cache = new ResponseCache( 10 );
+
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            Item other = uow.get( Item.class, "2" );
+            Tag tag = new ResourceValidity( item, spi, get( null ) ).tag();
+            cache.store( get( null ), "1", render( get( null ), "Foo Bar", tag ), spi.entityStatesOf( uow ) );
+            assertThat( cache.size(), equalTo( 1 ) );
+
+            cache.notifyChanges( Collections.singleton( spi.entityStateOf( (EntityComposite) other ) ) );
+            assertThat( cache.size(), equalTo( 0 ) );
+        }
+        finally
+        {
+            uow.discard();
+        }
+    }
+
+    @Test
+    public void givenUncommittedChangesWhenStoringThenNotCached()
+        throws Exception
+    {
+        createItem( "1", "Foo" );
+        ResponseCache cache = new ResponseCache( 10 );
+
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        try
+        {
+            Item item = uow.get( Item.class, "1" );
+            item.name().set( "Bar" );
+            Tag tag = new ResourceValidity( item, spi, get( null ) ).tag();
+            cache.store( get( null ), "1", render( get( null ), "Bar", tag ), spi.entityStatesOf( uow ) );
+            assertThat( cache.size(), equalTo( 0 ) );
+        }
+        finally
+        {
+            uow.discard();
+        }
+    }
+
+    @Test
+    public void givenTwoUsersWhenLookingUpThenRepresentationsAreNotShared()
+        throws Exception
+    {
+        ResponseCache cache = new ResponseCache( 10 );
+        Tag tag = new Tag( "1/1" );
+
+        cache.store( get( "alice" ), "1", render( get( "alice" ), "Alice's view", tag ), Stream.empty() );
+
+        assertThat( lookup( cache, get( "alice" ), tag ).getText(), equalTo( "Alice's view" ) );
+        assertThat( lookup( cache, get( "bob" ), tag ), nullValue() );
+        assertThat( lookup( cache, get( null ), tag ), nullValue() );
+
+        cache.store( get( "bob" ), "1", render( get( "bob" ), "Bob's view", tag ), Stream.empty() );
+        assertThat( lookup( cache, get( "bob" ), tag ).getText(), equalTo( "Bob's view" ) );
+        assertThat( lookup( cache, get( "alice" ), tag ).getText(), equalTo( "Alice's view" ) );
+    }
+
+    @Test
+    public void givenBinaryRepresentationWhenStoringThenNotCached()
+        throws Exception
+    {
+        ResponseCache cache = new ResponseCache( 10 );
+        Tag tag = new Tag( "1/1" );
+        Request request = get( null );
+        Response response = new Response( request );
+        Representation image = new ByteArrayRepresentation( new byte[]{ (byte) 0x89, 'P', 'N', 'G' }, MediaType.IMAGE_PNG );
+        image.setTag( tag );
+        response.setEntity( image );
+
+        cache.store( request, "1", response, Stream.empty() );
+
+        assertThat( cache.size(), equalTo( 0 ) );
+        assertThat( lookup( cache, request, tag ), nullValue() );
+    }
+
+    private Representation lookup( ResponseCache cache, Request request, Tag tag )
+    {
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        try
+        {
+            return cache.lookup( request, "1", tag, spi, uow );
+        }
+        finally
+        {
+            uow.discard();
+        }
+    }
+
+    private void createItem( String identity, String name )
+        throws Exception
+    {
+        UnitOfWork uow = unitOfWorkFactory.newUnitOfWork();
+        EntityBuilder<Item> builder = uow.newEntityBuilder( Item.class, identity );
+        builder.instance().name().set( name );
+        builder.newInstance();
+        uow.complete();
+    }
+
+    private static Request get( String user )
+    {
+        Request request = new Request( Method.GET, ITEM );
+        if( user != null )
+        {
+            request.getClientInfo().setUser( new User( user ) );
+        }
+        return request;
+    }
+
+    private static Response render( Request request, String text, Tag tag )
+    {
+        Response response = new Response( request );
+        StringRepresentation representation = new StringRepresentation( text, MediaType.APPLICATION_JSON );
+        representation.setTag( tag );
+        response.setEntity( representation );
+        response.setStatus( Status.SUCCESS_OK );
+        return response;
+    }
+
+    public interface Item
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.scripting;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.zest.api.structure.Application;
+
+import static org.apache.zest.api.activation.ActivationEvent.EventType.PASSIVATED;
+
+/**
+ * Compiled scripts of one {@link Application}, shared by the script mixins of all its composites.
+ * <p>
+ * A cache is created on first use and dropped when its Application is passivated, so compiled scripts never
+ * outlive the Application that loaded them nor keep its classes reachable. Each scripting library keeps its
+ * entries under its own name, and clearing them only affects the given Application.
+ * </p>
+ */
+public final class ScriptCache
+{
+    private static final Map<Application, ScriptCache> CACHES = new WeakHashMap<>();
+
+    private final ConcurrentMap<String, ConcurrentMap<?, ?>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param application the Application the scripts are loaded by
+     *
+     * @return the script cache of the Application
+     */
+    public static ScriptCache of( Application application )
+    {
+        synchronized( CACHES )
+        {
+            ScriptCache cache = CACHES.get( application );
+            if( cache == null )
+            {
+                cache = new ScriptCache();
+                CACHES.put( application, cache );
+                application.registerActivationEventListener( event -> {
+                    if( event.source() == application && event.type() == PASSIVATED )
+                    {
+                        synchronized( CACHES )
+                        {
+                            CACHES.remove( application );
+                        }
+                    }
+                } );
+            }
+            return cache;
+        }
+    }
+
+    private ScriptCache()
+    {
+    }
+
+    /**
+     * @param name name of the cached entries, unique per scripting library
+     * @param <K>  key type
+     * @param <V>  compiled script type
+     *
+     * @return the named entries, created empty on first use
+     */
+    @SuppressWarnings( "unchecked" )
+    public <K, V> ConcurrentMap<K, V> entries( String name )
+    {
+        return (ConcurrentMap<K, V>) entries.computeIfAbsent( name, key -> new ConcurrentHashMap<>() );
+    }
+
+    /**
+     * Drop the named entries so that sources are compiled again on next use.
+     *
+     * @param name name of the cached entries
+     */
+    public void clear( String name )
+    {
+        entries.remove( name );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.scripting;
+
+import java.util.concurrent.ConcurrentMap;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ScriptCacheTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+    }
+
+    @Test
+    public void givenApplicationWhenGettingCacheTwiceThenSameCacheIsReturned()
+    {
+        assertThat( ScriptCache.of( application ), sameInstance( ScriptCache.of( application ) ) );
+    }
+
+    @Test
+    public void givenCachedEntriesWhenClearingOtherNameThenEntriesAreKept()
+    {
+        ScriptCache cache = ScriptCache.of( application );
+        ConcurrentMap<String, String> entries = cache.entries( "first" );
+        entries.put( "key", "compiled" );
+        cache.clear( "second" );
+        assertThat( cache.<String, String>entries( "first" ).get( "key" ), equalTo( "compiled" ) );
+        cache.clear( "first" );
+        assertThat( cache.<String, String>entries( "first" ).isEmpty(), equalTo( true ) );
+    }
+
+    @Test
+    public void givenPassivatedApplicationWhenGettingCacheThenNewCacheIsReturned()
+        throws Exception
+    {
+        ScriptCache cache = ScriptCache.of( application );
+        application.passivate();
+        application.activate();
+        assertThat( ScriptCache.of( application ), not( sameInstance( cache ) ) );
+    }
+}
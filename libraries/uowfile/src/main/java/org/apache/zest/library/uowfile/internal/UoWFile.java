@@ -22,15 +22,13 @@ package org.apache.zest.library.uowfile.internal;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
-import org.apache.zest.io.Inputs;
-import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Files;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class UoWFile
 {
     /* package */ static final Logger LOGGER = LoggerFactory.getLogger( "org.apache.zest.library.uowfile" );
-    private static final int FILE_BUFFER_SIZE = 4096;
     private static final AtomicLong COUNT = new AtomicLong( 0L );
     private final long originalIdentity;
     private final File original;
@@ -132,7 +130,7 @@ public class UoWFile
     {
         try
         {
-            Inputs.byteBuffer( source, FILE_BUFFER_SIZE ).transferTo( Outputs.byteBuffer( dest ) );
+            Files.copy( source, dest );
         }
         catch( IOException ex )
         {
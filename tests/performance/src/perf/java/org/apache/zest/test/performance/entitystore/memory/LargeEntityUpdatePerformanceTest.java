@@ -0,0 +1,222 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.entitystore.memory;
+
+import java.lang.management.ManagementFactory;
+import java.text.NumberFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.zest.api.association.ManyAssociation;
+import org.apache.zest.api.association.NamedAssociation;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.spi.uuid.UuidIdentityGeneratorService;
+import org.apache.zest.test.cache.MemoryCachePoolService;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures updates of a single part of a large, cached entity, where the loaded state is shared with the cache and
+ * has to be copied before it is changed.
+ */
+public class LargeEntityUpdatePerformanceTest
+{
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 20000;
+    private static final int ATTRIBUTES = 200;
+    private static final int RELATED = 500;
+    private static final int SECTIONS = 100;
+
+    private SingletonAssembler assembler;
+    private UnitOfWorkFactory uowf;
+    private String document;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.withDefaultUnitOfWorkFactory();
+                module.services( MemoryEntityStoreService.class );
+                module.services( MemoryCachePoolService.class );
+                module.services( UuidIdentityGeneratorService.class );
+                module.services( OrgJsonValueSerializationService.class )
+                    .taggedWith( ValueSerialization.Formats.JSON );
+                module.entities( Document.class );
+            }
+        };
+        Module module = assembler.module();
+        uowf = module.unitOfWorkFactory();
+        document = newLargeDocument();
+    }
+
+    @After
+    public void tearDown()
+        throws Exception
+    {
+        assembler.application().passivate();
+    }
+
+    @Test
+    public void updateProperty()
+        throws Exception
+    {
+        run( "update property", new Update()
+        {
+            @Override
+            public void apply( UnitOfWork uow, Document doc, int i )
+            {
+                doc.title().set( "Title " + i );
+            }
+        } );
+    }
+
+    @Test
+    public void updateManyAssociation()
+        throws Exception
+    {
+        run( "update manyassociation", new Update()
+        {
+            @Override
+            public void apply( UnitOfWork uow, Document doc, int i )
+            {
+                Document first = doc.related().get( 0 );
+                doc.related().remove( first );
+                doc.related().add( first );
+            }
+        } );
+    }
+
+    @Test
+    public void readOnly()
+        throws Exception
+    {
+        run( "read only", new Update()
+        {
+            @Override
+            public void apply( UnitOfWork uow, Document doc, int i )
+            {
+                doc.title().get();
+            }
+        } );
+    }
+
+    private void run( String name, Update update )
+        throws Exception
+    {
+        updates( update, WARMUP );
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        updates( update, ITERATIONS );
+        long time = Math.max( 1, ( System.nanoTime() - start ) / 1000000 );
+        NumberFormat format = NumberFormat.getIntegerInstance();
+        System.out.println( "Large entity " + name + ", UnitOfWorks per second: "
+                            + format.format( ITERATIONS * 1000L / time )
+                            + ", bytes allocated per UnitOfWork: "
+                            + ( allocated < 0 ? "n/a" : format.format( ( allocatedBytes() - allocated ) / ITERATIONS ) ) );
+    }
+
+    private void updates( Update update, int count )
+        throws Exception
+    {
+        for( int i = 0; i < count; i++ )
+        {
+            try (UnitOfWork uow = uowf.newUnitOfWork())
+            {
+                update.apply( uow, uow.get( Document.class, document ), i );
+                uow.complete();
+            }
+        }
+    }
+
+    private String newLargeDocument()
+        throws Exception
+    {
+        try (UnitOfWork uow = uowf.newUnitOfWork())
+        {
+            Document doc = uow.newEntity( Document.class );
+            doc.title().set( "Title" );
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for( int i = 0; i < ATTRIBUTES; i++ )
+            {
+                attributes.put( "attribute-" + i, "value-" + i );
+            }
+            doc.attributes().set( attributes );
+            for( int i = 0; i < RELATED; i++ )
+            {
+                doc.related().add( uow.newEntity( Document.class ) );
+            }
+            for( int i = 0; i < SECTIONS; i++ )
+            {
+                doc.sections().put( "section-" + i, uow.newEntity( Document.class ) );
+            }
+            String identity = doc.identity().get();
+            uow.complete();
+            return identity;
+        }
+    }
+
+    @SuppressWarnings( "restriction" )
+    private static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if( threads instanceof com.sun.management.ThreadMXBean )
+        {
+            return ( (com.sun.management.ThreadMXBean) threads ).getThreadAllocatedBytes( Thread.currentThread().getId() );
+        }
+        return -1;
+    }
+
+    private interface Update
+    {
+        void apply( UnitOfWork uow, Document doc, int i );
+    }
+
+    public interface Document
+        extends EntityComposite
+    {
+        @Optional
+        Property<String> title();
+
+        @Optional
+        Property<Map<String, String>> attributes();
+
+        ManyAssociation<Document> related();
+
+        NamedAssociation<Document> sections();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.NumberFormat;
+import org.apache.zest.io.ByteBufferPool;
+import org.apache.zest.io.Files;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.io.Transforms;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares heap buffered, pooled direct, memory-mapped and transferTo based file copies, and Reader based with
+ * mapped byte scanning line reads.
+ * <p>
+ * The size of the generated file defaults to 256MB, use {@code -Dzest.perf.io.megabytes=4096} for multi-GB runs.
+ * </p>
+ */
+public class FileTransferPerformanceTest
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static File source;
+    private static File destination;
+
+    @BeforeClass
+    public static void createSource()
+        throws IOException
+    {
+        long megabytes = Long.getLong( "zest.perf.io.megabytes", 256L );
+        source = File.createTempFile( "zest-perf-io", ".txt" );
+        destination = File.createTempFile( "zest-perf-io", ".copy" );
+        String line = "{\"identity\":\"0123456789abcdef\",\"version\":\"42\",\"modified\":1234567890123}\n";
+        long lines = megabytes * 1024 * 1024 / line.length();
+        try( Writer writer = new BufferedWriter( new FileWriter( source ), BUFFER_SIZE ) )
+        {
+            for( long i = 0; i < lines; i++ )
+            {
+                writer.write( line );
+            }
+        }
+    }
+
+    @AfterClass
+    public static void deleteFiles()
+    {
+        //noinspection ResultOfMethodCallIgnored
+        source.delete();
+        //noinspection ResultOfMethodCallIgnored
+        destination.delete();
+    }
+
+    @Test
+    public void heapByteBufferCopy()
+        throws IOException
+    {
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Inputs.byteBuffer( source, BUFFER_SIZE ).transferTo( Outputs.byteBuffer( destination ) );
+            report( "Heap ByteBuffer copy", start );
+        }
+    }
+
+    @Test
+    public void pooledDirectByteBufferCopy()
+        throws IOException
+    {
+        ByteBufferPool pool = new ByteBufferPool( BUFFER_SIZE, 4 );
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Inputs.byteBuffer( source, pool ).transferTo( Outputs.byteBuffer( destination ) );
+            report( "Pooled direct ByteBuffer copy", start );
+        }
+    }
+
+    @Test
+    public void mappedByteBufferCopy()
+        throws IOException
+    {
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Inputs.mappedByteBuffer( source ).transferTo( Outputs.byteBuffer( destination ) );
+            report( "Mapped ByteBuffer copy", start );
+        }
+    }
+
+    @Test
+    public void transferToCopy()
+        throws IOException
+    {
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Files.copy( source, destination );
+            report( "FileChannel.transferTo copy", start );
+        }
+    }
+
+    @Test
+    public void readerLines()
+        throws IOException
+    {
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Transforms.Counter<String> counter = new Transforms.Counter<>();
+            Inputs.text( source ).transferTo( Transforms.map( counter, Outputs.<String>noop() ) );
+            report( "Reader lines (" + counter.count() + ")", start );
+        }
+    }
+
+    @Test
+    public void mappedLines()
+        throws IOException
+    {
+        for( int round = 0; round < 3; round++ )
+        {
+            long start = System.nanoTime();
+            Transforms.Counter<String> counter = new Transforms.Counter<>();
+            Inputs.mappedText( source ).transferTo( Transforms.map( counter, Outputs.<String>noop() ) );
+            report( "Mapped lines (" + counter.count() + ")", start );
+        }
+    }
+
+    private void report( String name, long start )
+    {
+        long millis = Math.max( 1, ( System.nanoTime() - start ) / 1000000 );
+        long megabytesPerSecond = source.length() * 1000 / millis / ( 1024 * 1024 );
+        System.out.println( name + ": " + millis + "ms, MB per second: "
+                            + NumberFormat.getIntegerInstance().format( megabytesPerSecond ) );
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.library.circuitbreaker;
+
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.zest.library.circuitbreaker.Bulkhead;
+import org.apache.zest.library.circuitbreaker.CircuitBreaker;
+import org.apache.zest.library.circuitbreaker.RateLimiter;
+import org.junit.Test;
+
+/**
+ * Measures CircuitBreaker, Bulkhead and RateLimiter throughput when hammered by many threads.
+ */
+public class CircuitBreakerContentionPerformanceTest
+{
+    private static final int THREADS = 32;
+    private static final long CALLS_PER_THREAD = 1000000L;
+
+    @Test
+    public void successesOnFullServiceLevel()
+        throws InterruptedException
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 10, 60000 );
+        run( "CircuitBreaker successes", () -> {
+            if( breaker.isOn() )
+            {
+                breaker.success();
+            }
+        } );
+    }
+
+    @Test
+    public void mixedFailuresAndSuccesses()
+        throws InterruptedException
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 1000000, 60000 );
+        IOException failure = new IOException();
+        run( "CircuitBreaker 1% failures", () -> {
+            if( breaker.isOn() )
+            {
+                if( ThreadLocalRandom.current().nextInt( 100 ) == 0 )
+                {
+                    breaker.throwable( failure );
+                }
+                else
+                {
+                    breaker.success();
+                }
+            }
+        } );
+    }
+
+    @Test
+    public void bulkheadEnterExit()
+        throws InterruptedException
+    {
+        Bulkhead bulkhead = new Bulkhead( THREADS / 2 );
+        run( "Bulkhead", () -> {
+            if( bulkhead.tryEnter() )
+            {
+                bulkhead.exit();
+            }
+        } );
+    }
+
+    @Test
+    public void rateLimiterAcquire()
+        throws InterruptedException
+    {
+        RateLimiter rateLimiter = new RateLimiter( 1000000, 1000 );
+        run( "RateLimiter", rateLimiter::tryAcquire );
+    }
+
+    private void run( String name, Runnable call )
+        throws InterruptedException
+    {
+        // Warmup
+        for( int i = 0; i < 100000; i++ )
+        {
+            call.run();
+        }
+
+        int rounds = 3;
+        for( int round = 0; round < rounds; round++ )
+        {
+            CountDownLatch start = new CountDownLatch( 1 );
+            Thread[] threads = new Thread[ THREADS ];
+            for( int i = 0; i < THREADS; i++ )
+            {
+                threads[ i ] = new Thread( () -> {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch( InterruptedException e )
+                    {
+                        return;
+                    }
+                    for( long j = 0; j < CALLS_PER_THREAD; j++ )
+                    {
+                        call.run();
+                    }
+                } );
+                threads[ i ].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for( Thread thread : threads )
+            {
+                thread.join();
+            }
+            long time = Math.max( 1, ( System.nanoTime() - begin ) / 1000000 );
+            long callsPerSecond = ( THREADS * CALLS_PER_THREAD / time ) * 1000;
+            System.out.println( name + ", " + THREADS + " threads, calls per second: "
+                                + NumberFormat.getIntegerInstance().format( callsPerSecond ) );
+        }
+    }
+}
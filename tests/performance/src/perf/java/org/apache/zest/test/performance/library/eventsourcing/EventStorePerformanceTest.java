@@ -0,0 +1,178 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.library.eventsourcing;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueBuilderFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.io.Output;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.library.eventsourcing.domain.api.DomainEventValue;
+import org.apache.zest.library.eventsourcing.domain.api.UnitOfWorkDomainEventsValue;
+import org.apache.zest.library.eventsourcing.domain.source.EventSource;
+import org.apache.zest.library.eventsourcing.domain.source.EventStore;
+import org.apache.zest.library.eventsourcing.domain.source.jdbm.JdbmEventStoreService;
+import org.apache.zest.library.eventsourcing.domain.source.segmentlog.SegmentLogEventStoreConfiguration;
+import org.apache.zest.library.eventsourcing.domain.source.segmentlog.SegmentLogEventStoreService;
+import org.apache.zest.library.fileconfig.FileConfigurationOverride;
+import org.apache.zest.library.fileconfig.FileConfigurationService;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.test.util.DelTreeAfter;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares append and replay throughput of the JDBM and segment log EventStores.
+ */
+public class EventStorePerformanceTest
+{
+    private static final File DATA_DIR = new File( "build/tmp/eventstore-performance" );
+    private static final int TRANSACTIONS = 20000;
+    private static final int WRITERS = 8;
+
+    @Rule
+    public final DelTreeAfter delTreeAfter = new DelTreeAfter( DATA_DIR );
+
+    @Test
+    public void jdbm()
+        throws Exception
+    {
+        run( "JdbmEventStore", JdbmEventStoreService.class );
+    }
+
+    @Test
+    public void segmentLog()
+        throws Exception
+    {
+        run( "SegmentLogEventStore", SegmentLogEventStoreService.class );
+    }
+
+    private void run( String name, Class<?> storeType )
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                new EntityTestAssembler().assemble( module );
+                new OrgJsonValueSerializationAssembler().assemble( module );
+                module.services( FileConfigurationService.class )
+                    .setMetaInfo( new FileConfigurationOverride().withData( new File( DATA_DIR, name ) ) );
+                module.values( DomainEventValue.class, UnitOfWorkDomainEventsValue.class );
+                module.entities( SegmentLogEventStoreConfiguration.class );
+                module.services( storeType );
+            }
+        };
+        try
+        {
+            ValueBuilderFactory values = assembler.module();
+            EventStore store = assembler.module().findService( EventStore.class ).get();
+            EventSource source = assembler.module().findService( EventSource.class ).get();
+
+            long start = System.nanoTime();
+            append( values, store, TRANSACTIONS );
+            report( name + " append, 1 writer", TRANSACTIONS, start );
+
+            start = System.nanoTime();
+            CountDownLatch done = new CountDownLatch( WRITERS );
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            for( int i = 0; i < WRITERS; i++ )
+            {
+                new Thread( () -> {
+                    try
+                    {
+                        append( values, store, TRANSACTIONS / WRITERS );
+                    }
+                    catch( Exception e )
+                    {
+                        failure.set( e );
+                    }
+                    finally
+                    {
+                        done.countDown();
+                    }
+                } ).start();
+            }
+            done.await();
+            if( failure.get() != null )
+            {
+                throw failure.get();
+            }
+            report( name + " append, " + WRITERS + " writers", TRANSACTIONS, start );
+
+            for( int round = 0; round < 3; round++ )
+            {
+                start = System.nanoTime();
+                Output<Object, RuntimeException> noop = Outputs.noop();
+                source.events( 0, Long.MAX_VALUE ).transferTo( noop );
+                report( name + " replay from start", source.count(), start );
+
+                start = System.nanoTime();
+                source.events( source.count() / 2, Long.MAX_VALUE ).transferTo( noop );
+                report( name + " replay from middle", source.count() / 2, start );
+            }
+        }
+        finally
+        {
+            assembler.application().passivate();
+        }
+    }
+
+    private static void append( ValueBuilderFactory values, EventStore store, int count )
+        throws IOException
+    {
+        for( int i = 0; i < count; i++ )
+        {
+            ValueBuilder<DomainEventValue> event = values.newValueBuilder( DomainEventValue.class );
+            event.prototype().entityType().set( "org.example.Order" );
+            event.prototype().entityId().set( "order-" + i );
+            event.prototype().name().set( "changeDescription" );
+            event.prototype().parameters().set( "{\"param0\":\"New description " + i + "\"}" );
+
+            ValueBuilder<UnitOfWorkDomainEventsValue> builder = values.newValueBuilder( UnitOfWorkDomainEventsValue.class );
+            builder.prototype().version().set( "1.0" );
+            builder.prototype().usecase().set( "Change description" );
+            builder.prototype().timestamp().set( Instant.now() );
+            builder.prototype().events().set( Collections.singletonList( event.newInstance() ) );
+            Inputs.iterable( Collections.singletonList( builder.newInstance() ) ).transferTo( store.storeEvents() );
+        }
+    }
+
+    private static void report( String name, long count, long start )
+    {
+        long time = Math.max( 1, ( System.nanoTime() - start ) / 1000000 );
+        System.out.println( name + ", transactions per second: "
+                            + NumberFormat.getIntegerInstance().format( count * 1000 / time ) );
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.runtime.structure;
+
+import org.junit.Test;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.composite.ModelDescriptor;
+import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.structure.ApplicationDescriptor;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueComposite;
+import org.apache.zest.bootstrap.ApplicationAssembler;
+import org.apache.zest.bootstrap.ApplicationAssembly;
+import org.apache.zest.bootstrap.ApplicationAssemblyFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.bootstrap.LayerAssembly;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.functional.HierarchicalVisitorAdapter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests performance of building and binding the model of a large application.
+ * <p>
+ * The synthetic application has 5 layers of 50 modules each, and every module declares 10 transients, 9 values and
+ * 1 service, for a total of 5,000 composites.
+ * </p>
+ */
+public class ApplicationAssemblyPerformanceTest
+{
+    private static final int LAYERS = 5;
+    private static final int MODULES_PER_LAYER = 50;
+    private static final Class<?>[] TRANSIENTS =
+        {
+            T0.class, T1.class, T2.class, T3.class, T4.class, T5.class, T6.class, T7.class, T8.class, T9.class
+        };
+    private static final Class<?>[] VALUES =
+        {
+            V0.class, V1.class, V2.class, V3.class, V4.class, V5.class, V6.class, V7.class, V8.class
+        };
+
+    @Test
+    public void newApplicationModelPerformance()
+        throws AssemblyException
+    {
+        int rounds = 3;
+        for( int i = 0; i < rounds; i++ )
+        {
+            long start = System.nanoTime();
+            ApplicationDescriptor model = new Energy4Java().newApplicationModel( new LargeApplicationAssembler() );
+            long time = ( System.nanoTime() - start ) / 1000000L;
+
+            int composites = countComposites( model );
+            assertEquals( LAYERS * MODULES_PER_LAYER * ( TRANSIENTS.length + VALUES.length + 1 ), composites );
+            System.out.println( "Application model of " + composites + " composites built in " + time + " ms"
+                                + " (" + Runtime.getRuntime().availableProcessors() + " processors)" );
+        }
+    }
+
+    private static int countComposites( ApplicationDescriptor model )
+    {
+        final int[] count = { 0 };
+        model.accept( new HierarchicalVisitorAdapter<Object, Object, RuntimeException>()
+        {
+            @Override
+            public boolean visitEnter( Object visited )
+            {
+                if( visited instanceof ModelDescriptor )
+                {
+                    count[ 0 ]++;
+                    return false;
+                }
+                return true;
+            }
+        } );
+        return count[ 0 ];
+    }
+
+    private static class LargeApplicationAssembler
+        implements ApplicationAssembler
+    {
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public ApplicationAssembly assemble( ApplicationAssemblyFactory applicationFactory )
+            throws AssemblyException
+        {
+            ApplicationAssembly assembly = applicationFactory.newApplicationAssembly();
+            assembly.setName( "Large" );
+            LayerAssembly previous = null;
+            for( int layerIdx = 0; layerIdx < LAYERS; layerIdx++ )
+            {
+                LayerAssembly layer = assembly.layer( "Layer " + layerIdx );
+                if( previous != null )
+                {
+                    layer.uses( previous );
+                }
+                for( int moduleIdx = 0; moduleIdx < MODULES_PER_LAYER; moduleIdx++ )
+                {
+                    ModuleAssembly module = layer.module( "Module " + moduleIdx );
+                    module.transients( (Class<? extends TransientComposite>[]) TRANSIENTS );
+                    module.values( (Class<? extends ValueComposite>[]) VALUES );
+                    module.services( CounterService.class );
+                }
+                previous = layer;
+            }
+            return assembly;
+        }
+    }
+
+    @Mixins( GreetingMixin.class )
+    public interface Greeting
+    {
+        String greet( String name );
+    }
+
+    public static abstract class GreetingMixin
+        implements Greeting
+    {
+        @Structure
+        Module module;
+
+        @Service
+        Counter counter;
+
+        @Override
+        public String greet( String name )
+        {
+            counter.increment();
+            return "Hello " + name + " from " + module.name();
+        }
+    }
+
+    public interface T0
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T1
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T2
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T3
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T4
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T5
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T6
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T7
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T8
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface T9
+        extends Greeting, TransientComposite
+    {
+    }
+
+    public interface Named
+    {
+        @UseDefaults
+        Property<String> name();
+
+        @UseDefaults
+        Property<Integer> count();
+    }
+
+    public interface V0
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V1
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V2
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V3
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V4
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V5
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V6
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V7
+        extends Named, ValueComposite
+    {
+    }
+
+    public interface V8
+        extends Named, ValueComposite
+    {
+    }
+
+    @Mixins( CounterMixin.class )
+    public interface Counter
+    {
+        void increment();
+    }
+
+    public interface CounterService
+        extends Counter, ServiceComposite
+    {
+    }
+
+    public static class CounterMixin
+        implements Counter
+    {
+        private int count;
+
+        @Override
+        public void increment()
+        {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,759 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.runtime.structure;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.bootstrap.ApplicationAssembler;
+import org.apache.zest.bootstrap.ApplicationAssembly;
+import org.apache.zest.bootstrap.ApplicationAssemblyFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.runtime.bootstrap.SnapshotAssemblyHelper;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests startup performance with a snapshot of the generated fragment classes.
+ * <p>
+ * The application declares 50 transients, each with its own mixin, so that each boot generates 50 fragment
+ * classes. Boots are measured in fresh JVMs, as a new container would start. The snapshot is read from the directory
+ * given by the {@literal zest.snapshot.dir} system property, populated at build time by the {@literal perfSnapshot}
+ * task, or populated here if the property is not set.
+ * </p>
+ */
+public class FragmentSnapshotPerformanceTest
+{
+    private static final Class<?>[] TRANSIENTS =
+        {
+            F00.class, F01.class, F02.class, F03.class, F04.class, F05.class, F06.class, F07.class,
+            F08.class, F09.class, F10.class, F11.class, F12.class, F13.class, F14.class, F15.class,
+            F16.class, F17.class, F18.class, F19.class, F20.class, F21.class, F22.class, F23.class,
+            F24.class, F25.class, F26.class, F27.class, F28.class, F29.class, F30.class, F31.class,
+            F32.class, F33.class, F34.class, F35.class, F36.class, F37.class, F38.class, F39.class,
+            F40.class, F41.class, F42.class, F43.class, F44.class, F45.class, F46.class, F47.class,
+            F48.class, F49.class
+        };
+
+    @Test
+    public void snapshotStartupPerformance()
+        throws Exception
+    {
+        String property = System.getProperty( "zest.snapshot.dir" );
+        File snapshot;
+        if( property != null )
+        {
+            snapshot = new File( property );
+        }
+        else
+        {
+            snapshot = Files.createTempDirectory( "zest-snapshot" ).toFile();
+            snapshot.deleteOnExit();
+            SnapshotAssemblyHelper.populate( new FragmentApplicationAssembler(), snapshot );
+        }
+        File[] entries = snapshot.listFiles();
+        assertTrue( "Snapshot not populated: " + snapshot, entries != null && entries.length >= TRANSIENTS.length );
+
+        // Alternate the two kinds of boot so that disk caches and machine load affect both alike
+        int rounds = 15;
+        long[] generated = new long[ rounds ];
+        long[] snapshotted = new long[ rounds ];
+        for( int i = 0; i < rounds; i++ )
+        {
+            generated[ i ] = bootInFreshJvm( null );
+            snapshotted[ i ] = bootInFreshJvm( snapshot );
+        }
+        Arrays.sort( generated );
+        Arrays.sort( snapshotted );
+        long withoutSnapshot = generated[ rounds / 2 ];
+        long withSnapshot = snapshotted[ rounds / 2 ];
+        System.out.println( "Application model of " + TRANSIENTS.length + " fragments built in a fresh JVM in "
+                            + withoutSnapshot + " ms generating fragment classes and in " + withSnapshot
+                            + " ms from the snapshot, " + ( withoutSnapshot - withSnapshot ) + " ms saved"
+                            + " (medians of " + rounds + ")" );
+    }
+
+    private static long bootInFreshJvm( File snapshot )
+        throws IOException, InterruptedException
+    {
+        List<String> command = new ArrayList<>();
+        command.add( new File( System.getProperty( "java.home" ), "bin/java" ).getPath() );
+        command.add( "-cp" );
+        command.add( System.getProperty( "java.class.path" ) );
+        command.add( FragmentSnapshotPerformanceTest.class.getName() );
+        if( snapshot != null )
+        {
+            command.add( snapshot.getPath() );
+        }
+        Process process = new ProcessBuilder( command ).redirectErrorStream( true ).start();
+        String last = null;
+        try( BufferedReader output = new BufferedReader( new InputStreamReader( process.getInputStream(), UTF_8 ) ) )
+        {
+            String line;
+            while( ( line = output.readLine() ) != null )
+            {
+                last = line;
+            }
+        }
+        assertEquals( "Boot failed: " + last, 0, process.waitFor() );
+        return Long.parseLong( last );
+    }
+
+    /**
+     * Build the application model once and print the time it took in milliseconds.
+     *
+     * @param args optional fragment class snapshot directory
+     *
+     * @throws AssemblyException if the application model could not be created
+     */
+    public static void main( String[] args )
+        throws AssemblyException
+    {
+        long start = System.nanoTime();
+        new Energy4Java().newApplicationModel(
+            new FragmentApplicationAssembler( args.length > 0 ? new File( args[ 0 ] ) : null ) );
+        System.out.println( ( System.nanoTime() - start ) / 1000000L );
+    }
+
+    public static class FragmentApplicationAssembler
+        implements ApplicationAssembler
+    {
+        private final File snapshot;
+
+        public FragmentApplicationAssembler()
+        {
+            this( null );
+        }
+
+        public FragmentApplicationAssembler( File snapshot )
+        {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public ApplicationAssembly assemble( ApplicationAssemblyFactory applicationFactory )
+            throws AssemblyException
+        {
+            ApplicationAssembly assembly = applicationFactory.newApplicationAssembly();
+            assembly.setName( "Fragments" );
+            if( snapshot != null )
+            {
+                assembly.setMetaInfo( new SnapshotAssemblyHelper( snapshot ) );
+            }
+            ModuleAssembly module = assembly.layer( "Layer" ).module( "Module" );
+            module.transients( (Class<? extends TransientComposite>[]) TRANSIENTS );
+            return assembly;
+        }
+    }
+
+    public interface Counting
+    {
+        int increment();
+
+        String describe( String name );
+    }
+
+    public static abstract class CountingMixin
+        implements Counting
+    {
+        @Structure
+        Module module;
+
+        private int count;
+
+        @Override
+        public int increment()
+        {
+            return ++count;
+        }
+
+        @Override
+        public String describe( String name )
+        {
+            return name + " counted " + count + " in " + module.name();
+        }
+    }
+
+    @Mixins( F00.Mixin.class )
+    public interface F00
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F00
+        {
+        }
+    }
+
+    @Mixins( F01.Mixin.class )
+    public interface F01
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F01
+        {
+        }
+    }
+
+    @Mixins( F02.Mixin.class )
+    public interface F02
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F02
+        {
+        }
+    }
+
+    @Mixins( F03.Mixin.class )
+    public interface F03
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F03
+        {
+        }
+    }
+
+    @Mixins( F04.Mixin.class )
+    public interface F04
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F04
+        {
+        }
+    }
+
+    @Mixins( F05.Mixin.class )
+    public interface F05
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F05
+        {
+        }
+    }
+
+    @Mixins( F06.Mixin.class )
+    public interface F06
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F06
+        {
+        }
+    }
+
+    @Mixins( F07.Mixin.class )
+    public interface F07
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F07
+        {
+        }
+    }
+
+    @Mixins( F08.Mixin.class )
+    public interface F08
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F08
+        {
+        }
+    }
+
+    @Mixins( F09.Mixin.class )
+    public interface F09
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F09
+        {
+        }
+    }
+
+    @Mixins( F10.Mixin.class )
+    public interface F10
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F10
+        {
+        }
+    }
+
+    @Mixins( F11.Mixin.class )
+    public interface F11
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F11
+        {
+        }
+    }
+
+    @Mixins( F12.Mixin.class )
+    public interface F12
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F12
+        {
+        }
+    }
+
+    @Mixins( F13.Mixin.class )
+    public interface F13
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F13
+        {
+        }
+    }
+
+    @Mixins( F14.Mixin.class )
+    public interface F14
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F14
+        {
+        }
+    }
+
+    @Mixins( F15.Mixin.class )
+    public interface F15
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F15
+        {
+        }
+    }
+
+    @Mixins( F16.Mixin.class )
+    public interface F16
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F16
+        {
+        }
+    }
+
+    @Mixins( F17.Mixin.class )
+    public interface F17
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F17
+        {
+        }
+    }
+
+    @Mixins( F18.Mixin.class )
+    public interface F18
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F18
+        {
+        }
+    }
+
+    @Mixins( F19.Mixin.class )
+    public interface F19
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F19
+        {
+        }
+    }
+
+    @Mixins( F20.Mixin.class )
+    public interface F20
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F20
+        {
+        }
+    }
+
+    @Mixins( F21.Mixin.class )
+    public interface F21
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F21
+        {
+        }
+    }
+
+    @Mixins( F22.Mixin.class )
+    public interface F22
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F22
+        {
+        }
+    }
+
+    @Mixins( F23.Mixin.class )
+    public interface F23
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F23
+        {
+        }
+    }
+
+    @Mixins( F24.Mixin.class )
+    public interface F24
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F24
+        {
+        }
+    }
+
+    @Mixins( F25.Mixin.class )
+    public interface F25
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F25
+        {
+        }
+    }
+
+    @Mixins( F26.Mixin.class )
+    public interface F26
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F26
+        {
+        }
+    }
+
+    @Mixins( F27.Mixin.class )
+    public interface F27
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F27
+        {
+        }
+    }
+
+    @Mixins( F28.Mixin.class )
+    public interface F28
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F28
+        {
+        }
+    }
+
+    @Mixins( F29.Mixin.class )
+    public interface F29
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F29
+        {
+        }
+    }
+
+    @Mixins( F30.Mixin.class )
+    public interface F30
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F30
+        {
+        }
+    }
+
+    @Mixins( F31.Mixin.class )
+    public interface F31
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F31
+        {
+        }
+    }
+
+    @Mixins( F32.Mixin.class )
+    public interface F32
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F32
+        {
+        }
+    }
+
+    @Mixins( F33.Mixin.class )
+    public interface F33
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F33
+        {
+        }
+    }
+
+    @Mixins( F34.Mixin.class )
+    public interface F34
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F34
+        {
+        }
+    }
+
+    @Mixins( F35.Mixin.class )
+    public interface F35
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F35
+        {
+        }
+    }
+
+    @Mixins( F36.Mixin.class )
+    public interface F36
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F36
+        {
+        }
+    }
+
+    @Mixins( F37.Mixin.class )
+    public interface F37
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F37
+        {
+        }
+    }
+
+    @Mixins( F38.Mixin.class )
+    public interface F38
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F38
+        {
+        }
+    }
+
+    @Mixins( F39.Mixin.class )
+    public interface F39
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F39
+        {
+        }
+    }
+
+    @Mixins( F40.Mixin.class )
+    public interface F40
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F40
+        {
+        }
+    }
+
+    @Mixins( F41.Mixin.class )
+    public interface F41
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F41
+        {
+        }
+    }
+
+    @Mixins( F42.Mixin.class )
+    public interface F42
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F42
+        {
+        }
+    }
+
+    @Mixins( F43.Mixin.class )
+    public interface F43
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F43
+        {
+        }
+    }
+
+    @Mixins( F44.Mixin.class )
+    public interface F44
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F44
+        {
+        }
+    }
+
+    @Mixins( F45.Mixin.class )
+    public interface F45
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F45
+        {
+        }
+    }
+
+    @Mixins( F46.Mixin.class )
+    public interface F46
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F46
+        {
+        }
+    }
+
+    @Mixins( F47.Mixin.class )
+    public interface F47
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F47
+        {
+        }
+    }
+
+    @Mixins( F48.Mixin.class )
+    public interface F48
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F48
+        {
+        }
+    }
+
+    @Mixins( F49.Mixin.class )
+    public interface F49
+        extends Counting, TransientComposite
+    {
+        abstract class Mixin
+            extends CountingMixin
+            implements F49
+        {
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.valueserialization;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.api.value.ValueSerializer;
+import org.apache.zest.bootstrap.Assembler;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.valueserialization.jackson.JacksonValueDeserializer;
+import org.apache.zest.valueserialization.jackson.JacksonValueSerializationAssembler;
+import org.apache.zest.valueserialization.jackson.JacksonValueSerializer;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.apache.zest.valueserialization.stax.StaxValueSerializationAssembler;
+import org.junit.Test;
+
+/**
+ * Measures ValueComposite serialization and deserialization throughput of the ValueSerialization extensions.
+ * <p>
+ * Jackson decodes ValueComposites straight from its parser. It is also measured reading an object tree first, as
+ * the other extensions do, as a baseline for streaming decoding.
+ * </p>
+ */
+public class ValueSerializationPerformanceTest
+{
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void orgjson()
+        throws Exception
+    {
+        run( "OrgJson", new OrgJsonValueSerializationAssembler() );
+    }
+
+    @Test
+    public void jackson()
+        throws Exception
+    {
+        run( "Jackson", new JacksonValueSerializationAssembler() );
+    }
+
+    @Test
+    public void jacksonTreeBaseline()
+        throws Exception
+    {
+        run( "Jackson tree baseline", module -> module.services( TreeJacksonValueSerializationService.class ) );
+    }
+
+    @Test
+    public void stax()
+        throws Exception
+    {
+        run( "StAX", new StaxValueSerializationAssembler() );
+    }
+
+    private void run( String name, Assembler valueSerialization )
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.withDefaultUnitOfWorkFactory();
+                valueSerialization.assemble( module );
+                module.values( Order.class, OrderLine.class );
+            }
+        };
+        try
+        {
+            Module module = assembler.module();
+            ValueSerializer serializer = module.findService( ValueSerializer.class ).get();
+            Order order = newOrder( module );
+            String state = serializer.serialize( order );
+
+            serialize( serializer, order, WARMUP );
+            long start = System.nanoTime();
+            serialize( serializer, order, ITERATIONS );
+            report( name + " serialize", ITERATIONS, start );
+
+            deserialize( module, state, WARMUP );
+            start = System.nanoTime();
+            deserialize( module, state, ITERATIONS );
+            report( name + " deserialize", ITERATIONS, start );
+        }
+        finally
+        {
+            assembler.application().passivate();
+        }
+    }
+
+    private static void serialize( ValueSerializer serializer, Order order, int count )
+    {
+        for( int i = 0; i < count; i++ )
+        {
+            serializer.serialize( order );
+        }
+    }
+
+    private static void deserialize( Module module, String state, int count )
+    {
+        for( int i = 0; i < count; i++ )
+        {
+            module.newValueFromSerializedState( Order.class, state );
+        }
+    }
+
+    private static Order newOrder( Module module )
+    {
+        List<OrderLine> lines = new ArrayList<>();
+        for( int i = 0; i < 5; i++ )
+        {
+            ValueBuilder<OrderLine> line = module.newValueBuilder( OrderLine.class );
+            line.prototype().product().set( "product-" + i );
+            line.prototype().quantity().set( i + 1 );
+            line.prototype().price().set( new BigDecimal( "12.50" ) );
+            lines.add( line.newInstance() );
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put( "channel", "web" );
+        attributes.put( "campaign", "autumn" );
+
+        ValueBuilder<Order> builder = module.newValueBuilder( Order.class );
+        builder.prototype().reference().set( "order-4711" );
+        builder.prototype().customer().set( "customer-42" );
+        builder.prototype().created().set( Instant.parse( "2016-05-04T13:24:35Z" ) );
+        builder.prototype().lines().set( lines );
+        builder.prototype().attributes().set( attributes );
+        return builder.newInstance();
+    }
+
+    private static void report( String name, long count, long start )
+    {
+        long time = Math.max( 1, ( System.nanoTime() - start ) / 1000000 );
+        System.out.println( name + ", values per second: "
+                            + NumberFormat.getIntegerInstance().format( count * 1000 / time ) );
+    }
+
+    @Mixins( { JacksonValueSerializer.class, TreeJacksonValueDeserializer.class } )
+    public interface TreeJacksonValueSerializationService
+        extends ValueSerialization
+    {
+    }
+
+    /**
+     * Jackson deserializer reading ValueComposites as an object tree first.
+     */
+    public static class TreeJacksonValueDeserializer
+        extends JacksonValueDeserializer
+    {
+        @Override
+        protected boolean canReadObjectFields()
+        {
+            return false;
+        }
+    }
+
+    public interface Order
+    {
+        Property<String> reference();
+
+        Property<String> customer();
+
+        Property<Instant> created();
+
+        Property<List<OrderLine>> lines();
+
+        Property<Map<String, String>> attributes();
+
+        @Optional
+        Property<String> note();
+    }
+
+    public interface OrderLine
+    {
+        Property<String> product();
+
+        Property<Integer> quantity();
+
+        Property<BigDecimal> price();
+    }
+}